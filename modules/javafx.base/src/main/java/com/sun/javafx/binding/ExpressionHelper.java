@@ -26,10 +26,18 @@
 package com.sun.javafx.binding;
 
 import javafx.beans.InvalidationListener;
+import javafx.beans.WeakListener;
 import javafx.beans.value.ChangeListener;
+import javafx.beans.value.ObservableDoubleValue;
+import javafx.beans.value.ObservableFloatValue;
+import javafx.beans.value.ObservableIntegerValue;
+import javafx.beans.value.ObservableLongValue;
 import javafx.beans.value.ObservableValue;
 
 import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Set;
 
 /**
  * A convenience class for creating implementations of {@link javafx.beans.value.ObservableValue}.
@@ -39,6 +47,10 @@ import java.util.Arrays;
  * This implementation can handle adding and removing listeners while the
  * observers are being notified, but it is not thread-safe.
  *
+ * Change listeners receive the values as objects, as declared by
+ * {@link ChangeListener}, so the value of a primitive observable is boxed
+ * once for each change that is notified (see {@code getCurrentValue}).
+ *
  *
  */
 public abstract class ExpressionHelper<T> extends ExpressionHelperBase {
@@ -51,36 +63,118 @@ public abstract class ExpressionHelper<T> extends ExpressionHelperBase {
             throw new NullPointerException();
         }
         observable.getValue(); // validate observable
-        return (helper == null)? new SingleInvalidation<T>(observable, listener) : helper.addListener(listener);
+        return (helper == null)? new SingleInvalidation<T>(observable, listener) : replaced(helper, helper.addListener(listener));
     }
 
     public static <T> ExpressionHelper<T> removeListener(ExpressionHelper<T> helper, InvalidationListener listener) {
         if (listener == null) {
             throw new NullPointerException();
         }
-        return (helper == null)? null : helper.removeListener(listener);
+        return (helper == null)? null : replaced(helper, helper.removeListener(listener));
     }
 
     public static <T> ExpressionHelper<T> addListener(ExpressionHelper<T> helper, ObservableValue<T> observable, ChangeListener<? super T> listener) {
         if ((observable == null) || (listener == null)) {
             throw new NullPointerException();
         }
-        return (helper == null)? new SingleChange<T>(observable, listener) : helper.addListener(listener);
+        return (helper == null)? new SingleChange<T>(observable, listener) : replaced(helper, helper.addListener(listener));
     }
 
     public static <T> ExpressionHelper<T> removeListener(ExpressionHelper<T> helper, ChangeListener<? super T> listener) {
         if (listener == null) {
             throw new NullPointerException();
         }
-        return (helper == null)? null : helper.removeListener(listener);
+        return (helper == null)? null : replaced(helper, helper.removeListener(listener));
     }
 
     public static <T> void fireValueChangedEvent(ExpressionHelper<T> helper) {
         if (helper != null) {
+            // only reads the map of thread locals of the current thread
+            final Batch batch = BATCH.get();
+            if (batch != null) {
+                helper.fireInvalidationEvent();
+                if (helper.hasChangeListeners()) {
+                    batch.pending.add(helper);
+                }
+                return;
+            }
             helper.fireValueChangedEvent();
         }
     }
 
+    ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
+    // Batches
+
+    /**
+     * The change notifications deferred by the batch of a thread. Each helper
+     * notifies its change listeners once, in the order of its first
+     * invalidation in the batch.
+     */
+    private static class Batch {
+        private final Set<ExpressionHelper<?>> pending = new LinkedHashSet<>();
+        private int depth;
+    }
+
+    private static final ThreadLocal<Batch> BATCH = new ThreadLocal<>();
+
+    /**
+     * Starts deferring the change notifications of the observable values of
+     * the current thread until the matching call to {@link #endBatch()}.
+     * Invalidation listeners are still notified immediately, so bindings are
+     * invalidated as usual. Batches can be nested.
+     */
+    public static void beginBatch() {
+        Batch batch = BATCH.get();
+        if (batch == null) {
+            batch = new Batch();
+            BATCH.set(batch);
+        }
+        batch.depth++;
+    }
+
+    /**
+     * Ends a batch. When the outermost batch ends, the change listeners of
+     * the invalidated observable values are notified. The changes they cause
+     * in turn are deferred to the end of the same round, so that the change
+     * listeners of a value that several changed values depend on are notified
+     * only once, with a value computed from all of them.
+     */
+    public static void endBatch() {
+        final Batch batch = BATCH.get();
+        if (batch == null) {
+            throw new IllegalStateException("endBatch called without beginBatch");
+        }
+        if (batch.depth > 1) {
+            batch.depth--;
+            return;
+        }
+        try {
+            while (!batch.pending.isEmpty()) {
+                final Iterator<ExpressionHelper<?>> iterator = batch.pending.iterator();
+                final ExpressionHelper<?> helper = iterator.next();
+                iterator.remove();
+                helper.fireChangeEvent();
+            }
+        } finally {
+            batch.depth--;
+            BATCH.remove();
+        }
+    }
+
+    /**
+     * Makes a pending notification of a helper follow the helper that
+     * replaced it after its listeners have changed.
+     */
+    private static <T> ExpressionHelper<T> replaced(ExpressionHelper<T> oldHelper, ExpressionHelper<T> newHelper) {
+        if (oldHelper != newHelper) {
+            final Batch batch = BATCH.get();
+            if ((batch != null) && batch.pending.remove(oldHelper) && (newHelper != null) && newHelper.hasChangeListeners()) {
+                batch.pending.add(newHelper);
+            }
+        }
+        return newHelper;
+    }
+
     ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
     // Common implementations
 
@@ -98,6 +192,39 @@ public abstract class ExpressionHelper<T> extends ExpressionHelperBase {
 
     protected abstract void fireValueChangedEvent();
 
+    // notifications in batches: the invalidation listeners are notified immediately,
+    // the change listeners once the batch has ended
+    protected abstract void fireInvalidationEvent();
+    protected abstract boolean hasChangeListeners();
+    protected abstract void fireChangeEvent();
+
+    /**
+     * Returns the value of the observable, or {@code oldValue} itself if the
+     * observable holds a primitive value equal to it. This way, notifying the
+     * change listeners of a primitive observable does not box its value unless
+     * it has changed.
+     */
+    private static <T> T getCurrentValue(ObservableValue<T> observable, T oldValue) {
+        if (oldValue instanceof Double && observable instanceof ObservableDoubleValue) {
+            if (Double.compare(((ObservableDoubleValue) observable).get(), (Double) oldValue) == 0) {
+                return oldValue;
+            }
+        } else if (oldValue instanceof Integer && observable instanceof ObservableIntegerValue) {
+            if (((ObservableIntegerValue) observable).get() == (Integer) oldValue) {
+                return oldValue;
+            }
+        } else if (oldValue instanceof Long && observable instanceof ObservableLongValue) {
+            if (((ObservableLongValue) observable).get() == (Long) oldValue) {
+                return oldValue;
+            }
+        } else if (oldValue instanceof Float && observable instanceof ObservableFloatValue) {
+            if (Float.compare(((ObservableFloatValue) observable).get(), (Float) oldValue) == 0) {
+                return oldValue;
+            }
+        }
+        return observable.getValue();
+    }
+
     ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
     // Implementations
 
@@ -138,6 +265,20 @@ public abstract class ExpressionHelper<T> extends ExpressionHelperBase {
                 Thread.currentThread().getUncaughtExceptionHandler().uncaughtException(Thread.currentThread(), e);
             }
         }
+
+        @Override
+        protected void fireInvalidationEvent() {
+            fireValueChangedEvent();
+        }
+
+        @Override
+        protected boolean hasChangeListeners() {
+            return false;
+        }
+
+        @Override
+        protected void fireChangeEvent() {
+        }
     }
 
     private static class SingleChange<T> extends ExpressionHelper<T> {
@@ -153,7 +294,7 @@ public abstract class ExpressionHelper<T> extends ExpressionHelperBase {
 
         @Override
         protected ExpressionHelper<T> addListener(InvalidationListener listener) {
-            return new Generic<T>(observable, listener, this.listener);
+            return withCurrentValue(new Generic<T>(observable, listener, this.listener));
         }
 
         @Override
@@ -163,7 +304,13 @@ public abstract class ExpressionHelper<T> extends ExpressionHelperBase {
 
         @Override
         protected ExpressionHelper<T> addListener(ChangeListener<? super T> listener) {
-            return new Generic<T>(observable, this.listener, listener);
+            return withCurrentValue(new Generic<T>(observable, this.listener, listener));
+        }
+
+        // the value may have changed in a batch that has not notified the listener yet
+        private Generic<T> withCurrentValue(Generic<T> helper) {
+            helper.currentValue = currentValue;
+            return helper;
         }
 
         @Override
@@ -174,8 +321,8 @@ public abstract class ExpressionHelper<T> extends ExpressionHelperBase {
         @Override
         protected void fireValueChangedEvent() {
             final T oldValue = currentValue;
-            currentValue = observable.getValue();
-            final boolean changed = (currentValue == null)? (oldValue != null) : !currentValue.equals(oldValue);
+            currentValue = getCurrentValue(observable, oldValue);
+            final boolean changed = (currentValue == null)? (oldValue != null) : (currentValue != oldValue) && !currentValue.equals(oldValue);
             if (changed) {
                 try {
                     listener.changed(observable, oldValue, currentValue);
@@ -184,91 +331,130 @@ public abstract class ExpressionHelper<T> extends ExpressionHelperBase {
                 }
             }
         }
+
+        @Override
+        protected void fireInvalidationEvent() {
+        }
+
+        @Override
+        protected boolean hasChangeListeners() {
+            return true;
+        }
+
+        @Override
+        protected void fireChangeEvent() {
+            fireValueChangedEvent();
+        }
     }
 
     private static class Generic<T> extends ExpressionHelper<T> {
 
-        private InvalidationListener[] invalidationListeners;
-        private ChangeListener<? super T>[] changeListeners;
+        // the invalidation listeners, followed by the change listeners
+        private Object[] listeners;
         private int invalidationSize;
         private int changeSize;
-        private boolean locked;
+        private int lockCount;
         private T currentValue;
 
         private Generic(ObservableValue<T> observable, InvalidationListener listener0, InvalidationListener listener1) {
             super(observable);
-            this.invalidationListeners = new InvalidationListener[] {listener0, listener1};
+            this.listeners = new Object[] {listener0, listener1};
             this.invalidationSize = 2;
         }
 
         private Generic(ObservableValue<T> observable, ChangeListener<? super T> listener0, ChangeListener<? super T> listener1) {
             super(observable);
-            this.changeListeners = new ChangeListener[] {listener0, listener1};
+            this.listeners = new Object[] {listener0, listener1};
             this.changeSize = 2;
             this.currentValue = observable.getValue();
         }
 
         private Generic(ObservableValue<T> observable, InvalidationListener invalidationListener, ChangeListener<? super T> changeListener) {
             super(observable);
-            this.invalidationListeners = new InvalidationListener[] {invalidationListener};
+            this.listeners = new Object[] {invalidationListener, changeListener};
             this.invalidationSize = 1;
-            this.changeListeners = new ChangeListener[] {changeListener};
             this.changeSize = 1;
             this.currentValue = observable.getValue();
         }
 
-        @Override
-        protected Generic<T> addListener(InvalidationListener listener) {
-            if (invalidationListeners == null) {
-                invalidationListeners = new InvalidationListener[] {listener};
-                invalidationSize = 1;
-            } else {
-                final int oldCapacity = invalidationListeners.length;
-                if (locked) {
-                    final int newCapacity = (invalidationSize < oldCapacity)? oldCapacity : (oldCapacity * 3)/2 + 1;
-                    invalidationListeners = Arrays.copyOf(invalidationListeners, newCapacity);
-                } else if (invalidationSize == oldCapacity) {
-                    invalidationSize = trim(invalidationSize, invalidationListeners);
-                    if (invalidationSize == oldCapacity) {
-                        final int newCapacity = (oldCapacity * 3)/2 + 1;
-                        invalidationListeners = Arrays.copyOf(invalidationListeners, newCapacity);
+        /**
+         * Makes room for one more listener. The array is copied if it is being
+         * iterated by a notification, so that the notification is not affected.
+         */
+        private void ensureCapacity() {
+            final int size = invalidationSize + changeSize;
+            final int oldCapacity = listeners.length;
+            if (lockCount > 0) {
+                final int newCapacity = (size < oldCapacity)? oldCapacity : (oldCapacity * 3)/2 + 1;
+                listeners = Arrays.copyOf(listeners, newCapacity);
+            } else if (size == oldCapacity) {
+                trim();
+                if (invalidationSize + changeSize == oldCapacity) {
+                    final int newCapacity = (oldCapacity * 3)/2 + 1;
+                    listeners = Arrays.copyOf(listeners, newCapacity);
+                }
+            }
+        }
+
+        // removes the garbage collected weak listeners of both kinds
+        private void trim() {
+            final int size = invalidationSize + changeSize;
+            int newSize = 0;
+            int newInvalidationSize = 0;
+            for (int index = 0; index < size; index++) {
+                final Object listener = listeners[index];
+                if (!(listener instanceof WeakListener) || !((WeakListener)listener).wasGarbageCollected()) {
+                    listeners[newSize++] = listener;
+                    if (index < invalidationSize) {
+                        newInvalidationSize++;
                     }
                 }
-                invalidationListeners[invalidationSize++] = listener;
             }
+            Arrays.fill(listeners, newSize, size, null);
+            invalidationSize = newInvalidationSize;
+            changeSize = newSize - newInvalidationSize;
+        }
+
+        /**
+         * Removes the listener at the given index, copying the array if it is
+         * being iterated by a notification.
+         */
+        private void remove(int index) {
+            final int size = invalidationSize + changeSize;
+            final int numMoved = size - index - 1;
+            final Object[] oldListeners = listeners;
+            if (lockCount > 0) {
+                listeners = new Object[listeners.length];
+                System.arraycopy(oldListeners, 0, listeners, 0, index);
+            }
+            if (numMoved > 0) {
+                System.arraycopy(oldListeners, index+1, listeners, index, numMoved);
+            }
+            if (lockCount == 0) {
+                listeners[size - 1] = null; // Let gc do its work
+            }
+        }
+
+        @Override
+        protected Generic<T> addListener(InvalidationListener listener) {
+            ensureCapacity();
+            System.arraycopy(listeners, invalidationSize, listeners, invalidationSize + 1, changeSize);
+            listeners[invalidationSize++] = listener;
             return this;
         }
 
         @Override
         protected ExpressionHelper<T> removeListener(InvalidationListener listener) {
-            if (invalidationListeners != null) {
-                for (int index = 0; index < invalidationSize; index++) {
-                    if (listener.equals(invalidationListeners[index])) {
-                        if (invalidationSize == 1) {
-                            if (changeSize == 1) {
-                                return new SingleChange<T>(observable, changeListeners[0]);
-                            }
-                            invalidationListeners = null;
-                            invalidationSize = 0;
-                        } else if ((invalidationSize == 2) && (changeSize == 0)) {
-                            return new SingleInvalidation<T>(observable, invalidationListeners[1-index]);
-                        } else {
-                            final int numMoved = invalidationSize - index - 1;
-                            final InvalidationListener[] oldListeners = invalidationListeners;
-                            if (locked) {
-                                invalidationListeners = new InvalidationListener[invalidationListeners.length];
-                                System.arraycopy(oldListeners, 0, invalidationListeners, 0, index);
-                            }
-                            if (numMoved > 0) {
-                                System.arraycopy(oldListeners, index+1, invalidationListeners, index, numMoved);
-                            }
-                            invalidationSize--;
-                            if (!locked) {
-                                invalidationListeners[invalidationSize] = null; // Let gc do its work
-                            }
-                        }
-                        break;
+            for (int index = 0; index < invalidationSize; index++) {
+                if (listener.equals(listeners[index])) {
+                    if ((invalidationSize == 1) && (changeSize == 1)) {
+                        return withCurrentValue(new SingleChange<T>(observable, getChangeListener(listeners, 1)));
+                    } else if ((invalidationSize == 2) && (changeSize == 0)) {
+                        return new SingleInvalidation<T>(observable, (InvalidationListener) listeners[1-index]);
                     }
+                    remove(index);
+                    invalidationSize--;
+                    break;
                 }
             }
             return this;
@@ -276,23 +462,8 @@ public abstract class ExpressionHelper<T> extends ExpressionHelperBase {
 
         @Override
         protected ExpressionHelper<T> addListener(ChangeListener<? super T> listener) {
-            if (changeListeners == null) {
-                changeListeners = new ChangeListener[] {listener};
-                changeSize = 1;
-            } else {
-                final int oldCapacity = changeListeners.length;
-                if (locked) {
-                    final int newCapacity = (changeSize < oldCapacity)? oldCapacity : (oldCapacity * 3)/2 + 1;
-                    changeListeners = Arrays.copyOf(changeListeners, newCapacity);
-                } else if (changeSize == oldCapacity) {
-                    changeSize = trim(changeSize, changeListeners);
-                    if (changeSize == oldCapacity) {
-                        final int newCapacity = (oldCapacity * 3)/2 + 1;
-                        changeListeners = Arrays.copyOf(changeListeners, newCapacity);
-                    }
-                }
-                changeListeners[changeSize++] = listener;
-            }
+            ensureCapacity();
+            listeners[invalidationSize + changeSize++] = listener;
             if (changeSize == 1) {
                 currentValue = observable.getValue();
             }
@@ -301,71 +472,97 @@ public abstract class ExpressionHelper<T> extends ExpressionHelperBase {
 
         @Override
         protected ExpressionHelper<T> removeListener(ChangeListener<? super T> listener) {
-            if (changeListeners != null) {
-                for (int index = 0; index < changeSize; index++) {
-                    if (listener.equals(changeListeners[index])) {
-                        if (changeSize == 1) {
-                            if (invalidationSize == 1) {
-                                return new SingleInvalidation<T>(observable, invalidationListeners[0]);
-                            }
-                            changeListeners = null;
-                            changeSize = 0;
-                        } else if ((changeSize == 2) && (invalidationSize == 0)) {
-                            return new SingleChange<T>(observable, changeListeners[1-index]);
-                        } else {
-                            final int numMoved = changeSize - index - 1;
-                            final ChangeListener<? super T>[] oldListeners = changeListeners;
-                            if (locked) {
-                                changeListeners = new ChangeListener[changeListeners.length];
-                                System.arraycopy(oldListeners, 0, changeListeners, 0, index);
-                            }
-                            if (numMoved > 0) {
-                                System.arraycopy(oldListeners, index+1, changeListeners, index, numMoved);
-                            }
-                            changeSize--;
-                            if (!locked) {
-                                changeListeners[changeSize] = null; // Let gc do its work
-                            }
-                        }
-                        break;
+            for (int index = invalidationSize; index < invalidationSize + changeSize; index++) {
+                if (listener.equals(listeners[index])) {
+                    if ((changeSize == 1) && (invalidationSize == 1)) {
+                        return new SingleInvalidation<T>(observable, (InvalidationListener) listeners[0]);
+                    } else if ((changeSize == 2) && (invalidationSize == 0)) {
+                        return withCurrentValue(new SingleChange<T>(observable, getChangeListener(listeners, 1-index)));
                     }
+                    remove(index);
+                    changeSize--;
+                    break;
                 }
             }
             return this;
         }
 
+        @SuppressWarnings("unchecked")
+        private ChangeListener<? super T> getChangeListener(Object[] array, int index) {
+            return (ChangeListener<? super T>) array[index];
+        }
+
+        // the value may have changed in a batch that has not notified the listeners yet
+        private SingleChange<T> withCurrentValue(SingleChange<T> helper) {
+            helper.currentValue = currentValue;
+            return helper;
+        }
+
         @Override
         protected void fireValueChangedEvent() {
-            final InvalidationListener[] curInvalidationList = invalidationListeners;
+            final Object[] curListeners = listeners;
             final int curInvalidationSize = invalidationSize;
-            final ChangeListener<? super T>[] curChangeList = changeListeners;
             final int curChangeSize = changeSize;
 
             try {
-                locked = true;
-                for (int i = 0; i < curInvalidationSize; i++) {
-                    try {
-                        curInvalidationList[i].invalidated(observable);
-                    } catch (Exception e) {
-                        Thread.currentThread().getUncaughtExceptionHandler().uncaughtException(Thread.currentThread(), e);
-                    }
+                lockCount++;
+                notifyInvalidationListeners(curListeners, curInvalidationSize);
+                notifyChangeListeners(curListeners, curInvalidationSize, curChangeSize);
+            } finally {
+                lockCount--;
+            }
+        }
+
+        @Override
+        protected void fireInvalidationEvent() {
+            try {
+                lockCount++;
+                notifyInvalidationListeners(listeners, invalidationSize);
+            } finally {
+                lockCount--;
+            }
+        }
+
+        @Override
+        protected boolean hasChangeListeners() {
+            return changeSize > 0;
+        }
+
+        @Override
+        protected void fireChangeEvent() {
+            try {
+                lockCount++;
+                notifyChangeListeners(listeners, invalidationSize, changeSize);
+            } finally {
+                lockCount--;
+            }
+        }
+
+        private void notifyInvalidationListeners(Object[] curListeners, int curInvalidationSize) {
+            for (int i = 0; i < curInvalidationSize; i++) {
+                try {
+                    ((InvalidationListener) curListeners[i]).invalidated(observable);
+                } catch (Exception e) {
+                    Thread.currentThread().getUncaughtExceptionHandler().uncaughtException(Thread.currentThread(), e);
                 }
-                if (curChangeSize > 0) {
-                    final T oldValue = currentValue;
-                    currentValue = observable.getValue();
-                    final boolean changed = (currentValue == null)? (oldValue != null) : !currentValue.equals(oldValue);
-                    if (changed) {
-                        for (int i = 0; i < curChangeSize; i++) {
-                            try {
-                                curChangeList[i].changed(observable, oldValue, currentValue);
-                            } catch (Exception e) {
-                                Thread.currentThread().getUncaughtExceptionHandler().uncaughtException(Thread.currentThread(), e);
-                            }
+            }
+        }
+
+        private void notifyChangeListeners(Object[] curListeners, int curInvalidationSize, int curChangeSize) {
+            if (curChangeSize > 0) {
+                final T oldValue = currentValue;
+                currentValue = getCurrentValue(observable, oldValue);
+                final boolean changed = (currentValue == null)? (oldValue != null) : (currentValue != oldValue) && !currentValue.equals(oldValue);
+                if (changed) {
+                    final int end = curInvalidationSize + curChangeSize;
+                    for (int i = curInvalidationSize; i < end; i++) {
+                        try {
+                            getChangeListener(curListeners, i).changed(observable, oldValue, currentValue);
+                        } catch (Exception e) {
+                            Thread.currentThread().getUncaughtExceptionHandler().uncaughtException(Thread.currentThread(), e);
                         }
                     }
                 }
-            } finally {
-                locked = false;
             }
         }
     }
@@ -25,9 +25,11 @@
 
 package com.sun.javafx.binding;
 
+import com.sun.javafx.collections.MapBulkChange;
 import javafx.beans.InvalidationListener;
 import javafx.beans.value.ChangeListener;
 import javafx.beans.value.ObservableMapValue;
+import javafx.collections.BulkMapChangeListener;
 import javafx.collections.MapChangeListener;
 import javafx.collections.ObservableMap;
 
@@ -96,6 +98,12 @@ public abstract class MapExpressionHelper<K, V> extends ExpressionHelperBase {
         }
     }
 
+    public static <K, V> void fireValueChangedEvent(MapExpressionHelper<K, V> helper, BulkMapChangeListener.BulkChange<? extends K, ? extends V> change) {
+        if (helper != null) {
+            helper.fireValueChangedEvent(change);
+        }
+    }
+
     ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
     // Common implementations
 
@@ -116,6 +124,7 @@ public abstract class MapExpressionHelper<K, V> extends ExpressionHelperBase {
 
     protected abstract void fireValueChangedEvent();
     protected abstract void fireValueChangedEvent(MapChangeListener.Change<? extends K, ? extends V> change);
+    protected abstract void fireValueChangedEvent(BulkMapChangeListener.BulkChange<? extends K, ? extends V> change);
 
     ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
     // Implementations
@@ -168,6 +177,11 @@ public abstract class MapExpressionHelper<K, V> extends ExpressionHelperBase {
         protected void fireValueChangedEvent(MapChangeListener.Change<? extends K, ? extends V> change) {
             listener.invalidated(observable);
         }
+
+        @Override
+        protected void fireValueChangedEvent(BulkMapChangeListener.BulkChange<? extends K, ? extends V> change) {
+            // the listener has been notified of the elementary changes
+        }
     }
 
     private static class SingleChange<K, V> extends MapExpressionHelper<K, V> {
@@ -224,6 +238,11 @@ public abstract class MapExpressionHelper<K, V> extends ExpressionHelperBase {
         protected void fireValueChangedEvent(MapChangeListener.Change<? extends K, ? extends V> change) {
             listener.changed(observable, currentValue, currentValue);
         }
+
+        @Override
+        protected void fireValueChangedEvent(BulkMapChangeListener.BulkChange<? extends K, ? extends V> change) {
+            // the listener has been notified of the elementary changes
+        }
     }
 
     private static class SingleMapChange<K, V> extends MapExpressionHelper<K, V> {
@@ -306,7 +325,21 @@ public abstract class MapExpressionHelper<K, V> extends ExpressionHelperBase {
 
         @Override
         protected void fireValueChangedEvent(final MapChangeListener.Change<? extends K, ? extends V> change) {
-            listener.onChanged(new SimpleChange<K, V>(observable, change));
+            if (MapBulkChange.isNotified(listener, change)) {
+                listener.onChanged(new SimpleChange<K, V>(observable, change));
+            }
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        protected void fireValueChangedEvent(final BulkMapChangeListener.BulkChange<? extends K, ? extends V> change) {
+            if (listener instanceof BulkMapChangeListener) {
+                try {
+                    ((BulkMapChangeListener<? super K, ? super V>) listener).onBulkChanged(new MapBulkChange<K, V>(observable, change.getAdded(), change.getRemoved()));
+                } catch (Exception e) {
+                    Thread.currentThread().getUncaughtExceptionHandler().uncaughtException(Thread.currentThread(), e);
+                }
+            }
         }
     }
 
@@ -318,7 +351,7 @@ public abstract class MapExpressionHelper<K, V> extends ExpressionHelperBase {
         private int invalidationSize;
         private int changeSize;
         private int mapChangeSize;
-        private boolean locked;
+        private int lockCount;
         private ObservableMap<K, V> currentValue;
 
         private Generic(ObservableMapValue<K, V> observable, InvalidationListener listener0, InvalidationListener listener1) {
@@ -375,7 +408,7 @@ public abstract class MapExpressionHelper<K, V> extends ExpressionHelperBase {
                 invalidationSize = 1;
             } else {
                 final int oldCapacity = invalidationListeners.length;
-                if (locked) {
+                if (lockCount > 0) {
                     final int newCapacity = (invalidationSize < oldCapacity)? oldCapacity : (oldCapacity * 3)/2 + 1;
                     invalidationListeners = Arrays.copyOf(invalidationListeners, newCapacity);
                 } else if (invalidationSize == oldCapacity) {
@@ -408,7 +441,7 @@ public abstract class MapExpressionHelper<K, V> extends ExpressionHelperBase {
                         } else {
                             final int numMoved = invalidationSize - index - 1;
                             final InvalidationListener[] oldListeners = invalidationListeners;
-                            if (locked) {
+                            if (lockCount > 0) {
                                 invalidationListeners = new InvalidationListener[invalidationListeners.length];
                                 System.arraycopy(oldListeners, 0, invalidationListeners, 0, index+1);
                             }
@@ -416,7 +449,7 @@ public abstract class MapExpressionHelper<K, V> extends ExpressionHelperBase {
                                 System.arraycopy(oldListeners, index+1, invalidationListeners, index, numMoved);
                             }
                             invalidationSize--;
-                            if (!locked) {
+                            if (lockCount == 0) {
                                 invalidationListeners[invalidationSize] = null; // Let gc do its work
                             }
                         }
@@ -434,7 +467,7 @@ public abstract class MapExpressionHelper<K, V> extends ExpressionHelperBase {
                 changeSize = 1;
             } else {
                 final int oldCapacity = changeListeners.length;
-                if (locked) {
+                if (lockCount > 0) {
                     final int newCapacity = (changeSize < oldCapacity)? oldCapacity : (oldCapacity * 3)/2 + 1;
                     changeListeners = Arrays.copyOf(changeListeners, newCapacity);
                 } else if (changeSize == oldCapacity) {
@@ -470,7 +503,7 @@ public abstract class MapExpressionHelper<K, V> extends ExpressionHelperBase {
                         } else {
                             final int numMoved = changeSize - index - 1;
                             final ChangeListener<? super ObservableMap<K, V>>[] oldListeners = changeListeners;
-                            if (locked) {
+                            if (lockCount > 0) {
                                 changeListeners = new ChangeListener[changeListeners.length];
                                 System.arraycopy(oldListeners, 0, changeListeners, 0, index+1);
                             }
@@ -478,7 +511,7 @@ public abstract class MapExpressionHelper<K, V> extends ExpressionHelperBase {
                                 System.arraycopy(oldListeners, index+1, changeListeners, index, numMoved);
                             }
                             changeSize--;
-                            if (!locked) {
+                            if (lockCount == 0) {
                                 changeListeners[changeSize] = null; // Let gc do its work
                             }
                         }
@@ -496,7 +529,7 @@ public abstract class MapExpressionHelper<K, V> extends ExpressionHelperBase {
                 mapChangeSize = 1;
             } else {
                 final int oldCapacity = mapChangeListeners.length;
-                if (locked) {
+                if (lockCount > 0) {
                     final int newCapacity = (mapChangeSize < oldCapacity)? oldCapacity : (oldCapacity * 3)/2 + 1;
                     mapChangeListeners = Arrays.copyOf(mapChangeListeners, newCapacity);
                 } else if (mapChangeSize == oldCapacity) {
@@ -532,7 +565,7 @@ public abstract class MapExpressionHelper<K, V> extends ExpressionHelperBase {
                         } else {
                             final int numMoved = mapChangeSize - index - 1;
                             final MapChangeListener<? super K, ? super V>[] oldListeners = mapChangeListeners;
-                            if (locked) {
+                            if (lockCount > 0) {
                                 mapChangeListeners = new MapChangeListener[mapChangeListeners.length];
                                 System.arraycopy(oldListeners, 0, mapChangeListeners, 0, index+1);
                             }
@@ -540,7 +573,7 @@ public abstract class MapExpressionHelper<K, V> extends ExpressionHelperBase {
                                 System.arraycopy(oldListeners, index+1, mapChangeListeners, index, numMoved);
                             }
                             mapChangeSize--;
-                            if (!locked) {
+                            if (lockCount == 0) {
                                 mapChangeListeners[mapChangeSize] = null; // Let gc do its work
                             }
                         }
@@ -568,6 +601,31 @@ public abstract class MapExpressionHelper<K, V> extends ExpressionHelperBase {
             notifyListeners(currentValue, mappedChange);
         }
 
+        @Override
+        @SuppressWarnings("unchecked")
+        protected void fireValueChangedEvent(final BulkMapChangeListener.BulkChange<? extends K, ? extends V> change) {
+            final MapChangeListener<? super K, ? super V>[] curListChangeList = mapChangeListeners;
+            final int curListChangeSize = mapChangeSize;
+            try {
+                lockCount++;
+                MapBulkChange<K, V> mappedChange = null;
+                for (int i = 0; i < curListChangeSize; i++) {
+                    if (curListChangeList[i] instanceof BulkMapChangeListener) {
+                        if (mappedChange == null) {
+                            mappedChange = new MapBulkChange<K, V>(observable, change.getAdded(), change.getRemoved());
+                        }
+                        try {
+                            ((BulkMapChangeListener<? super K, ? super V>) curListChangeList[i]).onBulkChanged(mappedChange);
+                        } catch (Exception e) {
+                            Thread.currentThread().getUncaughtExceptionHandler().uncaughtException(Thread.currentThread(), e);
+                        }
+                    }
+                }
+            } finally {
+                lockCount--;
+            }
+        }
+
         private void notifyListeners(ObservableMap<K, V> oldValue, SimpleChange<K, V> change) {
             final InvalidationListener[] curInvalidationList = invalidationListeners;
             final int curInvalidationSize = invalidationSize;
@@ -576,7 +634,7 @@ public abstract class MapExpressionHelper<K, V> extends ExpressionHelperBase {
             final MapChangeListener<? super K, ? super V>[] curListChangeList = mapChangeListeners;
             final int curListChangeSize = mapChangeSize;
             try {
-                locked = true;
+                lockCount++;
                 for (int i = 0; i < curInvalidationSize; i++) {
                     curInvalidationList[i].invalidated(observable);
                 }
@@ -587,7 +645,9 @@ public abstract class MapExpressionHelper<K, V> extends ExpressionHelperBase {
                     if (curListChangeSize > 0) {
                         if (change != null) {
                             for (int i = 0; i < curListChangeSize; i++) {
-                                curListChangeList[i].onChanged(change);
+                                if (MapBulkChange.isNotified(curListChangeList[i], change)) {
+                                    curListChangeList[i].onChanged(change);
+                                }
                             }
                         } else {
                             change = new SimpleChange<K, V>(observable);
@@ -638,22 +698,24 @@ public abstract class MapExpressionHelper<K, V> extends ExpressionHelperBase {
                     }
                 }
             } finally {
-                locked = false;
+                lockCount--;
             }
         }
 
     }
 
-    public static class SimpleChange<K, V> extends MapChangeListener.Change<K, V> {
+    public static class SimpleChange<K, V> extends MapChangeListener.Change<K, V> implements MapBulkChange.Part {
 
         private K key;
         private V old;
         private V added;
         private boolean removeOp;
         private boolean addOp;
+        private final boolean partOfBulkChange;
 
         public SimpleChange(ObservableMap<K, V> set) {
             super(set);
+            partOfBulkChange = false;
         }
 
         public SimpleChange(ObservableMap<K, V> set, MapChangeListener.Change<? extends K, ? extends V> source) {
@@ -663,6 +725,7 @@ public abstract class MapExpressionHelper<K, V> extends ExpressionHelperBase {
             added = source.getValueAdded();
             addOp = source.wasAdded();
             removeOp = source.wasRemoved();
+            partOfBulkChange = MapBulkChange.isPartOfBulkChange(source);
         }
 
         public SimpleChange<K, V> setRemoved(K key, V old) {
@@ -692,6 +755,11 @@ public abstract class MapExpressionHelper<K, V> extends ExpressionHelperBase {
             return this;
         }
 
+        @Override
+        public boolean isPartOfBulkChange() {
+            return partOfBulkChange;
+        }
+
         @Override
         public boolean wasAdded() {
             return addOp;
@@ -25,10 +25,12 @@
 
 package com.sun.javafx.binding;
 
+import com.sun.javafx.collections.SetBulkChange;
 import javafx.beans.InvalidationListener;
 import javafx.beans.value.ChangeListener;
 import javafx.beans.value.ObservableSetValue;
 import javafx.collections.ObservableSet;
+import javafx.collections.BulkSetChangeListener;
 import javafx.collections.SetChangeListener;
 
 import java.util.Arrays;
@@ -95,6 +97,12 @@ public abstract class SetExpressionHelper<E> extends ExpressionHelperBase {
         }
     }
 
+    public static <E> void fireValueChangedEvent(SetExpressionHelper<E> helper, BulkSetChangeListener.BulkChange<? extends E> change) {
+        if (helper != null) {
+            helper.fireValueChangedEvent(change);
+        }
+    }
+
     ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
     // Common implementations
 
@@ -115,6 +123,7 @@ public abstract class SetExpressionHelper<E> extends ExpressionHelperBase {
 
     protected abstract void fireValueChangedEvent();
     protected abstract void fireValueChangedEvent(SetChangeListener.Change<? extends E> change);
+    protected abstract void fireValueChangedEvent(BulkSetChangeListener.BulkChange<? extends E> change);
 
     ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
     // Implementations
@@ -167,6 +176,11 @@ public abstract class SetExpressionHelper<E> extends ExpressionHelperBase {
         protected void fireValueChangedEvent(SetChangeListener.Change<? extends E> change) {
             listener.invalidated(observable);
         }
+
+        @Override
+        protected void fireValueChangedEvent(BulkSetChangeListener.BulkChange<? extends E> change) {
+            // the listener has been notified of the elementary changes
+        }
     }
 
     private static class SingleChange<E> extends SetExpressionHelper<E> {
@@ -223,6 +237,11 @@ public abstract class SetExpressionHelper<E> extends ExpressionHelperBase {
         protected void fireValueChangedEvent(SetChangeListener.Change<? extends E> change) {
             listener.changed(observable, currentValue, currentValue);
         }
+
+        @Override
+        protected void fireValueChangedEvent(BulkSetChangeListener.BulkChange<? extends E> change) {
+            // the listener has been notified of the elementary changes
+        }
     }
 
     private static class SingleSetChange<E> extends SetExpressionHelper<E> {
@@ -297,7 +316,21 @@ public abstract class SetExpressionHelper<E> extends ExpressionHelperBase {
 
         @Override
         protected void fireValueChangedEvent(final SetChangeListener.Change<? extends E> change) {
-            listener.onChanged(new SimpleChange<E>(observable, change));
+            if (SetBulkChange.isNotified(listener, change)) {
+                listener.onChanged(new SimpleChange<E>(observable, change));
+            }
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        protected void fireValueChangedEvent(final BulkSetChangeListener.BulkChange<? extends E> change) {
+            if (listener instanceof BulkSetChangeListener) {
+                try {
+                    ((BulkSetChangeListener<? super E>) listener).onBulkChanged(new SetBulkChange<E>(observable, change.getAdded(), change.getRemoved()));
+                } catch (Exception e) {
+                    Thread.currentThread().getUncaughtExceptionHandler().uncaughtException(Thread.currentThread(), e);
+                }
+            }
         }
     }
 
@@ -309,7 +342,7 @@ public abstract class SetExpressionHelper<E> extends ExpressionHelperBase {
         private int invalidationSize;
         private int changeSize;
         private int setChangeSize;
-        private boolean locked;
+        private int lockCount;
         private ObservableSet<E> currentValue;
 
         private Generic(ObservableSetValue<E> observable, InvalidationListener listener0, InvalidationListener listener1) {
@@ -366,7 +399,7 @@ public abstract class SetExpressionHelper<E> extends ExpressionHelperBase {
                 invalidationSize = 1;
             } else {
                 final int oldCapacity = invalidationListeners.length;
-                if (locked) {
+                if (lockCount > 0) {
                     final int newCapacity = (invalidationSize < oldCapacity)? oldCapacity : (oldCapacity * 3)/2 + 1;
                     invalidationListeners = Arrays.copyOf(invalidationListeners, newCapacity);
                 } else if (invalidationSize == oldCapacity) {
@@ -399,7 +432,7 @@ public abstract class SetExpressionHelper<E> extends ExpressionHelperBase {
                         } else {
                             final int numMoved = invalidationSize - index - 1;
                             final InvalidationListener[] oldListeners = invalidationListeners;
-                            if (locked) {
+                            if (lockCount > 0) {
                                 invalidationListeners = new InvalidationListener[invalidationListeners.length];
                                 System.arraycopy(oldListeners, 0, invalidationListeners, 0, index+1);
                             }
@@ -407,7 +440,7 @@ public abstract class SetExpressionHelper<E> extends ExpressionHelperBase {
                                 System.arraycopy(oldListeners, index+1, invalidationListeners, index, numMoved);
                             }
                             invalidationSize--;
-                            if (!locked) {
+                            if (lockCount == 0) {
                                 invalidationListeners[invalidationSize] = null; // Let gc do its work
                             }
                         }
@@ -425,7 +458,7 @@ public abstract class SetExpressionHelper<E> extends ExpressionHelperBase {
                 changeSize = 1;
             } else {
                 final int oldCapacity = changeListeners.length;
-                if (locked) {
+                if (lockCount > 0) {
                     final int newCapacity = (changeSize < oldCapacity)? oldCapacity : (oldCapacity * 3)/2 + 1;
                     changeListeners = Arrays.copyOf(changeListeners, newCapacity);
                 } else if (changeSize == oldCapacity) {
@@ -461,7 +494,7 @@ public abstract class SetExpressionHelper<E> extends ExpressionHelperBase {
                         } else {
                             final int numMoved = changeSize - index - 1;
                             final ChangeListener<? super ObservableSet<E>>[] oldListeners = changeListeners;
-                            if (locked) {
+                            if (lockCount > 0) {
                                 changeListeners = new ChangeListener[changeListeners.length];
                                 System.arraycopy(oldListeners, 0, changeListeners, 0, index+1);
                             }
@@ -469,7 +502,7 @@ public abstract class SetExpressionHelper<E> extends ExpressionHelperBase {
                                 System.arraycopy(oldListeners, index+1, changeListeners, index, numMoved);
                             }
                             changeSize--;
-                            if (!locked) {
+                            if (lockCount == 0) {
                                 changeListeners[changeSize] = null; // Let gc do its work
                             }
                         }
@@ -487,7 +520,7 @@ public abstract class SetExpressionHelper<E> extends ExpressionHelperBase {
                 setChangeSize = 1;
             } else {
                 final int oldCapacity = setChangeListeners.length;
-                if (locked) {
+                if (lockCount > 0) {
                     final int newCapacity = (setChangeSize < oldCapacity)? oldCapacity : (oldCapacity * 3)/2 + 1;
                     setChangeListeners = Arrays.copyOf(setChangeListeners, newCapacity);
                 } else if (setChangeSize == oldCapacity) {
@@ -523,7 +556,7 @@ public abstract class SetExpressionHelper<E> extends ExpressionHelperBase {
                         } else {
                             final int numMoved = setChangeSize - index - 1;
                             final SetChangeListener<? super E>[] oldListeners = setChangeListeners;
-                            if (locked) {
+                            if (lockCount > 0) {
                                 setChangeListeners = new SetChangeListener[setChangeListeners.length];
                                 System.arraycopy(oldListeners, 0, setChangeListeners, 0, index+1);
                             }
@@ -531,7 +564,7 @@ public abstract class SetExpressionHelper<E> extends ExpressionHelperBase {
                                 System.arraycopy(oldListeners, index+1, setChangeListeners, index, numMoved);
                             }
                             setChangeSize--;
-                            if (!locked) {
+                            if (lockCount == 0) {
                                 setChangeListeners[setChangeSize] = null; // Let gc do its work
                             }
                         }
@@ -559,6 +592,31 @@ public abstract class SetExpressionHelper<E> extends ExpressionHelperBase {
             notifyListeners(currentValue, mappedChange);
         }
 
+        @Override
+        @SuppressWarnings("unchecked")
+        protected void fireValueChangedEvent(final BulkSetChangeListener.BulkChange<? extends E> change) {
+            final SetChangeListener<? super E>[] curListChangeList = setChangeListeners;
+            final int curListChangeSize = setChangeSize;
+            try {
+                lockCount++;
+                SetBulkChange<E> mappedChange = null;
+                for (int i = 0; i < curListChangeSize; i++) {
+                    if (curListChangeList[i] instanceof BulkSetChangeListener) {
+                        if (mappedChange == null) {
+                            mappedChange = new SetBulkChange<E>(observable, change.getAdded(), change.getRemoved());
+                        }
+                        try {
+                            ((BulkSetChangeListener<? super E>) curListChangeList[i]).onBulkChanged(mappedChange);
+                        } catch (Exception e) {
+                            Thread.currentThread().getUncaughtExceptionHandler().uncaughtException(Thread.currentThread(), e);
+                        }
+                    }
+                }
+            } finally {
+                lockCount--;
+            }
+        }
+
         private void notifyListeners(ObservableSet<E> oldValue, SimpleChange<E> change) {
             final InvalidationListener[] curInvalidationList = invalidationListeners;
             final int curInvalidationSize = invalidationSize;
@@ -567,7 +625,7 @@ public abstract class SetExpressionHelper<E> extends ExpressionHelperBase {
             final SetChangeListener<? super E>[] curListChangeList = setChangeListeners;
             final int curListChangeSize = setChangeSize;
             try {
-                locked = true;
+                lockCount++;
                 for (int i = 0; i < curInvalidationSize; i++) {
                     curInvalidationList[i].invalidated(observable);
                 }
@@ -578,7 +636,9 @@ public abstract class SetExpressionHelper<E> extends ExpressionHelperBase {
                     if (curListChangeSize > 0) {
                         if (change != null) {
                             for (int i = 0; i < curListChangeSize; i++) {
-                                curListChangeList[i].onChanged(change);
+                                if (SetBulkChange.isNotified(curListChangeList[i], change)) {
+                                    curListChangeList[i].onChanged(change);
+                                }
                             }
                         } else {
                             change = new SimpleChange<E>(observable);
@@ -619,20 +679,22 @@ public abstract class SetExpressionHelper<E> extends ExpressionHelperBase {
                     }
                 }
             } finally {
-                locked = false;
+                lockCount--;
             }
         }
 
     }
 
-    public static class SimpleChange<E> extends SetChangeListener.Change<E> {
+    public static class SimpleChange<E> extends SetChangeListener.Change<E> implements SetBulkChange.Part {
 
         private E old;
         private E added;
         private boolean addOp;
+        private final boolean partOfBulkChange;
 
         public SimpleChange(ObservableSet<E> set) {
             super(set);
+            partOfBulkChange = false;
         }
 
         public SimpleChange(ObservableSet<E> set, SetChangeListener.Change<? extends E> source) {
@@ -640,6 +702,7 @@ public abstract class SetExpressionHelper<E> extends ExpressionHelperBase {
             old = source.getElementRemoved();
             added = source.getElementAdded();
             addOp = source.wasAdded();
+            partOfBulkChange = SetBulkChange.isPartOfBulkChange(source);
         }
 
         public SimpleChange<E> setRemoved(E old) {
@@ -656,6 +719,11 @@ public abstract class SetExpressionHelper<E> extends ExpressionHelperBase {
             return this;
         }
 
+        @Override
+        public boolean isPartOfBulkChange() {
+            return partOfBulkChange;
+        }
+
         @Override
         public boolean wasAdded() {
             return addOp;
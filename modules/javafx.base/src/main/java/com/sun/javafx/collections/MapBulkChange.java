@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package com.sun.javafx.collections;
+
+import javafx.collections.BulkMapChangeListener;
+import javafx.collections.MapChangeListener;
+import javafx.collections.ObservableMap;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * A bulk change of an ObservableMap backed by the maps of the added and
+ * the removed entries.
+ */
+public class MapBulkChange<K, V> extends BulkMapChangeListener.BulkChange<K, V> {
+
+    private final Map<K, V> added;
+    private final Map<K, V> removed;
+
+    public MapBulkChange(ObservableMap<K, V> map, Map<? extends K, ? extends V> added, Map<? extends K, ? extends V> removed) {
+        super(map);
+        this.added = Collections.unmodifiableMap(added);
+        this.removed = Collections.unmodifiableMap(removed);
+    }
+
+    @Override
+    public Map<K, V> getAdded() {
+        return added;
+    }
+
+    @Override
+    public Map<K, V> getRemoved() {
+        return removed;
+    }
+
+    @Override
+    public String toString() {
+        return "added " + added + ", removed " + removed;
+    }
+
+    /**
+     * Implemented by the elementary changes of an ObservableMap that can be
+     * part of a bulk operation.
+     */
+    public interface Part {
+
+        /**
+         * Gets whether this change is one of the elementary changes of a bulk
+         * operation. Bulk listeners receive the bulk change instead, once the
+         * operation has completed.
+         *
+         * @return whether this change is part of a bulk change
+         */
+        boolean isPartOfBulkChange();
+    }
+
+    /**
+     * A bulk listener that forwards the changes of a map to the listeners of
+     * a property or binding. It receives the elementary changes of a bulk
+     * operation, so that the plain listeners of the property see them as they
+     * happen, as well as the bulk change that follows them.
+     */
+    public interface Forwarder<K, V> extends BulkMapChangeListener<K, V> {
+    }
+
+    public static boolean isPartOfBulkChange(MapChangeListener.Change<?, ?> change) {
+        return (change instanceof Part) && ((Part) change).isPartOfBulkChange();
+    }
+
+    /**
+     * Gets whether a listener is notified of an elementary change. Bulk
+     * listeners that do not forward the changes skip the elementary changes
+     * of a bulk operation.
+     *
+     * @param listener the listener
+     * @param change the elementary change
+     * @return whether the listener is notified of the change
+     */
+    public static boolean isNotified(MapChangeListener<?, ?> listener, MapChangeListener.Change<?, ?> change) {
+        return !(listener instanceof BulkMapChangeListener) || (listener instanceof Forwarder) || !isPartOfBulkChange(change);
+    }
+}
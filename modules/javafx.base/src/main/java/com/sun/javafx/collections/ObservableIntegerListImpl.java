@@ -0,0 +1,294 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package com.sun.javafx.collections;
+
+import com.sun.javafx.collections.NonIterableChange.GenericAddRemoveChange;
+import java.nio.IntBuffer;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.RandomAccess;
+import javafx.collections.ModifiableObservableListBase;
+import javafx.collections.ObservableIntegerList;
+
+/**
+ * ObservableIntegerList default implementation.
+ * The elements passed through the {@code List<Integer>} methods are unboxed
+ * into the array, so a {@code null} element throws a
+ * {@code NullPointerException}.
+ */
+public class ObservableIntegerListImpl extends ModifiableObservableListBase<Integer> implements ObservableIntegerList, RandomAccess {
+
+    private static final int[] INITIAL = new int[0];
+
+    private int[] array = INITIAL;
+    private int size = 0;
+
+    /**
+     * Creates empty observable integer list
+     */
+    public ObservableIntegerListImpl() {
+    }
+
+    /**
+     * Creates observable integer list with copy of given initial values
+     * @param elements initial values to copy to observable integer list
+     */
+    public ObservableIntegerListImpl(int... elements) {
+        array = elements.clone();
+        size = elements.length;
+    }
+
+    @Override
+    public Integer get(int index) {
+        return getInt(index);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    protected void doAdd(int index, Integer element) {
+        if (index < 0 || index > size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        growCapacity(1);
+        System.arraycopy(array, index, array, index + 1, size - index);
+        array[index] = element;
+        size++;
+    }
+
+    @Override
+    protected Integer doSet(int index, Integer element) {
+        rangeCheck(index, index + 1);
+        int old = array[index];
+        array[index] = element;
+        return old;
+    }
+
+    @Override
+    protected Integer doRemove(int index) {
+        rangeCheck(index, index + 1);
+        int old = array[index];
+        System.arraycopy(array, index + 1, array, index, size - index - 1);
+        size--;
+        return old;
+    }
+
+    @Override
+    protected void removeRange(int fromIndex, int toIndex) {
+        rangeCheck(fromIndex, toIndex);
+        if (fromIndex == toIndex) {
+            return;
+        }
+        beginChange();
+        try {
+            if (hasListeners()) {
+                nextRemove(fromIndex, copyOf(fromIndex, toIndex));
+            }
+            System.arraycopy(array, toIndex, array, fromIndex, size - toIndex);
+            size -= toIndex - fromIndex;
+            ++modCount;
+        } finally {
+            endChange();
+        }
+    }
+
+    @Override
+    public int getInt(int index) {
+        rangeCheck(index, index + 1);
+        return array[index];
+    }
+
+    @Override
+    public void setInt(int index, int value) {
+        rangeCheck(index, index + 1);
+        int old = array[index];
+        array[index] = value;
+        fireChange(index, index + 1, hasListeners() ? Collections.singletonList(old) : null);
+    }
+
+    @Override
+    public void addAll(int[] src, int srcIndex, int length) {
+        rangeCheck(src.length, srcIndex, length);
+        growCapacity(length);
+        System.arraycopy(src, srcIndex, array, size, length);
+        size += length;
+        ++modCount;
+        fireChange(size - length, size, Collections.<Integer>emptyList());
+    }
+
+    @Override
+    public void addAll(IntBuffer src) {
+        int length = src.remaining();
+        growCapacity(length);
+        src.get(array, size, length);
+        size += length;
+        ++modCount;
+        fireChange(size - length, size, Collections.<Integer>emptyList());
+    }
+
+    @Override
+    public void setAll(int[] src, int srcIndex, int length) {
+        rangeCheck(src.length, srcIndex, length);
+        List<Integer> removed = hasListeners() ? copyOf(0, size) : null;
+        ensureCapacity(length);
+        System.arraycopy(src, srcIndex, array, 0, length);
+        size = length;
+        ++modCount;
+        fireChange(0, length, removed);
+    }
+
+    @Override
+    public void setAll(IntBuffer src) {
+        int length = src.remaining();
+        List<Integer> removed = hasListeners() ? copyOf(0, size) : null;
+        ensureCapacity(length);
+        src.get(array, 0, length);
+        size = length;
+        ++modCount;
+        fireChange(0, length, removed);
+    }
+
+    @Override
+    public void set(int destIndex, int[] src, int srcIndex, int length) {
+        rangeCheck(src.length, srcIndex, length);
+        rangeCheck(destIndex, destIndex + length);
+        List<Integer> removed = hasListeners() ? copyOf(destIndex, destIndex + length) : null;
+        System.arraycopy(src, srcIndex, array, destIndex, length);
+        fireChange(destIndex, destIndex + length, removed);
+    }
+
+    @Override
+    public void copyTo(int srcIndex, int[] dest, int destIndex, int length) {
+        rangeCheck(srcIndex, srcIndex + length);
+        System.arraycopy(array, srcIndex, dest, destIndex, length);
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return indexOf(o) >= 0;
+    }
+
+    @Override
+    public int indexOf(Object o) {
+        if (o instanceof Integer) {
+            int value = (Integer) o;
+            for (int i = 0; i < size; i++) {
+                if (array[i] == value) {
+                    return i;
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Fires a single change for the range, unless it is empty or there are
+     * no listeners. The removed elements are null when there are no listeners.
+     */
+    private void fireChange(int from, int to, List<Integer> removed) {
+        if (hasListeners() && (from != to || !removed.isEmpty())) {
+            fireChange(new GenericAddRemoveChange<>(from, to, removed, this));
+        }
+    }
+
+    private List<Integer> copyOf(int from, int to) {
+        return new IntegerArrayList(Arrays.copyOfRange(array, from, to));
+    }
+
+    /**
+     * The maximum size of array to allocate.
+     * Some VMs reserve some header words in an array.
+     * Attempts to allocate larger arrays may result in
+     * OutOfMemoryError: Requested array size exceeds VM limit
+     */
+    private static final int MAX_ARRAY_SIZE = Integer.MAX_VALUE - 8;
+
+    private void growCapacity(int length) {
+        int minCapacity = size + length;
+        int oldCapacity = array.length;
+        if (minCapacity > array.length) {
+            int newCapacity = oldCapacity + (oldCapacity >> 1);
+            if (newCapacity < minCapacity) newCapacity = minCapacity;
+            if (newCapacity > MAX_ARRAY_SIZE) newCapacity = hugeCapacity(minCapacity);
+            ensureCapacity(newCapacity);
+        } else if (length > 0 && minCapacity < 0) {
+            throw new OutOfMemoryError(); // overflow
+        }
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (array.length < capacity) {
+            array = Arrays.copyOf(array, capacity);
+        }
+    }
+
+    private static int hugeCapacity(int minCapacity) {
+        if (minCapacity < 0) // overflow
+            throw new OutOfMemoryError();
+        return (minCapacity > MAX_ARRAY_SIZE) ?
+            Integer.MAX_VALUE :
+            MAX_ARRAY_SIZE;
+    }
+
+    private void rangeCheck(int from, int to) {
+        if (from < 0 || from > to || to > size) {
+            throw new IndexOutOfBoundsException("From: " + from + ", To: " + to + ", Size: " + size);
+        }
+    }
+
+    private static void rangeCheck(int srcLength, int srcIndex, int length) {
+        if (srcIndex < 0 || length < 0 || srcIndex + length > srcLength) {
+            throw new ArrayIndexOutOfBoundsException(srcLength);
+        }
+    }
+
+    /**
+     * Read-only list of the removed values, boxed on access.
+     */
+    private static class IntegerArrayList extends AbstractList<Integer> implements RandomAccess {
+
+        private final int[] values;
+
+        IntegerArrayList(int[] values) {
+            this.values = values;
+        }
+
+        @Override
+        public Integer get(int index) {
+            return values[index];
+        }
+
+        @Override
+        public int size() {
+            return values.length;
+        }
+    }
+}
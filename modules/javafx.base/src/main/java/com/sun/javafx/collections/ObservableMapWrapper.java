@@ -30,7 +30,9 @@ import javafx.collections.MapChangeListener;
 import javafx.collections.ObservableMap;
 
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Set;
 
@@ -50,15 +52,20 @@ public class ObservableMapWrapper<K, V> implements ObservableMap<K, V>{
         this.backingMap = map;
     }
 
-    private class SimpleChange extends MapChangeListener.Change<K,V> {
+    private class SimpleChange extends MapChangeListener.Change<K,V> implements MapBulkChange.Part {
 
         private final K key;
         private final V old;
         private final V added;
         private final boolean wasAdded;
         private final boolean wasRemoved;
+        private final boolean partOfBulkChange;
 
         public SimpleChange(K key, V old, V added, boolean wasAdded, boolean wasRemoved) {
+            this(key, old, added, wasAdded, wasRemoved, false);
+        }
+
+        public SimpleChange(K key, V old, V added, boolean wasAdded, boolean wasRemoved, boolean partOfBulkChange) {
             super(ObservableMapWrapper.this);
             assert(wasAdded || wasRemoved);
             this.key = key;
@@ -66,6 +73,12 @@ public class ObservableMapWrapper<K, V> implements ObservableMap<K, V>{
             this.added = added;
             this.wasAdded = wasAdded;
             this.wasRemoved = wasRemoved;
+            this.partOfBulkChange = partOfBulkChange;
+        }
+
+        @Override
+        public boolean isPartOfBulkChange() {
+            return partOfBulkChange;
         }
 
         @Override
@@ -115,6 +128,34 @@ public class ObservableMapWrapper<K, V> implements ObservableMap<K, V>{
         MapListenerHelper.fireValueChangedEvent(listenerHelper, change);
     }
 
+    /**
+     * Creates the map collecting the entries removed by a bulk operation, or
+     * returns null if no listener is interested in bulk changes.
+     */
+    private Map<K, V> bulkRemoved() {
+        return MapListenerHelper.hasBulkListeners(listenerHelper) ? new LinkedHashMap<>() : null;
+    }
+
+    /**
+     * Notifies the observers of the removal of an entry by a bulk operation.
+     */
+    private void callRemoveObservers(K key, V value, Map<K, V> bulkRemoved) {
+        if (bulkRemoved != null) {
+            bulkRemoved.put(key, value);
+        }
+        callObservers(new SimpleChange(key, value, null, false, true, bulkRemoved != null));
+    }
+
+    /**
+     * Notifies the bulk listeners once the elementary changes of a bulk
+     * operation have been sent.
+     */
+    private void callBulkObservers(Map<K, V> added, Map<K, V> removed) {
+        if (removed != null && !(added.isEmpty() && removed.isEmpty())) {
+            MapListenerHelper.fireValueChangedEvent(listenerHelper, new MapBulkChange<K, V>(this, added, removed));
+        }
+    }
+
     @Override
     public void addListener(InvalidationListener listener) {
         listenerHelper = MapListenerHelper.addListener(listenerHelper, listener);
@@ -188,20 +229,50 @@ public class ObservableMapWrapper<K, V> implements ObservableMap<K, V>{
 
     @Override
     public void putAll(Map<? extends K, ? extends V> m) {
+        if (!MapListenerHelper.hasListeners(listenerHelper)) {
+            backingMap.putAll(m);
+            return;
+        }
+        final Map<K, V> removed = bulkRemoved();
+        final Map<K, V> added = (removed != null) ? new LinkedHashMap<>() : null;
         for (Map.Entry<? extends K, ? extends V> e : m.entrySet()) {
-            put(e.getKey(), e.getValue());
+            K key = e.getKey();
+            V value = e.getValue();
+            if (backingMap.containsKey(key)) {
+                V ret = backingMap.put(key, value);
+                if (ret == null && value != null || ret != null && !ret.equals(value)) {
+                    if (removed != null) {
+                        removed.put(key, ret);
+                        added.put(key, value);
+                    }
+                    callObservers(new SimpleChange(key, ret, value, true, true, removed != null));
+                }
+            } else {
+                backingMap.put(key, value);
+                if (removed != null) {
+                    added.put(key, value);
+                }
+                callObservers(new SimpleChange(key, null, value, true, false, removed != null));
+            }
         }
+        callBulkObservers(added, removed);
     }
 
     @Override
     public void clear() {
+        if (!MapListenerHelper.hasListeners(listenerHelper)) {
+            backingMap.clear();
+            return;
+        }
+        final Map<K, V> removed = bulkRemoved();
         for (Iterator<Entry<K, V>> i = backingMap.entrySet().iterator(); i.hasNext(); ) {
             Entry<K, V> e = i.next();
             K key = e.getKey();
             V val = e.getValue();
             i.remove();
-            callObservers(new SimpleChange(key, val, null, false, true));
+            callRemoveObservers(key, val, removed);
         }
+        callBulkObservers(Collections.emptyMap(), removed);
     }
 
     @Override
@@ -326,6 +397,7 @@ public class ObservableMapWrapper<K, V> implements ObservableMap<K, V>{
 
         private boolean removeRetain(Collection<?> c, boolean remove) {
             boolean removed = false;
+            final Map<K, V> bulkRemoved = bulkRemoved();
             for (Iterator<Entry<K, V>> i = backingMap.entrySet().iterator(); i.hasNext();) {
                 Entry<K, V> e = i.next();
                 if (remove == c.contains(e.getKey())) {
@@ -333,9 +405,10 @@ public class ObservableMapWrapper<K, V> implements ObservableMap<K, V>{
                     K key = e.getKey();
                     V value = e.getValue();
                     i.remove();
-                    callObservers(new SimpleChange(key, value, null, false, true));
+                    callRemoveObservers(key, value, bulkRemoved);
                 }
             }
+            callBulkObservers(Collections.emptyMap(), bulkRemoved);
             return removed;
         }
 
@@ -455,6 +528,7 @@ public class ObservableMapWrapper<K, V> implements ObservableMap<K, V>{
 
         private boolean removeRetain(Collection<?> c, boolean remove) {
             boolean removed = false;
+            final Map<K, V> bulkRemoved = bulkRemoved();
             for (Iterator<Entry<K, V>> i = backingMap.entrySet().iterator(); i.hasNext();) {
                 Entry<K, V> e = i.next();
                 if (remove == c.contains(e.getValue())) {
@@ -462,9 +536,10 @@ public class ObservableMapWrapper<K, V> implements ObservableMap<K, V>{
                     K key = e.getKey();
                     V value = e.getValue();
                     i.remove();
-                    callObservers(new SimpleChange(key, value, null, false, true));
+                    callRemoveObservers(key, value, bulkRemoved);
                 }
             }
+            callBulkObservers(Collections.emptyMap(), bulkRemoved);
             return removed;
         }
 
@@ -652,6 +727,7 @@ public class ObservableMapWrapper<K, V> implements ObservableMap<K, V>{
 
         private boolean removeRetain(Collection<?> c, boolean remove) {
             boolean removed = false;
+            final Map<K, V> bulkRemoved = bulkRemoved();
             for (Iterator<Entry<K, V>> i = backingMap.entrySet().iterator(); i.hasNext();) {
                 Entry<K, V> e = i.next();
                 if (remove == c.contains(e)) {
@@ -659,9 +735,10 @@ public class ObservableMapWrapper<K, V> implements ObservableMap<K, V>{
                     K key = e.getKey();
                     V value = e.getValue();
                     i.remove();
-                    callObservers(new SimpleChange(key, value, null, false, true));
+                    callRemoveObservers(key, value, bulkRemoved);
                 }
             }
+            callBulkObservers(Collections.emptyMap(), bulkRemoved);
             return removed;
         }
 
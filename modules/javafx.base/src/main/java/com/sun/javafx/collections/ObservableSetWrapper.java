@@ -30,7 +30,9 @@ import javafx.collections.ObservableSet;
 import javafx.collections.SetChangeListener;
 
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.Set;
 
 /**
@@ -52,13 +54,24 @@ public class ObservableSetWrapper<E> implements ObservableSet<E> {
         this.backingSet = set;
     }
 
-    private class SimpleAddChange extends SetChangeListener.Change<E> {
+    private class SimpleAddChange extends SetChangeListener.Change<E> implements SetBulkChange.Part {
 
         private final E added;
+        private final boolean partOfBulkChange;
 
         public SimpleAddChange(E added) {
+            this(added, false);
+        }
+
+        public SimpleAddChange(E added, boolean partOfBulkChange) {
             super(ObservableSetWrapper.this);
             this.added = added;
+            this.partOfBulkChange = partOfBulkChange;
+        }
+
+        @Override
+        public boolean isPartOfBulkChange() {
+            return partOfBulkChange;
         }
 
         @Override
@@ -88,13 +101,24 @@ public class ObservableSetWrapper<E> implements ObservableSet<E> {
 
     }
 
-    private class SimpleRemoveChange extends SetChangeListener.Change<E> {
+    private class SimpleRemoveChange extends SetChangeListener.Change<E> implements SetBulkChange.Part {
 
         private final E removed;
+        private final boolean partOfBulkChange;
 
         public SimpleRemoveChange(E removed) {
+            this(removed, false);
+        }
+
+        public SimpleRemoveChange(E removed, boolean partOfBulkChange) {
             super(ObservableSetWrapper.this);
             this.removed = removed;
+            this.partOfBulkChange = partOfBulkChange;
+        }
+
+        @Override
+        public boolean isPartOfBulkChange() {
+            return partOfBulkChange;
         }
 
         @Override
@@ -128,6 +152,24 @@ public class ObservableSetWrapper<E> implements ObservableSet<E> {
         SetListenerHelper.fireValueChangedEvent(listenerHelper, change);
     }
 
+    /**
+     * Creates the set collecting the elements changed by a bulk operation, or
+     * returns null if no listener is interested in bulk changes.
+     */
+    private Set<E> bulkChanged() {
+        return SetListenerHelper.hasBulkListeners(listenerHelper) ? new LinkedHashSet<>() : null;
+    }
+
+    /**
+     * Notifies the bulk listeners once the elementary changes of a bulk
+     * operation have been sent.
+     */
+    private void callBulkObservers(Set<E> added, Set<E> removed) {
+        if (added != null && removed != null && !(added.isEmpty() && removed.isEmpty())) {
+            SetListenerHelper.fireValueChangedEvent(listenerHelper, new SetBulkChange<E>(this, added, removed));
+        }
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -305,7 +347,7 @@ public class ObservableSetWrapper<E> implements ObservableSet<E> {
     /**
      * Adds the elements from the specified collection.
      * Observers are called for each elements that was not already
-     * present in the set.
+     * present in the set, bulk observers once for all of them.
      *
      * @see java.util.Set in JDK API documentation
      * @param c collection containing elements to be added to this set
@@ -314,16 +356,24 @@ public class ObservableSetWrapper<E> implements ObservableSet<E> {
     @Override
     public boolean addAll(Collection<?extends E> c) {
         boolean ret = false;
+        final Set<E> added = bulkChanged();
         for (E element : c) {
-            ret |= add(element);
+            if (backingSet.add(element)) {
+                ret = true;
+                if (added != null) {
+                    added.add(element);
+                }
+                callObservers(new SimpleAddChange(element, added != null));
+            }
         }
+        callBulkObservers(added, Collections.emptySet());
         return ret;
     }
 
     /**
      * Keeps only elements that are included the specified collection.
      * All other elements are removed. For each removed element all the
-     * observers are called.
+     * observers are called, bulk observers once for all of them.
      *
      * @see java.util.Set in JDK API documentation
      * @param c collection containing elements to be kept in this set
@@ -336,7 +386,8 @@ public class ObservableSetWrapper<E> implements ObservableSet<E> {
 
     /**
      * Removes all the elements that are contained in the specified
-     * collection. Observers are called for each removed element.
+     * collection. Observers are called for each removed element, bulk
+     * observers once for all of them.
      *
      * @see java.util.Set in JDK API documentation
      * @param c collection containing elements to be removed from this set
@@ -349,29 +400,43 @@ public class ObservableSetWrapper<E> implements ObservableSet<E> {
 
     private boolean removeRetain(Collection<?> c, boolean remove) {
         boolean removed = false;
+        final Set<E> bulkRemoved = bulkChanged();
         for (Iterator<E> i = backingSet.iterator(); i.hasNext();) {
             E element = i.next();
             if (remove == c.contains(element)) {
                 removed = true;
                 i.remove();
-                callObservers(new SimpleRemoveChange(element));
+                if (bulkRemoved != null) {
+                    bulkRemoved.add(element);
+                }
+                callObservers(new SimpleRemoveChange(element, bulkRemoved != null));
             }
         }
+        callBulkObservers(Collections.emptySet(), bulkRemoved);
         return removed;
     }
 
     /**
      * Removes all the elements from this set. Observers are called
-     * for each element.
+     * for each element, bulk observers once for all of them.
      * @see java.util.Set in JDK API documentation
      */
     @Override
     public void clear() {
+        if (!SetListenerHelper.hasListeners(listenerHelper)) {
+            backingSet.clear();
+            return;
+        }
+        final Set<E> removed = bulkChanged();
         for (Iterator<E> i = backingSet.iterator(); i.hasNext(); ) {
             E element = i.next();
             i.remove();
-            callObservers(new SimpleRemoveChange(element));
+            if (removed != null) {
+                removed.add(element);
+            }
+            callObservers(new SimpleRemoveChange(element, removed != null));
         }
+        callBulkObservers(Collections.emptySet(), removed);
     }
 
     /**
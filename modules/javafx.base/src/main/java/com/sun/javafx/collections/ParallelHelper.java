@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package com.sun.javafx.collections;
+
+import java.security.AccessController;
+import java.security.PrivilegedAction;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
+
+/**
+ * Helper class that lets the transformation lists filter and sort large
+ * lists using the common fork/join pool.
+ * <p>
+ * The parallel mode is opt-in: it is used only for lists with at least
+ * {@code javafx.collections.parallelThreshold} elements, and it is disabled
+ * when the property is not set. Predicates and comparators used with large
+ * lists must then be safe to call from several threads at once. The calling
+ * thread waits for the result, so the lists still fire their single change
+ * on the thread that changed the predicate or the comparator.
+ */
+public final class ParallelHelper {
+
+    private static final int THRESHOLD =
+            AccessController.doPrivileged((PrivilegedAction<Integer>) () -> Integer.getInteger("javafx.collections.parallelThreshold", 0));
+
+    private ParallelHelper() {
+    }
+
+    /**
+     * Returns true if a list of the given size should be filtered or
+     * sorted in parallel.
+     */
+    public static boolean isParallel(int size) {
+        return THRESHOLD > 0 && size >= THRESHOLD;
+    }
+
+    /**
+     * Tests all elements of the list against the predicate. The elements
+     * are copied to an array first, so the list is only read by the
+     * calling thread.
+     *
+     * @return the result of the predicate for each element
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> boolean[] test(List<? extends T> list, Predicate<? super T> predicate) {
+        final Object[] a = list.toArray();
+        final boolean[] result = new boolean[a.length];
+        IntStream.range(0, a.length).parallel().forEach(i -> result[i] = predicate.test((T) a[i]));
+        return result;
+    }
+
+    /**
+     * Sorts the range of the array, keeping the order of equal elements.
+     */
+    public static <T> void sort(T[] a, int from, int to, Comparator<? super T> c) {
+        Arrays.parallelSort(a, from, to, c);
+    }
+}
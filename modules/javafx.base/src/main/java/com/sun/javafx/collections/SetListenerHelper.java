@@ -27,6 +27,7 @@ package com.sun.javafx.collections;
 
 import com.sun.javafx.binding.ExpressionHelperBase;
 import javafx.beans.InvalidationListener;
+import javafx.collections.BulkSetChangeListener;
 import javafx.collections.SetChangeListener;
 import sun.util.logging.PlatformLogger;
 
@@ -73,10 +74,20 @@ public abstract class SetListenerHelper<E> extends ExpressionHelperBase {
         }
     }
 
+    public static <E> void fireValueChangedEvent(SetListenerHelper<E> helper, BulkSetChangeListener.BulkChange<? extends E> change) {
+        if (helper != null) {
+            helper.fireValueChangedEvent(change);
+        }
+    }
+
     public static <E> boolean hasListeners(SetListenerHelper<E> helper) {
         return helper != null;
     }
 
+    public static <E> boolean hasBulkListeners(SetListenerHelper<E> helper) {
+        return (helper != null) && helper.hasBulkListeners();
+    }
+
     ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
     // Common implementations
 
@@ -87,6 +98,9 @@ public abstract class SetListenerHelper<E> extends ExpressionHelperBase {
     protected abstract SetListenerHelper<E> removeListener(SetChangeListener<? super E> listener);
 
     protected abstract void fireValueChangedEvent(SetChangeListener.Change<? extends E> change);
+    protected abstract void fireValueChangedEvent(BulkSetChangeListener.BulkChange<? extends E> change);
+
+    protected abstract boolean hasBulkListeners();
 
     ////////////////////////////////////////////////////////////////////////////////////////////////////////////////////
     // Implementations
@@ -127,6 +141,16 @@ public abstract class SetListenerHelper<E> extends ExpressionHelperBase {
                 Thread.currentThread().getUncaughtExceptionHandler().uncaughtException(Thread.currentThread(), e);
             }
         }
+
+        @Override
+        protected void fireValueChangedEvent(BulkSetChangeListener.BulkChange<? extends E> change) {
+            // the listener has been notified of the elementary changes
+        }
+
+        @Override
+        protected boolean hasBulkListeners() {
+            return false;
+        }
     }
 
     private static class SingleChange<E> extends SetListenerHelper<E> {
@@ -159,12 +183,31 @@ public abstract class SetListenerHelper<E> extends ExpressionHelperBase {
 
         @Override
         protected void fireValueChangedEvent(SetChangeListener.Change<? extends E> change) {
-            try {
-                listener.onChanged(change);
-            } catch (Exception e) {
-                Thread.currentThread().getUncaughtExceptionHandler().uncaughtException(Thread.currentThread(), e);
+            if (SetBulkChange.isNotified(listener, change)) {
+                try {
+                    listener.onChanged(change);
+                } catch (Exception e) {
+                    Thread.currentThread().getUncaughtExceptionHandler().uncaughtException(Thread.currentThread(), e);
+                }
             }
         }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        protected void fireValueChangedEvent(BulkSetChangeListener.BulkChange<? extends E> change) {
+            if (listener instanceof BulkSetChangeListener) {
+                try {
+                    ((BulkSetChangeListener<? super E>) listener).onBulkChanged(change);
+                } catch (Exception e) {
+                    Thread.currentThread().getUncaughtExceptionHandler().uncaughtException(Thread.currentThread(), e);
+                }
+            }
+        }
+
+        @Override
+        protected boolean hasBulkListeners() {
+            return listener instanceof BulkSetChangeListener;
+        }
     }
 
     private static class Generic<E> extends SetListenerHelper<E> {
@@ -173,7 +216,7 @@ public abstract class SetListenerHelper<E> extends ExpressionHelperBase {
         private SetChangeListener<? super E>[] changeListeners;
         private int invalidationSize;
         private int changeSize;
-        private boolean locked;
+        private int lockCount;
 
         private Generic(InvalidationListener listener0, InvalidationListener listener1) {
             this.invalidationListeners = new InvalidationListener[] {listener0, listener1};
@@ -199,7 +242,7 @@ public abstract class SetListenerHelper<E> extends ExpressionHelperBase {
                 invalidationSize = 1;
             } else {
                 final int oldCapacity = invalidationListeners.length;
-                if (locked) {
+                if (lockCount > 0) {
                     final int newCapacity = (invalidationSize < oldCapacity)? oldCapacity : (oldCapacity * 3)/2 + 1;
                     invalidationListeners = Arrays.copyOf(invalidationListeners, newCapacity);
                 } else if (invalidationSize == oldCapacity) {
@@ -230,7 +273,7 @@ public abstract class SetListenerHelper<E> extends ExpressionHelperBase {
                         } else {
                             final int numMoved = invalidationSize - index - 1;
                             final InvalidationListener[] oldListeners = invalidationListeners;
-                            if (locked) {
+                            if (lockCount > 0) {
                                 invalidationListeners = new InvalidationListener[invalidationListeners.length];
                                 System.arraycopy(oldListeners, 0, invalidationListeners, 0, index);
                             }
@@ -238,7 +281,7 @@ public abstract class SetListenerHelper<E> extends ExpressionHelperBase {
                                 System.arraycopy(oldListeners, index+1, invalidationListeners, index, numMoved);
                             }
                             invalidationSize--;
-                            if (!locked) {
+                            if (lockCount == 0) {
                                 invalidationListeners[invalidationSize] = null; // Let gc do its work
                             }
                         }
@@ -256,7 +299,7 @@ public abstract class SetListenerHelper<E> extends ExpressionHelperBase {
                 changeSize = 1;
             } else {
                 final int oldCapacity = changeListeners.length;
-                if (locked) {
+                if (lockCount > 0) {
                     final int newCapacity = (changeSize < oldCapacity)? oldCapacity : (oldCapacity * 3)/2 + 1;
                     changeListeners = Arrays.copyOf(changeListeners, newCapacity);
                 } else if (changeSize == oldCapacity) {
@@ -287,7 +330,7 @@ public abstract class SetListenerHelper<E> extends ExpressionHelperBase {
                         } else {
                             final int numMoved = changeSize - index - 1;
                             final SetChangeListener<? super E>[] oldListeners = changeListeners;
-                            if (locked) {
+                            if (lockCount > 0) {
                                 changeListeners = new SetChangeListener[changeListeners.length];
                                 System.arraycopy(oldListeners, 0, changeListeners, 0, index);
                             }
@@ -295,7 +338,7 @@ public abstract class SetListenerHelper<E> extends ExpressionHelperBase {
                                 System.arraycopy(oldListeners, index+1, changeListeners, index, numMoved);
                             }
                             changeSize--;
-                            if (!locked) {
+                            if (lockCount == 0) {
                                 changeListeners[changeSize] = null; // Let gc do its work
                             }
                         }
@@ -314,7 +357,7 @@ public abstract class SetListenerHelper<E> extends ExpressionHelperBase {
             final int curChangeSize = changeSize;
 
             try {
-                locked = true;
+                lockCount++;
                 for (int i = 0; i < curInvalidationSize; i++) {
                     try {
                         curInvalidationList[i].invalidated(change.getSet());
@@ -323,15 +366,49 @@ public abstract class SetListenerHelper<E> extends ExpressionHelperBase {
                     }
                 }
                 for (int i = 0; i < curChangeSize; i++) {
-                    try {
-                        curChangeList[i].onChanged(change);
-                    } catch (Exception e) {
-                        Thread.currentThread().getUncaughtExceptionHandler().uncaughtException(Thread.currentThread(), e);
+                    if (SetBulkChange.isNotified(curChangeList[i], change)) {
+                        try {
+                            curChangeList[i].onChanged(change);
+                        } catch (Exception e) {
+                            Thread.currentThread().getUncaughtExceptionHandler().uncaughtException(Thread.currentThread(), e);
+                        }
+                    }
+                }
+            } finally {
+                lockCount--;
+            }
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        protected void fireValueChangedEvent(BulkSetChangeListener.BulkChange<? extends E> change) {
+            final SetChangeListener<? super E>[] curChangeList = changeListeners;
+            final int curChangeSize = changeSize;
+
+            try {
+                lockCount++;
+                for (int i = 0; i < curChangeSize; i++) {
+                    if (curChangeList[i] instanceof BulkSetChangeListener) {
+                        try {
+                            ((BulkSetChangeListener<? super E>) curChangeList[i]).onBulkChanged(change);
+                        } catch (Exception e) {
+                            Thread.currentThread().getUncaughtExceptionHandler().uncaughtException(Thread.currentThread(), e);
+                        }
                     }
                 }
             } finally {
-                locked = false;
+                lockCount--;
+            }
+        }
+
+        @Override
+        protected boolean hasBulkListeners() {
+            for (int i = 0; i < changeSize; i++) {
+                if (changeListeners[i] instanceof BulkSetChangeListener) {
+                    return true;
+                }
             }
+            return false;
         }
     }
 
@@ -53,6 +53,7 @@ import com.sun.javafx.binding.BidirectionalBinding;
 import com.sun.javafx.binding.BidirectionalContentBinding;
 import com.sun.javafx.binding.ContentBinding;
 import com.sun.javafx.binding.DoubleConstant;
+import com.sun.javafx.binding.ExpressionHelper;
 import com.sun.javafx.binding.FloatConstant;
 import com.sun.javafx.binding.IntegerConstant;
 import com.sun.javafx.binding.Logging;
@@ -419,6 +420,57 @@ public final class Bindings {
     }
 
 
+    // =================================================================================================================
+    // Batches
+
+    /**
+     * Runs the given action as a single change of the observable values it
+     * modifies.
+     * <p>
+     * While the action runs, the properties and bindings modified on the
+     * current thread notify their invalidation listeners as usual, so the
+     * bindings that depend on them are invalidated and the values read inside
+     * the action are up to date. Their change listeners however are notified
+     * only when the action completes, once per observable value, in the order
+     * in which the values were first invalidated. Since all the invalidations
+     * have been propagated by then, the change listeners of a binding that
+     * depends on several modified values are notified once, with a value
+     * computed from all of them.
+     * <p>
+     * Calls to {@code batch} can be nested; the change listeners are notified
+     * when the outermost action completes. Only the observable values that
+     * use the standard JavaFX property and binding implementations take part
+     * in a batch.
+     * <p>
+     * List, set and map properties and bindings, as well as observable
+     * collections, are not deferred: their invalidation, change and
+     * collection change listeners are notified immediately, as outside of a
+     * batch.
+     * <p>
+     * Only the change notifications are deferred. The invalidations are still
+     * propagated eagerly and depth first, one modification at a time, not in
+     * the topological order of the dependencies. An invalidation listener, or
+     * the action itself, that reads a binding between two modifications gets
+     * a value computed from the values modified so far, and the binding is
+     * then invalidated and computed again by the next modification.
+     *
+     * @param action the action that modifies the observable values
+     * @throws NullPointerException if {@code action} is {@code null}
+     * @since 9
+     */
+    public static void batch(Runnable action) {
+        if (action == null) {
+            throw new NullPointerException("Action must be specified.");
+        }
+        ExpressionHelper.beginBatch();
+        try {
+            action.run();
+        } finally {
+            ExpressionHelper.endBatch();
+        }
+    }
+
+
     // =================================================================================================================
     // Select Bindings
 
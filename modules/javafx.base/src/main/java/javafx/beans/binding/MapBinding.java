@@ -27,6 +27,7 @@ package javafx.beans.binding;
 
 import com.sun.javafx.binding.BindingHelperObserver;
 import com.sun.javafx.binding.MapExpressionHelper;
+import com.sun.javafx.collections.MapBulkChange;
 import javafx.beans.InvalidationListener;
 import javafx.beans.Observable;
 import javafx.beans.property.ReadOnlyBooleanProperty;
@@ -67,13 +68,18 @@ import javafx.collections.ObservableMap;
  */
 public abstract class MapBinding<K, V> extends MapExpression<K, V> implements Binding<ObservableMap<K, V>> {
 
-    private final MapChangeListener<K, V> mapChangeListener = new MapChangeListener<K, V>() {
+    private final MapChangeListener<K, V> mapChangeListener = new MapBulkChange.Forwarder<K, V>() {
         @Override
         public void onChanged(Change<? extends K, ? extends V> change) {
             invalidateProperties();
             onInvalidating();
             MapExpressionHelper.fireValueChangedEvent(helper, change);
         }
+
+        @Override
+        public void onBulkChanged(BulkChange<? extends K, ? extends V> change) {
+            MapExpressionHelper.fireValueChangedEvent(helper, change);
+        }
     };
 
     private ObservableMap<K, V> value;
@@ -27,6 +27,7 @@ package javafx.beans.binding;
 
 import com.sun.javafx.binding.BindingHelperObserver;
 import com.sun.javafx.binding.SetExpressionHelper;
+import com.sun.javafx.collections.SetBulkChange;
 import javafx.beans.InvalidationListener;
 import javafx.beans.Observable;
 import javafx.beans.property.ReadOnlyBooleanProperty;
@@ -65,13 +66,18 @@ import javafx.collections.SetChangeListener;
  */
 public abstract class SetBinding<E> extends SetExpression<E> implements Binding<ObservableSet<E>> {
 
-    private final SetChangeListener<E> setChangeListener = new SetChangeListener<E>() {
+    private final SetChangeListener<E> setChangeListener = new SetBulkChange.Forwarder<E>() {
         @Override
         public void onChanged(Change<? extends E> change) {
             invalidateProperties();
             onInvalidating();
             SetExpressionHelper.fireValueChangedEvent(helper, change);
         }
+
+        @Override
+        public void onBulkChanged(BulkChange<? extends E> change) {
+            SetExpressionHelper.fireValueChangedEvent(helper, change);
+        }
     };
 
     private ObservableSet<E> value;
@@ -26,6 +26,7 @@
 package javafx.beans.property;
 
 import com.sun.javafx.binding.MapExpressionHelper;
+import com.sun.javafx.collections.MapBulkChange;
 import java.lang.ref.WeakReference;
 import javafx.beans.InvalidationListener;
 import javafx.beans.Observable;
@@ -51,10 +52,18 @@ import javafx.collections.*;
  */
 public abstract class MapPropertyBase<K, V> extends MapProperty<K, V> {
 
-    private final MapChangeListener<K, V> mapChangeListener = change -> {
-        invalidateProperties();
-        invalidated();
-        fireValueChangedEvent(change);
+    private final MapChangeListener<K, V> mapChangeListener = new MapBulkChange.Forwarder<K, V>() {
+        @Override
+        public void onChanged(Change<? extends K, ? extends V> change) {
+            invalidateProperties();
+            invalidated();
+            fireValueChangedEvent(change);
+        }
+
+        @Override
+        public void onBulkChanged(BulkChange<? extends K, ? extends V> change) {
+            fireValueChangedEvent(change);
+        }
     };
 
     private ObservableMap<K, V> value;
@@ -203,6 +212,21 @@ public abstract class MapPropertyBase<K, V> extends MapProperty<K, V> {
         MapExpressionHelper.fireValueChangedEvent(helper, change);
     }
 
+    /**
+     * Sends the bulk change to all attached
+     * {@link javafx.collections.BulkMapChangeListener BulkMapChangeListeners}.
+     *
+     * This method is called when a bulk operation has changed the content of
+     * the map, after its elementary changes have been sent through
+     * {@link #fireValueChangedEvent(MapChangeListener.Change)}.
+     *
+     * @param change the bulk change that needs to be propagated
+     * @since 9
+     */
+    protected void fireValueChangedEvent(BulkMapChangeListener.BulkChange<? extends K, ? extends V> change) {
+        MapExpressionHelper.fireValueChangedEvent(helper, change);
+    }
+
     private void invalidateProperties() {
         if (size0 != null) {
             size0.fireValueChangedEvent();
@@ -28,6 +28,7 @@ package javafx.beans.property;
 import com.sun.javafx.binding.MapExpressionHelper;
 import javafx.beans.InvalidationListener;
 import javafx.beans.value.ChangeListener;
+import javafx.collections.BulkMapChangeListener;
 import javafx.collections.MapChangeListener;
 import javafx.collections.ObservableMap;
 
@@ -104,6 +105,21 @@ public abstract class ReadOnlyMapPropertyBase<K, V> extends ReadOnlyMapProperty<
         MapExpressionHelper.fireValueChangedEvent(helper, change);
     }
 
+    /**
+     * Sends the bulk change to all attached
+     * {@link javafx.collections.BulkMapChangeListener BulkMapChangeListeners}.
+     *
+     * This method is called when a bulk operation has changed the content of
+     * the map, after its elementary changes have been sent through
+     * {@link #fireValueChangedEvent(MapChangeListener.Change)}.
+     *
+     * @param change the bulk change that needs to be propagated
+     * @since 9
+     */
+    protected void fireValueChangedEvent(BulkMapChangeListener.BulkChange<? extends K, ? extends V> change) {
+        MapExpressionHelper.fireValueChangedEvent(helper, change);
+    }
+
 
 
 }
@@ -25,6 +25,7 @@
 
 package javafx.beans.property;
 
+import javafx.collections.BulkMapChangeListener;
 import javafx.collections.ObservableMap;
 import static javafx.collections.MapChangeListener.Change;
 
@@ -118,6 +119,17 @@ public class ReadOnlyMapWrapper<K, V> extends SimpleMapProperty<K, V> {
         }
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void fireValueChangedEvent(BulkMapChangeListener.BulkChange<? extends K, ? extends V> change) {
+        super.fireValueChangedEvent(change);
+        if (readOnlyProperty != null) {
+            readOnlyProperty.fireValueChangedEvent(change);
+        }
+    }
+
     private class ReadOnlyPropertyImpl extends ReadOnlyMapPropertyBase<K, V> {
 
         @Override
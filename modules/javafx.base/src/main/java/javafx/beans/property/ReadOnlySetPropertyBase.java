@@ -29,6 +29,7 @@ import com.sun.javafx.binding.SetExpressionHelper;
 import javafx.beans.InvalidationListener;
 import javafx.beans.value.ChangeListener;
 import javafx.collections.ObservableSet;
+import javafx.collections.BulkSetChangeListener;
 import javafx.collections.SetChangeListener;
 
 /**
@@ -106,6 +107,21 @@ public abstract class ReadOnlySetPropertyBase<E> extends ReadOnlySetProperty<E>
         SetExpressionHelper.fireValueChangedEvent(helper, change);
     }
 
+    /**
+     * Sends the bulk change to all attached
+     * {@link javafx.collections.BulkSetChangeListener BulkSetChangeListeners}.
+     *
+     * This method is called when a bulk operation has changed the content of
+     * the set, after its elementary changes have been sent through
+     * {@link #fireValueChangedEvent(SetChangeListener.Change)}.
+     *
+     * @param change the bulk change that needs to be propagated
+     * @since 9
+     */
+    protected void fireValueChangedEvent(BulkSetChangeListener.BulkChange<? extends E> change) {
+        SetExpressionHelper.fireValueChangedEvent(helper, change);
+    }
+
 
 
 }
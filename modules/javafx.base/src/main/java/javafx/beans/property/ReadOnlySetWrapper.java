@@ -25,6 +25,7 @@
 
 package javafx.beans.property;
 
+import javafx.collections.BulkSetChangeListener;
 import javafx.collections.ObservableSet;
 import static javafx.collections.SetChangeListener.Change;
 
@@ -118,6 +119,17 @@ public class ReadOnlySetWrapper<E> extends SimpleSetProperty<E> {
         }
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void fireValueChangedEvent(BulkSetChangeListener.BulkChange<? extends E> change) {
+        super.fireValueChangedEvent(change);
+        if (readOnlyProperty != null) {
+            readOnlyProperty.fireValueChangedEvent(change);
+        }
+    }
+
     private class ReadOnlyPropertyImpl extends ReadOnlySetPropertyBase<E> {
 
         @Override
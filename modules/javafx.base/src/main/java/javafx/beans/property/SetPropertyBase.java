@@ -26,12 +26,14 @@
 package javafx.beans.property;
 
 import com.sun.javafx.binding.SetExpressionHelper;
+import com.sun.javafx.collections.SetBulkChange;
 import java.lang.ref.WeakReference;
 import javafx.beans.InvalidationListener;
 import javafx.beans.Observable;
 import javafx.beans.WeakListener;
 import javafx.beans.value.ChangeListener;
 import javafx.beans.value.ObservableValue;
+import javafx.collections.BulkSetChangeListener;
 import javafx.collections.ObservableSet;
 import javafx.collections.SetChangeListener;
 
@@ -51,10 +53,18 @@ import javafx.collections.SetChangeListener;
  */
 public abstract class SetPropertyBase<E> extends SetProperty<E> {
 
-    private final SetChangeListener<E> setChangeListener = change -> {
-        invalidateProperties();
-        invalidated();
-        fireValueChangedEvent(change);
+    private final SetChangeListener<E> setChangeListener = new SetBulkChange.Forwarder<E>() {
+        @Override
+        public void onChanged(Change<? extends E> change) {
+            invalidateProperties();
+            invalidated();
+            fireValueChangedEvent(change);
+        }
+
+        @Override
+        public void onBulkChanged(BulkChange<? extends E> change) {
+            fireValueChangedEvent(change);
+        }
     };
 
     private ObservableSet<E> value;
@@ -203,6 +213,21 @@ public abstract class SetPropertyBase<E> extends SetProperty<E> {
         SetExpressionHelper.fireValueChangedEvent(helper, change);
     }
 
+    /**
+     * Sends the bulk change to all attached
+     * {@link javafx.collections.BulkSetChangeListener BulkSetChangeListeners}.
+     *
+     * This method is called when a bulk operation has changed the content of
+     * the set, after its elementary changes have been sent through
+     * {@link #fireValueChangedEvent(SetChangeListener.Change)}.
+     *
+     * @param change the bulk change that needs to be propagated
+     * @since 9
+     */
+    protected void fireValueChangedEvent(BulkSetChangeListener.BulkChange<? extends E> change) {
+        SetExpressionHelper.fireValueChangedEvent(helper, change);
+    }
+
     private void invalidateProperties() {
         if (size0 != null) {
             size0.fireValueChangedEvent();
@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package javafx.collections;
+
+import java.util.Map;
+
+/**
+ * A {@link MapChangeListener} that receives the changes done by a bulk
+ * operation of an ObservableMap, like {@code putAll(Map)}, {@code clear()} or
+ * {@code keySet().retainAll(Collection)}, in a single notification.
+ * <p>
+ * Maps that support bulk notifications call {@link #onBulkChanged(BulkChange)}
+ * once per bulk operation, after it has completed, and
+ * {@link #onChanged(MapChangeListener.Change)} for every other change.
+ * Plain {@code MapChangeListener}s and {@code InvalidationListener}s
+ * registered with the same map are not affected: they are notified of every
+ * elementary change of the bulk operation as it happens.
+ *
+ * @param <K> the key element type
+ * @param <V> the value element type
+ * @since 9
+ */
+public interface BulkMapChangeListener<K, V> extends MapChangeListener<K, V> {
+
+    /**
+     * The changes done to an ObservableMap by a single bulk operation.
+     * A key whose value got replaced is contained in both
+     * {@link #getAdded()} and {@link #getRemoved()}.
+     *
+     * @param <K> key type
+     * @param <V> value type
+     * @since 9
+     */
+    public static abstract class BulkChange<K, V> {
+
+        private final ObservableMap<K,V> map;
+
+        /**
+         * Constructs a bulk change associated with a map.
+         * @param map the source of the change
+         */
+        public BulkChange(ObservableMap<K, V> map) {
+            this.map = map;
+        }
+
+        /**
+         * An observable map that is associated with the change.
+         * @return the source map
+         */
+        public ObservableMap<K, V> getMap() {
+            return map;
+        }
+
+        /**
+         * The entries that were added to the map. For a key that was already
+         * in the map, this is the new value.
+         * @return an unmodifiable map of the added entries
+         */
+        public abstract Map<K, V> getAdded();
+
+        /**
+         * The entries that were removed from the map. For a key that is still
+         * in the map, this is the old value.
+         * @return an unmodifiable map of the removed entries
+         */
+        public abstract Map<K, V> getRemoved();
+
+    }
+
+    /**
+     * Called after a bulk operation has been done to an ObservableMap.
+     * The map already contains all the changes when this method is called.
+     *
+     * @param change the changes that were made
+     */
+    void onBulkChanged(BulkChange<? extends K, ? extends V> change);
+}
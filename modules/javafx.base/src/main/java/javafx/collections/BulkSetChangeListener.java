@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package javafx.collections;
+
+import java.util.Set;
+
+/**
+ * A {@link SetChangeListener} that receives the changes done by a bulk
+ * operation of an ObservableSet, like {@code addAll(Collection)},
+ * {@code retainAll(Collection)} or {@code clear()}, in a single notification.
+ * <p>
+ * Sets that support bulk notifications call {@link #onBulkChanged(BulkChange)}
+ * once per bulk operation, after it has completed, and
+ * {@link #onChanged(SetChangeListener.Change)} for every other change.
+ * Plain {@code SetChangeListener}s and {@code InvalidationListener}s
+ * registered with the same set are not affected: they are notified of every
+ * elementary change of the bulk operation as it happens.
+ *
+ * @param <E> the element type
+ * @since 9
+ */
+public interface BulkSetChangeListener<E> extends SetChangeListener<E> {
+
+    /**
+     * The changes done to an ObservableSet by a single bulk operation.
+     *
+     * @param <E> element type
+     * @since 9
+     */
+    public static abstract class BulkChange<E> {
+
+        private final ObservableSet<E> set;
+
+        /**
+         * Constructs a bulk change associated with a set.
+         * @param set the source of the change
+         */
+        public BulkChange(ObservableSet<E> set) {
+            this.set = set;
+        }
+
+        /**
+         * An observable set that is associated with the change.
+         * @return the source set
+         */
+        public ObservableSet<E> getSet() {
+            return set;
+        }
+
+        /**
+         * The elements that were added to the set.
+         * @return an unmodifiable set of the added elements
+         */
+        public abstract Set<E> getAdded();
+
+        /**
+         * The elements that were removed from the set.
+         * @return an unmodifiable set of the removed elements
+         */
+        public abstract Set<E> getRemoved();
+
+    }
+
+    /**
+     * Called after a bulk operation has been done to an ObservableSet.
+     * The set already contains all the changes when this method is called.
+     *
+     * @param change the changes that were made
+     */
+    void onBulkChanged(BulkChange<? extends E> change);
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package javafx.collections;
+
+import java.nio.IntBuffer;
+
+/**
+ * {@code ObservableIntegerList} is an {@link ObservableList} of {@code Integer}
+ * values that keeps its elements in an {@code int[]} array. The primitive
+ * accessors and bulk operations of this interface do not box the values,
+ * and each bulk operation fires a single change for the whole range. The
+ * removed elements of such a change are boxed only when a listener reads
+ * them.
+ * <p>
+ * The list does not accept {@code null} elements. Adding or setting a
+ * {@code null} element through the {@code List<Integer>} methods throws a
+ * {@code NullPointerException}.
+ *
+ * @see ListChangeListener
+ * @since 9
+ */
+public interface ObservableIntegerList extends ObservableList<Integer> {
+
+    /**
+     * Gets a single value of the list without boxing it.
+     * @param index index of element to get
+     * @return value at the given index
+     * @throws IndexOutOfBoundsException if {@code index} is outside
+     * list bounds
+     */
+    public int getInt(int index);
+
+    /**
+     * Sets a single value of the list without boxing it.
+     * @param index index of the value to set
+     * @param value new value for the given index
+     * @throws IndexOutOfBoundsException if {@code index} is outside
+     * list bounds
+     */
+    public void setInt(int index, int value);
+
+    /**
+     * Appends a portion of given array to the end of this list.
+     * @param src source array
+     * @param srcIndex starting position in source array
+     * @param length length of portion to append
+     * @throws NullPointerException if {@code src} is null
+     * @throws ArrayIndexOutOfBoundsException if the portion is outside
+     * the bounds of {@code src}
+     */
+    public void addAll(int[] src, int srcIndex, int length);
+
+    /**
+     * Appends the remaining elements of given buffer to the end of this list.
+     * The position of the buffer is advanced to its limit.
+     * @param src source buffer
+     * @throws NullPointerException if {@code src} is null
+     */
+    public void addAll(IntBuffer src);
+
+    /**
+     * Replaces the content of this list with a copy of portion of a given
+     * array.
+     * @param src source array to copy
+     * @param srcIndex starting position in source array
+     * @param length length of a portion to copy
+     * @throws NullPointerException if {@code src} is null
+     * @throws ArrayIndexOutOfBoundsException if the portion is outside
+     * the bounds of {@code src}
+     */
+    public void setAll(int[] src, int srcIndex, int length);
+
+    /**
+     * Replaces the content of this list with the remaining elements of given
+     * buffer. The position of the buffer is advanced to its limit.
+     * @param src source buffer
+     * @throws NullPointerException if {@code src} is null
+     */
+    public void setAll(IntBuffer src);
+
+    /**
+     * Copies a portion of specified array into this list, replacing the
+     * elements from {@code destIndex} to {@code destIndex + length}.
+     * @param destIndex the starting destination position in this list
+     * @param src source array to copy
+     * @param srcIndex starting position in source array
+     * @param length length of portion to copy
+     * @throws NullPointerException if {@code src} is null
+     * @throws IndexOutOfBoundsException if the portion is outside
+     * the bounds of this list
+     * @throws ArrayIndexOutOfBoundsException if the portion is outside
+     * the bounds of {@code src}
+     */
+    public void set(int destIndex, int[] src, int srcIndex, int length);
+
+    /**
+     * Copies specified portion of this list into {@code dest} array.
+     * @param srcIndex starting position in this list
+     * @param dest destination array
+     * @param destIndex starting position in destination array
+     * @param length length of portion to copy
+     * @throws IndexOutOfBoundsException if the portion is outside
+     * the bounds of this list
+     * @throws ArrayIndexOutOfBoundsException if the portion is outside
+     * the bounds of {@code dest}
+     */
+    public void copyTo(int srcIndex, int[] dest, int destIndex, int length);
+
+}
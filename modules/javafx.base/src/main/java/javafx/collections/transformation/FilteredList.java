@@ -26,6 +26,7 @@
 package javafx.collections.transformation;
 
 import com.sun.javafx.collections.NonIterableChange.GenericAddRemoveChange;
+import com.sun.javafx.collections.ParallelHelper;
 import com.sun.javafx.collections.SortHelper;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -268,16 +269,23 @@ public final class FilteredList<E> extends TransformationList<E, E>{
             System.arraycopy(filtered, to, filtered, fpos, size - to);
             size -= to - fpos;
         } else {
-            // Add the remaining elements
+            // Add the remaining elements. The ones that match are collected
+            // first, so that the rest of the mapping is moved only once.
+            int[] added = null;
+            int addedSize = 0;
             while (it.nextIndex() < c.getTo()) {
                 if (pred.test(it.next())) {
-                    System.arraycopy(filtered, fpos, filtered, fpos + 1, size - fpos);
-                    filtered[fpos] = it.previousIndex();
-                    nextAdd(fpos, fpos + 1);
-                    ++fpos;
-                    ++size;
+                    if (added == null) {
+                        added = new int[c.getTo() - it.previousIndex()];
+                    }
+                    added[addedSize++] = it.previousIndex();
                 }
-                ++pos;
+            }
+            if (addedSize > 0) {
+                System.arraycopy(filtered, fpos, filtered, fpos + addedSize, size - fpos);
+                System.arraycopy(added, 0, filtered, fpos, addedSize);
+                nextAdd(fpos, fpos + addedSize);
+                size += addedSize;
             }
         }
     }
@@ -325,14 +333,23 @@ public final class FilteredList<E> extends TransformationList<E, E>{
             removed = new ArrayList<>(this);
         }
         size = 0;
-        int i = 0;
         Predicate<? super E> pred = getPredicateImpl();
-        for (Iterator<? extends E> it = getSource().iterator();it.hasNext(); ) {
-            final E next = it.next();
-            if (pred.test(next)) {
-                filtered[size++] = i;
+        if (ParallelHelper.isParallel(getSource().size())) {
+            final boolean[] matches = ParallelHelper.test(getSource(), pred);
+            for (int i = 0; i < matches.length; ++i) {
+                if (matches[i]) {
+                    filtered[size++] = i;
+                }
+            }
+        } else {
+            int i = 0;
+            for (Iterator<? extends E> it = getSource().iterator();it.hasNext(); ) {
+                final E next = it.next();
+                if (pred.test(next)) {
+                    filtered[size++] = i;
+                }
+                ++i;
             }
-            ++i;
         }
         if (hasListeners()) {
             fireChange(new GenericAddRemoveChange<>(0, size, removed, this));
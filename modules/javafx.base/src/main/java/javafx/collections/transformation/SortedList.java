@@ -26,6 +26,7 @@
 package javafx.collections.transformation;
 
 import com.sun.javafx.collections.NonIterableChange.SimplePermutationChange;
+import com.sun.javafx.collections.ParallelHelper;
 import com.sun.javafx.collections.SortHelper;
 import com.sun.javafx.collections.SourceAdapterChange;
 
@@ -182,7 +183,20 @@ public final class SortedList<E> extends TransformationList<E, E>{
 
     private void doSortWithPermutationChange() {
         if (elementComparator != null) {
-            int[] perm = helper.sort(sorted, 0, size, elementComparator);
+            int[] perm;
+            if (ParallelHelper.isParallel(size)) {
+                perm = new int[size];
+                int[] oldPositions = new int[size];
+                for (int i = 0; i < size; i++) {
+                    oldPositions[sorted[i].index] = i;
+                }
+                ParallelHelper.sort(sorted, 0, size, elementComparator);
+                for (int i = 0; i < size; i++) {
+                    perm[oldPositions[sorted[i].index]] = i;
+                }
+            } else {
+                perm = helper.sort(sorted, 0, size, elementComparator);
+            }
             for (int i = 0; i < size; i++) {
                 this.perm[sorted[i].index] = i;
             }
@@ -348,6 +362,60 @@ public final class SortedList<E> extends TransformationList<E, E>{
 
     }
 
+    /*
+     * Inserts the elements of the source from index "from" to "to" at once.
+     * The added elements are sorted and then merged into the mapping, so
+     * that the elements of the mapping are moved only once, instead of once
+     * per added element as insertToMapping would do.
+     */
+    private void insertAllToMapping(List<? extends E> list, int from, int to) {
+        final int count = to - from;
+        @SuppressWarnings("unchecked")
+        final Element<E>[] added = (Element<E>[]) new Element[count];
+        for (int i = 0; i < count; ++i) {
+            added[i] = new Element<>(list.get(from + i), from + i);
+        }
+        Arrays.sort(added, elementComparator);
+
+        ensureSize(size + count);
+        for (int i = 0; i < size; ++i) {
+            if (sorted[i].index >= from) {
+                sorted[i].index += count;
+            }
+        }
+
+        final int[] insertAt = new int[count];
+        for (int i = 0, low = 0; i < count; ++i) {
+            final int pos = Arrays.binarySearch(sorted, low, size, added[i], elementComparator);
+            low = insertAt[i] = pos < 0 ? ~pos : pos;
+        }
+
+        // merge, starting from the end so that nothing is overwritten
+        int remaining = size;
+        int dst = size + count;
+        for (int i = count - 1; i >= 0; --i) {
+            final int length = remaining - insertAt[i];
+            dst -= length;
+            System.arraycopy(sorted, insertAt[i], sorted, dst, length);
+            remaining = insertAt[i];
+            sorted[--dst] = added[i];
+        }
+        size += count;
+        for (int i = 0; i < size; ++i) {
+            perm[sorted[i].index] = i;
+        }
+
+        // the i-th added element is now at insertAt[i] + i
+        for (int i = 0; i < count;) {
+            final int addFrom = insertAt[i] + i;
+            int addTo = addFrom + 1;
+            for (++i; i < count && insertAt[i] + i == addTo; ++i) {
+                ++addTo;
+            }
+            nextAdd(addFrom, addTo);
+        }
+    }
+
     private void setAllToMapping(List<? extends E> list, int to) {
         ensureSize(to);
         size = to;
@@ -380,12 +448,68 @@ public final class SortedList<E> extends TransformationList<E, E>{
     }
 
     private void update(Change<? extends E> c) {
-        int[] perm = helper.sort(sorted, 0, size, elementComparator);
-        for (int i = 0; i < size; i++) {
-            this.perm[sorted[i].index] = i;
+        final int from = c.getFrom();
+        final int to = c.getTo();
+        final int count = to - from;
+
+        // The elements that were not updated are still in order. So the
+        // updated elements are taken out, sorted, and then put back where
+        // they belong, which only moves the elements between the old and
+        // the new positions of the updated ones. Ties are broken by the
+        // position before the update, as a stable sort of the whole list
+        // would do.
+        final int[] positions = new int[count];
+        for (int i = 0; i < count; ++i) {
+            positions[i] = perm[from + i];
+        }
+        Arrays.sort(positions);
+
+        @SuppressWarnings("unchecked")
+        final Element<E>[] updated = (Element<E>[]) new Element[count];
+        int remaining = positions[0];
+        for (int i = 0; i < count; ++i) {
+            updated[i] = sorted[positions[i]];
+            final int next = i + 1 < count ? positions[i + 1] : size;
+            System.arraycopy(sorted, positions[i] + 1, sorted, remaining, next - positions[i] - 1);
+            remaining += next - positions[i] - 1;
+        }
+
+        final Comparator<Element<E>> positionComparator = (e1, e2) -> {
+            final int result = elementComparator.compare(e1, e2);
+            return result != 0 ? result : Integer.compare(this.perm[e1.index], this.perm[e2.index]);
+        };
+        Arrays.sort(updated, positionComparator);
+
+        final int[] insertAt = new int[count];
+        for (int i = 0, low = 0; i < count; ++i) {
+            low = insertAt[i] = ~Arrays.binarySearch(sorted, low, remaining, updated[i], positionComparator);
         }
-        nextPermutation(0, size, perm);
-        for (int i = c.getFrom(), to = c.getTo(); i < to; ++i) {
+
+        // merge, starting from the end so that nothing is overwritten
+        int dst = size;
+        for (int i = count - 1; i >= 0; --i) {
+            final int length = remaining - insertAt[i];
+            dst -= length;
+            System.arraycopy(sorted, insertAt[i], sorted, dst, length);
+            remaining = insertAt[i];
+            sorted[--dst] = updated[i];
+        }
+
+        final int permFrom = Math.min(positions[0], insertAt[0]);
+        final int permTo = Math.max(positions[count - 1], insertAt[count - 1] + count - 1) + 1;
+        final int[] perm = new int[permTo - permFrom];
+        boolean permutated = false;
+        for (int i = permFrom; i < permTo; ++i) {
+            final Element<E> element = sorted[i];
+            final int oldPosition = this.perm[element.index];
+            perm[oldPosition - permFrom] = i;
+            this.perm[element.index] = i;
+            permutated |= oldPosition != i;
+        }
+        if (permutated) {
+            nextPermutation(permFrom, permTo, perm);
+        }
+        for (int i = from; i < to; ++i) {
             nextUpdate(this.perm[i]);
         }
     }
@@ -401,10 +525,10 @@ public final class SortedList<E> extends TransformationList<E, E>{
         if (size == 0) {
             setAllToMapping(c.getList(), c.getTo()); // This is basically equivalent to getAddedSubList
                                                      // as size is 0, only valid "from" is also 0
-        } else {
-            for (int i = c.getFrom(), to = c.getTo(); i < to; ++i) {
-                insertToMapping(c.getList().get(i), i);
-            }
+        } else if (c.getAddedSize() == 1) {
+            insertToMapping(c.getList().get(c.getFrom()), c.getFrom());
+        } else if (c.getAddedSize() > 1) {
+            insertAllToMapping(c.getList(), c.getFrom(), c.getTo());
         }
     }
 
@@ -31,6 +31,7 @@ import javafx.beans.InvalidationListener;
 import test.javafx.beans.InvalidationListenerMock;
 import javafx.beans.Observable;
 import test.javafx.beans.WeakInvalidationListenerMock;
+import javafx.beans.binding.DoubleBinding;
 import javafx.beans.value.ChangeListener;
 import test.javafx.beans.value.ChangeListenerMock;
 import javafx.beans.value.ObservableValue;
@@ -645,4 +646,143 @@ public class ExpressionHelperTest {
         assertEquals(4, called.get());
     }
 
+    @Test
+    public void testRemoveInvalidationWhileReentrant() {
+        AtomicInteger called = new AtomicInteger(0);
+        Thread.currentThread().setUncaughtExceptionHandler((t, e) -> called.incrementAndGet());
+
+        final InvalidationListener reentrantListener = new InvalidationListener() {
+            boolean fired;
+            @Override public void invalidated(Observable o) {
+                if (!fired) {
+                    fired = true;
+                    ExpressionHelper.fireValueChangedEvent(helper);
+                }
+            }
+        };
+        final InvalidationListener removingListener = new InvalidationListener() {
+            int count;
+            @Override public void invalidated(Observable o) {
+                // the first call is nested, the second one removes a listener after it
+                if (++count == 2) {
+                    helper = ExpressionHelper.removeListener(helper, invalidationListener[0]);
+                }
+            }
+        };
+        helper = ExpressionHelper.addListener(helper, observable, reentrantListener);
+        helper = ExpressionHelper.addListener(helper, observable, removingListener);
+        helper = ExpressionHelper.addListener(helper, observable, invalidationListener[0]);
+        helper = ExpressionHelper.addListener(helper, observable, invalidationListener[1]);
+
+        ExpressionHelper.fireValueChangedEvent(helper);
+        assertEquals(0, called.get());
+        invalidationListener[0].check(observable, 2);
+        invalidationListener[1].check(observable, 2);
+
+        ExpressionHelper.fireValueChangedEvent(helper);
+        invalidationListener[0].check(null, 0);
+        invalidationListener[1].check(observable, 1);
+    }
+
+    @Test
+    public void testInterleavedListeners() {
+        final InvalidationListener weakInvalidationListener = new WeakInvalidationListenerMock();
+        final ChangeListener<Object> weakChangeListener = new WeakChangeListenerMock();
+
+        helper = ExpressionHelper.addListener(helper, observable, changeListener[0]);
+        helper = ExpressionHelper.addListener(helper, observable, weakInvalidationListener);
+        helper = ExpressionHelper.addListener(helper, observable, weakChangeListener);
+        helper = ExpressionHelper.addListener(helper, observable, invalidationListener[0]);
+        helper = ExpressionHelper.addListener(helper, observable, changeListener[1]);
+        helper = ExpressionHelper.addListener(helper, observable, invalidationListener[1]);
+        helper = ExpressionHelper.addListener(helper, observable, changeListener[2]);
+        helper = ExpressionHelper.addListener(helper, observable, invalidationListener[2]);
+        helper = ExpressionHelper.removeListener(helper, invalidationListener[0]);
+        helper = ExpressionHelper.removeListener(helper, changeListener[1]);
+
+        observable.set(DATA_2);
+        ExpressionHelper.fireValueChangedEvent(helper);
+        invalidationListener[0].check(null, 0);
+        invalidationListener[1].check(observable, 1);
+        invalidationListener[2].check(observable, 1);
+        changeListener[0].check(observable, DATA_1, DATA_2, 1);
+        changeListener[1].check(null, UNDEFINED, UNDEFINED, 0);
+        changeListener[2].check(observable, DATA_1, DATA_2, 1);
+
+        helper = ExpressionHelper.removeListener(helper, changeListener[0]);
+        helper = ExpressionHelper.removeListener(helper, invalidationListener[1]);
+        helper = ExpressionHelper.removeListener(helper, changeListener[2]);
+        observable.set(DATA_1);
+        ExpressionHelper.fireValueChangedEvent(helper);
+        invalidationListener[1].check(null, 0);
+        invalidationListener[2].check(observable, 1);
+        changeListener[0].check(null, UNDEFINED, UNDEFINED, 0);
+        changeListener[2].check(null, UNDEFINED, UNDEFINED, 0);
+    }
+
+    @Test
+    public void testAddInvalidationBeforeChangeListenersWhileLocked() {
+        final ChangeListener<Object> addingListener = (o, oldValue, newValue) ->
+                helper = ExpressionHelper.addListener(helper, observable, invalidationListener[0]);
+        helper = ExpressionHelper.addListener(helper, observable, addingListener);
+        helper = ExpressionHelper.addListener(helper, observable, changeListener[0]);
+        // leaves room for the invalidation listener in the array
+        helper = ExpressionHelper.addListener(helper, observable, changeListener[1]);
+
+        observable.set(DATA_2);
+        ExpressionHelper.fireValueChangedEvent(helper);
+        invalidationListener[0].check(null, 0);
+        changeListener[0].check(observable, DATA_1, DATA_2, 1);
+        changeListener[1].check(observable, DATA_1, DATA_2, 1);
+
+        helper = ExpressionHelper.removeListener(helper, addingListener);
+        observable.set(DATA_1);
+        ExpressionHelper.fireValueChangedEvent(helper);
+        invalidationListener[0].check(observable, 1);
+        changeListener[0].check(observable, DATA_2, DATA_1, 1);
+        changeListener[1].check(observable, DATA_2, DATA_1, 1);
+    }
+
+    @Test
+    public void testPrimitiveValueNotBoxedUnlessChanged() {
+        final AtomicInteger getValueCalls = new AtomicInteger(0);
+        final double[] value = {1.0};
+        final DoubleBinding binding = new DoubleBinding() {
+            @Override protected double computeValue() {
+                return value[0];
+            }
+            @Override public Double getValue() {
+                getValueCalls.incrementAndGet();
+                return super.getValue();
+            }
+        };
+        final ChangeListenerMock<Object> listener0 = new ChangeListenerMock<>(UNDEFINED);
+        final ChangeListenerMock<Object> listener1 = new ChangeListenerMock<>(UNDEFINED);
+
+        binding.addListener(listener0);
+        getValueCalls.set(0);
+        binding.invalidate();
+        assertEquals(0, getValueCalls.get());
+        listener0.check(null, UNDEFINED, UNDEFINED, 0);
+
+        value[0] = 2.0;
+        binding.invalidate();
+        assertEquals(1, getValueCalls.get());
+        listener0.check(binding, 1.0, 2.0, 1);
+
+        binding.addListener(listener1);
+        getValueCalls.set(0);
+        binding.invalidate();
+        assertEquals(0, getValueCalls.get());
+        listener0.check(null, UNDEFINED, UNDEFINED, 0);
+        listener1.check(null, UNDEFINED, UNDEFINED, 0);
+
+        value[0] = Double.NaN;
+        binding.invalidate();
+        binding.invalidate();
+        assertEquals(1, getValueCalls.get());
+        listener0.check(binding, 2.0, Double.NaN, 1);
+        listener1.check(binding, 2.0, Double.NaN, 1);
+    }
+
 }
@@ -338,8 +338,26 @@ public class ExpressionHelperUtility {
         return Collections.emptyList();
     }
 
+    private static Object[] getSharedListeners(Class clazz, Object helper) throws Exception {
+        // ExpressionHelper keeps both kinds of listeners in one array
+        for (Field field : clazz.getDeclaredFields()) {
+            if (field.getName().equals("listeners")) {
+                field.setAccessible(true);
+                return (Object[])field.get(helper);
+            }
+        }
+        return null;
+    }
+
     private static List<InvalidationListener> getInvalidationListenerFromGenericClass(Class clazz, Object helper) {
         try {
+            final Object[] shared = getSharedListeners(clazz, helper);
+            if (shared != null) {
+                final Field sizeField = clazz.getDeclaredField("invalidationSize");
+                sizeField.setAccessible(true);
+                final int size = sizeField.getInt(helper);
+                return Arrays.asList(Arrays.copyOf(shared, size, InvalidationListener[].class));
+            }
             final Field field = clazz.getDeclaredField("invalidationListeners");
             field.setAccessible(true);
             final InvalidationListener[] listeners = (InvalidationListener[])field.get(helper);
@@ -365,6 +383,16 @@ public class ExpressionHelperUtility {
 
     private static <T> List<ChangeListener<? super T>> getChangeListenerFromGenericClass(Class clazz, Object helper) {
         try {
+            final Object[] shared = getSharedListeners(clazz, helper);
+            if (shared != null) {
+                final Field offsetField = clazz.getDeclaredField("invalidationSize");
+                offsetField.setAccessible(true);
+                final int offset = offsetField.getInt(helper);
+                final Field sizeField = clazz.getDeclaredField("changeSize");
+                sizeField.setAccessible(true);
+                final int size = sizeField.getInt(helper);
+                return Arrays.asList(Arrays.copyOfRange(shared, offset, offset + size, ChangeListener[].class));
+            }
             final Field field = clazz.getDeclaredField("changeListeners");
             field.setAccessible(true);
             final ChangeListener<? super T>[] listeners = (ChangeListener[])field.get(helper);
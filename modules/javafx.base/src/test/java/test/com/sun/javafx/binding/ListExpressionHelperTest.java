@@ -955,4 +955,38 @@ public class ListExpressionHelperTest {
 
 
     }
+
+    @Test
+    public void testRemoveInvalidationWhileReentrant() {
+        final InvalidationListener reentrantListener = new InvalidationListener() {
+            boolean fired;
+            @Override public void invalidated(Observable o) {
+                if (!fired) {
+                    fired = true;
+                    ListExpressionHelper.fireValueChangedEvent(helper);
+                }
+            }
+        };
+        final InvalidationListener removingListener = new InvalidationListener() {
+            int count;
+            @Override public void invalidated(Observable o) {
+                // the first call is nested, the second one removes a listener after it
+                if (++count == 2) {
+                    helper = ListExpressionHelper.removeListener(helper, invalidationListener[0]);
+                }
+            }
+        };
+        helper = ListExpressionHelper.addListener(helper, observable, reentrantListener);
+        helper = ListExpressionHelper.addListener(helper, observable, removingListener);
+        helper = ListExpressionHelper.addListener(helper, observable, invalidationListener[0]);
+        helper = ListExpressionHelper.addListener(helper, observable, invalidationListener[1]);
+
+        ListExpressionHelper.fireValueChangedEvent(helper);
+        invalidationListener[0].check(observable, 2);
+        invalidationListener[1].check(observable, 2);
+
+        ListExpressionHelper.fireValueChangedEvent(helper);
+        invalidationListener[0].check(null, 0);
+        invalidationListener[1].check(observable, 1);
+    }
 }
@@ -26,6 +26,8 @@
 package test.com.sun.javafx.binding;
 
 import com.sun.javafx.binding.MapExpressionHelper;
+import javafx.beans.InvalidationListener;
+import javafx.beans.Observable;
 import javafx.beans.property.MapProperty;
 import javafx.beans.property.SimpleMapProperty;
 import javafx.collections.FXCollections;
@@ -234,4 +236,38 @@ public class MapExpressionHelperTest {
         mapChangeListener[1].assertRemoved(MockMapObserver.Tuple.tup(key, value));
         mapChangeListener[1].clear();
     }
+
+    @Test
+    public void testRemoveInvalidationWhileReentrant() {
+        final InvalidationListener reentrantListener = new InvalidationListener() {
+            boolean fired;
+            @Override public void invalidated(Observable o) {
+                if (!fired) {
+                    fired = true;
+                    MapExpressionHelper.fireValueChangedEvent(helper);
+                }
+            }
+        };
+        final InvalidationListener removingListener = new InvalidationListener() {
+            int count;
+            @Override public void invalidated(Observable o) {
+                // the first call is nested, the second one removes a listener after it
+                if (++count == 2) {
+                    helper = MapExpressionHelper.removeListener(helper, invalidationListener[0]);
+                }
+            }
+        };
+        helper = MapExpressionHelper.addListener(helper, observable, reentrantListener);
+        helper = MapExpressionHelper.addListener(helper, observable, removingListener);
+        helper = MapExpressionHelper.addListener(helper, observable, invalidationListener[0]);
+        helper = MapExpressionHelper.addListener(helper, observable, invalidationListener[1]);
+
+        MapExpressionHelper.fireValueChangedEvent(helper);
+        invalidationListener[0].check(observable, 2);
+        invalidationListener[1].check(observable, 2);
+
+        MapExpressionHelper.fireValueChangedEvent(helper);
+        invalidationListener[0].check(null, 0);
+        invalidationListener[1].check(observable, 1);
+    }
 }
@@ -26,6 +26,8 @@
 package test.com.sun.javafx.binding;
 
 import com.sun.javafx.binding.SetExpressionHelper;
+import javafx.beans.InvalidationListener;
+import javafx.beans.Observable;
 import javafx.beans.property.SetProperty;
 import javafx.beans.property.SimpleSetProperty;
 import javafx.collections.FXCollections;
@@ -231,4 +233,38 @@ public class SetExpressionHelperTest {
         setChangeListener[1].assertRemoved(MockSetObserver.Tuple.tup(value));
         setChangeListener[1].clear();
     }
+
+    @Test
+    public void testRemoveInvalidationWhileReentrant() {
+        final InvalidationListener reentrantListener = new InvalidationListener() {
+            boolean fired;
+            @Override public void invalidated(Observable o) {
+                if (!fired) {
+                    fired = true;
+                    SetExpressionHelper.fireValueChangedEvent(helper);
+                }
+            }
+        };
+        final InvalidationListener removingListener = new InvalidationListener() {
+            int count;
+            @Override public void invalidated(Observable o) {
+                // the first call is nested, the second one removes a listener after it
+                if (++count == 2) {
+                    helper = SetExpressionHelper.removeListener(helper, invalidationListener[0]);
+                }
+            }
+        };
+        helper = SetExpressionHelper.addListener(helper, observable, reentrantListener);
+        helper = SetExpressionHelper.addListener(helper, observable, removingListener);
+        helper = SetExpressionHelper.addListener(helper, observable, invalidationListener[0]);
+        helper = SetExpressionHelper.addListener(helper, observable, invalidationListener[1]);
+
+        SetExpressionHelper.fireValueChangedEvent(helper);
+        invalidationListener[0].check(observable, 2);
+        invalidationListener[1].check(observable, 2);
+
+        SetExpressionHelper.fireValueChangedEvent(helper);
+        invalidationListener[0].check(null, 0);
+        invalidationListener[1].check(observable, 1);
+    }
 }
@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package test.com.sun.javafx.collections;
+
+import com.sun.javafx.collections.ArrayListenerHelper;
+import javafx.beans.InvalidationListener;
+import javafx.beans.Observable;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableIntegerArray;
+import org.junit.Before;
+import org.junit.Test;
+import test.javafx.beans.InvalidationListenerMock;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+
+public class ArrayListenerHelperTest {
+
+    private InvalidationListenerMock[] invalidationListenerMock;
+
+    private ArrayListenerHelper helper;
+
+    private ObservableIntegerArray array;
+
+    @Before
+    public void setUp() {
+        invalidationListenerMock = new InvalidationListenerMock[] {
+                new InvalidationListenerMock(),
+                new InvalidationListenerMock()
+        };
+        helper = null;
+        array = FXCollections.observableIntegerArray(1, 2, 3);
+    }
+
+    @Test
+    public void testRemoveInvalidationWhileReentrant() {
+        AtomicInteger called = new AtomicInteger(0);
+        Thread.currentThread().setUncaughtExceptionHandler((t, e) -> called.incrementAndGet());
+
+        final InvalidationListener reentrantListener = new InvalidationListener() {
+            boolean fired;
+            @Override public void invalidated(Observable o) {
+                if (!fired) {
+                    fired = true;
+                    ArrayListenerHelper.fireValueChangedEvent(helper, false, 0, 1);
+                }
+            }
+        };
+        final InvalidationListener removingListener = new InvalidationListener() {
+            int count;
+            @Override public void invalidated(Observable o) {
+                // the first call is nested, the second one removes a listener after it
+                if (++count == 2) {
+                    helper = ArrayListenerHelper.removeListener(helper, invalidationListenerMock[0]);
+                }
+            }
+        };
+        helper = ArrayListenerHelper.addListener(helper, array, reentrantListener);
+        helper = ArrayListenerHelper.addListener(helper, array, removingListener);
+        helper = ArrayListenerHelper.addListener(helper, array, invalidationListenerMock[0]);
+        helper = ArrayListenerHelper.addListener(helper, array, invalidationListenerMock[1]);
+
+        ArrayListenerHelper.fireValueChangedEvent(helper, false, 0, 1);
+        assertEquals(0, called.get());
+        invalidationListenerMock[0].check(array, 2);
+        invalidationListenerMock[1].check(array, 2);
+
+        ArrayListenerHelper.fireValueChangedEvent(helper, false, 0, 1);
+        invalidationListenerMock[0].check(null, 0);
+        invalidationListenerMock[1].check(array, 1);
+    }
+}
@@ -738,4 +738,41 @@ public class ListListenerHelperTest {
         assertEquals(4, called.get());
     }
 
+    @Test
+    public void testRemoveInvalidationWhileReentrant() {
+        AtomicInteger called = new AtomicInteger(0);
+        Thread.currentThread().setUncaughtExceptionHandler((t, e) -> called.incrementAndGet());
+
+        final InvalidationListener reentrantListener = new InvalidationListener() {
+            boolean fired;
+            @Override public void invalidated(Observable o) {
+                if (!fired) {
+                    fired = true;
+                    ListListenerHelper.fireValueChangedEvent(helper, change);
+                }
+            }
+        };
+        final InvalidationListener removingListener = new InvalidationListener() {
+            int count;
+            @Override public void invalidated(Observable o) {
+                // the first call is nested, the second one removes a listener after it
+                if (++count == 2) {
+                    helper = ListListenerHelper.removeListener(helper, invalidationListenerMock[0]);
+                }
+            }
+        };
+        helper = ListListenerHelper.addListener(helper, reentrantListener);
+        helper = ListListenerHelper.addListener(helper, removingListener);
+        helper = ListListenerHelper.addListener(helper, invalidationListenerMock[0]);
+        helper = ListListenerHelper.addListener(helper, invalidationListenerMock[1]);
+
+        ListListenerHelper.fireValueChangedEvent(helper, change);
+        assertEquals(0, called.get());
+        invalidationListenerMock[0].check(list, 2);
+        invalidationListenerMock[1].check(list, 2);
+
+        ListListenerHelper.fireValueChangedEvent(helper, change);
+        invalidationListenerMock[0].check(null, 0);
+        invalidationListenerMock[1].check(list, 1);
+    }
 }
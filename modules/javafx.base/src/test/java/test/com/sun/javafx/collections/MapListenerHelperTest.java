@@ -739,4 +739,41 @@ public class MapListenerHelperTest {
         assertEquals(4, called.get());
     }
 
+    @Test
+    public void testRemoveInvalidationWhileReentrant() {
+        AtomicInteger called = new AtomicInteger(0);
+        Thread.currentThread().setUncaughtExceptionHandler((t, e) -> called.incrementAndGet());
+
+        final InvalidationListener reentrantListener = new InvalidationListener() {
+            boolean fired;
+            @Override public void invalidated(Observable o) {
+                if (!fired) {
+                    fired = true;
+                    MapListenerHelper.fireValueChangedEvent(helper, change);
+                }
+            }
+        };
+        final InvalidationListener removingListener = new InvalidationListener() {
+            int count;
+            @Override public void invalidated(Observable o) {
+                // the first call is nested, the second one removes a listener after it
+                if (++count == 2) {
+                    helper = MapListenerHelper.removeListener(helper, invalidationListenerMock[0]);
+                }
+            }
+        };
+        helper = MapListenerHelper.addListener(helper, reentrantListener);
+        helper = MapListenerHelper.addListener(helper, removingListener);
+        helper = MapListenerHelper.addListener(helper, invalidationListenerMock[0]);
+        helper = MapListenerHelper.addListener(helper, invalidationListenerMock[1]);
+
+        MapListenerHelper.fireValueChangedEvent(helper, change);
+        assertEquals(0, called.get());
+        invalidationListenerMock[0].check(map, 2);
+        invalidationListenerMock[1].check(map, 2);
+
+        MapListenerHelper.fireValueChangedEvent(helper, change);
+        invalidationListenerMock[0].check(null, 0);
+        invalidationListenerMock[1].check(map, 1);
+    }
 }
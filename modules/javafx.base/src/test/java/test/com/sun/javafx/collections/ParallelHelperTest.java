@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package test.com.sun.javafx.collections;
+
+import com.sun.javafx.collections.ParallelHelper;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Predicate;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class ParallelHelperTest {
+
+    private List<String> list;
+
+    @Before
+    public void setUp() {
+        Random random = new Random(2468);
+        list = new ArrayList<>();
+        for (int i = 0; i < 1000; ++i) {
+            list.add(Character.toString((char) ('a' + random.nextInt(26))) + i);
+        }
+    }
+
+    private static boolean[] sequentialTest(List<String> list, Predicate<Object> predicate) {
+        boolean[] result = new boolean[list.size()];
+        for (int i = 0; i < result.length; ++i) {
+            result[i] = predicate.test(list.get(i));
+        }
+        return result;
+    }
+
+    @Test
+    public void testTest() {
+        for (char c = 'a'; c < 'f'; ++c) {
+            String s = Character.toString(c);
+            Predicate<Object> predicate = e -> e.toString().compareTo(s) > 0;
+            assertTrue(Arrays.equals(sequentialTest(list, predicate), ParallelHelper.test(list, predicate)));
+        }
+    }
+
+    @Test
+    public void testTestLinkedList() {
+        Predicate<String> predicate = e -> e.startsWith("q");
+        List<String> linked = new LinkedList<>(list);
+        boolean[] result = ParallelHelper.test(linked, predicate);
+        assertEquals(list.size(), result.length);
+        for (int i = 0; i < result.length; ++i) {
+            assertEquals(list.get(i).startsWith("q"), result[i]);
+        }
+    }
+
+    @Test
+    public void testTestEmpty() {
+        assertEquals(0, ParallelHelper.test(new ArrayList<String>(), e -> true).length);
+    }
+
+    @Test
+    public void testSortIsStable() {
+        // only compares the first character, so that many elements are equal
+        Comparator<String> c = (s1, s2) -> s1.charAt(0) - s2.charAt(0);
+        String[] expected = list.toArray(new String[list.size()]);
+        String[] actual = expected.clone();
+        Arrays.sort(expected, 100, 900, c);
+        ParallelHelper.sort(actual, 100, 900, c);
+        assertArrayEquals(expected, actual);
+    }
+}
@@ -0,0 +1,222 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package test.javafx.binding;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import javafx.beans.Observable;
+import javafx.beans.binding.Bindings;
+import javafx.beans.binding.IntegerBinding;
+import javafx.beans.property.IntegerProperty;
+import javafx.beans.property.ListProperty;
+import javafx.beans.property.MapProperty;
+import javafx.beans.property.SetProperty;
+import javafx.beans.property.SimpleIntegerProperty;
+import javafx.beans.property.SimpleListProperty;
+import javafx.beans.property.SimpleMapProperty;
+import javafx.beans.property.SimpleSetProperty;
+import javafx.beans.value.ChangeListener;
+import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class BindingsBatchTest {
+
+    private IntegerProperty source;
+    private IntegerBinding left;
+    private IntegerBinding right;
+    private IntegerBinding bottom;
+    private AtomicInteger bottomComputations;
+    private List<Number> bottomValues;
+
+    @Before
+    public void setUp() {
+        source = new SimpleIntegerProperty(1);
+        left = Bindings.createIntegerBinding(() -> source.get() + 1, source);
+        right = Bindings.createIntegerBinding(() -> source.get() * 2, source);
+        bottomComputations = new AtomicInteger();
+        bottom = Bindings.createIntegerBinding(() -> {
+            bottomComputations.incrementAndGet();
+            return left.get() + right.get();
+        }, left, right);
+        bottomValues = new ArrayList<>();
+        bottom.addListener((o, oldValue, newValue) -> bottomValues.add(newValue));
+        bottomComputations.set(0);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testBatch_Null() {
+        Bindings.batch(null);
+    }
+
+    @Test
+    public void testDiamondIsComputedOnce() {
+        Bindings.batch(() -> source.set(5));
+        assertEquals(16, bottom.get());
+        assertEquals(1, bottomComputations.get());
+        assertEquals(Arrays.asList(16), bottomValues);
+    }
+
+    @Test
+    public void testManySourcesNotifyOnce() {
+        final IntegerProperty[] sources = new IntegerProperty[100];
+        for (int i = 0; i < sources.length; i++) {
+            sources[i] = new SimpleIntegerProperty(i);
+        }
+        final AtomicInteger computations = new AtomicInteger();
+        final IntegerBinding sum = Bindings.createIntegerBinding(() -> {
+            computations.incrementAndGet();
+            return Arrays.stream(sources).mapToInt(IntegerProperty::get).sum();
+        }, (Observable[]) sources);
+        final AtomicInteger notifications = new AtomicInteger();
+        sum.addListener((o, oldValue, newValue) -> notifications.incrementAndGet());
+        computations.set(0);
+
+        Bindings.batch(() -> {
+            for (IntegerProperty p : sources) {
+                p.set(p.get() + 1);
+            }
+        });
+        assertEquals(1, computations.get());
+        assertEquals(1, notifications.get());
+        assertEquals(4950 + 100, sum.get());
+    }
+
+    @Test
+    public void testValuesAreCurrentInsideBatch() {
+        Bindings.batch(() -> {
+            source.set(5);
+            assertEquals(16, bottom.get());
+            source.set(6);
+            assertEquals(19, bottom.get());
+            assertTrue(bottomValues.isEmpty());
+        });
+        assertEquals(Arrays.asList(19), bottomValues);
+    }
+
+    @Test
+    public void testBatchOfOtherThreadIsNotShared() throws Exception {
+        final CountDownLatch batchOpen = new CountDownLatch(1);
+        final CountDownLatch done = new CountDownLatch(1);
+        final Thread thread = new Thread(() -> Bindings.batch(() -> {
+            batchOpen.countDown();
+            try {
+                done.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        thread.start();
+        try {
+            batchOpen.await();
+            source.set(5);
+            // notified immediately, as without any batch
+            assertFalse(bottomValues.isEmpty());
+            assertEquals(16, bottomValues.get(bottomValues.size() - 1));
+        } finally {
+            done.countDown();
+            thread.join();
+        }
+    }
+
+    @Test
+    public void testNestedBatches() {
+        Bindings.batch(() -> {
+            Bindings.batch(() -> source.set(5));
+            assertTrue(bottomValues.isEmpty());
+            source.set(2);
+        });
+        assertEquals(Arrays.asList(7), bottomValues);
+    }
+
+    @Test
+    public void testBatchEndsOnException() {
+        try {
+            Bindings.batch(() -> {
+                source.set(5);
+                throw new IllegalStateException();
+            });
+            fail();
+        } catch (IllegalStateException e) {
+            // expected
+        }
+        assertEquals(Arrays.asList(16), bottomValues);
+
+        source.set(2);
+        assertEquals(7, bottomValues.get(bottomValues.size() - 1));
+    }
+
+    @Test
+    public void testListenerAddedInBatchKeepsPendingChange() {
+        final IntegerProperty p = new SimpleIntegerProperty(1);
+        final List<Number> values = new ArrayList<>();
+        p.addListener((o, oldValue, newValue) -> values.add(oldValue));
+        Bindings.batch(() -> {
+            p.set(5);
+            p.addListener((o, oldValue, newValue) -> values.add(oldValue));
+        });
+        assertEquals(Arrays.asList(1, 1), values);
+    }
+
+    @Test
+    public void testListenerRemovedInBatchIsNotNotified() {
+        final IntegerProperty p = new SimpleIntegerProperty(1);
+        final AtomicInteger notifications = new AtomicInteger();
+        final ChangeListener<Number> removed = (o, oldValue, newValue) -> fail();
+        p.addListener(removed);
+        p.addListener((o, oldValue, newValue) -> notifications.incrementAndGet());
+        Bindings.batch(() -> {
+            p.set(5);
+            p.removeListener(removed);
+        });
+        assertEquals(1, notifications.get());
+    }
+
+    @Test
+    public void testCollectionPropertiesAreNotDeferred() {
+        final ListProperty<Integer> list = new SimpleListProperty<>(FXCollections.observableArrayList());
+        final SetProperty<Integer> set = new SimpleSetProperty<>(FXCollections.observableSet());
+        final MapProperty<Integer, Integer> map = new SimpleMapProperty<>(FXCollections.observableHashMap());
+        final List<String> notifications = new ArrayList<>();
+        list.addListener((o, oldValue, newValue) -> notifications.add("list"));
+        list.addListener((ListChangeListener<Integer>) c -> notifications.add("list change"));
+        set.addListener((o, oldValue, newValue) -> notifications.add("set"));
+        map.addListener((o, oldValue, newValue) -> notifications.add("map"));
+        Bindings.batch(() -> {
+            list.add(1);
+            set.add(1);
+            map.put(1, 1);
+            assertEquals(Arrays.asList("list", "list change", "set", "map"), notifications);
+        });
+        assertEquals(Arrays.asList("list", "list change", "set", "map"), notifications);
+    }
+}
@@ -0,0 +1,460 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package test.javafx.collections;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import javafx.beans.property.MapProperty;
+import javafx.beans.property.SetProperty;
+import javafx.beans.property.SimpleMapProperty;
+import javafx.beans.property.SimpleSetProperty;
+import javafx.collections.BulkMapChangeListener;
+import javafx.collections.BulkSetChangeListener;
+import javafx.collections.FXCollections;
+import javafx.collections.MapChangeListener;
+import javafx.collections.ObservableMap;
+import javafx.collections.ObservableSet;
+import javafx.collections.SetChangeListener;
+import test.javafx.beans.InvalidationListenerMock;
+import org.junit.Before;
+import org.junit.Test;
+
+import static test.javafx.collections.MockMapObserver.Tuple.tup;
+import static org.junit.Assert.*;
+
+public class BulkChangeListenerTest {
+
+    private ObservableMap<String, String> map;
+    private BulkMapObserver<String, String> mapObserver;
+    private ObservableSet<String> set;
+    private BulkSetObserver<String> setObserver;
+
+    @Before
+    public void setUp() {
+        map = FXCollections.observableMap(new LinkedHashMap<>());
+        map.put("one", "1");
+        map.put("two", "2");
+        map.put("foo", "bar");
+        mapObserver = new BulkMapObserver<>();
+        map.addListener(mapObserver);
+
+        set = FXCollections.observableSet("one", "two", "foo");
+        setObserver = new BulkSetObserver<>();
+        set.addListener(setObserver);
+    }
+
+    @Test
+    public void testMapPutAll() {
+        final Map<String, String> m = new LinkedHashMap<>();
+        m.put("one", "1");
+        m.put("two", "x");
+        m.put("three", "3");
+        map.putAll(m);
+
+        assertEquals(0, mapObserver.changes);
+        assertEquals(1, mapObserver.bulkChanges.size());
+        final BulkMapChangeListener.BulkChange<? extends String, ? extends String> change = mapObserver.bulkChanges.get(0);
+        assertSame(map, change.getMap());
+        assertEquals(mapOf("two", "x", "three", "3"), change.getAdded());
+        assertEquals(mapOf("two", "2"), change.getRemoved());
+        assertEquals(mapOf("one", "1", "two", "x", "foo", "bar", "three", "3"), map);
+    }
+
+    @Test
+    public void testMapClear() {
+        map.clear();
+
+        assertEquals(0, mapObserver.changes);
+        assertEquals(1, mapObserver.bulkChanges.size());
+        assertEquals(mapOf(), mapObserver.bulkChanges.get(0).getAdded());
+        assertEquals(mapOf("one", "1", "two", "2", "foo", "bar"), mapObserver.bulkChanges.get(0).getRemoved());
+        assertTrue(map.isEmpty());
+    }
+
+    @Test
+    public void testMapViewsRemoveAndRetain() {
+        map.keySet().retainAll(Arrays.asList("one", "two"));
+        map.values().removeAll(Arrays.asList("1"));
+        map.entrySet().removeAll(new HashMap<>(map).entrySet());
+
+        assertEquals(0, mapObserver.changes);
+        assertEquals(3, mapObserver.bulkChanges.size());
+        assertEquals(mapOf("foo", "bar"), mapObserver.bulkChanges.get(0).getRemoved());
+        assertEquals(mapOf("one", "1"), mapObserver.bulkChanges.get(1).getRemoved());
+        assertEquals(mapOf("two", "2"), mapObserver.bulkChanges.get(2).getRemoved());
+    }
+
+    @Test
+    public void testMapBulkOperationWithoutChange() {
+        map.putAll(mapOf("one", "1"));
+        map.keySet().retainAll(map.keySet());
+        map.keySet().removeAll(Arrays.asList("bar"));
+        assertEquals(0, mapObserver.bulkChanges.size());
+
+        map.clear();
+        mapObserver.bulkChanges.clear();
+        map.clear();
+
+        assertEquals(0, mapObserver.changes);
+        assertEquals(0, mapObserver.bulkChanges.size());
+    }
+
+    @Test
+    public void testMapSingleChangesAreNotBulk() {
+        map.put("three", "3");
+        map.remove("one");
+
+        assertEquals(2, mapObserver.changes);
+        assertEquals(0, mapObserver.bulkChanges.size());
+    }
+
+    @Test
+    public void testMapPlainListenersGetEntryChanges() {
+        final MockMapObserver<String, String> observer = new MockMapObserver<>();
+        final InvalidationListenerMock invalidationListener = new InvalidationListenerMock();
+        map.addListener(observer);
+        map.addListener(invalidationListener);
+
+        final Map<String, String> m = new LinkedHashMap<>();
+        m.put("two", "x");
+        m.put("three", "3");
+        map.putAll(m);
+
+        assertEquals(0, mapObserver.changes);
+        assertEquals(1, mapObserver.bulkChanges.size());
+        invalidationListener.check(map, 2);
+        assertEquals(2, observer.getCallsNumber());
+        observer.assertRemoved(0, tup("two", "2"));
+        observer.assertAdded(0, tup("two", "x"));
+        observer.assertAdded(1, tup("three", "3"));
+
+        observer.clear();
+        map.clear();
+        invalidationListener.check(map, 4);
+        observer.assertMultipleRemove(tup("one", "1"), tup("two", "x"), tup("foo", "bar"), tup("three", "3"));
+    }
+
+    @Test
+    public void testMapPropertyForwardsBulkChange() {
+        final MapProperty<String, String> property = new SimpleMapProperty<>(map);
+        final BulkMapObserver<String, String> propertyObserver = new BulkMapObserver<>();
+        final MockMapObserver<String, String> observer = new MockMapObserver<>();
+        final InvalidationListenerMock invalidationListener = new InvalidationListenerMock();
+        property.addListener(propertyObserver);
+        property.addListener(observer);
+        property.addListener(invalidationListener);
+
+        map.clear();
+
+        assertEquals(0, propertyObserver.changes);
+        assertEquals(1, propertyObserver.bulkChanges.size());
+        assertSame(property, propertyObserver.bulkChanges.get(0).getMap());
+        assertEquals(mapOf("one", "1", "two", "2", "foo", "bar"), propertyObserver.bulkChanges.get(0).getRemoved());
+        invalidationListener.check(property, 3);
+        observer.assertMultipleRemove(tup("one", "1"), tup("two", "2"), tup("foo", "bar"));
+    }
+
+    @Test
+    public void testSetAddAll() {
+        set.addAll(Arrays.asList("one", "three", "four", "three"));
+
+        assertEquals(0, setObserver.changes);
+        assertEquals(1, setObserver.bulkChanges.size());
+        assertSame(set, setObserver.bulkChanges.get(0).getSet());
+        assertEquals(setOf("three", "four"), setObserver.bulkChanges.get(0).getAdded());
+        assertTrue(setObserver.bulkChanges.get(0).getRemoved().isEmpty());
+    }
+
+    @Test
+    public void testSetRemoveRetainAndClear() {
+        set.removeAll(Arrays.asList("one", "bar"));
+        set.retainAll(Arrays.asList("two"));
+        set.clear();
+
+        assertEquals(0, setObserver.changes);
+        assertEquals(3, setObserver.bulkChanges.size());
+        assertEquals(setOf("one"), setObserver.bulkChanges.get(0).getRemoved());
+        assertEquals(setOf("foo"), setObserver.bulkChanges.get(1).getRemoved());
+        assertEquals(setOf("two"), setObserver.bulkChanges.get(2).getRemoved());
+        assertTrue(set.isEmpty());
+    }
+
+    @Test
+    public void testSetBulkOperationWithoutChange() {
+        set.addAll(Arrays.asList("one", "two"));
+        set.removeAll(Arrays.asList("bar"));
+        set.retainAll(Arrays.asList("one", "two", "foo"));
+
+        assertEquals(0, setObserver.changes);
+        assertEquals(0, setObserver.bulkChanges.size());
+    }
+
+    @Test
+    public void testSetSingleChangesAreNotBulk() {
+        set.add("three");
+        set.remove("one");
+
+        assertEquals(2, setObserver.changes);
+        assertEquals(0, setObserver.bulkChanges.size());
+    }
+
+    @Test
+    public void testSetPlainListenersGetElementChanges() {
+        final MockSetObserver<String> observer = new MockSetObserver<>();
+        final InvalidationListenerMock invalidationListener = new InvalidationListenerMock();
+        set.addListener(observer);
+        set.addListener(invalidationListener);
+
+        set.clear();
+
+        assertEquals(0, setObserver.changes);
+        assertEquals(1, setObserver.bulkChanges.size());
+        invalidationListener.check(set, 3);
+        observer.assertMultipleRemove(MockSetObserver.Tuple.tup("one"), MockSetObserver.Tuple.tup("two"), MockSetObserver.Tuple.tup("foo"));
+    }
+
+    @Test
+    public void testSetPropertyForwardsBulkChange() {
+        final SetProperty<String> property = new SimpleSetProperty<>(set);
+        final BulkSetObserver<String> propertyObserver = new BulkSetObserver<>();
+        final InvalidationListenerMock invalidationListener = new InvalidationListenerMock();
+        property.addListener(propertyObserver);
+        property.addListener(invalidationListener);
+
+        set.addAll(Arrays.asList("three", "four"));
+
+        assertEquals(0, propertyObserver.changes);
+        assertEquals(1, propertyObserver.bulkChanges.size());
+        assertSame(property, propertyObserver.bulkChanges.get(0).getSet());
+        assertEquals(setOf("three", "four"), propertyObserver.bulkChanges.get(0).getAdded());
+        invalidationListener.check(property, 2);
+    }
+
+    @Test
+    public void testMapPlainListenersSeeEachEntryChange() {
+        final List<Map<String, String>> states = new ArrayList<>();
+        map.addListener((MapChangeListener<String, String>) c -> states.add(new HashMap<>(c.getMap())));
+        mapObserver.states = states;
+
+        final Map<String, String> m = new LinkedHashMap<>();
+        m.put("two", "x");
+        m.put("three", "3");
+        map.putAll(m);
+
+        assertEquals(Arrays.asList(
+                mapOf("one", "1", "two", "x", "foo", "bar"),
+                mapOf("one", "1", "two", "x", "foo", "bar", "three", "3"),
+                mapOf("one", "1", "two", "x", "foo", "bar", "three", "3")), states);
+    }
+
+    @Test
+    public void testMapPropertySubclassGetsEntryChanges() {
+        final List<String> keys = new ArrayList<>();
+        final MapProperty<String, String> property = new SimpleMapProperty<String, String>(map) {
+            @Override
+            protected void fireValueChangedEvent(MapChangeListener.Change<? extends String, ? extends String> change) {
+                keys.add(change.getKey());
+                super.fireValueChangedEvent(change);
+            }
+        };
+        final MockMapObserver<String, String> observer = new MockMapObserver<>();
+        property.addListener(observer);
+
+        map.keySet().removeAll(Arrays.asList("one", "foo"));
+
+        assertEquals(Arrays.asList("one", "foo"), keys);
+        observer.assertMultipleRemove(tup("one", "1"), tup("foo", "bar"));
+    }
+
+    @Test
+    public void testMapPropertySubclassGetsEntryAndBulkChanges() {
+        final List<String> calls = new ArrayList<>();
+        final MapProperty<String, String> property = new SimpleMapProperty<String, String>(map) {
+            @Override
+            protected void fireValueChangedEvent(MapChangeListener.Change<? extends String, ? extends String> change) {
+                calls.add("entry");
+                super.fireValueChangedEvent(change);
+            }
+
+            @Override
+            protected void fireValueChangedEvent(BulkMapChangeListener.BulkChange<? extends String, ? extends String> change) {
+                calls.add("bulk");
+                super.fireValueChangedEvent(change);
+            }
+        };
+        property.addListener(new BulkMapObserver<>());
+
+        map.clear();
+
+        assertEquals(Arrays.asList("entry", "entry", "entry", "bulk"), calls);
+    }
+
+    @Test
+    public void testMapPropertyListenerExceptionDuringBulkChange() {
+        final Thread.UncaughtExceptionHandler handler = Thread.currentThread().getUncaughtExceptionHandler();
+        final AtomicInteger called = new AtomicInteger();
+        Thread.currentThread().setUncaughtExceptionHandler((t, e) -> called.incrementAndGet());
+        try {
+            final MapProperty<String, String> property = new SimpleMapProperty<>(map);
+            final MockMapObserver<String, String> observer = new MockMapObserver<>();
+            final BulkMapObserver<String, String> bulkObserver = new BulkMapObserver<>();
+            property.addListener(new BulkMapObserver<String, String>() {
+                @Override
+                public void onBulkChanged(BulkChange<? extends String, ? extends String> change) {
+                    throw new RuntimeException();
+                }
+            });
+            property.addListener(bulkObserver);
+            property.addListener(observer);
+
+            map.clear();
+
+            assertEquals(1, called.get());
+            assertEquals(1, bulkObserver.bulkChanges.size());
+            observer.assertMultipleRemove(tup("one", "1"), tup("two", "2"), tup("foo", "bar"));
+        } finally {
+            Thread.currentThread().setUncaughtExceptionHandler(handler);
+        }
+    }
+
+    @Test
+    public void testSetPlainListenersSeeEachElementChange() {
+        final List<Set<String>> states = new ArrayList<>();
+        set.addListener((SetChangeListener<String>) c -> states.add(new HashSet<>(c.getSet())));
+        setObserver.states = states;
+
+        set.addAll(Arrays.asList("three", "four"));
+
+        assertEquals(Arrays.asList(
+                setOf("one", "two", "foo", "three"),
+                setOf("one", "two", "foo", "three", "four"),
+                setOf("one", "two", "foo", "three", "four")), states);
+    }
+
+    @Test
+    public void testSetPropertySubclassGetsElementChanges() {
+        final List<String> elements = new ArrayList<>();
+        final SetProperty<String> property = new SimpleSetProperty<String>(set) {
+            @Override
+            protected void fireValueChangedEvent(SetChangeListener.Change<? extends String> change) {
+                elements.add(change.getElementAdded());
+                super.fireValueChangedEvent(change);
+            }
+        };
+        final MockSetObserver<String> observer = new MockSetObserver<>();
+        property.addListener(observer);
+
+        set.addAll(Arrays.asList("three", "four"));
+
+        assertEquals(setOf("three", "four"), new HashSet<>(elements));
+        assertEquals(2, observer.getCallsNumber());
+    }
+
+    @Test
+    public void testSetPropertyListenerExceptionDuringBulkChange() {
+        final Thread.UncaughtExceptionHandler handler = Thread.currentThread().getUncaughtExceptionHandler();
+        final AtomicInteger called = new AtomicInteger();
+        Thread.currentThread().setUncaughtExceptionHandler((t, e) -> called.incrementAndGet());
+        try {
+            final SetProperty<String> property = new SimpleSetProperty<>(set);
+            final MockSetObserver<String> observer = new MockSetObserver<>();
+            final BulkSetObserver<String> bulkObserver = new BulkSetObserver<>();
+            property.addListener(new BulkSetObserver<String>() {
+                @Override
+                public void onBulkChanged(BulkChange<? extends String> change) {
+                    throw new RuntimeException();
+                }
+            });
+            property.addListener(bulkObserver);
+            property.addListener(observer);
+
+            set.clear();
+
+            assertEquals(1, called.get());
+            assertEquals(1, bulkObserver.bulkChanges.size());
+            observer.assertMultipleRemove(MockSetObserver.Tuple.tup("one"), MockSetObserver.Tuple.tup("two"), MockSetObserver.Tuple.tup("foo"));
+        } finally {
+            Thread.currentThread().setUncaughtExceptionHandler(handler);
+        }
+    }
+
+    private static Map<String, String> mapOf(String... keysAndValues) {
+        final Map<String, String> result = new HashMap<>();
+        for (int i = 0; i < keysAndValues.length; i += 2) {
+            result.put(keysAndValues[i], keysAndValues[i + 1]);
+        }
+        return result;
+    }
+
+    private static Set<String> setOf(String... elements) {
+        return new HashSet<>(Arrays.asList(elements));
+    }
+
+    private static class BulkMapObserver<K, V> implements BulkMapChangeListener<K, V> {
+        private final List<BulkChange<? extends K, ? extends V>> bulkChanges = new ArrayList<>();
+        private List<Map<K, V>> states;
+        private int changes;
+
+        @Override
+        public void onChanged(Change<? extends K, ? extends V> change) {
+            changes++;
+        }
+
+        @Override
+        public void onBulkChanged(BulkChange<? extends K, ? extends V> change) {
+            bulkChanges.add(change);
+            if (states != null) {
+                states.add(new HashMap<>(change.getMap()));
+            }
+        }
+    }
+
+    private static class BulkSetObserver<E> implements BulkSetChangeListener<E> {
+        private final List<BulkChange<? extends E>> bulkChanges = new ArrayList<>();
+        private List<Set<E>> states;
+        private int changes;
+
+        @Override
+        public void onChanged(Change<? extends E> change) {
+            changes++;
+        }
+
+        @Override
+        public void onBulkChanged(BulkChange<? extends E> change) {
+            bulkChanges.add(change);
+            if (states != null) {
+                states.add(new HashSet<>(change.getSet()));
+            }
+        }
+    }
+}
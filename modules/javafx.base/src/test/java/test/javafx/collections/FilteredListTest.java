@@ -103,6 +103,19 @@ public class FilteredListTest {
         compareIndices();
     }
 
+    @Test
+    public void testLiveMode_AddAllInMiddle() {
+        list.addAll(2, Arrays.asList("b", "c", "e", "c", "f"));
+        assertEquals(Arrays.asList("a", "b", "e", "f", "d"), filteredList);
+        mlo.check1AddRemove(filteredList, Collections.<String>emptyList(), 1, 4);
+        compareIndices();
+
+        mlo.clear();
+        list.addAll(Arrays.asList("c", "c"));
+        mlo.check0();
+        compareIndices();
+    }
+
     @Test
     public void testLiveMode_Remove() {
         list.removeAll(Arrays.asList("c"));
@@ -0,0 +1,406 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package test.javafx.collections;
+
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableDoubleList;
+import javafx.collections.ObservableIntegerList;
+import javafx.collections.ObservableList;
+import javafx.collections.ObservableLongList;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for ObservableDoubleList, ObservableIntegerList and ObservableLongList.
+ */
+@RunWith(Parameterized.class)
+public class ObservablePrimitiveListTest {
+
+    /**
+     * Maps the operations of the tests to the primitive type of the list.
+     * @param <P> corresponding class for boxed elements
+     */
+    public static abstract class ListWrapper<P extends Number> {
+        abstract ObservableList<P> createList(int... values);
+        abstract P box(int value);
+        abstract long getPrimitive(int index);
+        abstract void setPrimitive(int index, int value);
+        abstract void addAll(int[] src, int srcIndex, int length);
+        abstract void addAllBuffer(int[] src, int position);
+        abstract void setAll(int[] src, int srcIndex, int length);
+        abstract void setAllBuffer(int[] src, int position);
+        abstract void set(int destIndex, int[] src, int srcIndex, int length);
+        abstract long[] copyTo(int srcIndex, int length);
+
+        List<P> boxed(int... values) {
+            List<P> result = new ArrayList<>();
+            for (int value : values) {
+                result.add(box(value));
+            }
+            return result;
+        }
+    }
+
+    private static class DoubleListWrapper extends ListWrapper<Double> {
+        ObservableDoubleList list;
+
+        @Override ObservableList<Double> createList(int... values) {
+            return list = FXCollections.observableDoubleList(toDoubles(values));
+        }
+        @Override Double box(int value) {
+            return (double) value;
+        }
+        @Override long getPrimitive(int index) {
+            return (long) list.getDouble(index);
+        }
+        @Override void setPrimitive(int index, int value) {
+            list.setDouble(index, value);
+        }
+        @Override void addAll(int[] src, int srcIndex, int length) {
+            list.addAll(toDoubles(src), srcIndex, length);
+        }
+        @Override void addAllBuffer(int[] src, int position) {
+            DoubleBuffer buffer = DoubleBuffer.wrap(toDoubles(src));
+            buffer.position(position);
+            list.addAll(buffer);
+            assertEquals(0, buffer.remaining());
+        }
+        @Override void setAll(int[] src, int srcIndex, int length) {
+            list.setAll(toDoubles(src), srcIndex, length);
+        }
+        @Override void setAllBuffer(int[] src, int position) {
+            DoubleBuffer buffer = DoubleBuffer.wrap(toDoubles(src));
+            buffer.position(position);
+            list.setAll(buffer);
+            assertEquals(0, buffer.remaining());
+        }
+        @Override void set(int destIndex, int[] src, int srcIndex, int length) {
+            list.set(destIndex, toDoubles(src), srcIndex, length);
+        }
+        @Override long[] copyTo(int srcIndex, int length) {
+            double[] dest = new double[length];
+            list.copyTo(srcIndex, dest, 0, length);
+            return Arrays.stream(dest).mapToLong(d -> (long) d).toArray();
+        }
+        private static double[] toDoubles(int[] values) {
+            return Arrays.stream(values).asDoubleStream().toArray();
+        }
+        @Override public String toString() {
+            return "ObservableDoubleList";
+        }
+    }
+
+    private static class IntegerListWrapper extends ListWrapper<Integer> {
+        ObservableIntegerList list;
+
+        @Override ObservableList<Integer> createList(int... values) {
+            return list = FXCollections.observableIntegerList(values);
+        }
+        @Override Integer box(int value) {
+            return value;
+        }
+        @Override long getPrimitive(int index) {
+            return list.getInt(index);
+        }
+        @Override void setPrimitive(int index, int value) {
+            list.setInt(index, value);
+        }
+        @Override void addAll(int[] src, int srcIndex, int length) {
+            list.addAll(src, srcIndex, length);
+        }
+        @Override void addAllBuffer(int[] src, int position) {
+            IntBuffer buffer = IntBuffer.wrap(src);
+            buffer.position(position);
+            list.addAll(buffer);
+            assertEquals(0, buffer.remaining());
+        }
+        @Override void setAll(int[] src, int srcIndex, int length) {
+            list.setAll(src, srcIndex, length);
+        }
+        @Override void setAllBuffer(int[] src, int position) {
+            IntBuffer buffer = IntBuffer.wrap(src);
+            buffer.position(position);
+            list.setAll(buffer);
+            assertEquals(0, buffer.remaining());
+        }
+        @Override void set(int destIndex, int[] src, int srcIndex, int length) {
+            list.set(destIndex, src, srcIndex, length);
+        }
+        @Override long[] copyTo(int srcIndex, int length) {
+            int[] dest = new int[length];
+            list.copyTo(srcIndex, dest, 0, length);
+            return Arrays.stream(dest).asLongStream().toArray();
+        }
+        @Override public String toString() {
+            return "ObservableIntegerList";
+        }
+    }
+
+    private static class LongListWrapper extends ListWrapper<Long> {
+        ObservableLongList list;
+
+        @Override ObservableList<Long> createList(int... values) {
+            return list = FXCollections.observableLongList(toLongs(values));
+        }
+        @Override Long box(int value) {
+            return (long) value;
+        }
+        @Override long getPrimitive(int index) {
+            return list.getLong(index);
+        }
+        @Override void setPrimitive(int index, int value) {
+            list.setLong(index, value);
+        }
+        @Override void addAll(int[] src, int srcIndex, int length) {
+            list.addAll(toLongs(src), srcIndex, length);
+        }
+        @Override void addAllBuffer(int[] src, int position) {
+            LongBuffer buffer = LongBuffer.wrap(toLongs(src));
+            buffer.position(position);
+            list.addAll(buffer);
+            assertEquals(0, buffer.remaining());
+        }
+        @Override void setAll(int[] src, int srcIndex, int length) {
+            list.setAll(toLongs(src), srcIndex, length);
+        }
+        @Override void setAllBuffer(int[] src, int position) {
+            LongBuffer buffer = LongBuffer.wrap(toLongs(src));
+            buffer.position(position);
+            list.setAll(buffer);
+            assertEquals(0, buffer.remaining());
+        }
+        @Override void set(int destIndex, int[] src, int srcIndex, int length) {
+            list.set(destIndex, toLongs(src), srcIndex, length);
+        }
+        @Override long[] copyTo(int srcIndex, int length) {
+            long[] dest = new long[length];
+            list.copyTo(srcIndex, dest, 0, length);
+            return dest;
+        }
+        private static long[] toLongs(int[] values) {
+            return Arrays.stream(values).asLongStream().toArray();
+        }
+        @Override public String toString() {
+            return "ObservableLongList";
+        }
+    }
+
+    @Parameterized.Parameters
+    public static Collection createParameters() {
+        Object[][] data = new Object[][] {
+            { new DoubleListWrapper() },
+            { new IntegerListWrapper() },
+            { new LongListWrapper() },
+         };
+        return Arrays.asList(data);
+    }
+
+    private final ListWrapper<Number> wrapper;
+    private ObservableList<Number> list;
+    private MockListObserver<Number> mlo;
+
+    @SuppressWarnings("unchecked")
+    public ObservablePrimitiveListTest(ListWrapper<? extends Number> wrapper) {
+        this.wrapper = (ListWrapper<Number>) wrapper;
+    }
+
+    @Before
+    public void setUp() {
+        list = wrapper.createList(1, 2, 3);
+        mlo = new MockListObserver<>();
+        list.addListener(mlo);
+    }
+
+    @Test
+    public void testGet() {
+        assertEquals(wrapper.boxed(1, 2, 3), list);
+        assertEquals(2, wrapper.getPrimitive(1));
+        assertEquals(wrapper.box(3), list.get(2));
+        assertTrue(list.contains(wrapper.box(3)));
+        assertEquals(-1, list.indexOf(4));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testGetOutOfBounds() {
+        wrapper.getPrimitive(3);
+    }
+
+    @Test
+    public void testSetPrimitive() {
+        wrapper.setPrimitive(1, 7);
+        assertEquals(wrapper.boxed(1, 7, 3), list);
+        mlo.check1AddRemove(list, wrapper.boxed(2), 1, 2);
+    }
+
+    @Test
+    public void testAddAll() {
+        wrapper.addAll(new int[] {4, 5, 6, 7}, 1, 2);
+        assertEquals(wrapper.boxed(1, 2, 3, 5, 6), list);
+        mlo.check1AddRemove(list, Collections.emptyList(), 3, 5);
+    }
+
+    @Test
+    public void testAddAllEmpty() {
+        wrapper.addAll(new int[] {4, 5}, 1, 0);
+        assertEquals(wrapper.boxed(1, 2, 3), list);
+        mlo.check0();
+    }
+
+    @Test(expected = ArrayIndexOutOfBoundsException.class)
+    public void testAddAllOutOfBounds() {
+        try {
+            wrapper.addAll(new int[] {4, 5}, 1, 2);
+        } finally {
+            assertEquals(wrapper.boxed(1, 2, 3), list);
+            mlo.check0();
+        }
+    }
+
+    @Test
+    public void testAddAllBuffer() {
+        wrapper.addAllBuffer(new int[] {4, 5, 6}, 1);
+        assertEquals(wrapper.boxed(1, 2, 3, 5, 6), list);
+        mlo.check1AddRemove(list, Collections.emptyList(), 3, 5);
+    }
+
+    @Test
+    public void testSetAll() {
+        wrapper.setAll(new int[] {4, 5, 6, 7}, 1, 3);
+        assertEquals(wrapper.boxed(5, 6, 7), list);
+        mlo.check1AddRemove(list, wrapper.boxed(1, 2, 3), 0, 3);
+    }
+
+    @Test
+    public void testSetAllBuffer() {
+        wrapper.setAllBuffer(new int[] {4, 5, 6, 7}, 2);
+        assertEquals(wrapper.boxed(6, 7), list);
+        mlo.check1AddRemove(list, wrapper.boxed(1, 2, 3), 0, 2);
+    }
+
+    @Test
+    public void testSetRange() {
+        wrapper.set(1, new int[] {9, 8, 7}, 1, 2);
+        assertEquals(wrapper.boxed(1, 8, 7), list);
+        mlo.check1AddRemove(list, wrapper.boxed(2, 3), 1, 3);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testSetRangeOutOfBounds() {
+        try {
+            wrapper.set(2, new int[] {9, 8}, 0, 2);
+        } finally {
+            assertEquals(wrapper.boxed(1, 2, 3), list);
+            mlo.check0();
+        }
+    }
+
+    @Test
+    public void testCopyTo() {
+        assertTrue(Arrays.equals(new long[] {2, 3}, wrapper.copyTo(1, 2)));
+    }
+
+    @Test
+    public void testBoxedOperations() {
+        list.add(1, wrapper.box(5));
+        assertEquals(wrapper.boxed(1, 5, 2, 3), list);
+        mlo.check1AddRemove(list, Collections.emptyList(), 1, 2);
+
+        mlo.clear();
+        list.set(0, wrapper.box(6));
+        assertEquals(wrapper.boxed(6, 5, 2, 3), list);
+        mlo.check1AddRemove(list, wrapper.boxed(1), 0, 1);
+
+        mlo.clear();
+        list.remove(wrapper.box(2));
+        assertEquals(wrapper.boxed(6, 5, 3), list);
+        mlo.check1AddRemove(list, wrapper.boxed(2), 2, 2);
+
+        mlo.clear();
+        list.addAll(wrapper.boxed(7, 8));
+        assertEquals(wrapper.boxed(6, 5, 3, 7, 8), list);
+        mlo.check1AddRemove(list, Collections.emptyList(), 3, 5);
+    }
+
+    @Test
+    public void testRemoveRange() {
+        list.remove(0, 2);
+        assertEquals(wrapper.boxed(3), list);
+        mlo.check1AddRemove(list, wrapper.boxed(1, 2), 0, 0);
+
+        mlo.clear();
+        list.clear();
+        assertTrue(list.isEmpty());
+        mlo.check1AddRemove(list, wrapper.boxed(3), 0, 0);
+    }
+
+    @Test
+    public void testSetAllCollection() {
+        list.setAll(wrapper.boxed(4, 5));
+        assertEquals(wrapper.boxed(4, 5), list);
+        mlo.check1AddRemove(list, wrapper.boxed(1, 2, 3), 0, 2);
+    }
+
+    @Test
+    public void testBulkOperationsInvalidateIterators() {
+        final List<Runnable> operations = Arrays.asList(
+                () -> wrapper.addAll(new int[] {4, 5}, 0, 2),
+                () -> wrapper.addAllBuffer(new int[] {4, 5}, 0),
+                () -> wrapper.setAll(new int[] {4, 5}, 0, 2),
+                () -> wrapper.setAllBuffer(new int[] {4, 5}, 0),
+                () -> list.remove(0, 1));
+        for (Runnable operation : operations) {
+            final Iterator<Number> it = list.iterator();
+            it.next();
+            operation.run();
+            try {
+                it.next();
+                fail("Expected ConcurrentModificationException");
+            } catch (ConcurrentModificationException e) {
+                // expected
+            }
+        }
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testNullElement() {
+        list.add(null);
+    }
+
+}
@@ -249,7 +249,7 @@ public class SortedListTest {
         ObservableList<Person> expected = FXCollections.observableArrayList(
                 new Person("five"), new Person("one"), new Person("three"),
                 new Person("two"), new Person("zero"));
-        listener.checkPermutation(0, expected, 0, list.size(), new int[]{0, 4, 1, 2, 3});
+        listener.checkPermutation(0, expected, 1, list.size(), new int[]{4, 1, 2, 3});
         listener.checkUpdate(1, expected, 4, 5);
         assertEquals(expected, sorted);
 
@@ -286,7 +286,7 @@ public class SortedListTest {
         ObservableList<Person> expected = FXCollections.observableArrayList(
                 new Person("five"), new Person("one"), new Person("three"),
                 new Person("two"), new Person("zero"));
-        listener.checkPermutation(0, expected, 0, expected.size(), new int[] {0, 4, 1, 2, 3});
+        listener.checkPermutation(0, expected, 1, expected.size(), new int[] {4, 1, 2, 3});
         listener.checkUpdate(1, expected, 4, 5);
         assertEquals(expected, sorted);
         assertEquals(expected, unsorted);
@@ -372,6 +372,133 @@ public class SortedListTest {
     }
 
 
+    private static class Updater<E> extends ObservableListWrapper<E> {
+        public Updater(List<E> list) {
+            super(list);
+        }
+
+        public void update(int from, int to) {
+            ObservableListWrapperShim.beginChange(this);
+            for (int i = from; i < to; ++i) {
+               ObservableListWrapperShim.nextUpdate(this, i);
+            }
+            ObservableListWrapperShim.endChange(this);
+        }
+    }
+
+    @Test
+    public void testAddAllMerged() {
+        list.addAll(1, Arrays.asList("e", "b"));
+        assertEquals(Arrays.asList("a", "b", "c", "c", "d", "e"), sortedList);
+        mockListObserver.checkAddRemove(0, sortedList, Collections.<String>emptyList(), 1, 2);
+        mockListObserver.checkAddRemove(1, sortedList, Collections.<String>emptyList(), 5, 6);
+        compareIndices();
+
+        mockListObserver.clear();
+        list.addAll(0, Arrays.asList("g", "f"));
+        assertEquals(Arrays.asList("a", "b", "c", "c", "d", "e", "f", "g"), sortedList);
+        mockListObserver.check1AddRemove(sortedList, Collections.<String>emptyList(), 6, 8);
+        compareIndices();
+    }
+
+    @Test
+    public void testAddAllReportsTheAddedElements() {
+        java.util.Random random = new java.util.Random(4321);
+        List<String> copy = new ArrayList<>(sortedList);
+        sortedList.addListener((ListChangeListener<String>) c -> {
+            while (c.next()) {
+                if (c.wasRemoved()) {
+                    copy.subList(c.getFrom(), c.getFrom() + c.getRemovedSize()).clear();
+                }
+                if (c.wasAdded()) {
+                    copy.addAll(c.getFrom(), c.getAddedSubList());
+                }
+            }
+        });
+
+        for (int n = 0; n < 100; ++n) {
+            List<String> added = new ArrayList<>();
+            for (int i = random.nextInt(20); i >= 0; --i) {
+                added.add(Character.toString((char) ('a' + random.nextInt(26))));
+            }
+            list.addAll(random.nextInt(list.size() + 1), added);
+
+            List<String> expected = new ArrayList<>(list);
+            Collections.sort(expected);
+            assertEquals(expected, sortedList);
+            assertEquals(expected, copy);
+            compareIndices();
+        }
+    }
+
+    @Test
+    public void testUpdateMovesOnlyTheUpdatedElement() {
+        Updater<Person> updater = new Updater<>(Person.createPersonsList("a", "b", "c", "d", "e", "f"));
+        SortedList<Person> sorted = updater.sorted();
+        MockListObserver<Person> listener = new MockListObserver<>();
+        sorted.addListener(listener);
+
+        updater.get(1).name.set("dd"); // b -> dd
+        updater.update(1, 2);
+
+        ObservableList<Person> expected = Person.createPersonsList("a", "c", "d", "dd", "e", "f");
+        assertEquals(expected, sorted);
+        listener.checkPermutation(0, expected, 1, 4, new int[] {3, 1, 2});
+        listener.checkUpdate(1, expected, 3, 4);
+        compareIndices(sorted);
+
+        listener.clear();
+        updater.get(4).name.set("e"); // same value, no move
+        updater.update(4, 5);
+        listener.check1Update(expected, 4, 5);
+        compareIndices(sorted);
+    }
+
+    @Test
+    public void testUpdateRangesKeepSortOrder() {
+        java.util.Random random = new java.util.Random(1234);
+        List<Person> persons = new ArrayList<>();
+        for (int i = 0; i < 200; ++i) {
+            persons.add(new Person(Integer.toString(random.nextInt(50))));
+        }
+        Updater<Person> updater = new Updater<>(persons);
+        SortedList<Person> sorted = updater.sorted(Comparator.comparing(p -> p.name.get()));
+
+        List<Person> copy = new ArrayList<>(sorted);
+        sorted.addListener((ListChangeListener<Person>) c -> {
+            while (c.next()) {
+                if (c.wasPermutated()) {
+                    List<Person> permutated = new ArrayList<>(copy);
+                    for (int i = c.getFrom(); i < c.getTo(); ++i) {
+                        permutated.set(c.getPermutation(i), copy.get(i));
+                    }
+                    copy.clear();
+                    copy.addAll(permutated);
+                }
+            }
+        });
+
+        for (int n = 0; n < 500; ++n) {
+            final int from = random.nextInt(updater.size());
+            final int to = Math.min(updater.size(), from + 1 + random.nextInt(n % 10 == 0 ? 50 : 3));
+            for (int i = from; i < to; ++i) {
+                updater.get(i).name.set(Integer.toString(random.nextInt(50)));
+            }
+
+            // a stable sort of the previous order
+            List<Person> expected = new ArrayList<>(sorted);
+            expected.sort(Comparator.comparing(p -> p.name.get()));
+
+            updater.update(from, to);
+
+            for (int i = 0; i < expected.size(); ++i) {
+                assertSame(expected.get(i), sorted.get(i));
+                assertSame(expected.get(i), copy.get(i));
+            }
+            compareIndices(sorted);
+        }
+    }
+
     private static class Permutator<E> extends ObservableListWrapper<E> {
         private List<E> backingList;
         public Permutator(List<E> list) {
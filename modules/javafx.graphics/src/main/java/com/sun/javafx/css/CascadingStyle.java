@@ -51,6 +51,11 @@ public class CascadingStyle implements Comparable<CascadingStyle> {
     /** State variables, like &quot;hover&quot; or &quot;pressed&quot; */
     private final Set<PseudoClass> pseudoClasses;
 
+    // The pseudo-classes of the selector, on any level
+    Set<PseudoClass> getPseudoClasses() {
+        return pseudoClasses;
+    }
+
     /* specificity of the selector that matched */
     private final int specificity;
 
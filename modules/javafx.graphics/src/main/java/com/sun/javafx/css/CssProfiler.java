@@ -0,0 +1,300 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package com.sun.javafx.css;
+
+import com.sun.javafx.logging.PulseLogger;
+import javafx.css.Rule;
+import javafx.css.Selector;
+import javafx.css.Stylesheet;
+
+import java.security.AccessController;
+import java.security.PrivilegedAction;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Gathers data about the work done by CSS: how often each selector is
+ * matched against a node and how often it matches, how long it takes to
+ * convert the values it styles, and how often nodes of each class are
+ * restyled. The profiler is disabled unless the javafx.css.profile system
+ * property is set, or it is enabled through its management interface.
+ * While enabled, a summary of each CSS pass goes to the
+ * {@link PulseLogger}.
+ * <p>
+ * StyleManager and CssStyleHelper are expected to check
+ * {@link #getEnabled()} before calling the methods which record data,
+ * since these are called from the innermost loops of the CSS pass, on
+ * any thread that processes CSS.
+ */
+public final class CssProfiler implements CssProfilerMBean {
+
+    public static CssProfiler getDefaultBean() {
+        return CssProfilerHolder.holder;
+    }
+    private static class CssProfilerHolder {
+        private static final CssProfiler holder = new CssProfiler();
+    }
+
+    private static final class SelectorData {
+        private final AtomicLong attempts = new AtomicLong();
+        private final AtomicLong matches = new AtomicLong();
+        private final AtomicLong conversions = new AtomicLong();
+        private final AtomicLong conversionNanos = new AtomicLong();
+        private final AtomicLong cachedConversions = new AtomicLong();
+    }
+
+    private static final class NodeData {
+        private final AtomicLong restyles = new AtomicLong();
+        private final AtomicLong slowpathRestyles = new AtomicLong();
+    }
+
+    private volatile boolean isEnabled =
+            AccessController.doPrivileged((PrivilegedAction<Boolean>) () ->
+                    Boolean.getBoolean("javafx.css.profile"));
+
+    // Guarded by itself. The selectors are weakly referenced, so that the
+    // profiler does not keep the rules and stylesheets which were removed.
+    private final Map<Selector, SelectorData> selectorData = new WeakHashMap<>();
+    private final Map<Class<?>, NodeData> nodeData = new ConcurrentHashMap<>();
+
+    private final AtomicLong matchAttempts = new AtomicLong();
+    private final AtomicLong matches = new AtomicLong();
+    private final AtomicLong conversions = new AtomicLong();
+    private final AtomicLong conversionNanos = new AtomicLong();
+    private final AtomicLong cachedConversions = new AtomicLong();
+    private final AtomicLong restyles = new AtomicLong();
+
+    // the totals at the end of the last pass logged by logPass
+    private long loggedMatchAttempts;
+    private long loggedMatches;
+    private long loggedConversions;
+    private long loggedConversionNanos;
+    private long loggedCachedConversions;
+    private long loggedRestyles;
+
+    private CssProfiler() {
+    }
+
+    @Override
+    public boolean getEnabled() {
+        return isEnabled;
+    }
+
+    @Override
+    public void setEnabled(boolean enabled) {
+        isEnabled = enabled;
+    }
+
+    @Override
+    public void reset() {
+        synchronized (selectorData) {
+            selectorData.clear();
+        }
+        nodeData.clear();
+        matchAttempts.set(0);
+        matches.set(0);
+        conversions.set(0);
+        conversionNanos.set(0);
+        cachedConversions.set(0);
+        restyles.set(0);
+        loggedMatchAttempts = loggedMatches = loggedConversions = 0;
+        loggedConversionNanos = loggedCachedConversions = loggedRestyles = 0;
+    }
+
+    /**
+     * Record that the selector was matched against a node.
+     * @param selector the selector
+     * @param matched whether the selector applies to the node
+     */
+    public void selectorMatched(Selector selector, boolean matched) {
+        final SelectorData data = getSelectorData(selector);
+        data.attempts.incrementAndGet();
+        matchAttempts.incrementAndGet();
+        if (matched) {
+            data.matches.incrementAndGet();
+            matches.incrementAndGet();
+        }
+    }
+
+    /**
+     * Record the time it took to convert a value styled through the selector.
+     * @param selector the selector
+     * @param nanos the time of the conversion
+     */
+    public void valueConverted(Selector selector, long nanos) {
+        if (selector != null) {
+            final SelectorData data = getSelectorData(selector);
+            data.conversions.incrementAndGet();
+            data.conversionNanos.addAndGet(nanos);
+        }
+        conversions.incrementAndGet();
+        conversionNanos.addAndGet(nanos);
+    }
+
+    /**
+     * Record that a value styled through the selector did not need to be
+     * converted, since the converted value was kept with the parsed value.
+     * @param selector the selector
+     */
+    public void valueConversionCached(Selector selector) {
+        if (selector != null) {
+            getSelectorData(selector).cachedConversions.incrementAndGet();
+        }
+        cachedConversions.incrementAndGet();
+    }
+
+    /**
+     * Record that the styles of a node were updated.
+     * @param nodeClass the class of the node
+     * @param slowpath whether the values had to be looked up rather than
+     * taken from the style cache
+     */
+    public void nodeRestyled(Class<?> nodeClass, boolean slowpath) {
+        final NodeData data = nodeData.computeIfAbsent(nodeClass, k -> new NodeData());
+        data.restyles.incrementAndGet();
+        if (slowpath) {
+            data.slowpathRestyles.incrementAndGet();
+        }
+        restyles.incrementAndGet();
+    }
+
+    /**
+     * Send what happened since the last call to the {@link PulseLogger}.
+     * Called on the FX application thread at the end of a CSS pass.
+     */
+    public void logPass() {
+        final long attempts = matchAttempts.get();
+        final long matched = matches.get();
+        final long converted = conversions.get();
+        final long nanos = conversionNanos.get();
+        final long cached = cachedConversions.get();
+        final long restyled = restyles.get();
+
+        PulseLogger.addMessage("CSS: " + (restyled - loggedRestyles) + " restyles, "
+                + (attempts - loggedMatchAttempts) + " selector match attempts, "
+                + (matched - loggedMatches) + " matches, "
+                + (converted - loggedConversions) + " conversions in "
+                + TimeUnit.NANOSECONDS.toMicros(nanos - loggedConversionNanos) + " us, "
+                + (cached - loggedCachedConversions) + " cached conversions");
+
+        loggedMatchAttempts = attempts;
+        loggedMatches = matched;
+        loggedConversions = converted;
+        loggedConversionNanos = nanos;
+        loggedCachedConversions = cached;
+        loggedRestyles = restyled;
+    }
+
+    private SelectorData getSelectorData(Selector selector) {
+        synchronized (selectorData) {
+            SelectorData data = selectorData.get(selector);
+            if (data == null) {
+                data = new SelectorData();
+                selectorData.put(selector, data);
+            }
+            return data;
+        }
+    }
+
+    @Override
+    public long getMatchAttempts() {
+        return matchAttempts.get();
+    }
+
+    @Override
+    public long getMatches() {
+        return matches.get();
+    }
+
+    @Override
+    public long getConversions() {
+        return conversions.get();
+    }
+
+    @Override
+    public long getConversionTime() {
+        return TimeUnit.NANOSECONDS.toMicros(conversionNanos.get());
+    }
+
+    @Override
+    public long getCachedConversions() {
+        return cachedConversions.get();
+    }
+
+    @Override
+    public long getRestyles() {
+        return restyles.get();
+    }
+
+    @Override
+    public String[] getSelectorStatistics() {
+        final List<Map.Entry<Selector, SelectorData>> entries;
+        synchronized (selectorData) {
+            entries = new ArrayList<>(selectorData.entrySet());
+        }
+        entries.sort(Comparator.comparingLong(
+                (Map.Entry<Selector, SelectorData> e) -> e.getValue().attempts.get()).reversed());
+
+        final String[] lines = new String[entries.size()];
+        for (int n = 0; n < lines.length; n++) {
+            final Selector selector = entries.get(n).getKey();
+            final SelectorData data = entries.get(n).getValue();
+            final Rule rule = selector.getRule();
+            final Stylesheet stylesheet = rule != null ? rule.getStylesheet() : null;
+            final String url = stylesheet != null ? stylesheet.getUrl() : null;
+            final Object source = url != null ? url : (rule != null ? rule.getOrigin() : null);
+            lines[n] = selector + " (" + source + "): "
+                    + data.attempts.get() + " attempts, "
+                    + data.matches.get() + " matches, "
+                    + data.conversions.get() + " conversions in "
+                    + TimeUnit.NANOSECONDS.toMicros(data.conversionNanos.get()) + " us, "
+                    + data.cachedConversions.get() + " cached conversions";
+        }
+        return lines;
+    }
+
+    @Override
+    public String[] getNodeStatistics() {
+        final List<Map.Entry<Class<?>, NodeData>> entries = new ArrayList<>(nodeData.entrySet());
+        entries.sort(Comparator.comparingLong(
+                (Map.Entry<Class<?>, NodeData> e) -> e.getValue().restyles.get()).reversed());
+
+        final String[] lines = new String[entries.size()];
+        for (int n = 0; n < lines.length; n++) {
+            final NodeData data = entries.get(n).getValue();
+            lines[n] = entries.get(n).getKey().getName() + ": "
+                    + data.restyles.get() + " restyles, "
+                    + data.slowpathRestyles.get() + " on the slow path";
+        }
+        return lines;
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package com.sun.javafx.css;
+
+/**
+ * Management interface of {@link CssProfiler}.
+ */
+public interface CssProfilerMBean {
+
+    public boolean getEnabled();
+
+    public void setEnabled(boolean enabled);
+
+    /** Discard the data gathered so far. */
+    public void reset();
+
+    public long getMatchAttempts();
+
+    public long getMatches();
+
+    public long getConversions();
+
+    // we are using micros as time units here
+    public long getConversionTime();
+
+    /** The number of values whose conversion was skipped since it was cached. */
+    public long getCachedConversions();
+
+    public long getRestyles();
+
+    /**
+     * One line per selector, ordered by the number of match attempts:
+     * the selector, its stylesheet, the number of match attempts and matches,
+     * the number and time of the conversions of the values it styled, and
+     * the number of conversions that were skipped since they were cached.
+     */
+    public String[] getSelectorStatistics();
+
+    /**
+     * One line per node class, ordered by the number of restyles: the class,
+     * the number of restyles and how many of them had to take the slow path.
+     */
+    public String[] getNodeStatistics();
+}
@@ -193,6 +193,43 @@ public class ParsedValueImpl<V, T> extends ParsedValue<V,T> {
         return (T)((converter != null) ? converter.convert(this, font) : value);
     }
 
+    /*
+     * The result of converting this value with a given converter. The
+     * result is only cached for values whose conversion depends neither on
+     * lookups nor on the font, so that it is the same for every node.
+     */
+    private static final class ConvertedValue {
+        private final StyleConverter<?,?> converter;
+        private final Object value;
+        private ConvertedValue(StyleConverter<?,?> converter, Object value) {
+            this.converter = converter;
+            this.value = value;
+        }
+    }
+    // may be read and written by the workers of -Djavafx.css.parallel
+    private volatile ConvertedValue convertedValue;
+
+    /**
+     * Get the value cached by {@link #setConvertedValue} for the converter.
+     * @param converter the converter that converted this value
+     * @return the converted value, or null if the converter's result is not cached
+     */
+    public Object getConvertedValue(StyleConverter<?,?> converter) {
+        final ConvertedValue cached = convertedValue;
+        return (cached != null && cached.converter == converter) ? cached.value : null;
+    }
+
+    /**
+     * Cache the result of converting this value with the converter. The
+     * caller has to make sure that the result depends neither on lookups
+     * nor on the font used for the conversion.
+     * @param converter the converter that converted this value
+     * @param value the converted value
+     */
+    public void setConvertedValue(StyleConverter<?,?> converter, Object value) {
+        convertedValue = (value != null) ? new ConvertedValue(converter, value) : null;
+    }
+
     private static int indent = 0;
 
     private static String spaces() {
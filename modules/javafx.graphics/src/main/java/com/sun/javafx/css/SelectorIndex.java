@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package com.sun.javafx.css;
+
+import java.util.function.IntFunction;
+import javafx.css.Selector;
+
+/**
+ * The selectors of a binary stylesheet whose rules are decoded lazily. The
+ * selector index of the .bss file gives the id, type and style classes by
+ * which SelectorPartitioning files each selector, so that the selectors can
+ * be partitioned without decoding their rules. The rule of a selector is only
+ * decoded when the selector is matched for the first time.
+ */
+public final class SelectorIndex {
+
+    private final String[] ids;
+    private final String[] types;
+    private final String[][] styleClasses;
+    private final IntFunction<Selector> decoder;
+
+    /**
+     * @param ids the id of each selector, or null
+     * @param types the type of each selector, * if it has none
+     * @param styleClasses the style classes of each selector, or null
+     * @param decoder gets the nth selector, decoding its rule if needed
+     */
+    public SelectorIndex(String[] ids, String[] types, String[][] styleClasses,
+                         IntFunction<Selector> decoder) {
+        this.ids = ids;
+        this.types = types;
+        this.styleClasses = styleClasses;
+        this.decoder = decoder;
+    }
+
+    /** @return the number of selectors, in the order of the stylesheet */
+    public int size() {
+        return types.length;
+    }
+
+    public String getId(int n) {
+        return ids[n];
+    }
+
+    public String getType(int n) {
+        return types[n];
+    }
+
+    public String[] getStyleClasses(int n) {
+        return styleClasses[n];
+    }
+
+    /** @return the nth selector, whose rule is decoded on the first call */
+    public Selector getSelector(int n) {
+        return decoder.apply(n);
+    }
+}
@@ -34,6 +34,8 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -105,16 +107,18 @@ public final class SelectorPartitioning {
 
         private final PartitionKey key;
         private final Map<PartitionKey, Slot> slots;
-        private List<Selector> selectors;
+        private final Map<StyleClass, List<Slot>> styleClassIndex;
+        private List<Entry> selectors;
 
         private Partition(PartitionKey key) {
            this.key = key;
             slots = new HashMap<PartitionKey,Slot>();
+            styleClassIndex = new HashMap<StyleClass,List<Slot>>();
         }
 
-        private void addSelector(Selector pair) {
+        private void addSelector(Entry pair) {
             if (selectors == null) {
-                selectors = new ArrayList<Selector>();
+                selectors = new ArrayList<Entry>();
             }
             selectors.add(pair);
         }
@@ -130,6 +134,7 @@ public final class SelectorPartitioning {
                 Partition partition = getPartition(id,map);
                 slot = new Slot(partition);
                 slots.put(id, slot);
+                indexStyleClassSlot(styleClassIndex, id, slot);
             }
             return slot;
         }
@@ -148,17 +153,21 @@ public final class SelectorPartitioning {
         // The other Slots to which this Slot refers
         private final Map<PartitionKey, Slot> referents;
 
+        // The referents for style classes, by one of their style classes
+        private final Map<StyleClass, List<Slot>> styleClassIndex;
+
         // Selectors that match the path to this slot
-        private List<Selector> selectors;
+        private List<Entry> selectors;
 
         private Slot(Partition partition) {
             this.partition = partition;
             this.referents = new HashMap<PartitionKey, Slot>();
+            this.styleClassIndex = new HashMap<StyleClass, List<Slot>>();
         }
 
-        private void addSelector(Selector pair) {
+        private void addSelector(Entry pair) {
             if (selectors == null) {
-                selectors = new ArrayList<Selector>();
+                selectors = new ArrayList<Entry>();
             }
             selectors.add(pair);
         }
@@ -174,6 +183,7 @@ public final class SelectorPartitioning {
                 Partition p = getPartition(id, map);
                 slot = new Slot(p);
                 referents.put(id, slot);
+                indexStyleClassSlot(styleClassIndex, id, slot);
 
             }
             return slot;
@@ -181,6 +191,148 @@ public final class SelectorPartitioning {
 
     }
 
+    /*
+     * Each Slot for a set of style classes is indexed by the first style
+     * class of its set. A node can only match the slots indexed by one of its
+     * own style classes, so matching does not need to visit all the style
+     * class slots of a partition, which are many for the '*' partition of a
+     * user agent stylesheet.
+     */
+    private static void indexStyleClassSlot(Map<StyleClass, List<Slot>> index,
+                                            PartitionKey id, Slot slot) {
+        if (!(id.key instanceof Set)) {
+            return;
+        }
+        // BitSet's iterator needs hasNext before next
+        final Iterator<StyleClass> iter = ((Set<StyleClass>)id.key).iterator();
+        if (!iter.hasNext()) {
+            return;
+        }
+        final StyleClass first = iter.next();
+        List<Slot> slots = index.get(first);
+        if (slots == null) {
+            slots = new ArrayList<Slot>(1);
+            index.put(first, slots);
+        }
+        slots.add(slot);
+    }
+
+    /* Adds the selectors of the indexed slots whose style classes are all in key */
+    private static void matchStyleClasses(Map<StyleClass, List<Slot>> index,
+                                          Set<StyleClass> key, List<Entry> selectors) {
+        if (index.isEmpty()) {
+            return;
+        }
+        for (StyleClass styleClass : key) {
+            final List<Slot> slots = index.get(styleClass);
+            if (slots == null) continue;
+            for (int n = 0, nMax = slots.size(); n < nMax; n++) {
+                final Slot s = slots.get(n);
+                if (s.selectors == null || s.selectors.isEmpty()) continue;
+                Set<StyleClass> other = (Set<StyleClass>)s.partition.key.key;
+                if (key.containsAll(other)) {
+                    selectors.addAll(s.selectors);
+                }
+            }
+        }
+    }
+
+    /*
+     * A selector filed in the partitions. The selectors of a stylesheet with
+     * a selector index are only decoded when they are first matched.
+     */
+    private static final class Entry {
+
+        private final int ordinal;
+        private final SelectorIndex index;
+        private final int position;
+        private Selector selector;
+
+        private Entry(Selector selector, int ordinal) {
+            this.ordinal = ordinal;
+            this.index = null;
+            this.position = -1;
+            this.selector = selector;
+            selector.setOrdinal(ordinal);
+        }
+
+        private Entry(SelectorIndex index, int position, int ordinal) {
+            this.ordinal = ordinal;
+            this.index = index;
+            this.position = position;
+        }
+
+        private Selector getSelector() {
+            if (selector == null) {
+                selector = index.getSelector(position);
+                selector.setOrdinal(ordinal);
+            }
+            return selector;
+        }
+    }
+
+    /*
+     * Key of the results of match. The style classes are copied since the
+     * caller may reuse its set.
+     */
+    private static final class MatchKey {
+
+        private final String id;
+        private final String type;
+        private final StyleClassSet styleClasses;
+
+        private MatchKey(String id, String type, Set<StyleClass> styleClasses) {
+            this.id = id;
+            this.type = type;
+            this.styleClasses = new StyleClassSet();
+            if (styleClasses != null) {
+                for (StyleClass styleClass : styleClasses) {
+                    this.styleClasses.add(styleClass);
+                }
+            }
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (obj == null || getClass() != obj.getClass()) {
+                return false;
+            }
+            final MatchKey other = (MatchKey) obj;
+            return (id == null ? other.id == null : id.equals(other.id))
+                    && (type == null ? other.type == null : type.equals(other.type))
+                    && styleClasses.equals(other.styleClasses);
+        }
+
+        @Override
+        public int hashCode() {
+            int hash = 7;
+            hash = 71 * hash + (id != null ? id.hashCode() : 0);
+            hash = 71 * hash + (type != null ? type.hashCode() : 0);
+            hash = 71 * hash + styleClasses.hashCode();
+            return hash;
+        }
+    }
+
+    /*
+     * The selectors matched so far, by id, type and style classes. The same
+     * combinations are matched again for every scene and for every set of
+     * parent stylesheets, so the matching is only done once per stylesheet.
+     * Ids which no selector uses are left out of the key, so that nodes with
+     * unique ids share their results. The memo is bounded and drops the
+     * least recently used results.
+     */
+    private static final int MATCH_CACHE_SIZE = 1000;
+    private final Map<MatchKey, List<Selector>> matches =
+        new LinkedHashMap<MatchKey, List<Selector>>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<MatchKey, List<Selector>> eldest) {
+                return size() > MATCH_CACHE_SIZE;
+            }
+        };
+
     /* A Map for selectors that have an id */
     private final Map<PartitionKey, Partition> idMap = new HashMap<PartitionKey,Partition>();
 
@@ -201,6 +353,7 @@ public final class SelectorPartitioning {
         idMap.clear();
         typeMap.clear();
         styleClassMap.clear();
+        matches.clear();
         ordinal = 0;
     }
 
@@ -240,21 +393,44 @@ public final class SelectorPartitioning {
             simpleSelector = (SimpleSelector)selector;
         }
 
-        final String selectorId = simpleSelector.getId();
+        partition(simpleSelector.getId(), simpleSelector.getName(),
+                  simpleSelector.getStyleClassSet(), new Entry(selector, ordinal++));
+    }
+
+    /*
+     * Place the selectors of a binary stylesheet into the partitioning map
+     * by their index, without decoding them. Package accessible
+     */
+    public void partition(SelectorIndex index) {
+        for (int n = 0, nMax = index.size(); n < nMax; n++) {
+            final String[] styleClasses = index.getStyleClasses(n);
+            StyleClassSet styleClassSet = null;
+            if (styleClasses != null) {
+                styleClassSet = new StyleClassSet();
+                for (String styleClass : styleClasses) {
+                    styleClassSet.add(StyleClassSet.getStyleClass(styleClass));
+                }
+            }
+            partition(index.getId(n), index.getType(n), styleClassSet,
+                      new Entry(index, n, ordinal++));
+        }
+    }
+
+    private void partition(String selectorId, String selectorType,
+                           Set<StyleClass> selectorStyleClass, Entry selector) {
+
         final boolean hasId =
             (selectorId != null && selectorId.isEmpty() == false);
         final PartitionKey idKey = hasId
                 ? new PartitionKey(selectorId)
                 : null;
 
-        final String selectorType = simpleSelector.getName();
         final boolean hasType =
             (selectorType != null && selectorType.isEmpty() == false);
         final PartitionKey typeKey = hasType
                 ? new PartitionKey(selectorType)
                 : null;
 
-        final Set<StyleClass> selectorStyleClass = simpleSelector.getStyleClassSet();
         final boolean hasStyleClass =
             (selectorStyleClass != null && selectorStyleClass.size() > 0);
         final PartitionKey styleClassKey = hasStyleClass
@@ -267,7 +443,7 @@ public final class SelectorPartitioning {
         Partition partition = null;
         Slot slot = null;
 
-        selector.setOrdinal(ordinal++);
+        matches.clear();
 
         switch(c) {
             case ID_BIT | TYPE_BIT | STYLECLASS_BIT:
@@ -303,9 +479,29 @@ public final class SelectorPartitioning {
 
     }
 
-    /** Get the list of selectors that match this selector. Package accessible */
+    /**
+     * Get the list of selectors that match this selector. Package accessible.
+     * The returned list must not be modified.
+     */
     public List<Selector> match(String selectorId, String selectorType, Set<StyleClass> selectorStyleClass) {
 
+        // only the id partition is looked up by id, so an id without
+        // a partition matches the same selectors as no id at all
+        if (selectorId != null && !idMap.containsKey(new PartitionKey(selectorId))) {
+            selectorId = null;
+        }
+        final MatchKey matchKey = new MatchKey(selectorId, selectorType, selectorStyleClass);
+        List<Selector> selectors = matches.get(matchKey);
+        if (selectors == null) {
+            selectors = Collections.unmodifiableList(
+                    doMatch(selectorId, selectorType, selectorStyleClass));
+            matches.put(matchKey, selectors);
+        }
+        return selectors;
+    }
+
+    private List<Selector> doMatch(String selectorId, String selectorType, Set<StyleClass> selectorStyleClass) {
+
         final boolean hasId =
             (selectorId != null && selectorId.isEmpty() == false);
         final PartitionKey idKey = hasId
@@ -329,7 +525,7 @@ public final class SelectorPartitioning {
 
         Partition partition = null;
         Slot slot = null;
-        List<Selector> selectors = new ArrayList<Selector>();
+        List<Entry> entries = new ArrayList<Entry>();
 
         while (c != 0) {
 
@@ -341,7 +537,7 @@ public final class SelectorPartitioning {
                     partition = idMap.get(idKey);
                     if (partition != null) {
                         if (partition.selectors != null) {
-                            selectors.addAll(partition.selectors);
+                            entries.addAll(partition.selectors);
                         }
                         // do-while handles A.b#c also matches A#c by first
                         // doing A.b#c then doing *.b#c
@@ -351,17 +547,11 @@ public final class SelectorPartitioning {
                             if (slot != null) {
 
                                 if (slot.selectors != null) {
-                                    selectors.addAll(slot.selectors);
+                                    entries.addAll(slot.selectors);
                                 }
                                 if ((c & STYLECLASS_BIT) == STYLECLASS_BIT) {
                                     Set<StyleClass> key = (Set<StyleClass>)styleClassKey.key;
-                                    for (Slot s : slot.referents.values()) {
-                                        if (s.selectors == null || s.selectors.isEmpty()) continue;
-                                        Set<StyleClass> other = (Set<StyleClass>)s.partition.key.key;
-                                        if (key.containsAll(other)) {
-                                            selectors.addAll(s.selectors);
-                                        }
-                                    }
+                                    matchStyleClasses(slot.styleClassIndex, key, entries);
                                 }
 
                             }
@@ -393,17 +583,11 @@ public final class SelectorPartitioning {
                         partition = typeMap.get(typePK);
                         if (partition != null) {
                             if (partition.selectors != null) {
-                                selectors.addAll(partition.selectors);
+                                entries.addAll(partition.selectors);
                             }
                             if ((c & STYLECLASS_BIT) == STYLECLASS_BIT) {
                                 Set<StyleClass> key = (Set<StyleClass>)styleClassKey.key;
-                                for (Slot s : partition.slots.values()) {
-                                    if (s.selectors == null || s.selectors.isEmpty()) continue;
-                                    Set<StyleClass> other = (Set<StyleClass>)s.partition.key.key;
-                                    if (key.containsAll(other)) {
-                                        selectors.addAll(s.selectors);
-                                    }
-                                }
+                                matchStyleClasses(partition.styleClassIndex, key, entries);
                             }
                         }
                         // if typePK is 'A', make it '*', if it is '*' make it null
@@ -425,12 +609,16 @@ public final class SelectorPartitioning {
             }
         }
 
-        Collections.sort(selectors, COMPARATOR);
+        Collections.sort(entries, COMPARATOR);
+        final List<Selector> selectors = new ArrayList<Selector>(entries.size());
+        for (int n = 0, nMax = entries.size(); n < nMax; n++) {
+            selectors.add(entries.get(n).getSelector());
+        }
         return selectors;
     }
 
-    private static final Comparator<Selector> COMPARATOR =
-            (o1, o2) -> o1.getOrdinal() - o2.getOrdinal();
+    private static final Comparator<Entry> COMPARATOR =
+            (o1, o2) -> o1.ordinal - o2.ordinal;
 
 
 }
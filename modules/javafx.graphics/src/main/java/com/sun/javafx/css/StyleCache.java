@@ -80,9 +80,16 @@ import java.util.Map;
 public final class StyleCache {
 
     public StyleCache() {
-        // no-op
+        this(null);
     }
 
+    StyleCache(StyleManager.CacheContainer container) {
+        this.container = container;
+    }
+
+    // The container of this cache, which counts the cached entries
+    private final StyleManager.CacheContainer container;
+
     public void clear() {
         if (entries == null) return;
         Thread.dumpStack();
@@ -102,7 +109,9 @@ public final class StyleCache {
         if (entries == null) {
             entries = new HashMap<>(5);
         }
-        entries.put(key, entry);
+        if (entries.put(key, entry) == null && container != null) {
+            container.entryAdded();
+        }
     }
 
     public static final class Key {
@@ -77,7 +77,9 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -168,6 +170,32 @@ final public class StyleManager {
     // public for testing
     public static final Map<Parent, CacheContainer> cacheContainerMap = new WeakHashMap<>();
 
+    /*
+     * If true, roots whose scenes use the same user-agent stylesheet and the
+     * same scene stylesheets share one CacheContainer, so that identical
+     * windows and popups reuse the matched StyleMaps and calculated values.
+     */
+    // package for testing
+    static boolean sharedStyleCache =
+            AccessController.doPrivileged((PrivilegedAction<Boolean>) () ->
+                    Boolean.getBoolean("javafx.css.sharedCache"));
+
+    // The number of cached StyleMaps and calculated values above which
+    // shared CacheContainers which are no longer used by any root are evicted
+    private static final int SHARED_STYLE_CACHE_SIZE =
+            AccessController.doPrivileged((PrivilegedAction<Integer>) () ->
+                    Integer.getInteger("javafx.css.sharedCache.size", 50000));
+
+    // The shared CacheContainers, least recently used first
+    // package for testing
+    final Map<SharedCacheKey, CacheContainer> sharedCacheContainerMap =
+            new LinkedHashMap<>(16, 0.75f, true);
+
+    // The number of StyleMaps and calculated values in the shared
+    // CacheContainers, kept up to date by the containers
+    // package for testing
+    static int sharedCacheSize = 0;
+
     // package for testing
     CacheContainer getCacheContainer(Styleable styleable, SubScene subScene) {
 
@@ -196,7 +224,9 @@ final public class StyleManager {
         synchronized (styleLock) {
             CacheContainer container = cacheContainerMap.get(root);
             if (container == null) {
-                container = new CacheContainer();
+                container = sharedStyleCache
+                        ? getSharedCacheContainer(root, subScene)
+                        : new CacheContainer();
                 cacheContainerMap.put(root, container);
             }
 
@@ -204,6 +234,65 @@ final public class StyleManager {
         }
     }
 
+    private CacheContainer getSharedCacheContainer(Parent root, SubScene subScene) {
+
+        final Scene scene = root.getScene();
+
+        // if has both, use SubScene (same as in findMatchingStyles)
+        String userAgentStylesheet = subScene != null ? subScene.getUserAgentStylesheet() : null;
+        if (userAgentStylesheet == null || userAgentStylesheet.trim().isEmpty()) {
+            userAgentStylesheet = scene != null ? scene.getUserAgentStylesheet() : null;
+        }
+        if (userAgentStylesheet != null) {
+            userAgentStylesheet = userAgentStylesheet.trim();
+            if (userAgentStylesheet.isEmpty()) userAgentStylesheet = null;
+        }
+
+        final SharedCacheKey key =
+                new SharedCacheKey(userAgentStylesheet, gatherSceneStylesheets(scene));
+
+        CacheContainer container = sharedCacheContainerMap.get(key);
+        if (container == null) {
+            container = new CacheContainer();
+            container.shared = true;
+            sharedCacheContainerMap.put(key, container);
+            trimSharedCacheContainers();
+        }
+        return container;
+    }
+
+    /*
+     * Evict the least recently used shared CacheContainers which are not used
+     * by any root until the number of cached entries is within the limit.
+     */
+    private void trimSharedCacheContainers() {
+
+        if (sharedCacheSize <= SHARED_STYLE_CACHE_SIZE) return;
+
+        final Set<CacheContainer> inUse = Collections.newSetFromMap(new IdentityHashMap<>());
+        inUse.addAll(cacheContainerMap.values());
+
+        final Iterator<CacheContainer> iter = sharedCacheContainerMap.values().iterator();
+        while (sharedCacheSize > SHARED_STYLE_CACHE_SIZE && iter.hasNext()) {
+            final CacheContainer container = iter.next();
+            if (inUse.contains(container)) continue;
+            // takes the size of the container off sharedCacheSize
+            container.clearCache();
+            iter.remove();
+        }
+    }
+
+    /*
+     * The CacheContainers of all roots as well as the shared CacheContainers
+     * which are not used by any root at the moment.
+     */
+    private Set<CacheContainer> getCacheContainers() {
+        final Set<CacheContainer> containers = Collections.newSetFromMap(new IdentityHashMap<>());
+        containers.addAll(cacheContainerMap.values());
+        containers.addAll(sharedCacheContainerMap.values());
+        return containers;
+    }
+
     /**
      * StyleHelper uses this cache but it lives here so it can be cleared
      * when style-sheets change.
@@ -218,8 +307,9 @@ final public class StyleManager {
 
         StyleCache sharedCache = styleCache.get(key);
         if (sharedCache == null) {
-            sharedCache = new StyleCache();
+            sharedCache = new StyleCache(container);
             styleCache.put(new StyleCache.Key(key), sharedCache);
+            container.entryAdded();
         }
 
         return sharedCache;
@@ -304,7 +394,14 @@ final public class StyleManager {
             hash = (fname != null) ? fname.hashCode() : 127;
 
             this.stylesheet = stylesheet;
-            if (stylesheet != null) {
+            final SelectorIndex selectorIndex = (stylesheet != null)
+                    ? StylesheetHelper.getSelectorIndex(stylesheet) : null;
+            if (selectorIndex != null) {
+                // the rules of the stylesheet are decoded when they match
+                selectorPartitioning = new SelectorPartitioning();
+                selectorPartitioning.partition(selectorIndex);
+
+            } else if (stylesheet != null) {
                 selectorPartitioning = new SelectorPartitioning();
                 final List<Rule> rules = stylesheet.getRules();
                 final int rMax = rules == null || rules.isEmpty() ? 0 : rules.size();
@@ -498,15 +595,25 @@ final public class StyleManager {
 
         synchronized (styleLock) {
             // Clear the cache so the cache will be rebuilt.
-            Set<Entry<Parent,CacheContainer>> entrySet = cacheContainerMap.entrySet();
-            for(Entry<Parent,CacheContainer> entry : entrySet) {
+            Iterator<Entry<Parent,CacheContainer>> entries = cacheContainerMap.entrySet().iterator();
+            while (entries.hasNext()) {
+                Entry<Parent,CacheContainer> entry = entries.next();
                 Parent parent = entry.getKey();
                 CacheContainer container = entry.getValue();
                 if (parent.getScene() == scene) {
-                    container.clearCache();
+                    if (sharedStyleCache) {
+                        // other scenes may still use the container, and the
+                        // scene now needs another one for its new stylesheets
+                        entries.remove();
+                    } else {
+                        container.clearCache();
+                    }
                 }
 
             }
+            if (sharedStyleCache) {
+                trimSharedCacheContainers();
+            }
 
             c.reset();
             while(c.next()) {
@@ -541,7 +648,12 @@ final public class StyleManager {
             // RT-34863 - clean up CSS cache when Parent is removed from scene-graph
             CacheContainer removedContainer = cacheContainerMap.remove(parent);
             if (removedContainer != null) {
-                removedContainer.clearCache();
+                if (sharedStyleCache) {
+                    // keep it for the next root with the same stylesheets
+                    trimSharedCacheContainers();
+                } else {
+                    removedContainer.clearCache();
+                }
             }
 
             final List<String> stylesheets = parent.getStylesheets();
@@ -699,9 +811,8 @@ final public class StyleManager {
             }
 
             // if container has no references, then remove it
-            for(Entry<Parent,CacheContainer> entry : cacheContainerMap.entrySet()) {
+            for(CacheContainer container : getCacheContainers()) {
 
-                CacheContainer container = entry.getValue();
                 if (container == null || container.cacheMap == null || container.cacheMap.isEmpty()) {
                     continue;
                 }
@@ -1498,7 +1609,7 @@ final public class StyleManager {
         List<Parent> parents = new ArrayList<>();
 
         synchronized (styleLock) {
-            for (CacheContainer container : cacheContainerMap.values()) {
+            for (CacheContainer container : getCacheContainers()) {
                 container.clearCache();
             }
 
@@ -1966,6 +2077,7 @@ final public class StyleManager {
 
         private void addStyleMap(StyleMap smap) {
             getStyleMapList().add(smap);
+            entryAdded();
         }
 
         public StyleMap getStyleMap(int smapId) {
@@ -1979,12 +2091,24 @@ final public class StyleManager {
             return StyleMap.EMPTY_MAP;
         }
 
+        /*
+         * Counts a StyleMap, StyleCache or calculated value added to this
+         * container, used to limit the size of the shared CacheContainers.
+         */
+        void entryAdded() {
+            size += 1;
+            if (shared) sharedCacheSize += 1;
+        }
+
         private void clearCache() {
 
             if (cacheMap != null) cacheMap.clear();
             if (styleCache != null) styleCache.clear();
             if (styleMapList != null) styleMapList.clear();
 
+            if (shared) sharedCacheSize -= size;
+            size = 0;
+
             baseStyleMapId = styleMapId;
             // 7/8ths is totally arbitrary
             if (baseStyleMapId > Integer.MAX_VALUE/8*7) {
@@ -1995,7 +2119,9 @@ final public class StyleManager {
         /**
          * Get the mapping of property to style from Node.style for this node.
          */
-        private Selector getInlineStyleSelector(String inlineStyle) {
+        private Selector getInlineStyleSelector(Styleable node) {
+
+            final String inlineStyle = node.getStyle();
 
             // If there are no styles for this property then we can just bail
             if ((inlineStyle == null) || inlineStyle.trim().isEmpty()) return null;
@@ -2014,7 +2140,7 @@ final public class StyleManager {
             }
 
             final Stylesheet inlineStylesheet =
-                    new CssParser().parse("*{"+inlineStyle+"}");
+                    new CssParser().parseInlineStyle(node);
 
             if (inlineStylesheet != null) {
 
@@ -2051,6 +2177,12 @@ final public class StyleManager {
 
         private List<StyleMap> styleMapList;
 
+        // Whether this is one of the sharedCacheContainerMap values
+        private boolean shared;
+
+        // The number of StyleMaps and calculated values, see entryAdded
+        private int size;
+
         /**
          * Cache of parsed, inline styles. The key is Node.style.
          * The value is the Selector from the inline stylesheet.
@@ -2072,6 +2204,56 @@ final public class StyleManager {
 
     }
 
+    /*
+     * The key of a shared CacheContainer. The stylesheets are compared by
+     * name and checksum so that a stylesheet which was reloaded with the
+     * same content still finds the cached styles.
+     */
+    private static final class SharedCacheKey {
+
+        private final String userAgentStylesheet;
+        private final String[] fnames;
+        private final byte[][] checksums;
+        private final int hash;
+
+        SharedCacheKey(String userAgentStylesheet, List<StylesheetContainer> stylesheets) {
+            this.userAgentStylesheet = userAgentStylesheet;
+            final int nMax = stylesheets.size();
+            this.fnames = new String[nMax];
+            this.checksums = new byte[nMax][];
+            int h = userAgentStylesheet != null ? userAgentStylesheet.hashCode() : 0;
+            for (int n = 0; n < nMax; n++) {
+                final StylesheetContainer container = stylesheets.get(n);
+                fnames[n] = container.fname;
+                checksums[n] = container.checksum;
+                h = 31 * h + (container.fname != null ? container.fname.hashCode() : 0);
+            }
+            this.hash = h;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (obj == this) return true;
+            if (!(obj instanceof SharedCacheKey)) return false;
+            final SharedCacheKey other = (SharedCacheKey) obj;
+            return hash == other.hash
+                    && (userAgentStylesheet == null
+                        ? other.userAgentStylesheet == null
+                        : userAgentStylesheet.equals(other.userAgentStylesheet))
+                    && Arrays.equals(fnames, other.fnames)
+                    && Arrays.deepEquals(checksums, other.checksums);
+        }
+
+        @Override public String toString() {
+            return userAgentStylesheet + " " + Arrays.toString(fnames);
+        }
+    }
+
     /**
      * Creates and caches maps of styles, reusing them as often as practical.
      */
@@ -2154,6 +2336,9 @@ final public class StyleManager {
             long key[] = new long[selectorDataSize/Long.SIZE + 1];
             boolean nothingMatched = true;
 
+            final CssProfiler profiler = CssProfiler.getDefaultBean();
+            final boolean profiling = profiler.getEnabled();
+
             for (int s = 0; s < selectorDataSize; s++) {
 
                 final Selector sel = selectors.get(s);
@@ -2176,7 +2361,12 @@ final public class StyleManager {
                 // is unchanged.
                 //
 
-                if (sel.applies(node, triggerStates, 0)) {
+                final boolean applies = sel.applies(node, triggerStates, 0);
+                if (profiling) {
+                    profiler.selectorMatched(sel, applies);
+                }
+
+                if (applies) {
                     final int index = s / Long.SIZE;
                     final long mask = key[index] | 1l << s;
                     key[index] = mask;
@@ -2203,7 +2393,7 @@ final public class StyleManager {
             final List<Selector> selectors = new ArrayList<>();
 
             if (hasInlineStyle) {
-                Selector selector = cacheContainer.getInlineStyleSelector(inlineStyle);
+                Selector selector = cacheContainer.getInlineStyleSelector(node);
                 if (selector != null) selectors.add(selector);
             }
 
@@ -29,11 +29,15 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import javafx.css.Declaration;
 import javafx.css.Match;
+import javafx.css.ParsedValue;
+import javafx.css.PseudoClass;
 import javafx.css.Rule;
 import javafx.css.Selector;
 
@@ -153,6 +157,62 @@ public final class StyleMap {
         return cascadingStyles;
     }
 
+    /**
+     * Whether the value of the property may change when any of the given
+     * pseudo-classes of the node or of its parents change. This is the case
+     * if a selector of a style for the property has one of the pseudo-classes,
+     * or if a style for the property looks up or inherits its value, in which
+     * case it depends on the state of the parents.
+     */
+    public boolean dependsOn(String property, Set<PseudoClass> pseudoClasses) {
+
+        if (pseudoClassDependencies == null) {
+            createDependencies();
+        }
+
+        if (stateDependentProperties.contains(property)) return true;
+
+        final Set<PseudoClass> dependencies = pseudoClassDependencies.get(property);
+        if (dependencies == null) return false;
+
+        for (PseudoClass pseudoClass : pseudoClasses) {
+            if (dependencies.contains(pseudoClass)) return true;
+        }
+        return false;
+    }
+
+    private void createDependencies() {
+
+        final Map<String, List<CascadingStyle>> styles = getCascadingStyles();
+
+        pseudoClassDependencies = new HashMap<>();
+        stateDependentProperties = new HashSet<>();
+
+        for (Map.Entry<String, List<CascadingStyle>> entry : styles.entrySet()) {
+
+            final String property = entry.getKey();
+            final PseudoClassState dependencies = new PseudoClassState();
+
+            for (CascadingStyle style : entry.getValue()) {
+
+                final ParsedValue parsedValue = style.getParsedValue();
+                if (parsedValue.isContainsLookups() || "inherit".equals(parsedValue.getValue())) {
+                    stateDependentProperties.add(property);
+                    break;
+                }
+
+                final Set<PseudoClass> pseudoClasses = style.getPseudoClasses();
+                if (pseudoClasses != null) {
+                    dependencies.addAll(pseudoClasses);
+                }
+            }
+
+            if (dependencies.isEmpty() == false) {
+                pseudoClassDependencies.put(property, dependencies);
+            }
+        }
+    }
+
     private static final Comparator<CascadingStyle> cascadingStyleComparator =
             (o1, o2) -> {
 
@@ -177,4 +237,8 @@ public final class StyleMap {
     private final int id; // unique per container
     private List<Selector> selectors;
     private Map<String, List<CascadingStyle>> cascadingStyles;
+
+    // see dependsOn
+    private Map<String, Set<PseudoClass>> pseudoClassDependencies;
+    private Set<String> stateDependentProperties;
 }
@@ -111,6 +111,10 @@ public final class SceneHelper {
         return sceneAccessor.getAccessible(scene);
     }
 
+    public static void doCSSLayoutSyncForSnapshot(Scene scene, Node node) {
+        sceneAccessor.doCSSLayoutSyncForSnapshot(scene, node);
+    }
+
     public static void setSceneAccessor(final SceneAccessor newAccessor) {
         if (sceneAccessor != null) {
             throw new IllegalStateException();
@@ -156,6 +160,8 @@ public final class SceneHelper {
         void setTransientFocusContainer(Scene scene, Node node);
 
         Accessible getAccessible(Scene scene);
+
+        void doCSSLayoutSyncForSnapshot(Scene scene, Node node);
     }
 
 }
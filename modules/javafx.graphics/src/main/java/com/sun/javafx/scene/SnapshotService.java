@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package com.sun.javafx.scene;
+
+import com.sun.javafx.geom.transform.Affine2D;
+import com.sun.javafx.tk.Toolkit;
+import java.nio.IntBuffer;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.CompletableFuture;
+import javafx.scene.Parent;
+import javafx.scene.Scene;
+import javafx.scene.paint.Paint;
+
+/**
+ * Renders stage-less scene graphs into pixel buffers, for instance to produce
+ * thumbnails or reports on a server running the headless Monocle platform
+ * with the software pipeline
+ * ({@code -Dglass.platform=Monocle -Dmonocle.platform=Headless -Dprism.order=sw}).
+ * <p>
+ * Unlike {@code Node.snapshot}, the FX thread only processes CSS, layout and
+ * synchronization of the graph and does not wait for the rendering: the
+ * render jobs are queued on the renderer thread, which reuses its render
+ * targets between requests of the same size, and the pixels are delivered
+ * through the returned future.
+ */
+public final class SnapshotService {
+
+    // Last pending request per root, a root is only synchronized again
+    // once the renderer is done with its previous state. Only accessed on
+    // the FX application thread, entries are removed once they complete.
+    private static final Map<Parent, CompletableFuture<IntBuffer>> pending =
+            new WeakHashMap<>();
+
+    private SnapshotService() {
+    }
+
+    /**
+     * Returns the width in pixels of the buffers produced by
+     * {@link #snapshot} for the given width and scale.
+     */
+    public static int getPixelWidth(double width, double scale) {
+        return Math.max((int) Math.ceil(width * scale), 1);
+    }
+
+    /**
+     * Returns the height in pixels of the buffers produced by
+     * {@link #snapshot} for the given height and scale.
+     */
+    public static int getPixelHeight(double height, double scale) {
+        return Math.max((int) Math.ceil(height * scale), 1);
+    }
+
+    /**
+     * Renders the given root into a buffer of IntArgbPre pixels of
+     * {@code getPixelWidth(width, scale)} x {@code getPixelHeight(height, scale)}.
+     * If the root is not yet part of a scene, it is put in a new one of
+     * {@code width} x {@code height}, otherwise the size of its scene is kept.
+     * This method must be called on the FX application thread and the root
+     * must not be part of a showing window. The root may be modified as soon
+     * as this method returns. If a previous request for the same root has
+     * not been rendered yet, this request is only prepared on the FX
+     * application thread once it has been, so that modifications made in
+     * the meantime are part of this request.
+     *
+     * @param root the root of the graph to render
+     * @param width the width of the area to render, in user space
+     * @param height the height of the area to render, in user space
+     * @param scale the scale from user space to pixels
+     * @return a future completed on the renderer thread with the pixels
+     */
+    public static CompletableFuture<IntBuffer> snapshot(Parent root,
+            double width, double height, double scale) {
+        Toolkit tk = Toolkit.getToolkit();
+        tk.checkFxUserThread();
+        if (!(width > 0 && height > 0 && scale > 0)) {
+            throw new IllegalArgumentException("invalid size: " + width + "x"
+                    + height + " at scale " + scale);
+        }
+
+        Scene scene = root.getScene();
+        if (scene == null) {
+            scene = new Scene(root, width, height);
+        } else if (scene.getWindow() != null) {
+            throw new IllegalStateException("root must not be part of a window");
+        }
+
+        final Scene snapshotScene = scene;
+        final CompletableFuture<IntBuffer> previous = pending.get(root);
+        final CompletableFuture<IntBuffer> result;
+        if (previous == null || previous.isDone()) {
+            result = render(tk, snapshotScene, root, width, height, scale);
+        } else {
+            // the renderer still reads the peers of the previous request
+            result = previous.handle((pixels, exception) -> null)
+                    .thenComposeAsync(v -> render(tk, snapshotScene, root, width, height, scale), tk::defer);
+        }
+
+        pending.put(root, result);
+        result.whenComplete((pixels, exception) -> tk.defer(() -> pending.remove(root, result)));
+        return result;
+    }
+
+    private static CompletableFuture<IntBuffer> render(Toolkit tk, Scene scene, Parent root,
+            double width, double height, double scale) {
+        SceneHelper.doCSSLayoutSyncForSnapshot(scene, root);
+
+        Affine2D transform = new Affine2D();
+        transform.scale(scale, scale);
+
+        Toolkit.ImageRenderingContext context = new Toolkit.ImageRenderingContext();
+        context.x = 0;
+        context.y = 0;
+        context.width = getPixelWidth(width, scale);
+        context.height = getPixelHeight(height, scale);
+        context.transform = transform;
+        Paint fill = scene.getFill();
+        SceneHelper.setAllowPGAccess(true);
+        context.root = NodeHelper.getPeer(root);
+        context.platformPaint = fill == null ? null : tk.getPaint(fill);
+        SceneHelper.setAllowPGAccess(false);
+
+        return tk.renderToPixels(context);
+    }
+}
@@ -31,10 +31,12 @@ import java.util.List;
 import com.sun.javafx.geom.DirtyRegionContainer;
 import com.sun.javafx.geom.RectBounds;
 import com.sun.javafx.geom.Rectangle;
+import com.sun.javafx.geom.transform.Affine3D;
 import com.sun.javafx.geom.transform.BaseTransform;
 import com.sun.javafx.geom.transform.GeneralTransform3D;
 import com.sun.javafx.scene.NodeHelper;
 import com.sun.prism.Graphics;
+import com.sun.prism.impl.PrismSettings;
 import com.sun.scenario.effect.Blend;
 import com.sun.scenario.effect.Blend.Mode;
 import com.sun.scenario.effect.FilterContext;
@@ -74,6 +76,31 @@ public class NGGroup extends NGNode {
      */
     private static final int REGION_INTERSECTS_MASK = 0x15555555;
 
+    /**
+     * Whether the children of this group are rendered from a recorded render
+     * list. The list flattens the plain groups of the subtree, so that it is
+     * replayed into the Graphics without walking these groups again. Only the
+     * changes of the children of the flattened groups, or of whether and how
+     * a group is flattened, invalidate the list (see
+     * {@link #invalidateRenderLists()}). The other nodes are rendered on their
+     * own from the list, so that changes of their content leave it valid.
+     */
+    static boolean renderListsEnabled = PrismSettings.renderListsEnabled;
+
+    // The commands of the render list
+    private static final byte RENDER_NODE        = 0; // Object node
+    private static final byte RENDER_TRANSFORM   = 1; // 12 doubles relative to this group
+    private static final byte RENDER_GROUP_BEGIN = 2; // Object group
+    private static final byte RENDER_GROUP_END   = 3;
+
+    private GrowableDataBuffer renderList;
+    private boolean renderListValid;
+    // whether this group is flattened into the recorded render list of an
+    // ancestor, which then has to be invalidated along with this group
+    private boolean inRenderList;
+    private Affine3D renderListBaseTx;
+    private Affine3D renderListTempTx;
+
     /***************************************************************************
      *                                                                         *
      * Implementation of the PGGroup interface                                 *
@@ -122,6 +149,7 @@ public class NGGroup extends NGNode {
         child.markDirty();
         markTreeDirtyNoIncrement();
         geometryChanged();
+        childrenChanged();
     }
 
     public void clearFrom(int fromIndex) {
@@ -130,6 +158,7 @@ public class NGGroup extends NGNode {
             geometryChanged();
             childDirty = true;
             markTreeDirtyNoIncrement();
+            childrenChanged();
         }
     }
 
@@ -167,6 +196,7 @@ public class NGGroup extends NGNode {
         geometryChanged();
         childDirty = true;
         markTreeDirtyNoIncrement();
+        childrenChanged();
     }
 
     public void remove(int index) {
@@ -174,6 +204,7 @@ public class NGGroup extends NGNode {
         geometryChanged();
         childDirty = true;
         markTreeDirtyNoIncrement();
+        childrenChanged();
     }
 
     public void clear() {
@@ -181,6 +212,7 @@ public class NGGroup extends NGNode {
         childDirty = false;
         geometryChanged();
         markTreeDirtyNoIncrement();
+        childrenChanged();
     }
 
     // Call this method if children view order is needed for rendering.
@@ -203,6 +235,7 @@ public class NGGroup extends NGNode {
 
         // Mark visual dirty
         visualsChanged();
+        invalidateRenderLists();
     }
 
     /**
@@ -219,6 +252,7 @@ public class NGGroup extends NGNode {
         if (this.blendMode != blendMode) {
             this.blendMode = (Blend.Mode)blendMode;
             visualsChanged();
+            invalidateParentRenderLists();
         }
     }
 
@@ -258,6 +292,16 @@ public class NGGroup extends NGNode {
         if (blendMode == Blend.Mode.SRC_OVER ||
                 orderedChildren.size() < 2) {  // Blend modes only work "between" siblings
 
+            if (renderListsEnabled && startPos >= 0 &&
+                    !PrismSettings.showOverdraw)
+            {
+                // the child on the path to the render root, if any, is
+                // rendered on its own so that it follows the path
+                renderList(g, orderedChildren,
+                           g.getRenderRoot() == null ? -1 : startPos);
+                return;
+            }
+
             for (int i = startPos; i < orderedChildren.size(); i++) {
                 NGNode child;
                 try {
@@ -314,6 +358,238 @@ public class NGGroup extends NGNode {
         }
     }
 
+    /**
+     * Invalidates the render lists when the children of this group change.
+     * A blend mode only applies between siblings, so with a blend mode the
+     * number of children also decides whether this group is flattened.
+     */
+    private void childrenChanged() {
+        invalidateRenderLists();
+        if (blendMode != Blend.Mode.SRC_OVER) {
+            invalidateParentRenderLists();
+        }
+    }
+
+    /**
+     * Discards the recorded render list, it is recorded again the next time
+     * this group is rendered. Returns whether the group was flattened into
+     * the render list of an ancestor, in which case that list must be
+     * invalidated as well.
+     */
+    final boolean invalidateRenderList() {
+        if (renderListValid) {
+            renderListValid = false;
+            // release the buffer along with the references to the nodes
+            GrowableDataBuffer.returnBuffer(renderList);
+            renderList = null;
+        }
+        boolean flattened = inRenderList;
+        inRenderList = false;
+        return flattened;
+    }
+
+    // package for testing
+    GrowableDataBuffer getRenderList() {
+        return renderListValid ? renderList : null;
+    }
+
+    /**
+     * Renders the children from the render list. If renderRootPos is not -1,
+     * the children before it are skipped and the child at renderRootPos,
+     * which is on the path to the render root, is rendered on its own.
+     */
+    private void renderList(Graphics g, List<NGNode> orderedChildren,
+                            int renderRootPos) {
+        if (!renderListValid) {
+            renderList = GrowableDataBuffer.getBuffer(1024);
+            if (renderListBaseTx == null) {
+                renderListBaseTx = new Affine3D();
+                renderListTempTx = new Affine3D();
+            }
+            recordRenderList(renderList, orderedChildren,
+                             BaseTransform.IDENTITY_TRANSFORM);
+            renderListValid = true;
+        }
+
+        // save current transform state, the children are rendered relative to it
+        BaseTransform prevXform = g.getTransformNoClone();
+        renderListBaseTx.setTransform(prevXform);
+
+        renderList.restore();
+        if (renderRootPos >= 0) {
+            // each child is one entry of the list; the transform of the
+            // entries of this group is the base transform
+            skipRenderListEntries(renderList, renderRootPos + 1);
+            orderedChildren.get(renderRootPos).render(g);
+            g.setTransform(renderListBaseTx);
+        }
+        replayRenderList(g, renderList, renderListBaseTx, renderListTempTx);
+
+        // restore previous transform state
+        g.setTransform(renderListBaseTx);
+    }
+
+    /**
+     * Returns whether the child can be flattened into the render list of its
+     * parent, ie. if rendering it just renders its children with its transform.
+     */
+    private static boolean isFlattenable(NGNode child) {
+        return child.getClass() == NGGroup.class &&
+               child.isVisible() && child.getOpacity() == 1f &&
+               child.getNodeBlendMode() == null &&
+               child.getCacheFilter() == null &&
+               child.getClipNode() == null &&
+               child.getEffectFilter() == null &&
+               (((NGGroup) child).blendMode == Blend.Mode.SRC_OVER ||
+                ((NGGroup) child).getOrderedChildren().size() < 2);
+    }
+
+    private static void recordRenderList(GrowableDataBuffer buf,
+                                         List<NGNode> children,
+                                         BaseTransform relTx)
+    {
+        boolean transformRecorded = false;
+        for (int i = 0; i < children.size(); i++) {
+            NGNode child = children.get(i);
+            if (isFlattenable(child)) {
+                NGGroup group = (NGGroup) child;
+                group.inRenderList = true;
+                buf.putByte(RENDER_GROUP_BEGIN);
+                buf.putObject(group);
+                recordRenderList(buf, group.getOrderedChildren(),
+                                 relTx.copy().deriveWithConcatenation(group.getTransform()));
+                buf.putByte(RENDER_GROUP_END);
+                transformRecorded = false;
+            } else {
+                if (!transformRecorded) {
+                    buf.putByte(RENDER_TRANSFORM);
+                    buf.putDouble(relTx.getMxx());
+                    buf.putDouble(relTx.getMxy());
+                    buf.putDouble(relTx.getMxz());
+                    buf.putDouble(relTx.getMxt());
+                    buf.putDouble(relTx.getMyx());
+                    buf.putDouble(relTx.getMyy());
+                    buf.putDouble(relTx.getMyz());
+                    buf.putDouble(relTx.getMyt());
+                    buf.putDouble(relTx.getMzx());
+                    buf.putDouble(relTx.getMzy());
+                    buf.putDouble(relTx.getMzz());
+                    buf.putDouble(relTx.getMzt());
+                    transformRecorded = true;
+                }
+                buf.putByte(RENDER_NODE);
+                buf.putObject(child);
+            }
+        }
+    }
+
+    /**
+     * Replays the render list up to the end of the current flattened group,
+     * or up to the end of the list. The dirty flags, the culling and the depth
+     * test of the flattened groups are handled here the same way as in
+     * {@link NGNode#render} and {@link NGNode#doRender}.
+     */
+    private static void replayRenderList(Graphics g, GrowableDataBuffer buf,
+                                         Affine3D baseTx, Affine3D tempTx)
+    {
+        while (buf.hasValues()) {
+            switch (buf.getByte()) {
+                case RENDER_NODE:
+                    ((NGNode) buf.getObject()).render(g);
+                    break;
+                case RENDER_TRANSFORM:
+                    tempTx.setTransform(baseTx);
+                    tempTx.concatenate(buf.getDouble(), buf.getDouble(),
+                                       buf.getDouble(), buf.getDouble(),
+                                       buf.getDouble(), buf.getDouble(),
+                                       buf.getDouble(), buf.getDouble(),
+                                       buf.getDouble(), buf.getDouble(),
+                                       buf.getDouble(), buf.getDouble());
+                    g.setTransform(tempTx);
+                    break;
+                case RENDER_GROUP_BEGIN: {
+                    NGGroup group = (NGGroup) buf.getObject();
+                    // the group is not rendered on its own, so clear its
+                    // dirty flags as render() would have done
+                    group.clearDirty();
+                    g.setState3D(false);
+                    boolean preCullingTurnedOff = false;
+                    if (PrismSettings.dirtyOptsEnabled && g.hasPreCullingBits()) {
+                        final int bits = group.cullingBits >> (g.getClipRectIndex() * 2);
+                        if ((bits & DIRTY_REGION_CONTAINS_OR_INTERSECTS_NODE_BOUNDS) == 0) {
+                            skipRenderListGroup(buf);
+                            break;
+                        } else if ((bits & DIRTY_REGION_CONTAINS_NODE_BOUNDS) != 0) {
+                            g.setHasPreCullingBits(false);
+                            preCullingTurnedOff = true;
+                        }
+                    }
+                    boolean prevDepthTest = g.isDepthTest();
+                    g.setDepthTest(group.isDepthTest());
+                    replayRenderList(g, buf, baseTx, tempTx);
+                    if (preCullingTurnedOff) {
+                        g.setHasPreCullingBits(true);
+                    }
+                    g.setDepthTest(prevDepthTest);
+                    break;
+                }
+                case RENDER_GROUP_END:
+                    return;
+                default:
+                    throw new InternalError("Unrecognized render list command");
+            }
+        }
+    }
+
+    /* Skips the given number of entries, nodes or groups, of the list */
+    private static void skipRenderListEntries(GrowableDataBuffer buf, int count) {
+        while (count > 0) {
+            switch (buf.getByte()) {
+                case RENDER_NODE:
+                    buf.getObject();
+                    count--;
+                    break;
+                case RENDER_TRANSFORM:
+                    for (int i = 0; i < 12; i++) {
+                        buf.getDouble();
+                    }
+                    break;
+                case RENDER_GROUP_BEGIN:
+                    buf.getObject();
+                    skipRenderListGroup(buf);
+                    count--;
+                    break;
+                default:
+                    throw new InternalError("Unrecognized render list command");
+            }
+        }
+    }
+
+    private static void skipRenderListGroup(GrowableDataBuffer buf) {
+        int depth = 1;
+        while (depth > 0) {
+            switch (buf.getByte()) {
+                case RENDER_NODE:
+                    buf.getObject();
+                    break;
+                case RENDER_TRANSFORM:
+                    for (int i = 0; i < 12; i++) {
+                        buf.getDouble();
+                    }
+                    break;
+                case RENDER_GROUP_BEGIN:
+                    buf.getObject();
+                    depth++;
+                    break;
+                case RENDER_GROUP_END:
+                    depth--;
+                    break;
+                default:
+                    throw new InternalError("Unrecognized render list command");
+            }
+        }
+    }
+
     @Override
     protected boolean hasOverlappingContents() {
         if (blendMode != Mode.SRC_OVER) {
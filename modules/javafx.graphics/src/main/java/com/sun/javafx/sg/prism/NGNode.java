@@ -292,6 +292,7 @@ public abstract class NGNode {
         if (visible != value) {
             this.visible = value;
             markDirty();
+            invalidateParentRenderLists();
         }
     }
 
@@ -392,6 +393,7 @@ public abstract class NGNode {
             markDirty();
         }
         invalidateOpaqueRegion();
+        invalidateParentRenderLists();
     }
 
     /**
@@ -412,6 +414,7 @@ public abstract class NGNode {
             // Mark this node dirty, invalidate its cache, and all parents.
             visualsChanged();
             invalidateOpaqueRegion();
+            invalidateParentRenderLists();
         }
     }
 
@@ -432,6 +435,7 @@ public abstract class NGNode {
             final float old = this.opacity;
             this.opacity = opacity;
             markDirty();
+            invalidateParentRenderLists();
             // Even though the opacity has changed, for example from .5 to .6,
             // we don't need to invalidate the opaque region unless it has toggled
             // from 1 to !1, or from !1 to 1.
@@ -482,6 +486,7 @@ public abstract class NGNode {
             this.nodeBlendMode = blendMode;
             markDirty();
             invalidateOpaqueRegion();
+            invalidateParentRenderLists();
         }
     }
 
@@ -517,6 +522,7 @@ public abstract class NGNode {
         if (cached) {
             if (cacheFilter == null) {
                 cacheFilter = new CacheFilter(this, cacheHint);
+                invalidateParentRenderLists();
                 // We do not technically need to do a render pass here, but if
                 // we wait for the next render pass to cache it, then we will
                 // cache not the current visuals, but the visuals as defined
@@ -543,6 +549,7 @@ public abstract class NGNode {
             if (cacheFilter != null) {
                 cacheFilter.dispose();
                 cacheFilter = null;
+                invalidateParentRenderLists();
                 // A cache will often look worse than uncached rendering.  It
                 // may look the same in some circumstances, and this may then
                 // be an unnecessary rendering pass, but we do not have enough
@@ -575,6 +582,7 @@ public abstract class NGNode {
         if (effectFilter == null && effect != null) {
             effectFilter = new EffectFilter(effect, this);
             visualsChanged();
+            invalidateParentRenderLists();
         } else if (effectFilter != null && effectFilter.getEffect() != effect) {
             effectFilter.dispose();
             effectFilter = null;
@@ -582,6 +590,7 @@ public abstract class NGNode {
                 effectFilter = new EffectFilter(effect, this);
             }
             visualsChanged();
+            invalidateParentRenderLists();
         }
 
         // The only thing we do with the effect in #computeOpaqueRegion is to check
@@ -887,6 +896,35 @@ public abstract class NGNode {
         if (p != null) p.invalidateCache();
     }
 
+    /**
+     * Invalidates the render lists which contain this node. The walk stops
+     * at the first group which is not flattened into the render list of its
+     * parent, since the lists above it only refer to that group.
+     */
+    final void invalidateRenderLists() {
+        if (!NGGroup.renderListsEnabled) {
+            return;
+        }
+        for (NGNode n = this; n != null; n = n.parent) {
+            if (n instanceof NGGroup && !((NGGroup) n).invalidateRenderList()) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Invalidates the render lists of the parent when a change of this node
+     * affects whether or how it is flattened into them (see
+     * NGGroup.isFlattenable). Only plain groups are flattened: the other
+     * nodes are rendered on their own from the lists, so that the changes
+     * of their content, transform or visuals leave the lists valid.
+     */
+    final void invalidateParentRenderLists() {
+        if (parent != null && getClass() == NGGroup.class) {
+            parent.invalidateRenderLists();
+        }
+    }
+
     /**
      * Gets whether this SGNode is clean. This will return true only if
      * this node and any / all child nodes are clean.
@@ -459,8 +459,7 @@ public class NGRegion extends NGGroup {
         final Screen screen = g.getAssociatedScreen();
         RegionImageCache cache = imageCacheMap.get(screen);
         if (cache != null) {
-            RTTexture tex = cache.getBackingStore();
-            if (tex.isSurfaceLost()) {
+            if (cache.isSurfaceLost()) {
                 imageCacheMap.remove(screen);
                 cache = null;
             }
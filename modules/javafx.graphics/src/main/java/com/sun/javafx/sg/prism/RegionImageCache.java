@@ -26,7 +26,10 @@
 package com.sun.javafx.sg.prism;
 
 import javafx.scene.layout.Background;
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import com.sun.javafx.geom.Rectangle;
 import com.sun.javafx.geom.Shape;
 import com.sun.javafx.logging.PulseLogger;
@@ -35,31 +38,38 @@ import com.sun.prism.Graphics;
 import com.sun.prism.RTTexture;
 import com.sun.prism.ResourceFactory;
 import com.sun.prism.Texture.WrapMode;
+import com.sun.prism.impl.PrismSettings;
 import com.sun.prism.impl.packrect.RectanglePacker;
 
 /**
- * RegionImageCache - A fixed pixel count sized cache of Images keyed by arbitrary set of arguments. All images are held with
- * SoftReferences so they will be dropped by the GC if heap memory gets tight. When our size hits max pixel count least
- * recently requested images are removed first.
+ * RegionImageCache - A cache of Images keyed by arbitrary set of arguments, stored in up to
+ * PrismSettings.regionCachePages backing textures which are allocated as needed. When all the
+ * pages are full, the least recently requested image whose area can hold the new image is
+ * evicted and its area reused. Only if no cached image is large enough, the page holding the
+ * least recently requested image is cleared and reused.
  *
  */
 class RegionImageCache {
 
     // Maximum cached image size in pixels
-    private final static int MAX_SIZE = 300 * 300;
+    private final static int MAX_SIZE = PrismSettings.regionCacheMaxImageSize *
+                                        PrismSettings.regionCacheMaxImageSize;
     private static final int WIDTH = 1024;
     private static final int HEIGHT = 1024;
 
-    private HashMap<Integer, CachedImage> imageMap;
-    private RTTexture backingStore;
-    private RectanglePacker hPacker;
-    private RectanglePacker vPacker;
-
+    private final ResourceFactory factory;
+    private final WrapMode mode;
+    private final int pad;
+    // The images in least recently requested order
+    private LinkedHashMap<Integer, CachedImage> imageMap;
+    private List<Page> pages;
+    // The page of the last image located by getImageLocation()
+    private Page currentPage;
 
     RegionImageCache(final ResourceFactory factory) {
-        imageMap = new HashMap<>();
-        WrapMode mode;
-        int pad;
+        this.factory = factory;
+        imageMap = new LinkedHashMap<>(16, 0.75f, true);
+        pages = new ArrayList<>(PrismSettings.regionCachePages);
         if (factory.isWrapModeSupported(WrapMode.CLAMP_TO_ZERO)) {
             mode = WrapMode.CLAMP_TO_ZERO;
             pad = 0;
@@ -67,19 +77,34 @@ class RegionImageCache {
             mode = WrapMode.CLAMP_NOT_NEEDED;
             pad = 1;
         }
-        backingStore = factory.createRTTexture(WIDTH + WIDTH, HEIGHT, mode);
+        currentPage = createPage();
+        factory.setRegionTexture(currentPage.backingStore);
+    }
+
+    /**
+     * Makes the given page the current one, and the region texture of the
+     * factory, so that the super shader can batch the images it holds.
+     */
+    private void setCurrentPage(Page page) {
+        if (page != currentPage) {
+            currentPage = page;
+            factory.setRegionTexture(page.backingStore);
+        }
+    }
+
+    private Page createPage() {
+        RTTexture backingStore = factory.createRTTexture(WIDTH + WIDTH, HEIGHT, mode);
+        if (backingStore == null) {
+            return null;
+        }
         backingStore.contentsUseful();
         backingStore.makePermanent();
-        factory.setRegionTexture(backingStore);
-        // Subdivide the texture in two halves where on half is used to store
-        // horizontal regions and the other vertical regions. Otherwise, mixing
-        // horizontal and vertical regions on the same area, would result in
-        // a lot of waste texture space.
-        // Note that requests are already padded on the right and bottom edges
-        // (and that includes the gap between the caches) so we only have to
-        // pad top and left edges if CLAMP_TO_ZERO needs to be simulated.
-        hPacker = new RectanglePacker(backingStore, pad, pad, WIDTH-pad, HEIGHT-pad, false);
-        vPacker = new RectanglePacker(backingStore, WIDTH, pad, WIDTH, HEIGHT-pad, true);
+        Page page = new Page(backingStore, pad);
+        pages.add(page);
+        if (PULSE_LOGGING_ENABLED) {
+            PulseLogger.incrementCounter("Region image cache page allocated");
+        }
+        return page;
     }
 
     /**
@@ -95,8 +120,21 @@ class RegionImageCache {
                (w * h) < MAX_SIZE;
     }
 
+    /**
+     * Returns the backing store of the image located by the last call to
+     * {@link #getImageLocation}.
+     */
     RTTexture getBackingStore() {
-        return backingStore;
+        return currentPage.backingStore;
+    }
+
+    boolean isSurfaceLost() {
+        for (int i = 0; i < pages.size(); i++) {
+            if (pages.get(i).backingStore.isSurfaceLost()) {
+                return true;
+            }
+        }
+        return false;
     }
 
     /**
@@ -121,6 +159,10 @@ class RegionImageCache {
             if (cache.equals(rect.width, rect.height, background, shape)) {
                 rect.x = cache.x;
                 rect.y = cache.y;
+                setCurrentPage(cache.page);
+                if (PULSE_LOGGING_ENABLED) {
+                    PulseLogger.incrementCounter("Region image cache hit");
+                }
                 return false;
             }
             // hash collision, mark rectangle empty indicates the caller to
@@ -128,35 +170,146 @@ class RegionImageCache {
             rect.width = rect.height = -1;
             return false;
         }
+        if (PULSE_LOGGING_ENABLED) {
+            PulseLogger.incrementCounter("Region image cache miss");
+        }
         boolean vertical = rect.height > 64;
-        RectanglePacker packer = vertical ? vPacker : hPacker;
 
-        if (!packer.add(rect)) {
-            g.sync();
+        // Try the most recently used page first
+        Page page = null;
+        if (currentPage.add(rect, vertical)) {
+            page = currentPage;
+        } else {
+            for (int i = 0; i < pages.size(); i++) {
+                Page p = pages.get(i);
+                if (p != currentPage && p.add(rect, vertical)) {
+                    page = p;
+                    break;
+                }
+            }
+        }
+        if (page == null && pages.size() < PrismSettings.regionCachePages) {
+            page = createPage();
+            if (page != null && !page.add(rect, vertical)) {
+                page = null;
+            }
+        }
+        int slotWidth = rect.width;
+        int slotHeight = rect.height;
+        if (page == null) {
+            // All pages are full, reuse the area of an image
+            CachedImage evicted = evictImage(rect, g);
+            if (evicted != null) {
+                page = evicted.page;
+                slotWidth = evicted.slotWidth;
+                slotHeight = evicted.slotHeight;
+            } else {
+                // No image is large enough, reuse the page of the least
+                // recently requested image
+                page = imageMap.values().iterator().next().page;
+                evictPage(page, g);
+                page.add(rect, vertical);
+            }
+        }
+        imageMap.put(key, new CachedImage(rect, slotWidth, slotHeight, background, shape, page));
+        setCurrentPage(page);
+        return true;
+    }
+
+    /**
+     * Evicts the least recently requested image whose area can hold the
+     * image of the given size, and moves rect to that area.
+     *
+     * @return the evicted image, or null if no image is large enough
+     */
+    private CachedImage evictImage(Rectangle rect, Graphics g) {
+        for (Iterator<CachedImage> it = imageMap.values().iterator(); it.hasNext(); ) {
+            CachedImage image = it.next();
+            if (image.slotWidth >= rect.width && image.slotHeight >= rect.height) {
+                it.remove();
+                g.sync();
+                image.page.clear(image.x, image.y, image.slotWidth, image.slotHeight);
+                rect.x = image.x;
+                rect.y = image.y;
+                if (PULSE_LOGGING_ENABLED) {
+                    PulseLogger.incrementCounter("Region image cache image evicted");
+                }
+                return image;
+            }
+        }
+        return null;
+    }
+
+    private void evictPage(Page page, Graphics g) {
+        g.sync();
+
+        int evicted = 0;
+        for (Iterator<CachedImage> it = imageMap.values().iterator(); it.hasNext(); ) {
+            if (it.next().page == page) {
+                it.remove();
+                evicted++;
+            }
+        }
+        page.clear();
+        if (PULSE_LOGGING_ENABLED) {
+            PulseLogger.incrementCounter("Region image cache page evicted");
+            PulseLogger.addMessage("Region image cache evicted " + evicted + " images");
+        }
+    }
+
+    static class Page {
+        final RTTexture backingStore;
+        private final RectanglePacker hPacker;
+        private final RectanglePacker vPacker;
+
+        Page(RTTexture backingStore, int pad) {
+            this.backingStore = backingStore;
+            // Subdivide the texture in two halves where on half is used to store
+            // horizontal regions and the other vertical regions. Otherwise, mixing
+            // horizontal and vertical regions on the same area, would result in
+            // a lot of waste texture space.
+            // Note that requests are already padded on the right and bottom edges
+            // (and that includes the gap between the caches) so we only have to
+            // pad top and left edges if CLAMP_TO_ZERO needs to be simulated.
+            hPacker = new RectanglePacker(backingStore, pad, pad, WIDTH-pad, HEIGHT-pad, false,
+                                          PrismSettings.regionCacheSkyline);
+            vPacker = new RectanglePacker(backingStore, WIDTH, pad, WIDTH, HEIGHT-pad, true,
+                                          PrismSettings.regionCacheSkyline);
+        }
+
+        boolean add(Rectangle rect, boolean vertical) {
+            return (vertical ? vPacker : hPacker).add(rect);
+        }
 
+        void clear() {
             vPacker.clear();
             hPacker.clear();
-            imageMap.clear();
-            packer.add(rect);
             backingStore.createGraphics().clear();
-            if (PULSE_LOGGING_ENABLED) {
-                PulseLogger.incrementCounter("Region image cache flushed");
-            }
         }
-        imageMap.put(key, new CachedImage(rect, background, shape));
-        return true;
+
+        // clears the area of an evicted image, including its padding
+        void clear(int x, int y, int width, int height) {
+            backingStore.createGraphics().clearQuad(x, y, x + width, y + height);
+        }
     }
 
     static class CachedImage {
         Background background;
         Shape shape;
+        Page page;
         int x, y, width, height;
+        // the area allocated to the image, larger if it was evicted from a larger image
+        int slotWidth, slotHeight;
 
-        CachedImage(Rectangle rect, Background background, Shape shape) {
+        CachedImage(Rectangle rect, int slotWidth, int slotHeight,
+                    Background background, Shape shape, Page page) {
+            this.page = page;
             this.x = rect.x;
             this.y = rect.y;
             this.width = rect.width;
             this.height = rect.height;
+            this.slotWidth = slotWidth;
+            this.slotHeight = slotHeight;
             this.background = background;
             this.shape = shape;
         }
@@ -48,10 +48,12 @@ import javafx.stage.StageStyle;
 import javafx.stage.Window;
 import java.io.File;
 import java.io.InputStream;
+import java.nio.IntBuffer;
 import java.security.AccessControlContext;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Future;
 import com.sun.glass.ui.CommonDialogs.FileChooserResult;
 import com.sun.javafx.embed.HostInterface;
@@ -360,6 +362,11 @@ final public class DummyToolkit extends Toolkit {
         throw new UnsupportedOperationException("Not supported yet.");
     }
 
+    @Override
+    public CompletableFuture<IntBuffer> renderToPixels(ImageRenderingContext context) {
+        throw new UnsupportedOperationException("Not supported yet.");
+    }
+
     @Override
     public KeyCode getPlatformShortcutKey() {
         throw new UnsupportedOperationException("Not supported yet.");
@@ -58,6 +58,7 @@ import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
 import java.security.AccessControlContext;
 import java.security.AccessController;
 import java.security.PrivilegedAction;
@@ -68,6 +69,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.WeakHashMap;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Future;
 import com.sun.glass.ui.CommonDialogs.FileChooserResult;
@@ -814,6 +816,23 @@ public abstract class Toolkit {
 
     public abstract Object renderToImage(ImageRenderingContext context);
 
+    /*
+     * This method renders a PG-graph like renderToImage, but returns the
+     * pixels as IntArgbPre data of params.width x params.height and does
+     * not wait for the rendering to complete. The returned future is
+     * completed once the render job has run, so several requests may be
+     * queued on the renderer at the same time.
+     * The platformImage specified in the params is ignored.
+     * The PG-graph must not be synchronized again until the returned
+     * future is done.
+     *
+     * @param context a ImageRenderingContext instance specifying
+     *               the various rendering parameters
+     * @return a future completed with the rendered pixels
+     * @see #renderToImage
+     */
+    public abstract CompletableFuture<IntBuffer> renderToPixels(ImageRenderingContext context);
+
     /**
      * Returns the key code for the key which is commonly used on the
      * corresponding platform as a modifier key in shortcuts. For example
@@ -95,6 +95,11 @@ final class PresentingPainter extends ViewPainter {
                 if (PULSE_LOGGING_ENABLED) {
                     PulseLogger.newPhase("Presenting");
                 }
+                // The repainted regions are not used here: the swap chains
+                // copy the whole stable back buffer and swap whole buffers,
+                // whose content is undefined after a swap. Partial presents
+                // would need buffer age or swap region support in the
+                // native code.
                 if (!presentable.prepare(null)) {
                     disposePresentable();
                     sceneState.getScene().entireSceneNeedsRepaint();
@@ -68,6 +68,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
@@ -1352,6 +1353,50 @@ public final class QuantumToolkit extends Toolkit {
         return com.sun.prism.Image.fromByteBgraPreData(bytebuf, w, h);
     }
 
+    private static com.sun.prism.paint.Color getClearColor(com.sun.prism.paint.Paint currentPaint) {
+        if (currentPaint == null) {
+            return com.sun.prism.paint.Color.WHITE;
+        } else if (currentPaint.getType() == com.sun.prism.paint.Paint.Type.COLOR) {
+            return (com.sun.prism.paint.Color) currentPaint;
+        } else if (currentPaint.isOpaque()) {
+            return com.sun.prism.paint.Color.TRANSPARENT;
+        } else {
+            return com.sun.prism.paint.Color.WHITE;
+        }
+    }
+
+    private static void draw(Graphics g, ImageRenderingContext params,
+                             com.sun.prism.paint.Paint currentPaint,
+                             int x, int y, int w, int h)
+    {
+        g.setLights(params.lights);
+        g.setDepthBuffer(params.depthBuffer);
+
+        g.clear(getClearColor(currentPaint));
+        if (currentPaint != null &&
+                currentPaint.getType() != com.sun.prism.paint.Paint.Type.COLOR) {
+            g.getRenderTarget().setOpaque(currentPaint.isOpaque());
+            g.setPaint(currentPaint);
+            g.fillQuad(0, 0, w, h);
+        }
+
+        // Set up transform
+        if (x != 0 || y != 0) {
+            g.translate(-x, -y);
+        }
+        if (params.transform != null) {
+            g.transform(params.transform);
+        }
+
+        if (params.root != null) {
+            if (params.camera != null) {
+                g.setCamera(params.camera);
+            }
+            NGNode ngNode = params.root;
+            ngNode.render(g);
+        }
+    }
+
     @Override
     public Object renderToImage(ImageRenderingContext p) {
         Object saveImage = p.platformImage;
@@ -1361,48 +1406,6 @@ public final class QuantumToolkit extends Toolkit {
 
         RenderJob re = new RenderJob(new Runnable() {
 
-            private com.sun.prism.paint.Color getClearColor() {
-                if (currentPaint == null) {
-                    return com.sun.prism.paint.Color.WHITE;
-                } else if (currentPaint.getType() == com.sun.prism.paint.Paint.Type.COLOR) {
-                    return (com.sun.prism.paint.Color) currentPaint;
-                } else if (currentPaint.isOpaque()) {
-                    return com.sun.prism.paint.Color.TRANSPARENT;
-                } else {
-                    return com.sun.prism.paint.Color.WHITE;
-                }
-            }
-
-            private void draw(Graphics g, int x, int y, int w, int h) {
-                g.setLights(params.lights);
-                g.setDepthBuffer(params.depthBuffer);
-
-                g.clear(getClearColor());
-                if (currentPaint != null &&
-                        currentPaint.getType() != com.sun.prism.paint.Paint.Type.COLOR) {
-                    g.getRenderTarget().setOpaque(currentPaint.isOpaque());
-                    g.setPaint(currentPaint);
-                    g.fillQuad(0, 0, w, h);
-                }
-
-                // Set up transform
-                if (x != 0 || y != 0) {
-                    g.translate(-x, -y);
-                }
-                if (params.transform != null) {
-                    g.transform(params.transform);
-                }
-
-                if (params.root != null) {
-                    if (params.camera != null) {
-                        g.setCamera(params.camera);
-                    }
-                    NGNode ngNode = params.root;
-                    ngNode.render(g);
-                }
-
-            }
-
             @Override
             public void run() {
 
@@ -1434,7 +1437,7 @@ public final class QuantumToolkit extends Toolkit {
 
                     Graphics g = rt.createGraphics();
 
-                    draw(g, x, y, w, h);
+                    draw(g, params, currentPaint, x, y, w, h);
 
                     int[] pixels = pImage.rt.getPixels();
 
@@ -1485,6 +1488,79 @@ public final class QuantumToolkit extends Toolkit {
         return image;
     }
 
+    // Render targets are reused between requests of the same size if the
+    // texture pool of the pipeline keeps idle ones, as the SW pipeline does
+    private static RTTexture getPixelTarget(int w, int h, ResourceFactory rf) {
+        RTTexture rt = rf.getTextureResourcePool().getIdleRTTexture(w, h);
+        return rt != null ? rt : rf.createRTTexture(w, h, WrapMode.CLAMP_TO_ZERO);
+    }
+
+    private static void releasePixelTarget(RTTexture rt, ResourceFactory rf) {
+        rt.unlock();
+        if (!rf.getTextureResourcePool().keepIdleRTTexture(rt)) {
+            rt.dispose();
+        }
+    }
+
+    @Override
+    public CompletableFuture<IntBuffer> renderToPixels(ImageRenderingContext params) {
+        final CompletableFuture<IntBuffer> result = new CompletableFuture<>();
+        final com.sun.prism.paint.Paint currentPaint = params.platformPaint instanceof com.sun.prism.paint.Paint ?
+                (com.sun.prism.paint.Paint)params.platformPaint : null;
+        final int x = params.x;
+        final int y = params.y;
+        final int w = params.width;
+        final int h = params.height;
+
+        if (w <= 0 || h <= 0) {
+            result.completeExceptionally(new IllegalArgumentException("invalid size: " + w + "x" + h));
+            return result;
+        }
+
+        RenderJob re = new RenderJob(() -> {
+            ResourceFactory rf = GraphicsPipeline.getDefaultResourceFactory();
+
+            if (!rf.isDeviceReady()) {
+                result.completeExceptionally(new IllegalStateException("device not ready"));
+                return;
+            }
+
+            boolean errored = false;
+            try {
+                RTTexture rt = getPixelTarget(w, h, rf);
+                if (rt == null) {
+                    result.completeExceptionally(new IllegalStateException("cannot allocate render target"));
+                    return;
+                }
+
+                IntBuffer ib = IntBuffer.allocate(w*h);
+                boolean read;
+                try {
+                    Graphics g = rt.createGraphics();
+                    draw(g, params, currentPaint, x, y, w, h);
+                    read = rt.readPixels(ib, rt.getContentX(), rt.getContentY(), w, h);
+                } finally {
+                    releasePixelTarget(rt, rf);
+                }
+                if (read) {
+                    ib.rewind();
+                    result.complete(ib);
+                } else {
+                    result.completeExceptionally(new IllegalStateException("cannot read render target"));
+                }
+            } catch (Throwable t) {
+                errored = true;
+                result.completeExceptionally(t);
+            } finally {
+                Disposer.cleanUp();
+                rf.getTextureResourcePool().freeDisposalRequestedAndCheckResources(errored);
+            }
+        });
+        addRenderJob(re);
+
+        return result;
+    }
+
     @Override
     public FileChooserResult showFileChooser(final TKStage ownerWindow,
                                       final String title,
@@ -159,7 +159,11 @@ final class UploadingPainter extends ViewPainter implements Runnable {
             int rawbits[] = rtt.getPixels();
 
             if (rawbits != null) {
-                bits.put(rawbits, 0, outWidth * outHeight);
+                // When the pixels still hold the previous frame only the
+                // repainted regions need to be copied, unless the content
+                // has been resolved into another render target.
+                int numRegions = (rtt == rttexture) ? paintedRegionCount : 0;
+                pixelSource.copyPixels(pix, rawbits, paintedRegions, numRegions);
             } else {
                 if (!rtt.readPixels(bits)) {
                     /* device lost */
@@ -178,6 +182,9 @@ final class UploadingPainter extends ViewPainter implements Runnable {
                 // Copy references, which are volatile, used by upload. Thus
                 // ensure they still exist once event queue is consumed.
                 pixelSource.enqueuePixels(pix);
+                // The repainted regions stop here: View.uploadPixels has no
+                // sub-rectangle variant, so the native blit of the uploaded
+                // frame still covers the whole window.
                 sceneState.uploadPixels(pixelSource);
             }
 
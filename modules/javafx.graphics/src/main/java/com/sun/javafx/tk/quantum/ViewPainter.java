@@ -86,6 +86,14 @@ abstract class ViewPainter implements Runnable {
     protected ResourceFactory factory;
     protected boolean freshBackBuffer;
 
+    /**
+     * The regions of the back buffer, in device pixels, which were repainted
+     * by the last call to paintImpl(). A count of 0 means that the entire
+     * back buffer may have changed.
+     */
+    protected final Rectangle[] paintedRegions = new Rectangle[PrismSettings.dirtyRegionCount];
+    protected int paintedRegionCount;
+
     private int width;
     private int height;
 
@@ -163,6 +171,8 @@ abstract class ViewPainter implements Runnable {
     }
 
     protected void paintImpl(final Graphics backBufferGraphics) {
+        paintedRegionCount = 0;
+
         // We should not be painting anything with a width / height
         // that is <= 0, so we might as well bail right off.
         if (width <= 0 || height <= 0 || backBufferGraphics == null) {
@@ -319,6 +329,9 @@ abstract class ViewPainter implements Runnable {
                     g.setClipRect(dirtyRect);
                     g.setClipRectIndex(i);
                     doPaint(g, getRootPath(i));
+                    if (!showDirtyOpts) {
+                        addPaintedRegion(dirtyRect);
+                    }
                 }
             }
         } else {
@@ -408,6 +421,15 @@ abstract class ViewPainter implements Runnable {
         texture.unlock();
     }
 
+    private void addPaintedRegion(Rectangle r) {
+        Rectangle region = paintedRegions[paintedRegionCount];
+        if (region == null) {
+            paintedRegions[paintedRegionCount] = region = new Rectangle();
+        }
+        region.setBounds(r);
+        paintedRegionCount++;
+    }
+
     private static NodePath getRootPath(int i) {
         if (ROOT_PATHS[i] == null) {
             ROOT_PATHS[i] = new NodePath();
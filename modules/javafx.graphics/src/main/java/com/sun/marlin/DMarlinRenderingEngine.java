@@ -178,6 +178,8 @@ public class DMarlinRenderingEngine implements MarlinConst
         // optimisation parameters
         logInfo("prism.marlin.useSimplifier    = "
                 + MarlinConst.USE_SIMPLIFIER);
+        logInfo("prism.marlin.clip             = "
+                + MarlinConst.DO_CLIP);
 
         // debugging parameters
         logInfo("prism.marlin.doStats          = "
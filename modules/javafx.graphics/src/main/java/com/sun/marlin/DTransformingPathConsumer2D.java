@@ -209,4 +209,202 @@ public final class DTransformingPathConsumer2D {
             out.pathDone();
         }
     }
+
+    // recycled PathClipFilter instance from pathClipper()
+    private final PathClipFilter pathClipFilter = new PathClipFilter();
+
+    /**
+     * Returns a consumer that removes or simplifies the parts of the path
+     * lying outside of the given clip area before passing it to out. When
+     * out is a Stroker, the clip area must be enlarged by the extent of the
+     * stroke so that the simplified parts remain invisible.
+     */
+    public DPathConsumer2D pathClipper(DPathConsumer2D out,
+                                       double minX, double minY,
+                                       double maxX, double maxY)
+    {
+        return pathClipFilter.init(out, minX, minY, maxX, maxY);
+    }
+
+    /**
+     * Path filter skipping the geometry lying outside of the clip area.
+     * <p>
+     * A run of consecutive segments having all their points beyond the same
+     * edge of the clip area is replaced by a single line from the start of
+     * the run to its end: the difference between both paths is a closed
+     * loop outside of the clip area, so it does not change the winding of
+     * any pixel inside it, and subpaths lying entirely beyond one edge are
+     * dropped for the same reason. Invisible curves are replaced in the same
+     * way, so the renderer does not flatten them. Curves crossing an edge of
+     * the clip area are kept as is: subdividing them would change how their
+     * visible part is flattened, and the coverage must not depend on the
+     * clip as the SW pipeline renders shapes in separate bands.
+     */
+    static final class PathClipFilter implements DPathConsumer2D {
+        private static final int OUTCODE_LEFT   = 1;
+        private static final int OUTCODE_RIGHT  = 2;
+        private static final int OUTCODE_TOP    = 4;
+        private static final int OUTCODE_BOTTOM = 8;
+
+        private DPathConsumer2D out;
+        private double minX, minY, maxX, maxY;
+
+        // current point of the input path
+        private double cx0, cy0;
+        // start of the current subpath and its outcode
+        private double sx0, sy0;
+        private int moveCode;
+        // true while the current subpath has not been passed to out as all
+        // its points lie beyond the same edge so far
+        private boolean pendingMove;
+        // outcodes common to the last point passed to out (or the pending
+        // move) and all the points of the following invisible segments
+        private int runCode;
+        // true if the invisible segments ending at the current point have
+        // not been passed to out
+        private boolean gap;
+
+        PathClipFilter() {}
+
+        PathClipFilter init(DPathConsumer2D out,
+                            double minX, double minY,
+                            double maxX, double maxY)
+        {
+            this.out = out;
+            this.minX = minX;
+            this.minY = minY;
+            this.maxX = maxX;
+            this.maxY = maxY;
+            this.pendingMove = false;
+            this.gap = false;
+            this.runCode = 0;
+            return this; // fluent API
+        }
+
+        private int outcode(double x, double y) {
+            int code = 0;
+            if (y < minY) {
+                code = OUTCODE_TOP;
+            } else if (y >= maxY) {
+                code = OUTCODE_BOTTOM;
+            }
+            if (x < minX) {
+                code |= OUTCODE_LEFT;
+            } else if (x >= maxX) {
+                code |= OUTCODE_RIGHT;
+            }
+            return code;
+        }
+
+        /**
+         * Passes the pending move and invisible segments to out, so that
+         * its current point is the current point of the input path.
+         */
+        private void flush() {
+            if (pendingMove) {
+                pendingMove = false;
+                out.moveTo(sx0, sy0);
+            }
+            if (gap) {
+                gap = false;
+                out.lineTo(cx0, cy0);
+            }
+            runCode = outcode(cx0, cy0);
+        }
+
+        /**
+         * Tries to append a segment from the current point, whose other
+         * points have the given common outcode, to the invisible segments.
+         * Otherwise flushes them and returns false, the segment must then
+         * be passed to out.
+         */
+        private boolean skip(int code) {
+            if ((runCode & code) == 0 && (pendingMove || gap)) {
+                flush();
+            }
+            if ((runCode & code) != 0) {
+                runCode &= code;
+                gap = true;
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public void moveTo(double x0, double y0) {
+            if (!pendingMove) {
+                flush();
+            }
+            gap = false;
+            sx0 = cx0 = x0;
+            sy0 = cy0 = y0;
+            runCode = moveCode = outcode(x0, y0);
+            pendingMove = (moveCode != 0);
+            if (!pendingMove) {
+                out.moveTo(x0, y0);
+            }
+        }
+
+        @Override
+        public void lineTo(double x1, double y1) {
+            final int code = outcode(x1, y1);
+            if (!skip(code)) {
+                out.lineTo(x1, y1);
+                runCode = code;
+            }
+            cx0 = x1;
+            cy0 = y1;
+        }
+
+        @Override
+        public void quadTo(double x1, double y1,
+                           double x2, double y2)
+        {
+            final int code = outcode(x2, y2);
+            if (!skip(outcode(x1, y1) & code)) {
+                out.quadTo(x1, y1, x2, y2);
+                runCode = code;
+            }
+            cx0 = x2;
+            cy0 = y2;
+        }
+
+        @Override
+        public void curveTo(double x1, double y1,
+                            double x2, double y2,
+                            double x3, double y3)
+        {
+            final int code = outcode(x3, y3);
+            if (!skip(outcode(x1, y1) & outcode(x2, y2) & code)) {
+                out.curveTo(x1, y1, x2, y2, x3, y3);
+                runCode = code;
+            }
+            cx0 = x3;
+            cy0 = y3;
+        }
+
+        @Override
+        public void closePath() {
+            if (pendingMove) {
+                // the whole subpath is invisible
+                gap = false;
+            } else {
+                flush();
+                out.closePath();
+            }
+            cx0 = sx0;
+            cy0 = sy0;
+            runCode = moveCode;
+        }
+
+        @Override
+        public void pathDone() {
+            if (!pendingMove) {
+                flush();
+            }
+            pendingMove = false;
+            gap = false;
+            out.pathDone();
+        }
+    }
 }
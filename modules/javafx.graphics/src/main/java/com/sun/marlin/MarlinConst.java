@@ -77,6 +77,9 @@ public interface MarlinConst {
     // flag to use line simplifier
     static final boolean USE_SIMPLIFIER = MarlinProperties.isUseSimplifier();
 
+    // flag to skip the path geometry outside of the clip early
+    static final boolean DO_CLIP = MarlinProperties.isDoClip();
+
     // flag to enable logs related bounds checks
     static final boolean DO_LOG_BOUNDS = ENABLE_LOGS && false;
 
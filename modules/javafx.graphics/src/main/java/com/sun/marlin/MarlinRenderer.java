@@ -36,6 +36,13 @@ public interface MarlinRenderer extends PathConsumer2D {
                                final int pix_boundsWidth, final int pix_boundsHeight,
                                final int windingRule);
 
+    /**
+     * Sets the pixel row from which the edges clipped by the top of the bounds
+     * are stepped (see init), so that adjacent bands give the same coverage
+     * as the whole area rendered at once.
+     */
+    public MarlinRenderer setEdgeOriginY(final int pix_originY);
+
     /**
      * Disposes this renderer and recycle it clean up before reusing this instance
      */
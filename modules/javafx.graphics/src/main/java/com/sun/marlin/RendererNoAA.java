@@ -420,11 +420,27 @@ public final class RendererNoAA implements MarlinRenderer, MarlinConst {
         //                 = fixed_floor(x1_fixed + 2^31 - 1)
         //                 = fixed_floor(x1_fixed + 0x7FFFFFFF)
         // and error       = fixed_fract(x1_fixed + 0x7FFFFFFF)
-        final double x1_intercept = x1d + (firstCrossing - y1d) * slope;
+        // Edges clipped by the bounds start from the origin row (see
+        // setEdgeOriginY) so that their crossings do not depend on the bounds:
+        final int originCrossing = (firstCrossing != boundsMinY) ? firstCrossing
+                : FloatMath.max(FloatMath.ceil_int(y1), originMinY);
+
+        final double x1_intercept = x1d + (originCrossing - y1d) * slope;
 
         // inlined scalb(x1_intercept, 32):
-        final long x1_fixed_biased = ((long) (POWER_2_TO_32 * x1_intercept))
+        long x1_fixed_biased = ((long) (POWER_2_TO_32 * x1_intercept))
                                      + 0x7FFFFFFFL;
+
+        // inlined scalb(slope, 32):
+        final long slope_fixed = (long) (POWER_2_TO_32 * slope);
+
+        if (originCrossing != firstCrossing) {
+            // step curx down to firstCrossing exactly as _endRendering() does
+            // (32.31 fixed point additions of slope):
+            x1_fixed_biased = ((x1_fixed_biased >> 1L)
+                               + (firstCrossing - originCrossing) * (slope_fixed >> 1L)) << 1L;
+        }
+
         // curx:
         // last bit corresponds to the orientation
         _unsafe.putInt(addr, (((int) (x1_fixed_biased >> 31L)) & ALL_BUT_LSB) | or);
@@ -432,9 +448,6 @@ public final class RendererNoAA implements MarlinRenderer, MarlinConst {
         _unsafe.putInt(addr,  ((int)  x1_fixed_biased) >>> 1);
         addr += SIZE_INT;
 
-        // inlined scalb(slope, 32):
-        final long slope_fixed = (long) (POWER_2_TO_32 * slope);
-
         // last bit set to 0 to keep orientation:
         _unsafe.putInt(addr, (((int) (slope_fixed >> 31L)) & ALL_BUT_LSB));
         addr += SIZE_INT;
@@ -477,6 +490,9 @@ public final class RendererNoAA implements MarlinRenderer, MarlinConst {
     // Bounds of the drawing region, at subpixel precision.
     private int boundsMinX, boundsMinY, boundsMaxX, boundsMaxY;
 
+    // first row used to step the edges clipped by boundsMinY (inclusive)
+    private int originMinY;
+
     // Current winding rule
     private int windingRule;
 
@@ -549,6 +565,8 @@ public final class RendererNoAA implements MarlinRenderer, MarlinConst {
         this.boundsMinY = pix_boundsY;
         this.boundsMaxY = pix_boundsY + pix_boundsHeight;
 
+        this.originMinY = this.boundsMinY;
+
         if (DO_LOG_BOUNDS) {
             MarlinUtils.logInfo("boundsXY = [" + boundsMinX + " ... "
                                 + boundsMaxX + "[ [" + boundsMinY + " ... "
@@ -587,6 +605,21 @@ public final class RendererNoAA implements MarlinRenderer, MarlinConst {
         return this; // fluent API
     }
 
+    /**
+     * Sets the pixel row from which the edges clipped by the top of the bounds
+     * are stepped. Rendering adjacent horizontal bands of the same area with
+     * this origin set to the top of the area produces exactly the coverage
+     * obtained by rendering the whole area at once.
+     * This method must be called after init() and before any path is added.
+     *
+     * @param pix_originY first pixel row of the whole area (&lt;= bounds y)
+     * @return this renderer (fluent API)
+     */
+    public RendererNoAA setEdgeOriginY(final int pix_originY) {
+        this.originMinY = Math.min(pix_originY, boundsMinY);
+        return this; // fluent API
+    }
+
     /**
      * Disposes this renderer and recycle it clean up before reusing this instance
      */
@@ -169,6 +169,33 @@ public abstract class BaseContext {
         glyphCaches.clear();
     }
 
+    /**
+     * Clears the glyph caches of the strikes stored on the given atlas page.
+     * The cache of the strike being rendered is only emptied, it is kept as
+     * the strike goes on using it.
+     */
+    void clearGlyphCaches(GlyphCache.Page page, GlyphCache current) {
+        clearCaches(greyGlyphCaches, page, current);
+        clearCaches(lcdGlyphCaches, page, current);
+    }
+
+    private void clearCaches(Map<FontStrike, GlyphCache> glyphCaches,
+                             GlyphCache.Page page, GlyphCache current) {
+        for (Iterator<Map.Entry<FontStrike, GlyphCache>> iter =
+                 glyphCaches.entrySet().iterator(); iter.hasNext();) {
+            Map.Entry<FontStrike, GlyphCache> entry = iter.next();
+            GlyphCache cache = entry.getValue();
+            if (cache == null || cache.getPage() != page) {
+                continue;
+            }
+            cache.clear();
+            if (cache != current) {
+                entry.getKey().clearDesc();
+                iter.remove();
+            }
+        }
+    }
+
     abstract public RTTexture getLCDBuffer();
 
     public GlyphCache getGlyphCache(FontStrike strike) {
@@ -41,7 +41,10 @@ import com.sun.prism.impl.shape.MaskData;
 import com.sun.prism.paint.Color;
 
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.WeakHashMap;
 
 import static com.sun.javafx.logging.PulseLogger.PULSE_LOGGING_ENABLED;
@@ -76,18 +79,35 @@ public class GlyphCache {
     // Using them for subpixel
     private static final int SUBPIXEL_SHIFT = 27;
 
-    private RectanglePacker packer;
+    // Returned when a glyph does not fit on the page of the strike
+    private static final GlyphData PAGE_FULL = new GlyphData(0, 0, 0, 0, 0, null);
+
+    // The atlas page holding the glyphs of this strike
+    private Page page;
+
+    // The glyphs of the list resolved by cacheGlyphs for the next render:
+    // their index in the list, data and device position. preparedCount is
+    // -1 if render has to resolve the glyphs itself.
+    private int preparedCount = -1;
+    private int[] preparedIndex = new int[0];
+    private GlyphData[] preparedData = new GlyphData[0];
+    private float[] preparedX = new float[0];
+    private float[] preparedY = new float[0];
+    private final Point2D pt = new Point2D();
 
     private boolean isLCDCache;
 
-    /* Share a RectanglePacker and its associated texture cache
+    /* Share the atlas pages and their associated textures
      * for all uses on a particular screen.
      */
-    static WeakHashMap<BaseContext, RectanglePacker> greyPackerMap =
-        new WeakHashMap<BaseContext, RectanglePacker>();
+    static WeakHashMap<BaseContext, List<Page>> greyPagesMap =
+        new WeakHashMap<BaseContext, List<Page>>();
+
+    static WeakHashMap<BaseContext, List<Page>> lcdPagesMap =
+        new WeakHashMap<BaseContext, List<Page>>();
 
-    static WeakHashMap<BaseContext, RectanglePacker> lcdPackerMap =
-        new WeakHashMap<BaseContext, RectanglePacker>();
+    // Incremented each time a page is used, to find the least recently used one
+    private static long pageUsage;
 
     public GlyphCache(BaseContext context, FontStrike strike) {
         this.context = context;
@@ -96,24 +116,161 @@ public class GlyphCache {
         //int numSegments = (numGlyphs + SEGSIZE-1)/SEGSIZE;
         //this.glyphs = new GlyphData[numSegments][];
         isLCDCache = strike.getAAMode() == FontResource.AA_LCD;
-        WeakHashMap<BaseContext, RectanglePacker>
-            packerMap = isLCDCache ? lcdPackerMap : greyPackerMap;
-        packer = packerMap.get(context);
-        if (packer == null) {
-            ResourceFactory factory = context.getResourceFactory();
-            Texture tex = factory.createMaskTexture(WIDTH, HEIGHT,
-                                                    WrapMode.CLAMP_NOT_NEEDED);
-            tex.contentsUseful();
-            tex.makePermanent();
-            if (!isLCDCache) {
-                factory.setGlyphTexture(tex);
+        List<Page> pages = getPages();
+        if (pages.isEmpty()) {
+            createPage(pages);
+        }
+        // New strikes go to the most recently created page
+        page = pages.get(pages.size() - 1);
+    }
+
+    private List<Page> getPages() {
+        WeakHashMap<BaseContext, List<Page>>
+            pagesMap = isLCDCache ? lcdPagesMap : greyPagesMap;
+        List<Page> pages = pagesMap.get(context);
+        if (pages == null) {
+            pages = new ArrayList<Page>(PrismSettings.glyphCachePages);
+            pagesMap.put(context, pages);
+        }
+        return pages;
+    }
+
+    private Page createPage(List<Page> pages) {
+        ResourceFactory factory = context.getResourceFactory();
+        Texture tex = factory.createMaskTexture(WIDTH, HEIGHT,
+                                                WrapMode.CLAMP_NOT_NEEDED);
+        if (tex == null) {
+            return null;
+        }
+        tex.contentsUseful();
+        tex.makePermanent();
+        // Only the first page can be used by the super shader
+        if (!isLCDCache && pages.isEmpty()) {
+            factory.setGlyphTexture(tex);
+        }
+        tex.setLinearFiltering(false);
+        Page p = new Page(new RectanglePacker(tex, 0, 0, WIDTH, HEIGHT, false,
+                                              PrismSettings.glyphCacheSkyline));
+        pages.add(p);
+        return p;
+    }
+
+    /**
+     * Caches the glyphs of the list which are going to be rendered by
+     * {@link #render}, along with their device positions, so that render
+     * does not look them up again. If they do not fit on the page of this
+     * strike, the strike is moved to another page, evicting the least
+     * recently used page if needed. This must be called before getting the
+     * backing store used to render the list, as the page cannot change once
+     * the rendering of the list has started.
+     */
+    public void cacheGlyphs(GlyphList gl, float x, float y,
+                            BaseTransform xform, BaseBounds clip) {
+        page.lastUsed = ++pageUsage;
+        if (!prepare(gl, x, y, xform, clip)) {
+            // The glyphs did not fit, start over on another page
+            moveToPage(selectPage());
+            if (!prepare(gl, x, y, xform, clip)) {
+                // Not even a whole page is enough, so render caches the
+                // glyphs one at a time and clears the page when it is full
+                preparedCount = -1;
             }
-            tex.setLinearFiltering(false);
-            packer = new RectanglePacker(tex, WIDTH, HEIGHT);
-            packerMap.put(context, packer);
         }
     }
 
+    /**
+     * Resolves the glyphs which are not clipped out. Returns false if a
+     * glyph does not fit on the page of this strike.
+     */
+    private boolean prepare(GlyphList gl, float x, float y,
+                            BaseTransform xform, BaseBounds clip) {
+        int len = gl.getGlyphCount();
+        if (preparedIndex.length < len) {
+            int size = Math.max(len, preparedIndex.length * 2);
+            preparedIndex = new int[size];
+            preparedData = new GlyphData[size];
+            preparedX = new float[size];
+            preparedY = new float[size];
+        }
+        int count = 0;
+        for (int gi = 0; gi < len; gi++) {
+            int gc = gl.getGlyphCode(gi);
+            if ((gc & CompositeGlyphMapper.GLYPHMASK) == CharToGlyphMapper.INVISIBLE_GLYPH_ID) {
+                continue;
+            }
+            pt.setLocation(x + gl.getPosX(gi), y + gl.getPosY(gi));
+            xform.transform(pt, pt);
+            int subPixel = strike.getQuantizedPosition(pt);
+            GlyphData data = getCachedGlyph(gc, subPixel, true);
+            if (data == PAGE_FULL) {
+                Arrays.fill(preparedData, 0, count, null);
+                preparedCount = -1;
+                return false;
+            }
+            if (data != null) {
+                if (clip != null) {
+                    // Always check clipping using user space.
+                    if (x + gl.getPosX(gi) > clip.getMaxX()) break;
+                    if (x + gl.getPosX(gi + 1) < clip.getMinX()) continue;
+                }
+                preparedIndex[count] = gi;
+                preparedData[count] = data;
+                preparedX[count] = pt.x;
+                preparedY[count] = pt.y;
+                count++;
+            }
+        }
+        preparedCount = count;
+        return true;
+    }
+
+    /**
+     * Selects the page that the strike moves to when its page is full: a new
+     * page if allowed, otherwise the least recently used page is evicted.
+     */
+    private Page selectPage() {
+        List<Page> pages = getPages();
+        Page p = null;
+        if (pages.size() < PrismSettings.glyphCachePages) {
+            p = createPage(pages);
+        }
+        if (p == null) {
+            for (int i = 0; i < pages.size(); i++) {
+                Page candidate = pages.get(i);
+                if (candidate != page &&
+                    (p == null || candidate.lastUsed < p.lastUsed))
+                {
+                    p = candidate;
+                }
+            }
+            if (p == null) {
+                // There is only one page
+                p = page;
+            }
+            evictPage(p);
+        }
+        return p;
+    }
+
+    private void moveToPage(Page p) {
+        // The glyphs of this strike left on the old page are not
+        // referenced any more, their space is reclaimed with the page
+        clear();
+        page = p;
+        page.lastUsed = ++pageUsage;
+    }
+
+    private void evictPage(Page p) {
+        if (PULSE_LOGGING_ENABLED) {
+            PulseLogger.incrementCounter("Font Glyph Cache Page Evicted");
+        }
+        // flush any pending vertices that may depend on the current state
+        // of the glyph cache texture.
+        context.flushVertexBuffer();
+        context.clearGlyphCaches(p, this);
+        p.packer.clear();
+    }
+
     public void render(BaseContext ctx, GlyphList gl, float x, float y,
                        int start, int end, Color rangeColor, Color textColor,
                        BaseTransform xform, BaseBounds clip) {
@@ -129,9 +286,26 @@ public class GlyphCache {
         Texture tex = getBackingStore();
         VertexBuffer vb = ctx.getVertexBuffer();
 
-        int len = gl.getGlyphCount();
         Color currentColor = null;
-        Point2D pt = new Point2D();
+
+        if (preparedCount >= 0) {
+            // The glyphs were resolved by cacheGlyphs
+            int count = preparedCount;
+            preparedCount = -1;
+            for (int n = 0; n < count; n++) {
+                GlyphData data = preparedData[n];
+                preparedData[n] = null;
+                if (rangeColor != null && textColor != null) {
+                    currentColor = setColor(vb, gl.getCharOffset(preparedIndex[n]),
+                                            start, end, rangeColor, textColor,
+                                            currentColor);
+                }
+                addDataToQuad(data, vb, tex, preparedX[n], preparedY[n], dstw, dsth);
+            }
+            return;
+        }
+
+        int len = gl.getGlyphCount();
 
         for (int gi = 0; gi < len; gi++) {
             int gc = gl.getGlyphCode(gi);
@@ -152,28 +326,29 @@ public class GlyphCache {
                     if (x + gl.getPosX(gi) > clip.getMaxX()) break;
                     if (x + gl.getPosX(gi + 1) < clip.getMinX()) continue;
                 }
-                /* Will not render selected text for complex
-                 * paints such as gradient.
-                 */
                 if (rangeColor != null && textColor != null) {
-                    int offset = gl.getCharOffset(gi);
-                    if (start <= offset && offset < end) {
-                        if (rangeColor != currentColor) {
-                            vb.setPerVertexColor(rangeColor, 1.0f);
-                            currentColor = rangeColor;
-                        }
-                    } else {
-                        if (textColor != currentColor) {
-                            vb.setPerVertexColor(textColor, 1.0f);
-                            currentColor = textColor;
-                        }
-                    }
+                    currentColor = setColor(vb, gl.getCharOffset(gi),
+                                            start, end, rangeColor, textColor,
+                                            currentColor);
                 }
                 addDataToQuad(data, vb, tex, pt.x, pt.y, dstw, dsth);
             }
         }
     }
 
+    /* Will not render selected text for complex
+     * paints such as gradient.
+     */
+    private static Color setColor(VertexBuffer vb, int offset, int start, int end,
+                                  Color rangeColor, Color textColor,
+                                  Color currentColor) {
+        Color color = (start <= offset && offset < end) ? rangeColor : textColor;
+        if (color != currentColor) {
+            vb.setPerVertexColor(color, 1.0f);
+        }
+        return color;
+    }
+
     private void addDataToQuad(GlyphData data, VertexBuffer vb,
                                Texture tex, float x, float y,
                                float dstw, float dsth) {
@@ -222,22 +397,32 @@ public class GlyphCache {
     }
 
     public Texture getBackingStore() {
-        return packer.getBackingStore();
+        return page.packer.getBackingStore();
+    }
+
+    Page getPage() {
+        return page;
     }
 
     public void clear() {
         glyphDataMap.clear();
+        if (preparedCount > 0) {
+            Arrays.fill(preparedData, 0, preparedCount, null);
+        }
+        preparedCount = -1;
     }
 
-    private void clearAll() {
-        // flush any pending vertices that may depend on the current state
-        // of the glyph cache texture.
-        context.flushVertexBuffer();
-        context.clearGlyphCaches();
-        packer.clear();
+    private GlyphData getCachedGlyph(int glyphCode, int subPixel) {
+        return getCachedGlyph(glyphCode, subPixel, false);
     }
 
-    private GlyphData getCachedGlyph(int glyphCode, int subPixel) {
+    /**
+     * Returns the glyph data, caching the glyph on the page of the strike if
+     * needed. If the page is full, then PAGE_FULL is returned if failIfFull
+     * is set, otherwise the page is evicted to make room for the glyph.
+     */
+    private GlyphData getCachedGlyph(int glyphCode, int subPixel,
+                                     boolean failIfFull) {
         int segIndex = glyphCode >> SEGSHIFT;
         int subIndex = glyphCode % SEGSIZE;
         segIndex |= (subPixel << SUBPIXEL_SHIFT);
@@ -284,13 +469,19 @@ public class GlyphCache {
                                      glyph.getPixelYAdvance(),
                                      rect);
 
-                if (!packer.add(rect)) {
+                if (!page.packer.add(rect)) {
+                    if (failIfFull) {
+                        return PAGE_FULL;
+                    }
                     if (PULSE_LOGGING_ENABLED) {
                         PulseLogger.incrementCounter("Font Glyph Cache Cleared");
                     }
-                    // If add fails,clear up the cache. Try add again.
-                    clearAll();
-                    packer.add(rect);
+                    // If add fails, clear up the page of this strike, as
+                    // its texture is the one being rendered. Try add again.
+                    evictPage(page);
+                    segment = new GlyphData[SEGSIZE];
+                    glyphDataMap.put(segIndex, segment);
+                    page.packer.add(rect);
                 }
 
                 // We always pass skipFlush=true to backingStore.update()
@@ -335,6 +526,18 @@ public class GlyphCache {
         return data;
     }
 
+    /**
+     * An atlas page: a mask texture and the packer allocating its space.
+     */
+    static final class Page {
+        final RectanglePacker packer;
+        long lastUsed;
+
+        Page(RectanglePacker packer) {
+            this.packer = packer;
+        }
+    }
+
     static class GlyphData {
         // The following must be defined and used VERY precisely. This is
         // the offset from the upper-left corner of this rectangle (Java
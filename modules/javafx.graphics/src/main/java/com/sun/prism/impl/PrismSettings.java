@@ -47,16 +47,20 @@ public final class PrismSettings {
     public static final boolean isVsyncEnabled;
     public static final boolean dirtyOptsEnabled;
     public static final boolean occlusionCullingEnabled;
+    public static final boolean renderListsEnabled;
     public static final boolean scrollCacheOpt;
     public static final boolean threadCheck;
     public static final boolean cacheSimpleShapes;
     public static final boolean cacheComplexShapes;
+    public static final int shapeCachePages;
     public static final boolean useNewImageLoader;
     public static final List<String> tryOrder;
     public static final int prismStatFrequency;
     public static final boolean doNativePisces;
     public static final boolean useMarlinRasterizer;
     public static final boolean useMarlinRasterizerDP;
+    public static final int swTileThreads;
+    public static final int swTileHeight;
     public static final String refType;
     public static final boolean forceRepaint;
     public static final boolean noFallback;
@@ -81,6 +85,11 @@ public final class PrismSettings {
     public static final boolean disableEffects;
     public static final int glyphCacheWidth;
     public static final int glyphCacheHeight;
+    public static final int glyphCachePages;
+    public static final boolean glyphCacheSkyline;
+    public static final int regionCachePages;
+    public static final int regionCacheMaxImageSize;
+    public static final boolean regionCacheSkyline;
     public static final String perfLog;
     public static final boolean perfLogExitFlush;
     public static final boolean perfLogFirstPaintFlush;
@@ -123,6 +132,13 @@ public final class PrismSettings {
                                                "prism.occlusion.culling",
                                                true);
 
+        /*
+         * Flattens the children of plain groups into recorded render lists
+         * which are replayed as long as the subtree stays clean.
+         */
+        renderListsEnabled = getBoolean(systemProperties, "prism.renderlists",
+                                        false);
+
         // The maximum number of dirty regions to use. The absolute max that we can
         // support at present is 15.
         dirtyRegionCount = Utils.clamp(0, getInt(systemProperties, "prism.dirtyregioncount", 6, null), 15);
@@ -166,6 +182,10 @@ public final class PrismSettings {
             cacheComplexShapes = false;
         }
 
+        /* Number of 1024x1024 atlas textures used by the shape mask cache */
+        shapeCachePages = Math.max(1, getInt(systemProperties, "prism.shapeCachePages", 4,
+                "Try -Dprism.shapeCachePages=<number>"));
+
         /* New javafx-iio image loader */
         useNewImageLoader = getBoolean(systemProperties, "prism.newiio", true);
 
@@ -229,6 +249,18 @@ public final class PrismSettings {
             }
         }
 
+        /*
+         * Tiled rasterization of large shapes in the SW pipeline (Marlin only):
+         * the rows of a shape are split into bands of at least swTileHeight
+         * pixels rasterized in parallel by swTileThreads worker threads.
+         * -Dprism.sw.tiles=true uses one thread per available processor.
+         */
+        swTileThreads = Math.max(0, getInt(systemProperties, "prism.sw.tiles",
+                0, Runtime.getRuntime().availableProcessors(),
+                "Try -Dprism.sw.tiles=<true or number>"));
+        swTileHeight = Math.max(1, getInt(systemProperties, "prism.sw.tileheight",
+                64, "Try -Dprism.sw.tileheight=<number>"));
+
         String primtex = systemProperties.getProperty("prism.primtextures");
         if (primtex == null) {
             primTextureSize = PlatformUtil.isEmbedded() ? -1 : 0;
@@ -266,11 +298,16 @@ public final class PrismSettings {
             if (useMarlinRasterizer) {
                 String prectype = (useMarlinRasterizerDP ? "double" : "float");
                 System.out.println("Using Marlin rasterizer (" + prectype +')');
+                if (swTileThreads > 1) {
+                    System.out.println("Using " + swTileThreads
+                            + " threads for SW tiled rasterization");
+                }
             } else {
                 String piscestype = (doNativePisces ? "native" : "java");
                 System.out.println("Using " + piscestype + "-based Pisces rasterizer");
             }
             printBooleanOption(dirtyOptsEnabled, "Using dirty region optimizations");
+            printBooleanOption(renderListsEnabled, "Using recorded render lists for groups");
             if (primTextureSize == 0) {
                 System.out.println("Not using texture mask for primitives");
             } else if (primTextureSize < 0) {
@@ -321,6 +358,26 @@ public final class PrismSettings {
                 "Try -Dprism.glyphCacheWidth=<number>");
         glyphCacheHeight = getInt(systemProperties, "prism.glyphCacheHeight", 1024,
                 "Try -Dprism.glyphCacheHeight=<number>");
+        glyphCachePages = Math.max(1, getInt(systemProperties, "prism.glyphCachePages", 4,
+                "Try -Dprism.glyphCachePages=<number>"));
+
+        /*
+         * The glyph and region image caches pack their images on fixed height
+         * shelves by default; skyline packing wastes less texture space when
+         * the cached images have very different heights.
+         */
+        glyphCacheSkyline = getBoolean(systemProperties, "prism.glyphCacheSkyline", false);
+
+        /*
+         * The region image cache allocates its backing texture pages lazily,
+         * up to regionCachePages pages, and only caches images of at most
+         * regionCacheMaxImageSize x regionCacheMaxImageSize pixels.
+         */
+        regionCachePages = Math.max(1, getInt(systemProperties, "prism.regionCachePages", 4,
+                "Try -Dprism.regionCachePages=<number>"));
+        regionCacheMaxImageSize = Math.max(1, getInt(systemProperties, "prism.regionCacheMaxImageSize", 300,
+                "Try -Dprism.regionCacheMaxImageSize=<number>"));
+        regionCacheSkyline = getBoolean(systemProperties, "prism.regionCacheSkyline", false);
 
         /*
          * Performance Logger flags
@@ -27,6 +27,7 @@ package com.sun.prism.impl;
 
 import com.sun.glass.ui.Application;
 import com.sun.glass.ui.Pixels;
+import com.sun.javafx.geom.Rectangle;
 import com.sun.prism.PixelSource;
 import java.lang.ref.WeakReference;
 import java.nio.IntBuffer;
@@ -61,6 +62,9 @@ import java.util.List;
 public class QueuedPixelSource implements PixelSource {
     private volatile Pixels beingConsumed;
     private volatile Pixels enqueued;
+    // The last Pixels object enqueued, which still holds the latest frame
+    // once it has been consumed and is reused by getUnusedPixels().
+    private Pixels lastEnqueued;
     private final List<WeakReference<Pixels>> saved =
          new ArrayList<WeakReference<Pixels>>(3);
     private final boolean useDirectBuffers;
@@ -171,5 +175,52 @@ public class QueuedPixelSource implements PixelSource {
      */
     public synchronized void enqueuePixels(Pixels pixels) {
         enqueued = pixels;
+        lastEnqueued = pixels;
+    }
+
+    private synchronized boolean holdsLatestFrame(Pixels pixels) {
+        return pixels == lastEnqueued;
+    }
+
+    /**
+     * Fills an unused {@code Pixels} object with a new frame stored in an
+     * array with the same dimensions.
+     * If the {@code Pixels} object is the last one that was enqueued then it
+     * still holds the previous frame, and only the regions which changed
+     * since that frame are copied. Otherwise the entire frame is copied.
+     *
+     * @param pixels an unused {@code Pixels} object returned by
+     *               {@link #getUnusedPixels(int, int, float, float) getUnusedPixels()}
+     * @param src the pixels of the new frame, one row after the other
+     * @param dirtyRegions the regions which changed since the previous frame
+     * @param numRegions the number of dirty regions, or 0 if the entire
+     *                   frame changed
+     */
+    public void copyPixels(Pixels pixels, int src[],
+                           Rectangle dirtyRegions[], int numRegions)
+    {
+        final int w = pixels.getWidthUnsafe();
+        final int h = pixels.getHeightUnsafe();
+        final IntBuffer bits = (IntBuffer) pixels.getPixels();
+        if (numRegions == 0 || !holdsLatestFrame(pixels)) {
+            bits.put(src, 0, w * h);
+            return;
+        }
+        for (int i = 0; i < numRegions; i++) {
+            final Rectangle r = dirtyRegions[i];
+            final int x0 = Math.max(r.x, 0);
+            final int x1 = Math.min(r.x + r.width, w);
+            final int y0 = Math.max(r.y, 0);
+            final int y1 = Math.min(r.y + r.height, h);
+            if (x0 >= x1) {
+                continue;
+            }
+            for (int y = y0; y < y1; y++) {
+                final int offset = y * w + x0;
+                bits.position(offset);
+                bits.put(src, offset, x1 - x0);
+            }
+        }
+        bits.rewind();
     }
 }
@@ -26,13 +26,43 @@
 package com.sun.prism.impl;
 
 import com.sun.prism.PixelFormat;
+import com.sun.prism.RTTexture;
 
 /**
  * A {@link ResourcePool} that manages memory for textures.
- * This interface only adds a couple of methods for computing
- * the size of a potential new texture allocation.
+ * This interface adds a couple of methods for computing
+ * the size of a potential new texture allocation, and optionally
+ * keeps idle render targets for reuse.
  */
 public interface TextureResourcePool<T> extends ResourcePool<T> {
     public long estimateTextureSize(int width, int height, PixelFormat format);
     public long estimateRTTextureSize(int width, int height, boolean hasDepth);
+
+    /**
+     * Returns a locked render target of the given content size which was
+     * kept by {@link #keepIdleRTTexture}, or null if there is none.
+     * The contents of the render target are undefined.
+     * This method must be called on the render thread.
+     *
+     * @param width the content width
+     * @param height the content height
+     * @return an idle render target, or null
+     */
+    public default RTTexture getIdleRTTexture(int width, int height) {
+        return null;
+    }
+
+    /**
+     * Keeps an unlocked render target, which is no longer used by the
+     * caller, for reuse by {@link #getIdleRTTexture}. The pool may still
+     * free it when it needs room. If the pool does not keep the render
+     * target, the caller should dispose it.
+     * This method must be called on the render thread.
+     *
+     * @param rt the render target
+     * @return true if the pool keeps the render target
+     */
+    public default boolean keepIdleRTTexture(RTTexture rt) {
+        return false;
+    }
 }
@@ -35,6 +35,10 @@ import java.util.List;
  * into a larger backing store rectangle (typically representing a large
  * texture). Supports automatic compaction of the space on the backing store,
  * and automatic expansion of the backing store, when necessary.
+ * <p>
+ * By default the rectangles are packed on fixed height shelves (Levels).
+ * A packer may instead be created to use a skyline, which wastes less space
+ * when the packed rectangles have very different heights.
  */
 public class RectanglePacker {
     /**
@@ -57,9 +61,29 @@ public class RectanglePacker {
     private int x;
     private int y;
     private boolean vertical;
+    private Skyline skyline;
 
     public RectanglePacker(Texture backingStore, int x, int y,
                            int width, int height, boolean vertical) {
+        this(backingStore, x, y, width, height, vertical, false);
+    }
+
+    /**
+     * Creates a new RectanglePacker packing into the given area of the
+     * backing store.
+     *
+     * @param backingStore The backing store texture
+     * @param x The x offset of the area within the backing store
+     * @param y The y offset of the area within the backing store
+     * @param width The width of the area, must be > 0
+     * @param height The height of the area, must be > 0
+     * @param vertical Whether the rectangles are stacked along the height
+     *                 instead of the width of the area
+     * @param skyline Whether to use skyline packing instead of shelves
+     */
+    public RectanglePacker(Texture backingStore, int x, int y,
+                           int width, int height, boolean vertical,
+                           boolean skyline) {
         this.backingStore = backingStore;
         if (vertical) {
             this.length = height;
@@ -71,6 +95,9 @@ public class RectanglePacker {
         this.x = x;
         this.y = y;
         this.vertical = vertical;
+        if (skyline) {
+            this.skyline = new Skyline(length, size);
+        }
     }
 
     /**
@@ -107,6 +134,10 @@ public class RectanglePacker {
         if (requestedLength > length) return false;
         if (requestedSize > size) return false;
 
+        if (skyline != null) {
+            return skyline.add(rect, x, y, requestedLength, requestedSize, vertical);
+        }
+
         int newSize = MIN_SIZE > requestedSize ? MIN_SIZE : requestedSize;
 
         // Round up
@@ -164,6 +195,9 @@ public class RectanglePacker {
      */
     public void clear() {
         levels.clear();
+        if (skyline != null) {
+            skyline.clear();
+        }
         sizeOffset = 0;
         recentUsedLevelIndex = 0;
     }
@@ -180,6 +214,7 @@ public class RectanglePacker {
 
         backingStore = null;
         levels = null;
+        skyline = null;
     }
 
     /** Using binary search to find the last index of best fit level for k,
@@ -0,0 +1,179 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package com.sun.prism.impl.packrect;
+
+import com.sun.javafx.geom.Rectangle;
+import java.util.Arrays;
+
+/**
+ * Keeps track of the upper outline ("skyline") of the rectangles packed so
+ * far, as a list of segments along the length of the backing store, each
+ * one with the size offset at which free space begins above it. A new
+ * rectangle is placed on the segment where its far edge ends up lowest
+ * (the bottom-left rule), which lets rectangles of different sizes share
+ * the space that a fixed height Level would leave empty above them.
+ */
+class Skyline {
+    private final int length;
+    private final int size;
+
+    // Segments are sorted by increasing lengthOffset and cover the whole
+    // length of the backing store without gaps.
+    private int[] lengthOffsets = new int[16];
+    private int[] lengths = new int[16];
+    private int[] sizeOffsets = new int[16];
+    private int count;
+
+    Skyline(int length, int size) {
+        this.length = length;
+        this.size = size;
+        clear();
+    }
+
+    void clear() {
+        lengthOffsets[0] = 0;
+        lengths[0] = length;
+        sizeOffsets[0] = 0;
+        count = 1;
+    }
+
+    /**
+     * Tries to add the given rectangle to this skyline.
+     */
+    boolean add(Rectangle rect, int x, int y, int requestedLength, int requestedSize, boolean vertical) {
+        int bestIndex = -1;
+        int bestSizeOffset = 0;
+        int bestTop = Integer.MAX_VALUE;
+        int bestLength = Integer.MAX_VALUE;
+        for (int i = 0; i < count; i++) {
+            int sizeOffset = fit(i, requestedLength, requestedSize);
+            if (sizeOffset < 0) {
+                continue;
+            }
+            int top = sizeOffset + requestedSize;
+            if (top < bestTop || (top == bestTop && lengths[i] < bestLength)) {
+                bestIndex = i;
+                bestSizeOffset = sizeOffset;
+                bestTop = top;
+                bestLength = lengths[i];
+            }
+        }
+        if (bestIndex < 0) {
+            return false;
+        }
+
+        int lengthOffset = lengthOffsets[bestIndex];
+        raise(bestIndex, lengthOffset, requestedLength, bestTop);
+        if (vertical) {
+            rect.x = bestSizeOffset;
+            rect.y = lengthOffset;
+        } else {
+            rect.x = lengthOffset;
+            rect.y = bestSizeOffset;
+        }
+
+        // this x,y location are external offsets and should not be flipped
+        rect.x += x;
+        rect.y += y;
+        return true;
+    }
+
+    /**
+     * Returns the size offset at which a rectangle starting at the segment
+     * at the given index would rest, or -1 if it does not fit there.
+     */
+    private int fit(int index, int requestedLength, int requestedSize) {
+        if (lengthOffsets[index] + requestedLength > length) {
+            return -1;
+        }
+        int sizeOffset = 0;
+        int remaining = requestedLength;
+        for (int i = index; remaining > 0; i++) {
+            if (sizeOffsets[i] > sizeOffset) {
+                sizeOffset = sizeOffsets[i];
+                if (sizeOffset + requestedSize > size) {
+                    return -1;
+                }
+            }
+            remaining -= lengths[i];
+        }
+        return sizeOffset + requestedSize <= size ? sizeOffset : -1;
+    }
+
+    /**
+     * Inserts a new segment for a rectangle placed at the given index, trims
+     * the segments it covers and merges neighbours of the same height.
+     */
+    private void raise(int index, int lengthOffset, int requestedLength, int top) {
+        insert(index, lengthOffset, requestedLength, top);
+        final int end = lengthOffset + requestedLength;
+        int i = index + 1;
+        while (i < count && lengthOffsets[i] < end) {
+            int covered = end - lengthOffsets[i];
+            if (covered >= lengths[i]) {
+                remove(i);
+            } else {
+                lengthOffsets[i] += covered;
+                lengths[i] -= covered;
+                break;
+            }
+        }
+        i = 0;
+        while (i < count - 1) {
+            if (sizeOffsets[i] == sizeOffsets[i + 1]) {
+                lengths[i] += lengths[i + 1];
+                remove(i + 1);
+            } else {
+                i++;
+            }
+        }
+    }
+
+    private void insert(int index, int lengthOffset, int segmentLength, int sizeOffset) {
+        if (count == lengths.length) {
+            int newCapacity = count * 2;
+            lengthOffsets = Arrays.copyOf(lengthOffsets, newCapacity);
+            lengths = Arrays.copyOf(lengths, newCapacity);
+            sizeOffsets = Arrays.copyOf(sizeOffsets, newCapacity);
+        }
+        int moved = count - index;
+        System.arraycopy(lengthOffsets, index, lengthOffsets, index + 1, moved);
+        System.arraycopy(lengths, index, lengths, index + 1, moved);
+        System.arraycopy(sizeOffsets, index, sizeOffsets, index + 1, moved);
+        lengthOffsets[index] = lengthOffset;
+        lengths[index] = segmentLength;
+        sizeOffsets[index] = sizeOffset;
+        count++;
+    }
+
+    private void remove(int index) {
+        int moved = count - index - 1;
+        System.arraycopy(lengthOffsets, index + 1, lengthOffsets, index, moved);
+        System.arraycopy(lengths, index + 1, lengths, index, moved);
+        System.arraycopy(sizeOffsets, index + 1, sizeOffsets, index, moved);
+        count--;
+    }
+}
@@ -2032,7 +2032,20 @@ public abstract class BaseShaderGraphics
          * be in the font, which here is close to being a full strike
          * description.
          */
+        if (isSimpleTranslate) {
+            // Applying this rounding allows for smoother text animation,
+            // when animating simple translated text.
+            // Asking glyph textures to be rendered at non-integral
+            // locations produces very poor text. This doesn't solve
+            // the problem for scaled (etc) cases, but addresses a
+            // common case.
+            p2d.y = Math.round(p2d.y);
+            p2d.x = Math.round(p2d.x);
+        }
         GlyphCache glyphCache = context.getGlyphCache(strike);
+        // The glyphs have to be cached before the texture is validated,
+        // as caching them may move the strike to another atlas page.
+        glyphCache.cacheGlyphs(gl, p2d.x, p2d.y, xform, clip);
         Texture cacheTex = glyphCache.getBackingStore();
 
         //Since we currently cannot support LCD text on transparant surfaces, we
@@ -2088,16 +2101,6 @@ public abstract class BaseShaderGraphics
         } else {
             context.validatePaintOp(this, IDENT, cacheTex, bx, by, bw, bh);
         }
-        if (isSimpleTranslate) {
-            // Applying this rounding allows for smoother text animation,
-            // when animating simple translated text.
-            // Asking glyph textures to be rendered at non-integral
-            // locations produces very poor text. This doesn't solve
-            // the problem for scaled (etc) cases, but addresses a
-            // common case.
-            p2d.y = Math.round(p2d.y);
-            p2d.x = Math.round(p2d.x);
-        }
         glyphCache.render(context, gl, p2d.x, p2d.y, selectStart, selectEnd,
                           selectColor, textColor, xform, clip);
     }
@@ -45,6 +45,9 @@ public final class DMarlinPrismUtils {
     static final float UPPER_BND = Float.MAX_VALUE / 2.0f;
     static final float LOWER_BND = -UPPER_BND;
 
+    // extra pixel kept around the clip area by the path clipping
+    private static final double CLIP_MARGIN = 1.0d;
+
     /**
      * Private constructor to prevent instantiation.
      */
@@ -56,6 +59,7 @@ public final class DMarlinPrismUtils {
             final BasicStroke stroke,
             final BaseTransform tx,
             final Rectangle clip,
+            final int pix_originY,
             final int pirule,
             final DMarlinRenderer renderer)
     {
@@ -140,7 +144,8 @@ public final class DMarlinPrismUtils {
             }
         }
 
-        DPathConsumer2D pc = renderer.init(clip.x, clip.y, clip.width, clip.height, oprule);
+        DPathConsumer2D pc = renderer.init(clip.x, clip.y, clip.width, clip.height, oprule)
+                                .setEdgeOriginY(pix_originY);
 
         if (MarlinConst.USE_SIMPLIFIER) {
             // Use simplifier after stroker before Renderer
@@ -149,15 +154,42 @@ public final class DMarlinPrismUtils {
         }
 
         final DTransformingPathConsumer2D transformerPC2D = rdrCtx.transformerPC2D;
+
+        if (MarlinConst.DO_CLIP && strokerTx != null) {
+            // The stroker works on untransformed coordinates, so only the
+            // stroked outline can be clipped
+            pc = transformerPC2D.pathClipper(pc,
+                    clip.x - CLIP_MARGIN, clip.y - CLIP_MARGIN,
+                    clip.x + clip.width + CLIP_MARGIN,
+                    clip.y + clip.height + CLIP_MARGIN);
+        }
+
         pc = transformerPC2D.deltaTransformConsumer(pc, strokerTx);
 
         if (stroke != null) {
             pc = rdrCtx.stroker.init(pc, width, stroke.getEndCap(),
                     stroke.getLineJoin(), stroke.getMiterLimit());
 
+            if (MarlinConst.DO_CLIP && strokerTx == null) {
+                // Clip the (dashed) path before the stroker, keeping the
+                // geometry which may be covered by the stroke. The dasher
+                // needs the whole path to compute the dash phase.
+                final double margin = getStrokeMargin(stroke, width) + CLIP_MARGIN;
+                pc = transformerPC2D.pathClipper(pc,
+                        clip.x - margin, clip.y - margin,
+                        clip.x + clip.width + margin,
+                        clip.y + clip.height + margin);
+            }
+
             if (dashesD != null) {
                 pc = rdrCtx.dasher.init(pc, dashesD, dashLen, dashphase, recycleDashes);
             }
+        } else if (MarlinConst.DO_CLIP) {
+            // Clip the filled path before the renderer
+            pc = transformerPC2D.pathClipper(pc,
+                    clip.x - CLIP_MARGIN, clip.y - CLIP_MARGIN,
+                    clip.x + clip.width + CLIP_MARGIN,
+                    clip.y + clip.height + CLIP_MARGIN);
         }
 
         pc = transformerPC2D.inverseDeltaTransformConsumer(pc, strokerTx);
@@ -167,8 +199,10 @@ public final class DMarlinPrismUtils {
          * shape.getPathIterator(tx)
          * -> (inverseDeltaTransformConsumer)
          * -> (Dasher)
+         * -> (PathClipFilter) if stroking in device space or filling
          * -> Stroker
          * -> (deltaTransformConsumer)
+         * -> (PathClipFilter) if stroking in user space
          *
          * -> (CollinearSimplifier) to remove redundant segments
          *
@@ -177,6 +211,21 @@ public final class DMarlinPrismUtils {
         return pc;
     }
 
+    /**
+     * Returns how far from the path the stroke may extend, in the
+     * coordinates given to the stroker.
+     */
+    private static double getStrokeMargin(final BasicStroke stroke, final double width) {
+        double factor = 1.0d;
+        if (stroke.getLineJoin() == BasicStroke.JOIN_MITER) {
+            factor = Math.max(factor, stroke.getMiterLimit());
+        }
+        if (stroke.getEndCap() == BasicStroke.CAP_SQUARE) {
+            factor = Math.max(factor, Math.sqrt(2.0d));
+        }
+        return 0.5d * width * factor;
+    }
+
     private static boolean nearZero(final double num) {
         return Math.abs(num) < 2.0 * Math.ulp(num);
     }
@@ -188,6 +237,23 @@ public final class DMarlinPrismUtils {
             final BaseTransform xform,
             final Rectangle rclip,
             final boolean antialiasedShape)
+    {
+        return setupRenderer(rdrCtx, shape, stroke, xform, rclip, rclip.y, antialiasedShape);
+    }
+
+    /**
+     * Same as setupRenderer() but rendering only the band rclip of a larger
+     * area starting at the pixel row pix_originY, see
+     * DMarlinRenderer.setEdgeOriginY().
+     */
+    public static DMarlinRenderer setupRenderer(
+            final DRendererContext rdrCtx,
+            final Shape shape,
+            final BasicStroke stroke,
+            final BaseTransform xform,
+            final Rectangle rclip,
+            final int pix_originY,
+            final boolean antialiasedShape)
     {
         // Test if transform is identity:
         final BaseTransform tf = (xform != null && !xform.isIdentity()) ? xform : null;
@@ -197,7 +263,8 @@ public final class DMarlinPrismUtils {
         final DMarlinRenderer r =  (!FORCE_NO_AA && antialiasedShape) ?
                 rdrCtx.renderer : rdrCtx.getRendererNoAA();
 
-        final DPathConsumer2D pc2d = initRenderer(rdrCtx, stroke, tf, rclip, pi.getWindingRule(), r);
+        final DPathConsumer2D pc2d = initRenderer(rdrCtx, stroke, tf, rclip, pix_originY,
+                                                  pi.getWindingRule(), r);
 
         feedConsumer(rdrCtx, pi, pc2d);
 
@@ -211,6 +278,23 @@ public final class DMarlinPrismUtils {
             final BaseTransform xform,
             final Rectangle rclip,
             final boolean antialiasedShape)
+    {
+        return setupRenderer(rdrCtx, p2d, stroke, xform, rclip, rclip.y, antialiasedShape);
+    }
+
+    /**
+     * Same as setupRenderer() but rendering only the band rclip of a larger
+     * area starting at the pixel row pix_originY, see
+     * DMarlinRenderer.setEdgeOriginY().
+     */
+    public static DMarlinRenderer setupRenderer(
+            final DRendererContext rdrCtx,
+            final Path2D p2d,
+            final BasicStroke stroke,
+            final BaseTransform xform,
+            final Rectangle rclip,
+            final int pix_originY,
+            final boolean antialiasedShape)
     {
         // Test if transform is identity:
         final BaseTransform tf = (xform != null && !xform.isIdentity()) ? xform : null;
@@ -218,7 +302,8 @@ public final class DMarlinPrismUtils {
         final DMarlinRenderer r =  (!FORCE_NO_AA && antialiasedShape) ?
                 rdrCtx.renderer : rdrCtx.getRendererNoAA();
 
-        final DPathConsumer2D pc2d = initRenderer(rdrCtx, stroke, tf, rclip, p2d.getWindingRule(), r);
+        final DPathConsumer2D pc2d = initRenderer(rdrCtx, stroke, tf, rclip, pix_originY,
+                                                  p2d.getWindingRule(), r);
 
         feedConsumer(rdrCtx, p2d, tf, pc2d);
 
@@ -56,6 +56,7 @@ public final class MarlinPrismUtils {
             final BasicStroke stroke,
             final BaseTransform tx,
             final Rectangle clip,
+            final int pix_originY,
             final int pirule,
             final MarlinRenderer renderer)
     {
@@ -136,7 +137,8 @@ public final class MarlinPrismUtils {
             }
         }
 
-        PathConsumer2D pc = renderer.init(clip.x, clip.y, clip.width, clip.height, oprule);
+        PathConsumer2D pc = renderer.init(clip.x, clip.y, clip.width, clip.height, oprule)
+                                .setEdgeOriginY(pix_originY);
 
         if (MarlinConst.USE_SIMPLIFIER) {
             // Use simplifier after stroker before Renderer
@@ -187,6 +189,23 @@ public final class MarlinPrismUtils {
             final BaseTransform xform,
             final Rectangle rclip,
             final boolean antialiasedShape)
+    {
+        return setupRenderer(rdrCtx, shape, stroke, xform, rclip, rclip.y, antialiasedShape);
+    }
+
+    /**
+     * Same as setupRenderer() but rendering only the band rclip of a larger
+     * area starting at the pixel row pix_originY, see
+     * MarlinRenderer.setEdgeOriginY().
+     */
+    public static MarlinRenderer setupRenderer(
+            final RendererContext rdrCtx,
+            final Shape shape,
+            final BasicStroke stroke,
+            final BaseTransform xform,
+            final Rectangle rclip,
+            final int pix_originY,
+            final boolean antialiasedShape)
     {
         // Test if transform is identity:
         final BaseTransform tf = (xform != null && !xform.isIdentity()) ? xform : null;
@@ -196,7 +215,8 @@ public final class MarlinPrismUtils {
         final MarlinRenderer r =  (!FORCE_NO_AA && antialiasedShape) ?
                 rdrCtx.renderer : rdrCtx.getRendererNoAA();
 
-        final PathConsumer2D pc2d = initRenderer(rdrCtx, stroke, tf, rclip, pi.getWindingRule(), r);
+        final PathConsumer2D pc2d = initRenderer(rdrCtx, stroke, tf, rclip, pix_originY,
+                                                  pi.getWindingRule(), r);
 
         feedConsumer(rdrCtx, pi, pc2d);
 
@@ -210,6 +230,23 @@ public final class MarlinPrismUtils {
             final BaseTransform xform,
             final Rectangle rclip,
             final boolean antialiasedShape)
+    {
+        return setupRenderer(rdrCtx, p2d, stroke, xform, rclip, rclip.y, antialiasedShape);
+    }
+
+    /**
+     * Same as setupRenderer() but rendering only the band rclip of a larger
+     * area starting at the pixel row pix_originY, see
+     * MarlinRenderer.setEdgeOriginY().
+     */
+    public static MarlinRenderer setupRenderer(
+            final RendererContext rdrCtx,
+            final Path2D p2d,
+            final BasicStroke stroke,
+            final BaseTransform xform,
+            final Rectangle rclip,
+            final int pix_originY,
+            final boolean antialiasedShape)
     {
         // Test if transform is identity:
         final BaseTransform tf = (xform != null && !xform.isIdentity()) ? xform : null;
@@ -217,7 +254,8 @@ public final class MarlinPrismUtils {
         final MarlinRenderer r =  (!FORCE_NO_AA && antialiasedShape) ?
                 rdrCtx.renderer : rdrCtx.getRendererNoAA();
 
-        final PathConsumer2D pc2d = initRenderer(rdrCtx, stroke, tf, rclip, p2d.getWindingRule(), r);
+        final PathConsumer2D pc2d = initRenderer(rdrCtx, stroke, tf, rclip, pix_originY,
+                                                  p2d.getWindingRule(), r);
 
         feedConsumer(rdrCtx, p2d, tf, pc2d);
 
@@ -328,10 +328,17 @@ final class SWContext {
     SWContext(ResourceFactory factory) {
         this.factory = factory;
         if (PrismSettings.useMarlinRasterizer) {
+            final ShapeRenderer marlinRenderer;
             if (PrismSettings.useMarlinRasterizerDP) {
-                this.shapeRenderer = new DMarlinShapeRenderer();
+                marlinRenderer = new DMarlinShapeRenderer();
             } else {
-                this.shapeRenderer = new MarlinShapeRenderer();
+                marlinRenderer = new MarlinShapeRenderer();
+            }
+            if (PrismSettings.swTileThreads > 1) {
+                this.shapeRenderer = new SWTiledShapeRenderer(marlinRenderer,
+                        PrismSettings.useMarlinRasterizerDP);
+            } else {
+                this.shapeRenderer = marlinRenderer;
             }
         } else if (PrismSettings.doNativePisces) {
             this.shapeRenderer = new NativeShapeRenderer();
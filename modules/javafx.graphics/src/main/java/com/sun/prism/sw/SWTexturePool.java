@@ -26,15 +26,23 @@
 package com.sun.prism.sw;
 
 import com.sun.prism.PixelFormat;
+import com.sun.prism.RTTexture;
 import com.sun.prism.impl.BaseResourcePool;
 import com.sun.prism.impl.PrismSettings;
 import com.sun.prism.impl.TextureResourcePool;
+import java.util.ArrayList;
+import java.util.List;
 
 class SWTexturePool extends BaseResourcePool<SWTexture>
     implements TextureResourcePool<SWTexture>
 {
     static final SWTexturePool instance = new SWTexturePool();
 
+    // Idle render targets, for instance of pixel snapshots, which are reused
+    // by later requests of the same size
+    private static final int MAX_IDLE_RT_TEXTURES = 4;
+    private final List<RTTexture> idleRTTextures = new ArrayList<>();
+
     private static long maxVram() {
         long heapmax = Runtime.getRuntime().maxMemory();
         long setmax = PrismSettings.maxVram;
@@ -82,4 +90,34 @@ class SWTexturePool extends BaseResourcePool<SWTexture>
     public long estimateRTTextureSize(int width, int height, boolean hasDepth) {
         return ((long) width) * ((long) height) * 4L;
     }
+
+    @Override
+    public RTTexture getIdleRTTexture(int width, int height) {
+        for (int i = idleRTTextures.size() - 1; i >= 0; i--) {
+            RTTexture rt = idleRTTextures.get(i);
+            if (rt.getContentWidth() == width && rt.getContentHeight() == height) {
+                idleRTTextures.remove(i);
+                rt.lock();
+                // the pool may have freed it in the meantime
+                if (!rt.isSurfaceLost()) {
+                    return rt;
+                }
+                rt.unlock();
+                rt.dispose();
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public boolean keepIdleRTTexture(RTTexture rt) {
+        if (!(rt instanceof SWRTTexture)) {
+            return false;
+        }
+        idleRTTextures.add(rt);
+        if (idleRTTextures.size() > MAX_IDLE_RT_TEXTURES) {
+            idleRTTextures.remove(0).dispose();
+        }
+        return true;
+    }
 }
@@ -0,0 +1,482 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package com.sun.prism.sw;
+
+import com.sun.javafx.geom.Path2D;
+import com.sun.javafx.geom.RectBounds;
+import com.sun.javafx.geom.Rectangle;
+import com.sun.javafx.geom.Shape;
+import com.sun.javafx.geom.transform.BaseTransform;
+import com.sun.marlin.DMarlinRenderer;
+import com.sun.marlin.DMarlinRenderingEngine;
+import com.sun.marlin.DRendererContext;
+import com.sun.marlin.IntArrayCache;
+import com.sun.marlin.MarlinAlphaConsumer;
+import com.sun.marlin.MarlinConst;
+import com.sun.marlin.MarlinRenderer;
+import com.sun.marlin.MarlinRenderingEngine;
+import com.sun.marlin.RendererContext;
+import com.sun.pisces.PiscesRenderer;
+import com.sun.prism.BasicStroke;
+import com.sun.prism.impl.PrismSettings;
+import com.sun.prism.impl.shape.DMarlinPrismUtils;
+import com.sun.prism.impl.shape.MarlinPrismUtils;
+
+import java.security.AccessController;
+import java.security.PrivilegedAction;
+import java.util.Arrays;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A ShapeRenderer splitting the rows of large shapes into horizontal bands
+ * whose coverage is generated by Marlin in parallel on a pool of worker
+ * threads (see PrismSettings.swTileThreads).
+ *
+ * Each band is rasterized with its edges stepped from the top of the clip
+ * (see MarlinRenderer.setEdgeOriginY) and its coverage rows are recorded.
+ * The rows are then emitted in order into the PiscesRenderer on the render
+ * thread, with exactly the calls DirectRTMarlinAlphaConsumer would have made,
+ * so the output is the same as the single-threaded rendering.
+ *
+ * Only the coverage generation runs on the workers. Blending the coverage
+ * rows with the paint stays on the render thread: emitAndClearAlphaRow
+ * keeps the current row, its paint buffer and the blitting state in the
+ * native renderer of the PiscesRenderer, so one PiscesRenderer cannot blend
+ * several bands at once, and a PiscesRenderer per band would have to repeat
+ * the paint, composite and clip setup of SWGraphics for every shape.
+ * The fills of rectangles and other primitives that do not go through a
+ * ShapeRenderer, as well as the shapes rasterized by Pisces (see
+ * DirectRTPiscesAlphaConsumer), are not tiled either.
+ * The speed-up is therefore limited to the shapes whose rasterization costs
+ * more than the blending of their rows.
+ */
+final class SWTiledShapeRenderer implements SWContext.ShapeRenderer {
+
+    private static ExecutorService tileExecutor;
+
+    private final SWContext.ShapeRenderer directRenderer;
+    private final boolean doublePrecision;
+    private final int maxBands;
+    private final int tileHeight;
+    private final BandTask[] tasks;
+    private final Future<?>[] futures;
+
+    SWTiledShapeRenderer(SWContext.ShapeRenderer directRenderer, boolean doublePrecision) {
+        this(directRenderer, doublePrecision,
+             PrismSettings.swTileThreads, PrismSettings.swTileHeight);
+    }
+
+    // package for testing
+    SWTiledShapeRenderer(SWContext.ShapeRenderer directRenderer, boolean doublePrecision,
+                         int maxBands, int tileHeight)
+    {
+        this.directRenderer = directRenderer;
+        this.doublePrecision = doublePrecision;
+        this.maxBands = maxBands;
+        this.tileHeight = tileHeight;
+        this.tasks = new BandTask[maxBands];
+        for (int i = 0; i < maxBands; i++) {
+            tasks[i] = new BandTask(doublePrecision);
+        }
+        this.futures = new Future<?>[maxBands];
+    }
+
+    private static synchronized ExecutorService getTileExecutor() {
+        if (tileExecutor == null) {
+            final AtomicInteger threadNumber = new AtomicInteger(0);
+            // the rendering thread rasterizes the first band itself
+            tileExecutor = Executors.newFixedThreadPool(
+                    Math.max(1, PrismSettings.swTileThreads - 1),
+                    r -> AccessController.doPrivileged((PrivilegedAction<Thread>) () -> {
+                        Thread th = new Thread(r);
+                        th.setName("Prism SW Tile Rasterizer-" + threadNumber.getAndIncrement());
+                        th.setDaemon(true);
+                        return th;
+                    }));
+        }
+        return tileExecutor;
+    }
+
+    @Override
+    public void renderShape(PiscesRenderer pr, Shape shape, BasicStroke stroke, BaseTransform tr,
+                            Rectangle clip, boolean antialiasedShape)
+    {
+        if (stroke != null && stroke.getType() != BasicStroke.TYPE_CENTERED) {
+            // RT-27427: see MarlinShapeRenderer
+            shape = stroke.createStrokedShape(shape);
+            stroke = null;
+        }
+
+        // estimate the device rows covered by the shape:
+        final RectBounds bounds = (RectBounds) tr.transform(shape.getBounds(), new RectBounds());
+        float pad = 1f;
+        if (stroke != null) {
+            final double scale = Math.max(Math.hypot(tr.getMxx(), tr.getMyx()),
+                                          Math.hypot(tr.getMxy(), tr.getMyy()));
+            float width = stroke.getLineWidth() / 2f;
+            if (stroke.getLineJoin() == BasicStroke.JOIN_MITER) {
+                width *= Math.max(1f, stroke.getMiterLimit());
+            }
+            pad += (float) (width * scale);
+        }
+        final int clipMinY = clip.y;
+        final int clipMaxY = clip.y + clip.height;
+        final float shapeMinY = bounds.getMinY() - pad;
+        final float shapeMaxY = bounds.getMaxY() + pad;
+        final int minY = (shapeMinY > clipMinY) ? (int) shapeMinY : clipMinY;
+        final int maxY = (shapeMaxY < clipMaxY) ? (int) Math.ceil(shapeMaxY) : clipMaxY;
+        final int rows = maxY - minY;
+
+        // NaN bounds give rows = 0:
+        final int nBands = Math.min(maxBands, rows / tileHeight);
+        if (nBands < 2) {
+            directRenderer.renderShape(pr, shape, stroke, tr, clip, antialiasedShape);
+            return;
+        }
+
+        // the first and last bands are extended to the clip so that the
+        // bands cover all its rows whatever the accuracy of the estimation:
+        final ExecutorService executor = getTileExecutor();
+        int bandMinY = clipMinY;
+        for (int i = 0; i < nBands; i++) {
+            final int bandMaxY = (i == nBands - 1) ? clipMaxY
+                    : minY + (int) (((long) rows * (i + 1)) / nBands);
+            tasks[i].init(shape, stroke, tr, clip, bandMinY, bandMaxY, antialiasedShape);
+            if (i > 0) {
+                futures[i] = executor.submit(tasks[i]);
+            }
+            bandMinY = bandMaxY;
+        }
+
+        // blend the bands in order on this thread (see the class comment):
+        int rowNum = 0;
+        try {
+            tasks[0].run();
+            rowNum = tasks[0].blend(pr, rowNum);
+
+            for (int i = 1; i < nBands; i++) {
+                if (!waitForBand(i)) {
+                    // the worker failed: rasterize the band again here
+                    tasks[i].run();
+                }
+                rowNum = tasks[i].blend(pr, rowNum);
+            }
+        } finally {
+            // never let a worker run on a task reused by the next shape
+            for (int i = 0; i < nBands; i++) {
+                if (futures[i] != null) {
+                    waitForBand(i);
+                }
+                tasks[i].release();
+            }
+        }
+    }
+
+    /**
+     * Waits for the worker rasterizing the given band.
+     * @return false if the worker failed
+     */
+    private boolean waitForBand(int i) {
+        boolean interrupted = false;
+        try {
+            while (true) {
+                try {
+                    futures[i].get();
+                    return true;
+                } catch (InterruptedException ie) {
+                    // the band is still in use by the worker
+                    interrupted = true;
+                } catch (ExecutionException | CancellationException e) {
+                    return false;
+                }
+            }
+        } finally {
+            futures[i] = null;
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Override
+    public void dispose() {
+        for (BandTask task : tasks) {
+            task.recorder.dispose();
+        }
+        directRenderer.dispose();
+    }
+
+    /**
+     * Rasterizes the rows [bandMinY; bandMaxY[ of a shape into a recorder.
+     */
+    static final class BandTask implements Runnable {
+        private final boolean doublePrecision;
+        private final Rectangle bandClip = new Rectangle();
+        private final BandAlphaRecorder recorder = new BandAlphaRecorder();
+
+        private Shape shape;
+        private BasicStroke stroke;
+        private BaseTransform tr;
+        private int originY;
+        private boolean antialiasedShape;
+
+        BandTask(boolean doublePrecision) {
+            this.doublePrecision = doublePrecision;
+        }
+
+        void init(Shape shape, BasicStroke stroke, BaseTransform tr, Rectangle clip,
+                  int bandMinY, int bandMaxY, boolean antialiasedShape)
+        {
+            this.shape = shape;
+            this.stroke = stroke;
+            this.tr = tr;
+            this.originY = clip.y;
+            this.antialiasedShape = antialiasedShape;
+            bandClip.setBounds(clip.x, bandMinY, clip.width, bandMaxY - bandMinY);
+            recorder.reset();
+        }
+
+        void release() {
+            shape = null;
+            stroke = null;
+            tr = null;
+        }
+
+        int blend(PiscesRenderer pr, int rowNum) {
+            return recorder.emitRows(pr, rowNum);
+        }
+
+        @Override
+        public void run() {
+            recorder.reset();
+            if (doublePrecision) {
+                runDMarlin();
+            } else {
+                runMarlin();
+            }
+        }
+
+        private void runMarlin() {
+            final RendererContext rdrCtx = MarlinRenderingEngine.getRendererContext();
+            MarlinRenderer renderer = null;
+            try {
+                if (shape instanceof Path2D) {
+                    renderer = MarlinPrismUtils.setupRenderer(rdrCtx, (Path2D) shape, stroke, tr,
+                            bandClip, originY, antialiasedShape);
+                }
+                if (renderer == null) {
+                    renderer = MarlinPrismUtils.setupRenderer(rdrCtx, shape, stroke, tr,
+                            bandClip, originY, antialiasedShape);
+                }
+                final int outpix_xmin = renderer.getOutpixMinX();
+                final int outpix_ymin = renderer.getOutpixMinY();
+                final int w = renderer.getOutpixMaxX() - outpix_xmin;
+                final int h = renderer.getOutpixMaxY() - outpix_ymin;
+                if ((w <= 0) || (h <= 0)) {
+                    return;
+                }
+                recorder.initConsumer(outpix_xmin, outpix_ymin, w, h);
+                renderer.produceAlphas(recorder);
+            } finally {
+                if (renderer != null) {
+                    renderer.dispose();
+                }
+                // recycle the RendererContext instance
+                MarlinRenderingEngine.returnRendererContext(rdrCtx);
+            }
+        }
+
+        private void runDMarlin() {
+            final DRendererContext rdrCtx = DMarlinRenderingEngine.getRendererContext();
+            DMarlinRenderer renderer = null;
+            try {
+                if (shape instanceof Path2D) {
+                    renderer = DMarlinPrismUtils.setupRenderer(rdrCtx, (Path2D) shape, stroke, tr,
+                            bandClip, originY, antialiasedShape);
+                }
+                if (renderer == null) {
+                    renderer = DMarlinPrismUtils.setupRenderer(rdrCtx, shape, stroke, tr,
+                            bandClip, originY, antialiasedShape);
+                }
+                final int outpix_xmin = renderer.getOutpixMinX();
+                final int outpix_ymin = renderer.getOutpixMinY();
+                final int w = renderer.getOutpixMaxX() - outpix_xmin;
+                final int h = renderer.getOutpixMaxY() - outpix_ymin;
+                if ((w <= 0) || (h <= 0)) {
+                    return;
+                }
+                recorder.initConsumer(outpix_xmin, outpix_ymin, w, h);
+                renderer.produceAlphas(recorder);
+            } finally {
+                if (renderer != null) {
+                    renderer.dispose();
+                }
+                // recycle the RendererContext instance
+                DMarlinRenderingEngine.returnRendererContext(rdrCtx);
+            }
+        }
+    }
+
+    /**
+     * Records the alpha rows of one band as [pix_y, pix_to, length, deltas...]
+     * to emit them later as DirectRTMarlinAlphaConsumer does.
+     */
+    static final class BandAlphaRecorder implements MarlinAlphaConsumer {
+        private static final int INITIAL_ROWS_LENGTH = 4096;
+
+        private byte alpha_map[];
+        private int x;
+        private int y;
+        private int w;
+        private int h;
+
+        private int[] rows = new int[INITIAL_ROWS_LENGTH];
+        private int used;
+        private int[] rowBuffer = new int[0];
+
+        void initConsumer(int x, int y, int w, int h) {
+            this.x = x;
+            this.y = y;
+            this.w = w;
+            this.h = h;
+            used = 0;
+            if (rowBuffer.length < w + 2) {
+                rowBuffer = new int[w + 2];
+            }
+        }
+
+        void reset() {
+            used = 0;
+        }
+
+        void dispose() {
+            rows = new int[INITIAL_ROWS_LENGTH];
+            rowBuffer = new int[0];
+            used = 0;
+        }
+
+        int emitRows(PiscesRenderer pr, int rowNum) {
+            final int[] _rows = rows;
+            final int[] row = rowBuffer;
+            for (int i = 0, end = used; i < end; ) {
+                final int pix_y = _rows[i++];
+                final int pix_to = _rows[i++];
+                final int len = _rows[i++];
+                System.arraycopy(_rows, i, row, 0, len);
+                i += len;
+                pr.emitAndClearAlphaRow(alpha_map, row, pix_y, x, pix_to, rowNum++);
+                Arrays.fill(row, 0, len, 0);
+            }
+            return rowNum;
+        }
+
+        @Override
+        public int getOriginX() {
+            return x;
+        }
+
+        @Override
+        public int getOriginY() {
+            return y;
+        }
+
+        @Override
+        public int getWidth() {
+            return w;
+        }
+
+        @Override
+        public int getHeight() {
+            return h;
+        }
+
+        @Override
+        public void setMaxAlpha(int maxalpha) {
+            if ((alpha_map == null) || (alpha_map.length != maxalpha+1)) {
+                alpha_map = new byte[maxalpha+1];
+                for (int i = 0; i <= maxalpha; i++) {
+                    alpha_map[i] = (byte) ((i*255 + maxalpha/2)/maxalpha);
+                }
+            }
+        }
+
+        @Override
+        public boolean supportBlockFlags() {
+            return false;
+        }
+
+        @Override
+        public void clearAlphas(final int pix_y) {
+            // noop
+        }
+
+        @Override
+        public void setAndClearRelativeAlphas(final int[] alphaDeltas, final int pix_y,
+                                              final int pix_from, final int pix_to)
+        {
+            // same range [x; pix_to] as emitted and cleared by
+            // DirectRTMarlinAlphaConsumer:
+            final int to = pix_to - x;
+            final int len = ((to <= w) ? to : w) + 1;
+
+            final int needed = used + len + 3;
+            if (rows.length < needed) {
+                rows = Arrays.copyOf(rows, Math.max(needed, rows.length << 1));
+            }
+            final int[] _rows = rows;
+            _rows[used++] = pix_y;
+            _rows[used++] = pix_to;
+            _rows[used++] = len;
+            System.arraycopy(alphaDeltas, 0, _rows, used, len);
+            used += len;
+
+            Arrays.fill(alphaDeltas, 0, len, 0);
+
+            if (MarlinConst.DO_CHECKS) {
+                IntArrayCache.check(alphaDeltas, pix_from - x, to + 1, 0);
+            }
+        }
+
+        @Override
+        public void setAndClearRelativeAlphas(final int[] blkFlags, final int[] alphaDeltas, final int pix_y,
+                                              final int pix_from, final int pix_to)
+        {
+            // the whole range is recorded so the flags are only cleared
+            // like MaskMarlinAlphaConsumer does:
+            final int to = pix_to - x;
+            final int ato = (to <= w) ? to : w;
+            final int _BLK_SIZE_LG = MarlinConst.BLOCK_SIZE_LG;
+            Arrays.fill(blkFlags, (pix_from - x) >> _BLK_SIZE_LG, (ato >> _BLK_SIZE_LG) + 2, 0);
+
+            setAndClearRelativeAlphas(alphaDeltas, pix_y, pix_from, pix_to);
+        }
+    }
+}
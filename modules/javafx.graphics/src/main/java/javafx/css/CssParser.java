@@ -100,6 +100,7 @@ import java.text.MessageFormat;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
@@ -268,12 +269,17 @@ final public class CssParser {
             setInputSource(node);
             final List<Rule> rules = new ArrayList<Rule>();
             try (Reader reader = new CharArrayReader(stylesheetText.toCharArray())) {
-                final CssLexer lexer = new CssLexer();
-                lexer.setReader(reader);
-                currentToken = nextToken(lexer);
-                final List<Declaration> declarations = declarations(lexer);
+                List<Declaration> declarations = simpleDeclarations(stylesheetText);
+                if (declarations == null) {
+                    final CssLexer lexer = new CssLexer();
+                    lexer.setReader(reader);
+                    currentToken = nextToken(lexer);
+                    declarations = declarations(lexer);
+                }
                 if (declarations != null && !declarations.isEmpty()) {
-                    final Selector selector = Selector.getUniversalSelector();
+                    // Each rule needs its own selector since the selector
+                    // refers back to the rule.
+                    final Selector selector = new SimpleSelector("*", null, null, null);
                     final Rule rule = new Rule(
                         Collections.singletonList(selector),
                         declarations
@@ -339,6 +345,125 @@ final public class CssParser {
      */
     private final Map<String,String> properties;
 
+    /*
+     * Values of the declarations parsed by simpleDeclarations, keyed by
+     * property and value text. ParsedValueImpl is immutable, so a value can
+     * be shared by every in-line style that declares the same property and
+     * value. Sharing also lets StyleConverter's cache of converted values
+     * hit. The cache is bounded and drops the least recently used values.
+     */
+    private static final int SIMPLE_VALUE_CACHE_SIZE = 1000;
+    private static final Map<String,ParsedValueImpl> simpleValueCache =
+        new LinkedHashMap<String,ParsedValueImpl>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String,ParsedValueImpl> eldest) {
+                return size() > SIMPLE_VALUE_CACHE_SIZE;
+            }
+        };
+
+    /*
+     * Fast path for in-line styles which are nothing but a list of
+     * "property: value" declarations, such as the styles that get set on
+     * a node over and over again with different colors or sizes. The
+     * declarations are split without going through the lexer and the value
+     * of each declaration is taken from simpleValueCache, or parsed on its
+     * own if it is not in the cache. Returns null if the style has to go
+     * through the full parser, for example if it has comments, strings,
+     * urls, !important or a value which might be a lookup of one of the
+     * other properties in the style.
+     */
+    private List<Declaration> simpleDeclarations(final String style) {
+
+        final String[] parts = style.split(";");
+        final List<String> names = new ArrayList<>(parts.length);
+        final List<String> exprs = new ArrayList<>(parts.length);
+
+        for (String part : parts) {
+            if (part.trim().isEmpty()) continue;
+            final int colon = part.indexOf(':');
+            if (colon < 0) return null;
+            final String name = part.substring(0, colon).trim().toLowerCase(Locale.ROOT);
+            final String expr = part.substring(colon + 1).trim();
+            if (!isSimpleName(name) || !isSimpleExpr(expr)) return null;
+            names.add(name);
+            exprs.add(expr);
+        }
+
+        // If a value names a property, then the value is a lookup, which
+        // depends on the other declarations.
+        for (String expr : exprs) {
+            final String text = expr.toLowerCase(Locale.ROOT);
+            for (String name : names) {
+                if (text.contains(name)) return null;
+            }
+        }
+
+        final List<Declaration> declarations = new ArrayList<>(names.size());
+        for (int n = 0; n < names.size(); n++) {
+
+            final String property = names.get(n);
+            final String key = property + ":" + exprs.get(n);
+
+            ParsedValueImpl value;
+            synchronized (simpleValueCache) {
+                value = simpleValueCache.get(key);
+            }
+
+            if (value == null) {
+                try (Reader reader = new CharArrayReader((exprs.get(n) + ";").toCharArray())) {
+                    final CssLexer lexer = new CssLexer();
+                    lexer.setReader(reader);
+                    currentToken = nextToken(lexer);
+                    value = declarationValue(property, expr(lexer), lexer);
+                } catch (IOException ioe) {
+                }
+
+                // the declaration is skipped, as it is in declarations(lexer)
+                if (value == null) continue;
+
+                synchronized (simpleValueCache) {
+                    simpleValueCache.put(key, value);
+                }
+                declarations.add(new Declaration(property, value, false));
+
+                // declarations(lexer) stops at anything but a semicolon
+                if (currentToken == null || currentToken.getType() != CssLexer.SEMI) break;
+
+            } else {
+                declarations.add(new Declaration(property, value, false));
+            }
+        }
+        return declarations;
+    }
+
+    private static boolean isSimpleName(String name) {
+        if (name.isEmpty()) return false;
+        for (int n = 0; n < name.length(); n++) {
+            final char c = name.charAt(n);
+            if ((c >= 'a' && c <= 'z') || c == '-' || c == '_') continue;
+            if (n > 0 && (c >= '0' && c <= '9')) continue;
+            return false;
+        }
+        return name.charAt(0) != '-' || (name.length() > 1 && !Character.isDigit(name.charAt(1)));
+    }
+
+    private static boolean isSimpleExpr(String expr) {
+        if (expr.isEmpty()) return false;
+        for (int n = 0; n < expr.length(); n++) {
+            final char c = expr.charAt(n);
+            if (Character.isLetterOrDigit(c) || Character.isWhitespace(c)) continue;
+            switch (c) {
+                case '#': case '.': case ',': case '%': case '-': case '+':
+                case '_': case '(': case ')':
+                    continue;
+                default:
+                    return false;
+            }
+        }
+        // Declaration.fixUrl changes url values, so they can't be shared
+        return !expr.toLowerCase(Locale.ROOT).contains("url(");
+    }
+
     /*
      * While parsing a declaration, tokens from parsing value (that is,
      * the expr rule) are held in this tree structure which is then passed
@@ -4546,6 +4671,21 @@ final public class CssParser {
         currentToken = nextToken(lexer);
 
         Term root = expr(lexer);
+        ParsedValueImpl value = declarationValue(property, root, lexer);
+        if (value == null) {
+            return null;
+        }
+
+        boolean important = currentToken.getType() == CssLexer.IMPORTANT_SYM;
+        if (important) currentToken = nextToken(lexer);
+
+        Declaration decl = (value != null)
+                ? new Declaration(property.toLowerCase(Locale.ROOT), value, important) : null;
+        return decl;
+    }
+
+    private ParsedValueImpl declarationValue(String property, Term root, CssLexer lexer) {
+
         ParsedValueImpl value = null;
         try {
             value = (root != null) ? valueFor(property, root, lexer) : null;
@@ -4561,15 +4701,8 @@ final public class CssParser {
                     LOGGER.warning(error.toString());
                 }
                 reportError(error);
-            return null;
         }
-
-        boolean important = currentToken.getType() == CssLexer.IMPORTANT_SYM;
-        if (important) currentToken = nextToken(lexer);
-
-        Declaration decl = (value != null)
-                ? new Declaration(property.toLowerCase(Locale.ROOT), value, important) : null;
-        return decl;
+        return value;
     }
 
     private Term expr(CssLexer lexer) {
@@ -89,6 +89,10 @@ final public class SimpleSelector extends Selector {
     /** styleClasses converted to a set of bit masks */
     final private StyleClassSet styleClassSet;
 
+    // the names of the style classes in styleClassSet, for matching a node
+    // without converting its style classes to a StyleClassSet
+    final private String[] styleClassNames;
+
     final private String id;
     /*
      * @return The value of the selector id, which may be an empty string.
@@ -166,6 +170,12 @@ final public class SimpleSelector extends Selector {
 
         this.matchOnStyleClass = (this.styleClassSet.size() > 0);
 
+        this.styleClassNames = new String[this.styleClassSet.size()];
+        int index = 0;
+        for (StyleClass styleClass : this.styleClassSet) {
+            this.styleClassNames[index++] = styleClass.getStyleClassName();
+        }
+
         this.pseudoClassState = new PseudoClassState();
 
         nMax = pseudoClasses != null ? pseudoClasses.size() : 0;
@@ -236,18 +246,7 @@ final public class SimpleSelector extends Selector {
 
         if (matchOnStyleClass) {
 
-            final StyleClassSet otherStyleClassSet = new StyleClassSet();
-            final List<String> styleClasses = styleable.getStyleClass();
-            for(int n=0, nMax = styleClasses.size(); n<nMax; n++) {
-
-                final String styleClassName = styleClasses.get(n);
-                if (styleClassName == null || styleClassName.isEmpty()) continue;
-
-                final StyleClass styleClass = StyleClassSet.getStyleClass(styleClassName);
-                otherStyleClassSet.add(styleClass);
-            }
-
-            boolean styleClassMatch = matchStyleClasses(otherStyleClassSet);
+            boolean styleClassMatch = matchStyleClasses(styleable.getStyleClass());
             if (!styleClassMatch) return false;
         }
 
@@ -291,8 +290,14 @@ final public class SimpleSelector extends Selector {
     //
     // This selector matches when class="pastoral blue aqua marine" but does not
     // match for class="pastoral blue".
-    private boolean matchStyleClasses(StyleClassSet otherStyleClasses) {
-        return otherStyleClasses.containsAll(styleClassSet);
+    //
+    // The names are checked directly rather than converting the Node's style
+    // classes to a StyleClassSet for every selector that is matched.
+    private boolean matchStyleClasses(List<String> otherStyleClasses) {
+        for (int n = 0; n < styleClassNames.length; n++) {
+            if (!otherStyleClasses.contains(styleClassNames[n])) return false;
+        }
+        return true;
     }
 
     @Override public boolean equals(Object obj) {
@@ -262,14 +262,16 @@ public class StyleConverter<F, T> {
         os.writeShort(index);
     }
 
-    private static Map<ParsedValue, Object> cache;
+    // Guarded by itself, since values may also be converted off the FX
+    // application thread (see -Djavafx.css.parallel in CssStyleHelper)
+    private static final Map<ParsedValue, Object> cache = new WeakHashMap<>();
 
     /**
      * Clear the cache.
      * @since 9
      */
     public static void clearCache() {
-        if (cache != null) {
+        synchronized (cache) {
             cache.clear();
         }
     }
@@ -281,10 +283,9 @@ public class StyleConverter<F, T> {
      * @since 9
      */
     protected T getCachedValue(ParsedValue key) {
-        if (cache != null) {
+        synchronized (cache) {
             return (T)cache.get(key);
         }
-        return null;
     }
 
     /**
@@ -294,8 +295,9 @@ public class StyleConverter<F, T> {
      * @since 9
      */
     protected void cacheValue(ParsedValue key, Object value) {
-        if (cache == null) cache = new WeakHashMap<>();
-        cache.put(key, value);
+        synchronized (cache) {
+            cache.put(key, value);
+        }
     }
 
     // map of StyleConverter class name to StyleConverter
@@ -328,23 +330,26 @@ public class StyleConverter<F, T> {
             return (StyleConverter)javafx.css.converter.EnumConverter.readBinary(is, strings);
         }
 
-        // Make a new entry in tmap, if necessary
-        if (tmap == null || !tmap.containsKey(cname)) {
-            StyleConverter<?,?> converter = getInstance(cname);
-            if (converter == null) {
-                final PlatformLogger logger = Logging.getCSSLogger();
-                if (logger.isLoggable(Level.SEVERE)) {
-                    logger.severe("could not deserialize " + cname);
+        // stylesheets may be loaded on any thread
+        synchronized (StyleConverter.class) {
+            // Make a new entry in tmap, if necessary
+            if (tmap == null || !tmap.containsKey(cname)) {
+                StyleConverter<?,?> converter = getInstance(cname);
+                if (converter == null) {
+                    final PlatformLogger logger = Logging.getCSSLogger();
+                    if (logger.isLoggable(Level.SEVERE)) {
+                        logger.severe("could not deserialize " + cname);
+                    }
                 }
+                if (converter == null) {
+                    System.err.println("could not deserialize " + cname);
+                }
+                if (tmap == null) tmap = new HashMap<String,StyleConverter<?,?>>();
+                tmap.put(cname, converter);
+                return converter;
             }
-            if (converter == null) {
-                System.err.println("could not deserialize " + cname);
-            }
-            if (tmap == null) tmap = new HashMap<String,StyleConverter<?,?>>();
-            tmap.put(cname, converter);
-            return converter;
+            return tmap.get(cname);
         }
-        return tmap.get(cname);
     }
 
     // package for unit test purposes
@@ -32,8 +32,11 @@ import javafx.collections.ObservableList;
 
 import com.sun.javafx.collections.TrackableObservableList;
 import com.sun.javafx.css.FontFaceImpl;
+import com.sun.javafx.css.SelectorIndex;
+import com.sun.javafx.css.StylesheetHelper;
 
 import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.DataInputStream;
 import java.io.DataOutputStream;
@@ -44,6 +47,7 @@ import java.io.IOException;
 import java.net.URI;
 import java.net.URL;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -62,8 +66,20 @@ public class Stylesheet {
      * binary stream changes. This number does not correlate with JavaFX versions.
      * Version 5: persist @font-face
      * Version 6: converter classes moved to public package
+     * Version 7: selector index ahead of the rules, which are decoded lazily
      */
-    final static int BINARY_CSS_VERSION = 6;
+    final static int BINARY_CSS_VERSION = 7;
+
+    static {
+        // This is used by classes in different packages to get access to
+        // private and package private methods.
+        StylesheetHelper.setStylesheetAccessor(new StylesheetHelper.StylesheetAccessor() {
+            @Override
+            public SelectorIndex getSelectorIndex(Stylesheet stylesheet) {
+                return stylesheet.selectorIndex;
+            }
+        });
+    }
 
     private final String url;
     /** The URL from which the stylesheet was loaded.
@@ -142,6 +158,15 @@ public class Stylesheet {
     }
 
     public List<Rule> getRules() {
+        if (selectorIndex != null) {
+            // the rules may be modified from now on, so the selectors can
+            // no longer be partitioned from the index
+            selectorIndex = null;
+            for (int r = 0; r < decodedRules.length; r++) {
+                decodeRule(r);
+            }
+            rules.addAll(Arrays.asList(decodedRules));
+        }
         return rules;
     }
 
@@ -176,12 +201,13 @@ public class Stylesheet {
         StringBuilder sbuf = new StringBuilder();
         sbuf.append("/* ");
         if (url != null) sbuf.append(url);
-        if (rules.isEmpty()) {
+        final List<Rule> allRules = getRules();
+        if (allRules.isEmpty()) {
             sbuf.append(" */");
         } else {
             sbuf.append(" */\n");
-            for(int r=0; r<rules.size(); r++) {
-                sbuf.append(rules.get(r));
+            for(int r=0; r<allRules.size(); r++) {
+                sbuf.append(allRules.get(r));
                 sbuf.append('\n');
             }
         }
@@ -195,8 +221,30 @@ public class Stylesheet {
         // Note: url is not written since it depends on runtime environment.
         int index = stringStore.addString(origin.name());
         os.writeShort(index);
-        os.writeShort(rules.size());
-        for (Rule r : rules) r.writeBinary(os,stringStore);
+        final List<Rule> allRules = getRules();
+        os.writeShort(allRules.size());
+
+        // Version 7 writes the size of each rule and the selector index
+        // ahead of the rules
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        final DataOutputStream dos = new DataOutputStream(bos);
+        int nSelectors = 0;
+        for (Rule r : allRules) {
+            final int start = dos.size();
+            r.writeBinary(dos, stringStore);
+            os.writeInt(dos.size() - start);
+            nSelectors += r.getUnobservedSelectorList().size();
+        }
+        os.writeInt(nSelectors);
+        for (Rule r : allRules) {
+            final List<Selector> selectors = r.getUnobservedSelectorList();
+            os.writeShort(selectors.size());
+            for (Selector selector : selectors) {
+                writeSelectorIndex(os, selector, stringStore);
+            }
+        }
+        dos.flush();
+        bos.writeTo(os);
 
         // Version 5 adds persistence of FontFace
         List<FontFace> fontFaceList = getFontFaces();
@@ -211,6 +259,29 @@ public class Stylesheet {
         }
     }
 
+    /*
+     * Writes the id, type and style classes of the last simple selector,
+     * by which SelectorPartitioning files the selector.
+     */
+    private static void writeSelectorIndex(DataOutputStream os, Selector selector,
+                                           StringStore stringStore) throws IOException {
+        final SimpleSelector simpleSelector;
+        if (selector instanceof CompoundSelector) {
+            final List<SimpleSelector> selectors = ((CompoundSelector)selector).getSelectors();
+            simpleSelector = selectors.get(selectors.size() - 1);
+        } else {
+            simpleSelector = (SimpleSelector)selector;
+        }
+        final String id = simpleSelector.getId();
+        os.writeShort(id != null && !id.isEmpty() ? stringStore.addString(id) : -1);
+        os.writeShort(stringStore.addString(simpleSelector.getName()));
+        final List<String> styleClasses = simpleSelector.getStyleClasses();
+        os.writeShort(styleClasses.size());
+        for (String styleClass : styleClasses) {
+            os.writeShort(stringStore.addString(styleClass));
+        }
+    }
+
     // protected for unit testing
     final void readBinary(int bssVersion, DataInputStream is, String[] strings)
         throws IOException
@@ -219,11 +290,15 @@ public class Stylesheet {
         final int index = is.readShort();
         this.setOrigin(StyleOrigin.valueOf(strings[index]));
         final int nRules = is.readShort();
-        List<Rule> persistedRules = new ArrayList<Rule>(nRules);
-        for (int n=0; n<nRules; n++) {
-            persistedRules.add(Rule.readBinary(bssVersion,is,strings));
+        if (bssVersion >= 7) {
+            readRuleIndex(bssVersion, nRules, is, strings);
+        } else {
+            List<Rule> persistedRules = new ArrayList<Rule>(nRules);
+            for (int n=0; n<nRules; n++) {
+                persistedRules.add(Rule.readBinary(bssVersion,is,strings));
+            }
+            this.rules.addAll(persistedRules);
         }
-        this.rules.addAll(persistedRules);
 
         if (bssVersion >= 5) {
             List<FontFace> fontFaceList = this.getFontFaces();
@@ -238,6 +313,90 @@ public class Stylesheet {
     private String[] stringStore;
     final String[] getStringStore() { return stringStore; }
 
+    /*
+     * The rules of a binary stylesheet of version 7 are decoded lazily: one
+     * by one, when SelectorPartitioning first matches one of their selectors,
+     * or all at once when getRules() is called. Until then, the rules list
+     * is empty, and ruleData holds the rules which are not decoded yet.
+     */
+    private SelectorIndex selectorIndex;
+    private Rule[] decodedRules;
+    private byte[] ruleData;
+    private int[] ruleOffsets;
+    private int nUndecodedRules;
+    private int ruleBssVersion;
+
+    private void readRuleIndex(int bssVersion, int nRules, DataInputStream is, String[] strings)
+        throws IOException
+    {
+        ruleOffsets = new int[nRules + 1];
+        for (int r = 0; r < nRules; r++) {
+            ruleOffsets[r + 1] = ruleOffsets[r] + is.readInt();
+        }
+
+        final int nSelectors = is.readInt();
+        final String[] ids = new String[nSelectors];
+        final String[] types = new String[nSelectors];
+        final String[][] styleClasses = new String[nSelectors][];
+        final int[] selectorRules = new int[nSelectors];
+        final int[] selectorPositions = new int[nSelectors];
+        int n = 0;
+        for (int r = 0; r < nRules; r++) {
+            final int nRuleSelectors = is.readShort();
+            for (int s = 0; s < nRuleSelectors; s++, n++) {
+                final int id = is.readShort();
+                ids[n] = id >= 0 ? strings[id] : null;
+                types[n] = strings[is.readShort()];
+                final int nStyleClasses = is.readShort();
+                if (nStyleClasses > 0) {
+                    styleClasses[n] = new String[nStyleClasses];
+                    for (int c = 0; c < nStyleClasses; c++) {
+                        styleClasses[n][c] = strings[is.readShort()];
+                    }
+                }
+                selectorRules[n] = r;
+                selectorPositions[n] = s;
+            }
+        }
+        if (n != nSelectors) {
+            throw new IOException("wrong number of selectors in the selector index");
+        }
+
+        ruleData = new byte[ruleOffsets[nRules]];
+        is.readFully(ruleData);
+        decodedRules = new Rule[nRules];
+        nUndecodedRules = nRules;
+        ruleBssVersion = bssVersion;
+        selectorIndex = new SelectorIndex(ids, types, styleClasses,
+                s -> decodeRule(selectorRules[s])
+                        .getUnobservedSelectorList().get(selectorPositions[s]));
+    }
+
+    // package for testing
+    int getUndecodedRuleCount() {
+        return nUndecodedRules;
+    }
+
+    private Rule decodeRule(int r) {
+        Rule rule = decodedRules[r];
+        if (rule == null) {
+            final int offset = ruleOffsets[r];
+            try (DataInputStream is = new DataInputStream(
+                    new ByteArrayInputStream(ruleData, offset, ruleOffsets[r + 1] - offset))) {
+                rule = Rule.readBinary(ruleBssVersion, is, stringStore);
+            } catch (IOException ioe) {
+                throw new IllegalStateException(url + ": cannot decode rule " + r, ioe);
+            }
+            rule.setStylesheet(this);
+            decodedRules[r] = rule;
+            if (--nUndecodedRules == 0) {
+                ruleData = null;
+                ruleOffsets = null;
+            }
+        }
+        return rule;
+    }
+
     /** Load a binary stylesheet file from a input stream.
      * @param url the URL from which the stylesheet will be loaded
      * @return the constructed stylesheet
@@ -278,6 +437,9 @@ public class Stylesheet {
                 if (bssVersion == 2) {
                     // RT-31022
                     stylesheet.readBinary(3, dataInputStream, strings);
+                } else if (bssVersion < 7) {
+                    // the last version without a selector index
+                    stylesheet.readBinary(6, dataInputStream, strings);
                 } else {
                     stylesheet.readBinary(Stylesheet.BINARY_CSS_VERSION, dataInputStream, strings);
                 }
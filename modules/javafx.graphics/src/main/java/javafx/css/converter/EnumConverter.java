@@ -87,21 +87,24 @@ public final class EnumConverter<E extends Enum<E>> extends StyleConverter<Strin
 
         if (ename == null || ename.isEmpty()) return null;
 
-        if (converters == null || converters.containsKey(ename) == false) {
-            StyleConverter<?,?> converter = getInstance(ename);
-
-            if (converter == null) {
-                final PlatformLogger logger = Logging.getCSSLogger();
-                if (logger.isLoggable(Level.SEVERE)) {
-                    logger.severe("could not deserialize EnumConverter for " + ename);
+        // stylesheets may be loaded on any thread
+        synchronized (EnumConverter.class) {
+            if (converters == null || converters.containsKey(ename) == false) {
+                StyleConverter<?,?> converter = getInstance(ename);
+
+                if (converter == null) {
+                    final PlatformLogger logger = Logging.getCSSLogger();
+                    if (logger.isLoggable(Level.SEVERE)) {
+                        logger.severe("could not deserialize EnumConverter for " + ename);
+                    }
                 }
-            }
 
-            if (converters == null) converters = new HashMap<String,StyleConverter<?,?>>();
-            converters.put(ename, converter);
-            return converter;
+                if (converters == null) converters = new HashMap<String,StyleConverter<?,?>>();
+                converters.put(ename, converter);
+                return converter;
+            }
+            return converters.get(ename);
         }
-        return converters.get(ename);
     }
 
     private static Map<String,StyleConverter<?,?>> converters;
@@ -24,10 +24,13 @@
  */
 package javafx.scene;
 
+import java.security.AccessController;
+import java.security.PrivilegedAction;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
@@ -38,6 +41,7 @@ import javafx.beans.property.ObjectProperty;
 import javafx.beans.property.SimpleObjectProperty;
 import javafx.beans.value.WritableValue;
 import com.sun.javafx.css.CascadingStyle;
+import com.sun.javafx.css.CssProfiler;
 import javafx.css.CssMetaData;
 import javafx.css.CssParser;
 import javafx.css.FontCssMetaData;
@@ -62,6 +66,7 @@ import com.sun.javafx.css.StyleCache;
 import com.sun.javafx.css.StyleCacheEntry;
 import com.sun.javafx.css.StyleManager;
 import com.sun.javafx.css.StyleMap;
+import com.sun.javafx.scene.CssFlags;
 import javafx.css.converter.FontConverter;
 import com.sun.javafx.util.Logging;
 import com.sun.javafx.util.Utils;
@@ -430,6 +435,10 @@ final class CssStyleHelper {
         private final Map<CssMetaData, CalculatedValue> cssSetProperties;
 
         private boolean forceSlowpath = false;
+
+        // The cache entry and font of the last transition
+        private StyleCacheEntry transitionEntry;
+        private Font transitionFont;
     }
 
     private void resetToInitialValues(final Styleable styleable) {
@@ -553,6 +562,30 @@ final class CssStyleHelper {
 
     }
 
+    /*
+     * Gets the font of the node in these states from the fontSizeCache,
+     * looking it up and caching it if needed.
+     */
+    private CalculatedValue lookupCachedFont(final Node node, final StyleMap styleMap,
+                                             final Set<PseudoClass>[] transitionStates) {
+
+        final StyleCacheEntry.Key fontCacheKey = new StyleCacheEntry.Key(transitionStates, Font.getDefault());
+        CalculatedValue cachedFont = cacheContainer.fontSizeCache.get(fontCacheKey);
+
+        if (cachedFont == null) {
+
+            cachedFont = lookupFont(node, "-fx-font", styleMap, cachedFont);
+
+            if (cachedFont == SKIP) cachedFont = getCachedFont(node.getStyleableParent());
+            if (cachedFont == null) cachedFont = new CalculatedValue(Font.getDefault(), null, false);
+
+            cacheContainer.fontSizeCache.put(fontCacheKey,cachedFont);
+
+        }
+
+        return cachedFont;
+    }
+
     /**
      * Called by the Node whenever it has transitioned from one set of
      * pseudo-class states to another. This function will then lookup the
@@ -561,8 +594,12 @@ final class CssStyleHelper {
      * how things are specified in the CSS file. Currently animation support
      * is disabled until the new parser comes online with support for
      * animations and that support is detectable via the API.
+     * <p>
+     * If changedPseudoClasses is not null, then only these pseudo-classes of
+     * the node or of its parents changed since the last transition and only
+     * the properties whose styles depend on them are updated.
      */
-    void transitionToState(final Node node) {
+    void transitionToState(final Node node, final Set<PseudoClass> changedPseudoClasses) {
 
         if (cacheContainer == null) {
             return;
@@ -598,19 +635,7 @@ final class CssStyleHelper {
 
         final Set<PseudoClass>[] transitionStates = getTransitionStates(node);
 
-        final StyleCacheEntry.Key fontCacheKey = new StyleCacheEntry.Key(transitionStates, Font.getDefault());
-        CalculatedValue cachedFont = cacheContainer.fontSizeCache.get(fontCacheKey);
-
-        if (cachedFont == null) {
-
-            cachedFont = lookupFont(node, "-fx-font", styleMap, cachedFont);
-
-            if (cachedFont == SKIP) cachedFont = getCachedFont(node.getStyleableParent());
-            if (cachedFont == null) cachedFont = new CalculatedValue(Font.getDefault(), null, false);
-
-            cacheContainer.fontSizeCache.put(fontCacheKey,cachedFont);
-
-        }
+        final CalculatedValue cachedFont = lookupCachedFont(node, styleMap, transitionStates);
 
         final Font fontForRelativeSizes = (Font)cachedFont.getValue();
 
@@ -633,6 +658,27 @@ final class CssStyleHelper {
         final boolean isForceSlowpath = cacheContainer.forceSlowpath;
         cacheContainer.forceSlowpath = false;
 
+        // If only pseudo-classes changed, the values of the properties which
+        // don't depend on them are the same as in the previous state, provided
+        // that the font for relative sizes is the same. The values have to be
+        // in the cache already since the properties would otherwise be missed.
+        final boolean partial = changedPseudoClasses != null
+                && fastpath && !isForceSlowpath
+                && fontForRelativeSizes.equals(cacheContainer.transitionFont);
+
+        // Same states as far as the styles of this node are concerned
+        if (partial && cacheEntry == cacheContainer.transitionEntry) {
+            return;
+        }
+
+        cacheContainer.transitionEntry = cacheEntry;
+        cacheContainer.transitionFont = fontForRelativeSizes;
+
+        final CssProfiler profiler = CssProfiler.getDefaultBean();
+        if (profiler.getEnabled()) {
+            profiler.nodeRestyled(node.getClass(), !fastpath || isForceSlowpath);
+        }
+
         // For each property that is settable, we need to do a lookup and
         // transition to that value.
         for(int n=0; n<max; n++) {
@@ -650,6 +696,10 @@ final class CssStyleHelper {
             // to be set (usually due to a "bind").
             if (!cssMetaData.isSettable(node)) continue;
 
+            if (partial && dependsOn(cssMetaData, styleMap, changedPseudoClasses) == false) {
+                continue;
+            }
+
             final String property = cssMetaData.getProperty();
 
             CalculatedValue calculatedValue = cacheEntry.get(property);
@@ -822,6 +872,213 @@ final class CssStyleHelper {
         }
     }
 
+    /*
+     * Whether the value of the property, or of one of its sub-properties,
+     * may change if the pseudo-classes change.
+     */
+    private static boolean dependsOn(final CssMetaData<? extends Styleable, ?> cssMetaData,
+                                     final StyleMap styleMap,
+                                     final Set<PseudoClass> pseudoClasses) {
+
+        // an inherited value depends on the state of the parents
+        if (cssMetaData.isInherits()) return true;
+
+        if (styleMap.dependsOn(cssMetaData.getProperty(), pseudoClasses)) return true;
+
+        final List<CssMetaData<? extends Styleable, ?>> subProperties = cssMetaData.getSubProperties();
+        final int numSubProperties = (subProperties != null) ? subProperties.size() : 0;
+        for (int n = 0; n < numSubProperties; n++) {
+            if (dependsOn(subProperties.get(n), styleMap, pseudoClasses)) return true;
+        }
+        return false;
+    }
+
+    /*
+     * Opt-in parallel calculation of styles (-Djavafx.css.parallel=true).
+     *
+     * The slowpath of transitionToState looks up and converts the value of
+     * every property the first time a combination of style maps, pseudo-class
+     * states and font is seen, which is what makes styling a freshly loaded
+     * screen expensive. Once the style helpers and fonts of a subtree are
+     * known, these lookups only read the style maps of the nodes and their
+     * parents, so the missing cache entries of the subtree are calculated on
+     * the ForkJoin common pool before its nodes are transitioned. The
+     * transitions then take the fastpath and the properties are still only
+     * written on the FX application thread.
+     *
+     * The converters may run on the workers. The caches they share, the
+     * StyleConverter cache, the converted values kept with the ParsedValues,
+     * the image cache of StyleManager and the font factory, are thread-safe.
+     */
+    private static final boolean parallelCss =
+            AccessController.doPrivileged((PrivilegedAction<Boolean>) () ->
+                    Boolean.getBoolean("javafx.css.parallel"));
+
+    // Below this number of missing cache entries the values are calculated
+    // on the FX application thread as usual
+    private static final int MIN_PARALLEL_ENTRIES = 8;
+
+    // The Parent whose subtree is being prefetched, if any
+    private static Parent prefetchRoot = null;
+
+    private static final class PrefetchEntry {
+
+        private final CssStyleHelper helper;
+        private final Node node;
+        private final List<CssMetaData<Styleable,Object>> styleables;
+        private final StyleMap styleMap;
+        private final Set<PseudoClass>[] transitionStates;
+        private final CalculatedValue cachedFont;
+        private final StyleCache sharedCache;
+        private final StyleCacheEntry.Key key;
+        private StyleCacheEntry entry;
+
+        private PrefetchEntry(CssStyleHelper helper, Node node,
+                              List<CssMetaData<Styleable,Object>> styleables, StyleMap styleMap,
+                              Set<PseudoClass>[] transitionStates, CalculatedValue cachedFont,
+                              StyleCache sharedCache, StyleCacheEntry.Key key) {
+            this.helper = helper;
+            this.node = node;
+            this.styleables = styleables;
+            this.styleMap = styleMap;
+            this.transitionStates = transitionStates;
+            this.cachedFont = cachedFont;
+            this.sharedCache = sharedCache;
+            this.key = key;
+        }
+
+        // Called on a worker thread, does what the slowpath of
+        // transitionToState would do for the cache entry. The styleables
+        // were filtered on the FX application thread, since isSettable
+        // reads the properties of the node.
+        private void calculate() {
+            try {
+                final StyleCacheEntry cacheEntry = new StyleCacheEntry();
+                for (int n = 0, max = styleables.size(); n < max; n++) {
+                    final CssMetaData<Styleable,Object> cssMetaData = styleables.get(n);
+                    final CalculatedValue calculatedValue = helper.lookup(node, cssMetaData, styleMap,
+                            transitionStates[0], node, cachedFont);
+                    if (calculatedValue == null || calculatedValue == SKIP) continue;
+                    cacheEntry.put(cssMetaData.getProperty(), calculatedValue);
+                }
+                entry = cacheEntry;
+            } catch (RuntimeException e) {
+                // leave it to the FX application thread, which reports the error
+                entry = null;
+            }
+        }
+    }
+
+    /*
+     * Calculates the missing cache entries for the nodes below the given
+     * Parent, whose styles have just been updated in full, typically after
+     * they were reapplied. Only then are many entries likely to be missing,
+     * so the subtree is not walked for mere pseudo-class state changes.
+     * Returns false if nothing was done, otherwise endPrefetch must be
+     * called once the children of the Parent have been processed.
+     */
+    static boolean beginPrefetch(final Parent root) {
+
+        if (parallelCss == false || prefetchRoot != null) return false;
+
+        // errors are only reported from the FX application thread
+        if (StyleManager.getErrors() != null) return false;
+
+        prefetchRoot = root;
+        prefetch(root);
+        return true;
+    }
+
+    // package for testing, returns the number of cache entries added
+    static int prefetch(final Parent root) {
+
+        final List<PrefetchEntry> entries = new ArrayList<>();
+        final Map<StyleCache, Set<StyleCacheEntry.Key>> keys = new IdentityHashMap<>();
+        collectPrefetchEntries(root, entries, keys);
+
+        if (entries.size() < MIN_PARALLEL_ENTRIES) return 0;
+
+        entries.parallelStream().forEach(PrefetchEntry::calculate);
+
+        int added = 0;
+        for (int n = 0, max = entries.size(); n < max; n++) {
+            final PrefetchEntry entry = entries.get(n);
+            if (entry.entry != null && entry.sharedCache.getStyleCacheEntry(entry.key) == null) {
+                entry.sharedCache.addStyleCacheEntry(entry.key, entry.entry);
+                added += 1;
+            }
+        }
+        return added;
+    }
+
+    static void endPrefetch(final Parent root) {
+        if (prefetchRoot == root) {
+            prefetchRoot = null;
+        }
+    }
+
+    private static void collectPrefetchEntries(final Parent parent, final List<PrefetchEntry> entries,
+                                               final Map<StyleCache, Set<StyleCacheEntry.Key>> keys) {
+
+        final List<Node> children = parent.getChildren();
+        for (int n = 0, max = children.size(); n < max; n++) {
+            final Node child = children.get(n);
+            // its style helper, and those of its children, are about to be replaced
+            if (child.cssFlag == CssFlags.REAPPLY) continue;
+            final CssStyleHelper helper = child.styleHelper;
+            if (helper != null && helper.cacheContainer != null) {
+                helper.collectPrefetchEntry(child, entries, keys);
+            }
+            if (child instanceof Parent) {
+                collectPrefetchEntries((Parent)child, entries, keys);
+            }
+        }
+    }
+
+    // Does the part of transitionToState that precedes the slowpath, which
+    // also caches the font of the node for its children.
+    private void collectPrefetchEntry(final Node node, final List<PrefetchEntry> entries,
+                                      final Map<StyleCache, Set<StyleCacheEntry.Key>> keys) {
+
+        final StyleMap styleMap = getStyleMap(node);
+        if (styleMap == null) return;
+
+        // created lazily, so make sure it is not created by the workers
+        styleMap.getCascadingStyles();
+
+        final StyleCache sharedCache = StyleManager.getInstance().getSharedCache(node, node.getSubScene(), cacheContainer.styleCacheKey);
+        if (sharedCache == null) return;
+
+        final Set<PseudoClass>[] transitionStates = getTransitionStates(node);
+        final CalculatedValue cachedFont = lookupCachedFont(node, styleMap, transitionStates);
+
+        final StyleCacheEntry.Key cacheEntryKey = new StyleCacheEntry.Key(transitionStates, (Font)cachedFont.getValue());
+        if (sharedCache.getStyleCacheEntry(cacheEntryKey) != null) return;
+
+        Set<StyleCacheEntry.Key> sharedCacheKeys = keys.get(sharedCache);
+        if (sharedCacheKeys == null) {
+            sharedCacheKeys = new HashSet<>();
+            keys.put(sharedCache, sharedCacheKeys);
+        }
+        if (sharedCacheKeys.add(cacheEntryKey) == false) return;
+
+        // the same properties transitionToState would look up
+        final List<CssMetaData<? extends Styleable, ?>> styleables = node.getCssMetaData();
+        final List<CssMetaData<Styleable,Object>> settable = new ArrayList<>(styleables.size());
+        final boolean inheritOnly = styleMap.isEmpty();
+        for (int n = 0, max = styleables.size(); n < max; n++) {
+            @SuppressWarnings("unchecked") // this is a widening conversion
+            final CssMetaData<Styleable,Object> cssMetaData =
+                    (CssMetaData<Styleable,Object>)styleables.get(n);
+            if (inheritOnly && cssMetaData.isInherits() == false) continue;
+            if (!cssMetaData.isSettable(node)) continue;
+            settable.add(cssMetaData);
+        }
+
+        entries.add(new PrefetchEntry(this, node, settable, styleMap, transitionStates, cachedFont,
+                sharedCache, cacheEntryKey));
+    }
+
     /**
      * Gets the CSS CascadingStyle for the property of this node in these pseudo-class
      * states. A null style may be returned if there is no style information
@@ -1367,8 +1624,15 @@ final class CssStyleHelper {
             ParsedValue resolved = null;
             try {
 
-                ObjectProperty<StyleOrigin> whence = new SimpleObjectProperty<>(style.getOrigin());
-                resolved = resolveLookups(styleable, cssValue, styleMap, states, whence, new HashSet<>());
+                // A value without lookups resolves to itself.
+                final boolean isConstant = !cssValue.isLookup() && !cssValue.isContainsLookups();
+                ObjectProperty<StyleOrigin> whence = null;
+                if (isConstant) {
+                    resolved = cssValue;
+                } else {
+                    whence = new SimpleObjectProperty<>(style.getOrigin());
+                    resolved = resolveLookups(styleable, cssValue, styleMap, states, whence, new HashSet<>());
+                }
 
                 final String property = cssMetaData.getProperty();
 
@@ -1441,26 +1705,60 @@ final class CssStyleHelper {
                 }
 
                 final StyleConverter cssMetaDataConverter = cssMetaData.getConverter();
-                // RT-37727 - handling of properties that are insets is wonky. If the property is -fx-inset, then
-                // there isn't an issue because the converter assigns the InsetsConverter to the ParsedValue.
-                // But -my-insets will parse as an array of numbers and the parser will assign the Size sequence
-                // converter to it. So, if the CssMetaData says it uses InsetsConverter, use the InsetsConverter
-                // and not the parser assigned converter.
-                if (cssMetaDataConverter == StyleConverter.getInsetsConverter()) {
-                    if (resolved.getValue() instanceof ParsedValue) {
-                        // If you give the parser "-my-insets: 5;" you end up with a ParsedValue<ParsedValue<?,Size>, Number>
-                        // and not a ParsedValue<ParsedValue[], Number[]> so here we wrap the value into an array
-                        // to make the InsetsConverter happy.
-                        resolved = new ParsedValueImpl(new ParsedValue[] {(ParsedValue)resolved.getValue()}, null, false);
+                final StyleConverter converter = (cssMetaDataConverter == StyleConverter.getInsetsConverter()
+                        || resolved.getConverter() == null) ? cssMetaDataConverter : resolved.getConverter();
+
+                // If the value is one of the parsed values, rather than one
+                // put together from resolved lookups, and it has no relative
+                // sizes, then its converted value is the same for every node
+                // and can be kept with the parsed value.
+                final ParsedValueImpl cacheable =
+                        (!isRelative && !cssValue.isContainsLookups() && resolved instanceof ParsedValueImpl)
+                                ? (ParsedValueImpl)resolved : null;
+                if (cacheable != null) {
+                    val = cacheable.getConvertedValue(converter);
+                    if (val != null) {
+                        final CssProfiler profiler = CssProfiler.getDefaultBean();
+                        if (profiler.getEnabled()) {
+                            profiler.valueConversionCached(style.getSelector());
+                        }
+                    }
+                }
+
+                if (val == null) {
+                    final CssProfiler profiler = CssProfiler.getDefaultBean();
+                    final boolean profiling = profiler.getEnabled();
+                    final long start = profiling ? System.nanoTime() : 0;
+
+                    // RT-37727 - handling of properties that are insets is wonky. If the property is -fx-inset, then
+                    // there isn't an issue because the converter assigns the InsetsConverter to the ParsedValue.
+                    // But -my-insets will parse as an array of numbers and the parser will assign the Size sequence
+                    // converter to it. So, if the CssMetaData says it uses InsetsConverter, use the InsetsConverter
+                    // and not the parser assigned converter.
+                    if (cssMetaDataConverter == StyleConverter.getInsetsConverter()) {
+                        if (resolved.getValue() instanceof ParsedValue) {
+                            // If you give the parser "-my-insets: 5;" you end up with a ParsedValue<ParsedValue<?,Size>, Number>
+                            // and not a ParsedValue<ParsedValue[], Number[]> so here we wrap the value into an array
+                            // to make the InsetsConverter happy.
+                            resolved = new ParsedValueImpl(new ParsedValue[] {(ParsedValue)resolved.getValue()}, null, false);
+                        }
+                        val = cssMetaDataConverter.convert(resolved, fontForFontRelativeSizes);
+                    }
+                    else if (resolved.getConverter() != null)
+                        val = resolved.convert(fontForFontRelativeSizes);
+                    else
+                        val = cssMetaData.getConverter().convert(resolved, fontForFontRelativeSizes);
+
+                    if (cacheable != null) {
+                        cacheable.setConvertedValue(converter, val);
+                    }
+
+                    if (profiling) {
+                        profiler.valueConverted(style.getSelector(), System.nanoTime() - start);
                     }
-                    val = cssMetaDataConverter.convert(resolved, fontForFontRelativeSizes);
                 }
-                else if (resolved.getConverter() != null)
-                    val = resolved.convert(fontForFontRelativeSizes);
-                else
-                    val = cssMetaData.getConverter().convert(resolved, fontForFontRelativeSizes);
 
-                final StyleOrigin origin = whence.get();
+                final StyleOrigin origin = whence != null ? whence.get() : style.getOrigin();
                 return new CalculatedValue(val, origin, isRelative);
 
             } catch (ClassCastException cce) {
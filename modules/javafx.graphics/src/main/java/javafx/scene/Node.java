@@ -974,6 +974,7 @@ public abstract class Node implements EventTarget, Styleable {
                         // If flag is REAPPLY, then reapplyCSS() will just return and the call to
                         // notifyParentsOfInvalidatedCSS() will be skipped thus leaving the node un-styled.
                         cssFlag = CssFlags.CLEAN;
+                        cssTransitionStates = null;
                     }
                     updateTreeVisible(true);
                     oldParent = newParent;
@@ -9285,10 +9286,19 @@ public abstract class Node implements EventTarget, Styleable {
      */
     final CssFlags getCSSFlags() { return cssFlag; }
 
+    /*
+     * If the cssFlag is UPDATE because pseudo-classes of this node or of its
+     * ancestors changed, then these are the pseudo-classes that changed and
+     * only the styles that depend on them need to be updated. If null, all
+     * styles are updated. The set is shared with the children, so it is
+     * replaced rather than modified.
+     */
+    Set<PseudoClass> cssTransitionStates = null;
+
     /**
      * Called when a CSS pseudo-class change would cause styles to be reapplied.
      */
-    private void requestCssStateTransition() {
+    private void requestCssStateTransition(PseudoClass pseudoClass) {
         // If there is no scene, then we cannot make it dirty, so we'll leave
         // the flag alone
         if (getScene() == null) return;
@@ -9297,7 +9307,15 @@ public abstract class Node implements EventTarget, Styleable {
         // to UPDATE to ensure that NodeHelper.processCSS is called on the node.
         if (cssFlag == CssFlags.CLEAN || cssFlag == CssFlags.DIRTY_BRANCH) {
             cssFlag = CssFlags.UPDATE;
+            cssTransitionStates = new PseudoClassState();
+            cssTransitionStates.add(pseudoClass);
             notifyParentsOfInvalidatedCSS();
+        } else if (cssFlag == CssFlags.UPDATE && cssTransitionStates != null
+                && cssTransitionStates.contains(pseudoClass) == false) {
+            final Set<PseudoClass> states = new PseudoClassState();
+            states.addAll(cssTransitionStates);
+            states.add(pseudoClass);
+            cssTransitionStates = states;
         }
     }
 
@@ -9338,7 +9356,7 @@ public abstract class Node implements EventTarget, Styleable {
         if (modified && styleHelper != null) {
             final boolean isTransition = styleHelper.pseudoClassStateChanged(pseudoClass);
             if (isTransition) {
-                requestCssStateTransition();
+                requestCssStateTransition(pseudoClass);
             }
         }
    }
@@ -9373,6 +9391,7 @@ public abstract class Node implements EventTarget, Styleable {
                 // call subScene.notifyParentsOfInvalidatedCSS() until
                 // Scene.root gets marked dirty, via the recurisve call:
                 subScene.cssFlag = CssFlags.UPDATE;
+                subScene.cssTransitionStates = null;
                 subScene.notifyParentsOfInvalidatedCSS();
             }
         }
@@ -9488,6 +9507,7 @@ public abstract class Node implements EventTarget, Styleable {
         }
 
         cssFlag = CssFlags.UPDATE;
+        cssTransitionStates = null;
 
     }
 
@@ -9564,6 +9584,7 @@ public abstract class Node implements EventTarget, Styleable {
 
         // update, unless reapply
         if (cssFlag != CssFlags.REAPPLY) cssFlag = CssFlags.UPDATE;
+        cssTransitionStates = null;
 
         //
         // RT-28394 - need to see if any ancestor has a flag UPDATE
@@ -9617,6 +9638,10 @@ public abstract class Node implements EventTarget, Styleable {
         // Nothing to do...
         if (cssFlag == CssFlags.CLEAN) return;
 
+        final Set<PseudoClass> transitionStates =
+                (cssFlag == CssFlags.UPDATE) ? cssTransitionStates : null;
+        cssTransitionStates = null;
+
         // if REAPPLY was deferred, process it now...
         if (cssFlag == CssFlags.REAPPLY) {
             reapplyCss();
@@ -9628,7 +9653,7 @@ public abstract class Node implements EventTarget, Styleable {
 
         // Transition to the new state and apply styles
         if (styleHelper != null && getScene() != null) {
-            styleHelper.transitionToState(this);
+            styleHelper.transitionToState(this, transitionStates);
         }
     }
 
@@ -40,7 +40,9 @@ import com.sun.javafx.util.TempState;
 import com.sun.javafx.util.Utils;
 import com.sun.javafx.collections.TrackableObservableList;
 import com.sun.javafx.collections.VetoableListDecorator;
+import javafx.css.PseudoClass;
 import javafx.css.Selector;
+import com.sun.javafx.css.PseudoClassState;
 import com.sun.javafx.css.StyleManager;
 import com.sun.javafx.geom.BaseBounds;
 import com.sun.javafx.geom.PickRay;
@@ -1377,6 +1379,10 @@ public abstract class Parent extends Node {
         // Nothing to do...
         if (cssFlag == CssFlags.CLEAN) return;
 
+        // Read before the super implementation clears it
+        final Set<PseudoClass> transitionStates =
+                (cssFlag == CssFlags.UPDATE) ? cssTransitionStates : null;
+
         // RT-29254 - If DIRTY_BRANCH, pass control to Node#processCSS. This avoids calling NodeHelper.processCSS on
         // this node and all of its children when css doesn't need updated, recalculated, or reapplied.
         if (cssFlag == CssFlags.DIRTY_BRANCH) {
@@ -1390,6 +1396,20 @@ public abstract class Parent extends Node {
         // avoid the following call to children.toArray if there are no children
         if (children.isEmpty()) return;
 
+        // Calculate the styles of the children in parallel, if enabled, unless
+        // only the styles depending on some pseudo-class states are updated
+        final boolean prefetch = transitionStates == null && CssStyleHelper.beginPrefetch(this);
+        try {
+            processChildrenCSS(transitionStates);
+        } finally {
+            if (prefetch) {
+                CssStyleHelper.endPrefetch(this);
+            }
+        }
+    }
+
+    private void processChildrenCSS(Set<PseudoClass> transitionStates) {
+
         //
         // RT-33103
         //
@@ -1413,8 +1433,20 @@ public abstract class Parent extends Node {
             // If the parent styles are being updated, recalculated or
             // reapplied, then make sure the children get the same treatment.
             // Unless the child is already more dirty than this parent (RT-29074).
+            // Only the styles of the children which depend on the pseudo-classes
+            // that changed need to be updated, if that is all that changed.
             if(CssFlags.UPDATE.compareTo(child.cssFlag) > 0) {
                 child.cssFlag = CssFlags.UPDATE;
+                child.cssTransitionStates = transitionStates;
+            } else if (child.cssFlag == CssFlags.UPDATE && child.cssTransitionStates != null) {
+                if (transitionStates == null) {
+                    child.cssTransitionStates = null;
+                } else if (child.cssTransitionStates.containsAll(transitionStates) == false) {
+                    final Set<PseudoClass> states = new PseudoClassState();
+                    states.addAll(child.cssTransitionStates);
+                    states.addAll(transitionStates);
+                    child.cssTransitionStates = states;
+                }
             }
             NodeHelper.processCSS(child);
         }
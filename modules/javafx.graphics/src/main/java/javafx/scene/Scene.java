@@ -31,6 +31,7 @@ import com.sun.javafx.util.Logging;
 import com.sun.javafx.util.Utils;
 import com.sun.javafx.application.PlatformImpl;
 import com.sun.javafx.collections.TrackableObservableList;
+import com.sun.javafx.css.CssProfiler;
 import com.sun.javafx.css.StyleManager;
 import com.sun.javafx.cursor.CursorFrame;
 import com.sun.javafx.event.EventQueue;
@@ -469,6 +470,11 @@ public class Scene implements EventTarget {
                         public Accessible getAccessible(Scene scene) {
                             return scene.getAccessible();
                         }
+
+                        @Override
+                        public void doCSSLayoutSyncForSnapshot(Scene scene, Node node) {
+                            scene.doCSSLayoutSyncForSnapshot(node);
+                        }
                     });
         }
 
@@ -2502,6 +2508,9 @@ public class Scene implements EventTarget {
             Scene.this.doCSSPass();
 
             if (PULSE_LOGGING_ENABLED) {
+                if (CssProfiler.getDefaultBean().getEnabled()) {
+                    CssProfiler.getDefaultBean().logPass();
+                }
                 PulseLogger.newPhase("Layout Pass");
             }
             Scene.this.doLayoutPass();
@@ -635,6 +635,7 @@ public class SubScene extends Node {
 
         if (getRoot().cssFlag == CssFlags.CLEAN) {
             getRoot().cssFlag = cssFlag;
+            getRoot().cssTransitionStates = null;
         }
         SubSceneHelper.superProcessCSS(this);
         getRoot().processCSS();
@@ -645,7 +646,10 @@ public class SubScene extends Node {
         Parent root = getRoot();
         if (root.isDirty(DirtyBits.NODE_CSS)) {
             root.clearDirty(DirtyBits.NODE_CSS);
-            if (cssFlag == CssFlags.CLEAN) { cssFlag = CssFlags.UPDATE; }
+            if (cssFlag == CssFlags.CLEAN) {
+                cssFlag = CssFlags.UPDATE;
+                cssTransitionStates = null;
+            }
         }
         super.processCSS();
     }
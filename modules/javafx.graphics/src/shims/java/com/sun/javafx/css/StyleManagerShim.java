@@ -62,6 +62,23 @@ public class StyleManagerShim {
         sm.cacheContainerMap.clear();
     }
 
+    public boolean get_sharedStyleCache() {
+        return StyleManager.sharedStyleCache;
+    }
+
+    public void set_sharedStyleCache(boolean value) {
+        StyleManager.sharedStyleCache = value;
+    }
+
+    public void sharedCacheContainerMap_clear() {
+        sm.sharedCacheContainerMap.clear();
+        StyleManager.sharedCacheSize = 0;
+    }
+
+    public int get_sharedCacheSize() {
+        return StyleManager.sharedCacheSize;
+    }
+
     public int platformUserAgentStylesheetContainers_indexOf(String fname) {
         return indexOf(sm.platformUserAgentStylesheetContainers, fname);
     }
@@ -55,4 +55,18 @@ public class NGGroupShim extends NGGroup {
                 dirtyRegionContainer, tx, pvTx);
     }
 
+    //--------------------------------------------
+
+    public static boolean isRenderListsEnabled() {
+        return NGGroup.renderListsEnabled;
+    }
+
+    public static void setRenderListsEnabled(boolean enabled) {
+        NGGroup.renderListsEnabled = enabled;
+    }
+
+    public static GrowableDataBuffer getRenderList(NGGroup group) {
+        return group.getRenderList();
+    }
+
 }
@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package com.sun.prism.impl.ps;
+
+import com.sun.javafx.geom.Shape;
+import com.sun.javafx.geom.transform.BaseTransform;
+import com.sun.prism.ResourceFactory;
+import com.sun.prism.Texture;
+import java.util.function.Supplier;
+
+public class CachingShapeRepShim {
+
+    private final CachingShapeRepState.MaskCache cache;
+
+    /**
+     * Creates an empty mask cache whose pages use the textures returned by
+     * the given supplier.
+     */
+    public CachingShapeRepShim(Supplier<Texture> pageTextures) {
+        cache = new CachingShapeRepState.MaskCache() {
+            @Override
+            Texture createPageTexture(ResourceFactory factory) {
+                return pageTextures.get();
+            }
+        };
+    }
+
+    /**
+     * Caches the antialiased fill mask of the given shape, or links to the
+     * mask cached for an equal shape, and returns the handle of the mask.
+     */
+    public Object get(Shape shape) {
+        CachingShapeRepState.MaskTexData texData = new CachingShapeRepState.MaskTexData();
+        cache.get(null, texData, shape, null, BaseTransform.IDENTITY_TRANSFORM,
+                  shape.getBounds(), false, true);
+        return texData;
+    }
+
+    /**
+     * Renders the mask again through its handle, as CachingShapeRep does
+     * for a shape that did not change since its last render.
+     */
+    public boolean use(Object mask) {
+        CachingShapeRepState.MaskTexData texData = (CachingShapeRepState.MaskTexData) mask;
+        if (!cache.use(texData)) {
+            return false;
+        }
+        cache.unlock(texData);
+        return true;
+    }
+
+    public boolean isCached(Object mask) {
+        CachingShapeRepState.MaskTexData texData = (CachingShapeRepState.MaskTexData) mask;
+        return cache.isCached(texData);
+    }
+}
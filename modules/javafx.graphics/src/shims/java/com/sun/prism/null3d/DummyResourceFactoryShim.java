@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package com.sun.prism.null3d;
+
+import com.sun.prism.ResourceFactory;
+import com.sun.prism.impl.BaseContext;
+import java.util.Arrays;
+import java.util.List;
+
+public class DummyResourceFactoryShim {
+
+    /**
+     * Returns a resource factory of the null pipeline, whose textures and
+     * rendering do nothing.
+     */
+    public static ResourceFactory createResourceFactory() {
+        return new DummyResourceFactory(null);
+    }
+
+    // x, y, z and two pairs of texture coordinates, as in VertexBuffer
+    private static final int FLOATS_PER_VERT = 7;
+
+    /**
+     * Returns a context of the null pipeline, whose textures and rendering
+     * do nothing, ready to render. The coordinates of the vertices flushed
+     * by the context are added to the given list.
+     */
+    public static BaseContext createContext(List<float[]> vertices) {
+        return new DummyContext(null, new DummyResourceFactory(null)) {
+            {
+                // validate a state, as drawing to a surface would
+                setRenderTarget(null, null, false, false);
+            }
+
+            @Override
+            protected void renderQuads(float coordArray[], byte colorArray[], int numVertices) {
+                vertices.add(Arrays.copyOf(coordArray, numVertices * FLOATS_PER_VERT));
+            }
+        };
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package com.sun.prism.sw;
+
+import com.sun.glass.utils.NativeLibLoader;
+import com.sun.javafx.geom.Rectangle;
+import com.sun.javafx.geom.Shape;
+import com.sun.javafx.geom.transform.BaseTransform;
+import com.sun.pisces.PiscesRenderer;
+import com.sun.prism.BasicStroke;
+
+public class SWTiledShapeRendererShim {
+
+    public static void loadLibrary() {
+        NativeLibLoader.loadLibrary("prism_sw");
+    }
+
+    private final SWContext.ShapeRenderer renderer;
+
+    /**
+     * Creates a Marlin shape renderer, split into at most maxBands bands of
+     * at least tileHeight rows if maxBands is not 0.
+     */
+    public SWTiledShapeRendererShim(boolean doublePrecision, int maxBands, int tileHeight) {
+        final SWContext.ShapeRenderer direct = doublePrecision
+                ? new SWContext.DMarlinShapeRenderer()
+                : new SWContext.MarlinShapeRenderer();
+        renderer = (maxBands != 0)
+                ? new SWTiledShapeRenderer(direct, doublePrecision, maxBands, tileHeight)
+                : direct;
+    }
+
+    public void renderShape(PiscesRenderer pr, Shape shape, BasicStroke stroke,
+                            BaseTransform tr, Rectangle clip, boolean antialiasedShape) {
+        renderer.renderShape(pr, shape, stroke, tr, clip, antialiasedShape);
+    }
+
+    public void dispose() {
+        renderer.dispose();
+    }
+
+    /**
+     * Records one row of alpha deltas with the block flags variant of
+     * setAndClearRelativeAlphas if blkFlags is not null, then emits it.
+     */
+    public static void recordAndEmitRow(PiscesRenderer pr, int x, int w, int[] blkFlags,
+                                        int[] alphaDeltas, int pix_y, int pix_from, int pix_to)
+    {
+        final SWTiledShapeRenderer.BandAlphaRecorder recorder =
+                new SWTiledShapeRenderer.BandAlphaRecorder();
+        recorder.initConsumer(x, pix_y, w, 1);
+        recorder.setMaxAlpha(255);
+        if (blkFlags != null) {
+            recorder.setAndClearRelativeAlphas(blkFlags, alphaDeltas, pix_y, pix_from, pix_to);
+        } else {
+            recorder.setAndClearRelativeAlphas(alphaDeltas, pix_y, pix_from, pix_to);
+        }
+        recorder.emitRows(pr, 0);
+    }
+}
@@ -53,6 +53,10 @@ public class StylesheetShim extends Stylesheet {
         ss.readBinary(bssVersion, is, strings);
     }
 
+    public static int getUndecodedRuleCount(Stylesheet ss) {
+        return ss.getUndecodedRuleCount();
+    }
+
     public static Stylesheet getStylesheet() {
         return new Stylesheet();
     }
@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package test.com.sun.javafx.css;
+
+import com.sun.javafx.css.CssProfiler;
+import java.io.IOException;
+import java.lang.ref.WeakReference;
+import javafx.css.CssParser;
+import javafx.css.Stylesheet;
+import javafx.scene.Group;
+import javafx.scene.Scene;
+import javafx.scene.shape.Rectangle;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class CssProfilerTest {
+
+    private final CssProfiler profiler = CssProfiler.getDefaultBean();
+
+    @Before
+    public void setUp() {
+        profiler.reset();
+        profiler.setEnabled(true);
+    }
+
+    @After
+    public void tearDown() {
+        profiler.setEnabled(false);
+        profiler.reset();
+    }
+
+    @Test
+    public void testProfileMatchesAndRestyles() {
+
+        Rectangle rect = new Rectangle(50,50);
+        rect.getStyleClass().add("rect");
+        Rectangle other = new Rectangle(50,50);
+        other.getStyleClass().add("other");
+        Scene scene = new Scene(new Group(rect, other));
+        scene.setUserAgentStylesheet("test/com/sun/javafx/css/ua0.css");
+        scene.getRoot().applyCss();
+
+        assertTrue(profiler.getMatchAttempts() >= 1);
+        assertTrue(profiler.getMatches() >= 1);
+        // ua0.css may already have been converted, and cached, by another test
+        assertTrue(profiler.getConversions() + profiler.getCachedConversions() >= 1);
+        assertTrue(profiler.getRestyles() >= 1);
+
+        String[] selectors = profiler.getSelectorStatistics();
+        assertTrue(selectors.length > 0);
+        assertTrue(selectors[0], selectors[0].startsWith("*.rect"));
+        assertTrue(selectors[0], selectors[0].contains("ua0.css"));
+
+        boolean found = false;
+        for (String line : profiler.getNodeStatistics()) {
+            found |= line.startsWith(Rectangle.class.getName() + ":");
+        }
+        assertTrue(found);
+    }
+
+    @Test
+    public void testCachedConversionsAreCounted() {
+
+        Rectangle rect = new Rectangle(50,50) {{ getStyleClass().add("rect"); }};
+        new Scene(new Group(rect)).setUserAgentStylesheet("test/com/sun/javafx/css/ua0.css");
+        rect.getScene().getRoot().applyCss();
+
+        profiler.reset();
+
+        // a new scene has its own style cache, but the converted values
+        // kept with the parsed values of the stylesheet are reused
+        Rectangle other = new Rectangle(50,50) {{ getStyleClass().add("rect"); }};
+        new Scene(new Group(other)).setUserAgentStylesheet("test/com/sun/javafx/css/ua0.css");
+        other.getScene().getRoot().applyCss();
+
+        assertTrue(profiler.getCachedConversions() >= 1);
+        assertTrue(profiler.getSelectorStatistics()[0], profiler.getSelectorStatistics()[0].contains(" cached conversions"));
+    }
+
+    @Test
+    public void testNothingRecordedWhenDisabled() {
+
+        profiler.setEnabled(false);
+
+        Rectangle rect = new Rectangle(50,50) {{ getStyleClass().add("rect"); }};
+        Scene scene = new Scene(new Group(rect));
+        scene.setUserAgentStylesheet("test/com/sun/javafx/css/ua0.css");
+        scene.getRoot().applyCss();
+
+        assertEquals(0, profiler.getMatchAttempts());
+        assertEquals(0, profiler.getRestyles());
+        assertEquals(0, profiler.getSelectorStatistics().length);
+    }
+
+    @Test
+    public void testRemovedStylesheetIsNotKept() throws IOException {
+
+        Stylesheet stylesheet = new CssParser().parse("testRemovedStylesheetIsNotKept", ".dropped { -fx-fill: red; }");
+        profiler.selectorMatched(stylesheet.getRules().get(0).getSelectors().get(0), true);
+        assertEquals(1, profiler.getSelectorStatistics().length);
+
+        WeakReference<Stylesheet> ref = new WeakReference<>(stylesheet);
+        stylesheet = null;
+        for (int n = 0; n < 10 && ref.get() != null; n++) {
+            System.gc();
+        }
+
+        assertNull(ref.get());
+        assertEquals(0, profiler.getSelectorStatistics().length);
+    }
+}
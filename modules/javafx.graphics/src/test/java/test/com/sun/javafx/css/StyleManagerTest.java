@@ -33,6 +33,7 @@ import javafx.css.CssParser;
 import javafx.css.StyleOrigin;
 import javafx.css.StyleableProperty;
 import javafx.css.Stylesheet;
+import javafx.geometry.Insets;
 import javafx.scene.Group;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
@@ -41,6 +42,7 @@ import javafx.scene.layout.Pane;
 import javafx.scene.paint.Color;
 import javafx.scene.paint.Paint;
 import javafx.scene.shape.Rectangle;
+import javafx.scene.text.Text;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -1061,6 +1063,29 @@ public class StyleManagerTest {
 
     }
 
+    @Test
+    public void testConvertedValuesAreSharedUnlessRelative() {
+
+        Pane pane1 = new Pane();
+        pane1.setStyle("-fx-padding: 1 2 3 4;");
+        Pane pane2 = new Pane();
+        pane2.setStyle("-fx-padding: 1 2 3 4; -fx-opacity: 0.5;");
+
+        Text text1 = new Text("1");
+        text1.setStyle("-fx-font-size: 10px; -fx-stroke-width: 2em;");
+        Text text2 = new Text("2");
+        text2.setStyle("-fx-font-size: 20px; -fx-stroke-width: 2em;");
+
+        Scene scene = new Scene(new Group(pane1, pane2, text1, text2));
+        scene.getRoot().applyCss();
+
+        assertEquals(new Insets(1, 2, 3, 4), pane1.getPadding());
+        assertSame(pane1.getPadding(), pane2.getPadding());
+
+        assertEquals(20, text1.getStrokeWidth(), 0.0001);
+        assertEquals(40, text2.getStrokeWidth(), 0.0001);
+    }
+
     @Test
     public void testConcurrentAccess() {
         final int NUM_THREADS = 10;
@@ -1099,4 +1124,90 @@ public class StyleManagerTest {
         assertFalse("Exception during CSS processing on BG thread", err.get());
     }
 
+
+    @Test
+    public void testSharedCacheContainerForScenesWithSameStylesheets() {
+        StyleManagerShim sm = StyleManagerShim.getInstance();
+        sm.set_sharedStyleCache(true);
+        try {
+            Rectangle rect1 = new Rectangle();
+            rect1.getStyleClass().add("rect");
+            Scene scene1 = new Scene(new Group(rect1));
+            scene1.getStylesheets().add("/test/com/sun/javafx/css/ua1.css");
+            scene1.getRoot().applyCss();
+
+            Object container = StyleManager.cacheContainerMap.get(scene1.getRoot());
+            assertNotNull(container);
+            final int size = sm.get_sharedCacheSize();
+            assertTrue(size > 0);
+
+            Rectangle rect2 = new Rectangle();
+            rect2.getStyleClass().add("rect");
+            Scene scene2 = new Scene(new Group(rect2));
+            scene2.getStylesheets().add("/test/com/sun/javafx/css/ua1.css");
+            scene2.getRoot().applyCss();
+
+            // the second scene finds everything in the cache
+            assertSame(container, StyleManager.cacheContainerMap.get(scene2.getRoot()));
+            assertEquals(size, sm.get_sharedCacheSize());
+            assertEquals(Color.YELLOW, rect2.getStroke());
+
+            Rectangle rect3 = new Rectangle();
+            rect3.getStyleClass().add("rect");
+            Scene scene3 = new Scene(new Group(rect3));
+            scene3.getStylesheets().add("/test/com/sun/javafx/css/ua2.css");
+            scene3.getRoot().applyCss();
+
+            assertNotSame(container, StyleManager.cacheContainerMap.get(scene3.getRoot()));
+            assertTrue(size < sm.get_sharedCacheSize());
+            assertEquals(Color.GREEN, rect3.getStroke());
+        } finally {
+            sm.set_sharedStyleCache(false);
+            sm.sharedCacheContainerMap_clear();
+        }
+    }
+
+    @Test
+    public void testSharedCacheContainerChangesWithSceneStylesheets() {
+        StyleManagerShim sm = StyleManagerShim.getInstance();
+        sm.set_sharedStyleCache(true);
+        try {
+            Rectangle rect1 = new Rectangle();
+            rect1.getStyleClass().add("rect");
+            Scene scene1 = new Scene(new Group(rect1));
+            scene1.getStylesheets().add("/test/com/sun/javafx/css/ua1.css");
+            scene1.getRoot().applyCss();
+
+            Rectangle rect2 = new Rectangle();
+            rect2.getStyleClass().add("rect");
+            Scene scene2 = new Scene(new Group(rect2));
+            scene2.getStylesheets().add("/test/com/sun/javafx/css/ua1.css");
+            scene2.getRoot().applyCss();
+
+            Object container = StyleManager.cacheContainerMap.get(scene1.getRoot());
+            assertSame(container, StyleManager.cacheContainerMap.get(scene2.getRoot()));
+            final int size = sm.get_sharedCacheSize();
+
+            scene2.getStylesheets().add("/test/com/sun/javafx/css/ua2.css");
+            scene2.getRoot().applyCss();
+
+            // the other scene keeps the container and its styles
+            assertNotSame(container, StyleManager.cacheContainerMap.get(scene2.getRoot()));
+            assertSame(container, StyleManager.cacheContainerMap.get(scene1.getRoot()));
+            assertTrue(size < sm.get_sharedCacheSize());
+            assertEquals(Color.GREEN, rect2.getStroke());
+            assertEquals(Color.BLUE, rect2.getFill());
+            assertEquals(Color.YELLOW, rect1.getStroke());
+
+            scene2.getStylesheets().remove("/test/com/sun/javafx/css/ua2.css");
+            scene2.getRoot().applyCss();
+
+            assertSame(container, StyleManager.cacheContainerMap.get(scene2.getRoot()));
+            assertEquals(Color.YELLOW, rect2.getStroke());
+        } finally {
+            sm.set_sharedStyleCache(false);
+            sm.sharedCacheContainerMap_clear();
+        }
+    }
+
 }
@@ -64,8 +64,10 @@ import javafx.util.Pair;
 
 import java.io.File;
 import java.io.InputStream;
+import java.nio.IntBuffer;
 import java.security.AccessControlContext;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Future;
 
 /**
@@ -718,6 +720,23 @@ public class StubToolkit extends Toolkit {
         throw new UnsupportedOperationException();
     }
 
+    private final List<Pair<ImageRenderingContext, CompletableFuture<IntBuffer>>> pixelRequests = new ArrayList<>();
+
+    @Override
+    public CompletableFuture<IntBuffer> renderToPixels(ImageRenderingContext context) {
+        final CompletableFuture<IntBuffer> result = new CompletableFuture<>();
+        pixelRequests.add(new Pair<>(context, result));
+        return result;
+    }
+
+    /**
+     * The requests of renderToPixels, in the order they were queued. Their
+     * futures are completed by the tests, as the renderer would do.
+     */
+    public List<Pair<ImageRenderingContext, CompletableFuture<IntBuffer>>> getPixelRequests() {
+        return pixelRequests;
+    }
+
     @Override public boolean canStartNestedEventLoop() {
         return false;
     }
@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package test.com.sun.javafx.scene;
+
+import com.sun.javafx.scene.SnapshotService;
+import com.sun.javafx.tk.Toolkit;
+import java.lang.ref.WeakReference;
+import java.nio.IntBuffer;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import javafx.scene.Group;
+import javafx.scene.Parent;
+import javafx.scene.shape.Rectangle;
+import javafx.util.Pair;
+import org.junit.Before;
+import org.junit.Test;
+import test.com.sun.javafx.pgstub.StubToolkit;
+
+import static org.junit.Assert.*;
+
+public class SnapshotServiceTest {
+
+    private List<Pair<Toolkit.ImageRenderingContext, CompletableFuture<IntBuffer>>> requests;
+
+    @Before
+    public void setUp() {
+        requests = ((StubToolkit) Toolkit.getToolkit()).getPixelRequests();
+        requests.clear();
+    }
+
+    private static Parent createRoot() {
+        return new Group(new Rectangle(10, 20));
+    }
+
+    // completes the request as the renderer would
+    private void render(int index) {
+        final Pair<Toolkit.ImageRenderingContext, CompletableFuture<IntBuffer>> request = requests.get(index);
+        request.getValue().complete(IntBuffer.allocate(request.getKey().width * request.getKey().height));
+    }
+
+    @Test
+    public void testSnapshotQueuesRenderRequest() {
+        final Parent root = createRoot();
+
+        final CompletableFuture<IntBuffer> result = SnapshotService.snapshot(root, 10, 20, 1.5);
+
+        assertFalse(result.isDone());
+        assertEquals(1, requests.size());
+        assertEquals(15, requests.get(0).getKey().width);
+        assertEquals(30, requests.get(0).getKey().height);
+        assertNotNull(requests.get(0).getKey().root);
+        assertNotNull(root.getScene());
+
+        render(0);
+
+        assertEquals(15 * 30, result.join().capacity());
+    }
+
+    @Test
+    public void testRequestsOfSameRootAreChained() {
+        final Parent root = createRoot();
+
+        final CompletableFuture<IntBuffer> first = SnapshotService.snapshot(root, 10, 20, 1);
+        final CompletableFuture<IntBuffer> second = SnapshotService.snapshot(root, 10, 20, 2);
+
+        // the second request is only prepared once the first is rendered
+        assertEquals(1, requests.size());
+        assertFalse(second.isDone());
+
+        render(0);
+
+        assertTrue(first.isDone());
+        assertEquals(2, requests.size());
+        assertEquals(20, requests.get(1).getKey().width);
+        assertFalse(second.isDone());
+
+        render(1);
+
+        assertEquals(20 * 40, second.join().capacity());
+    }
+
+    @Test
+    public void testRequestsOfOtherRootsAreNotChained() {
+        SnapshotService.snapshot(createRoot(), 10, 20, 1);
+        SnapshotService.snapshot(createRoot(), 10, 20, 1);
+
+        assertEquals(2, requests.size());
+    }
+
+    @Test
+    public void testFailedRequestDoesNotBlockNextRequest() {
+        final Parent root = createRoot();
+
+        final CompletableFuture<IntBuffer> first = SnapshotService.snapshot(root, 10, 20, 1);
+        final CompletableFuture<IntBuffer> second = SnapshotService.snapshot(root, 10, 20, 1);
+        requests.get(0).getValue().completeExceptionally(new IllegalStateException());
+
+        assertTrue(first.isCompletedExceptionally());
+        assertEquals(2, requests.size());
+
+        render(1);
+
+        assertFalse(second.isCompletedExceptionally());
+        assertTrue(second.isDone());
+    }
+
+    @Test
+    public void testRenderedPixelsAreNotRetained() {
+        final Parent root = createRoot();
+
+        SnapshotService.snapshot(root, 10, 20, 1);
+        IntBuffer buffer = IntBuffer.allocate(200);
+        final WeakReference<IntBuffer> pixels = new WeakReference<>(buffer);
+        requests.get(0).getValue().complete(buffer);
+        requests.clear();
+        buffer = null;
+
+        for (int i = 0; i < 10 && pixels.get() != null; i++) {
+            System.gc();
+        }
+
+        // the root is still alive, but its completed request was dropped
+        assertNull(pixels.get());
+        assertNotNull(root.getScene());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidSize() {
+        SnapshotService.snapshot(createRoot(), 0, 20, 1);
+    }
+}
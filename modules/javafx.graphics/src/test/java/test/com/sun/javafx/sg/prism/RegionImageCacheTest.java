@@ -0,0 +1,210 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package test.com.sun.javafx.sg.prism;
+
+import com.sun.javafx.geom.Rectangle;
+import com.sun.javafx.sg.prism.RegionImageCacheShim;
+import com.sun.prism.Graphics;
+import com.sun.prism.RTTexture;
+import com.sun.prism.ResourceFactory;
+import com.sun.prism.Texture.WrapMode;
+import com.sun.prism.impl.PrismSettings;
+import com.sun.prism.null3d.DummyResourceFactoryShim;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Checks how the region image cache allocates its pages to images, and which
+ * image or page it evicts once all of them are full.
+ */
+public class RegionImageCacheTest {
+
+    private static final int SIZE = 290;
+
+    private ResourceFactory factory;
+    private Graphics g;
+    private RegionImageCacheShim cache;
+    private int nextKey;
+
+    @Before
+    public void setUp() {
+        assumeTrue(PrismSettings.regionCachePages == 4 &&
+                   PrismSettings.regionCacheMaxImageSize == 300);
+        factory = DummyResourceFactoryShim.createResourceFactory();
+        g = factory.createRTTexture(16, 16, WrapMode.CLAMP_NOT_NEEDED).createGraphics();
+        cache = new RegionImageCacheShim(factory);
+        nextKey = 0;
+    }
+
+    private static class Image {
+        final Integer key;
+        final Rectangle rect;
+        final RTTexture page;
+
+        Image(Integer key, Rectangle rect, RTTexture page) {
+            this.key = key;
+            this.rect = rect;
+            this.page = page;
+        }
+    }
+
+    /* Requests the location of a new image, which must be rendered */
+    private Image add(int size) {
+        Integer key = nextKey++;
+        Rectangle rect = new Rectangle(0, 0, size, size);
+        assertTrue(cache.getImageLocation(key, rect, g));
+        assertFalse(rect.isEmpty());
+        return new Image(key, rect, cache.getBackingStore());
+    }
+
+    /* Requests the location of a cached image, returns true if it is still cached */
+    private boolean request(Image image) {
+        Rectangle rect = new Rectangle(0, 0, image.rect.width, image.rect.height);
+        if (cache.getImageLocation(image.key, rect, g)) {
+            return false;
+        }
+        assertEquals(image.rect, rect);
+        assertSame(image.page, cache.getBackingStore());
+        return true;
+    }
+
+    /* Adds images until they fill all the pages */
+    private List<Image> fillPages() {
+        List<Image> images = new ArrayList<>();
+        images.add(add(SIZE));
+        while (images.get(images.size() - 1).page == images.get(0).page) {
+            images.add(add(SIZE));
+        }
+        final int perPage = images.size() - 1;
+        while (images.size() < perPage * PrismSettings.regionCachePages) {
+            images.add(add(SIZE));
+        }
+        List<RTTexture> pages = new ArrayList<>();
+        for (Image image : images) {
+            if (!pages.contains(image.page)) {
+                pages.add(image.page);
+            }
+        }
+        assertEquals(PrismSettings.regionCachePages, pages.size());
+        return images;
+    }
+
+    @Test
+    public void testImagesShareAPage() {
+        assertTrue(cache.isImageCachable(SIZE, SIZE));
+        Image image1 = add(SIZE);
+        Image image2 = add(SIZE);
+        assertSame(image1.page, image2.page);
+        assertSame(image1.page, factory.getRegionTexture());
+        assertTrue(request(image1));
+        assertTrue(request(image2));
+    }
+
+    @Test
+    public void testNewPageIsTheRegionTexture() {
+        Image first = add(SIZE);
+        Image image = first;
+        while (image.page == first.page) {
+            image = add(SIZE);
+        }
+        // the super shader must batch the images of the page in use
+        assertSame(image.page, factory.getRegionTexture());
+        assertTrue(request(first));
+        assertSame(first.page, factory.getRegionTexture());
+    }
+
+    @Test
+    public void testLeastRecentlyRequestedImageIsEvicted() {
+        List<Image> images = fillPages();
+        Image lru = images.get(images.size() / 2);
+        for (Image image : images) {
+            if (image != lru) {
+                assertTrue(request(image));
+            }
+        }
+
+        Image image = add(SIZE);
+        assertEquals(lru.rect, image.rect);
+        assertSame(lru.page, image.page);
+        assertSame(image.page, factory.getRegionTexture());
+        // only that image has been evicted
+        for (Image other : images) {
+            if (other != lru) {
+                assertTrue(request(other));
+            }
+        }
+        assertTrue(request(image));
+        assertFalse(request(lru));
+    }
+
+    @Test
+    public void testSmallerImageReusesTheArea() {
+        List<Image> images = fillPages();
+        for (int i = 1; i < images.size(); i++) {
+            assertTrue(request(images.get(i)));
+        }
+
+        // too large for the space left in the pages
+        Image image = add(200);
+        assertEquals(images.get(0).rect.x, image.rect.x);
+        assertEquals(images.get(0).rect.y, image.rect.y);
+        assertSame(images.get(0).page, image.page);
+        // the area is still the one of the evicted image
+        for (int i = 1; i < images.size(); i++) {
+            assertTrue(request(images.get(i)));
+        }
+        Image next = add(SIZE);
+        assertEquals(images.get(0).rect, next.rect);
+        assertFalse(request(image));
+    }
+
+    @Test
+    public void testLargerImageEvictsPage() {
+        List<Image> images = fillPages();
+        Image lru = images.get(0);
+        for (int i = 1; i < images.size(); i++) {
+            assertTrue(request(images.get(i)));
+        }
+
+        // no cached image is large enough to make room for it
+        Image image = add(SIZE + 8);
+        assertSame(lru.page, image.page);
+        for (Image other : images) {
+            if (other.page != lru.page) {
+                assertTrue(request(other));
+            }
+        }
+        for (Image other : images) {
+            if (other.page == lru.page) {
+                assertFalse(request(other));
+            }
+        }
+    }
+}
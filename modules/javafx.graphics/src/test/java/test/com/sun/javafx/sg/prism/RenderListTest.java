@@ -0,0 +1,279 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package test.com.sun.javafx.sg.prism;
+
+import java.util.ArrayList;
+import java.util.List;
+import com.sun.javafx.geom.transform.BaseTransform;
+import com.sun.javafx.sg.prism.NGGroup;
+import com.sun.javafx.sg.prism.GrowableDataBuffer;
+import com.sun.javafx.sg.prism.NGGroupShim;
+import com.sun.javafx.sg.prism.NGNode;
+import com.sun.javafx.sg.prism.NGNodeShim;
+import com.sun.javafx.sg.prism.NodePath;
+import com.sun.prism.Graphics;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Checks that replaying the render lists of the groups renders the same
+ * nodes with the same transforms as walking the tree.
+ */
+public class RenderListTest extends NGTestBase {
+
+    private final List<String> log = new ArrayList<>();
+    private boolean renderListsEnabled;
+    private boolean logDepthTest;
+
+    private NGGroup root, g1, g2, g3;
+    private LeafNode leafC, leafD, leafF;
+
+    @Before
+    public void setup() {
+        renderListsEnabled = NGGroupShim.isRenderListsEnabled();
+
+        // root
+        //  +- A
+        //  +- g1 (translated)
+        //  |   +- B
+        //  |   +- g2 (scaled)
+        //  |   |   +- C
+        //  |   +- D
+        //  +- E
+        //  +- g3 (opacity)
+        //      +- F
+        root = new NGGroup();
+        g1 = new NGGroup();
+        g2 = new NGGroup();
+        g3 = new NGGroup();
+        leafC = new LeafNode("C");
+        leafD = new LeafNode("D");
+        leafF = new LeafNode("F");
+        root.add(-1, new LeafNode("A"));
+        root.add(-1, g1);
+        g1.add(-1, new LeafNode("B"));
+        g1.add(-1, g2);
+        g2.add(-1, leafC);
+        g1.add(-1, leafD);
+        root.add(-1, new LeafNode("E"));
+        root.add(-1, g3);
+        g3.add(-1, leafF);
+        translate(g1, 10, 20);
+        transform(g2, BaseTransform.getScaleInstance(2, 3));
+        g3.setOpacity(0.5f);
+    }
+
+    @After
+    public void cleanup() {
+        NGGroupShim.setRenderListsEnabled(renderListsEnabled);
+    }
+
+    private List<String> render(boolean useRenderLists) {
+        return render(useRenderLists, null);
+    }
+
+    private List<String> render(boolean useRenderLists, NodePath renderRoot) {
+        NGGroupShim.setRenderListsEnabled(useRenderLists);
+        log.clear();
+        final TestGraphics g = new TestGraphics() {
+            @Override
+            public void setDepthTest(boolean depthTest) {
+                super.setDepthTest(depthTest);
+                if (logDepthTest) {
+                    log.add("depthTest " + depthTest);
+                }
+            }
+        };
+        if (renderRoot != null) {
+            renderRoot.reset();
+            g.setRenderRoot(renderRoot);
+        }
+        root.render(g);
+        return new ArrayList<>(log);
+    }
+
+    @Test
+    public void testReplayMatchesTraversal() {
+        final List<String> expected = render(false);
+        assertEquals(6, expected.size());
+        // recorded
+        assertEquals(expected, render(true));
+        // replayed
+        assertEquals(expected, render(true));
+    }
+
+    @Test
+    public void testTransformChangeInvalidatesRenderList() {
+        render(true);
+        translate(g2, 5, 7);
+        final List<String> actual = render(true);
+        assertEquals(render(false), actual);
+    }
+
+    @Test
+    public void testChildrenChangeInvalidatesRenderList() {
+        render(true);
+        g2.add(0, new LeafNode("G"));
+        g1.remove(0);
+        final List<String> actual = render(true);
+        assertEquals(render(false), actual);
+        assertEquals(6, actual.size());
+    }
+
+    @Test
+    public void testVisibilityChangeInvalidatesRenderList() {
+        render(true);
+        g2.setVisible(false);
+        List<String> actual = render(true);
+        assertEquals(render(false), actual);
+        assertEquals(5, actual.size());
+        render(true);
+        g2.setVisible(true);
+        actual = render(true);
+        assertEquals(render(false), actual);
+        assertEquals(6, actual.size());
+    }
+
+    @Test
+    public void testFlattenedGroupsAreCleanAfterRendering() {
+        render(true);
+        assertTrue(g1.isClean());
+        assertTrue(g2.isClean());
+        assertTrue(leafC.isClean());
+        leafC.setVisible(false);
+        assertFalse(root.isClean());
+        render(true);
+        assertTrue(root.isClean());
+        assertTrue(g2.isClean());
+    }
+
+    @Test
+    public void testLeafChangeKeepsRenderLists() {
+        render(true);
+        final GrowableDataBuffer rootList = NGGroupShim.getRenderList(root);
+        final GrowableDataBuffer g3List = NGGroupShim.getRenderList(g3);
+        assertNotNull(rootList);
+        assertNotNull(g3List);
+        // C and D are rendered from the list of root, F from the list of g3
+        leafC.setVisible(false);
+        translate(leafD, 5, 7);
+        leafF.setVisible(false);
+        assertSame(rootList, NGGroupShim.getRenderList(root));
+        assertSame(g3List, NGGroupShim.getRenderList(g3));
+        final List<String> actual = render(true);
+        assertSame(rootList, NGGroupShim.getRenderList(root));
+        assertSame(g3List, NGGroupShim.getRenderList(g3));
+        assertEquals(render(false), actual);
+        assertEquals(4, actual.size());
+    }
+
+    @Test
+    public void testFlatteningChangeInvalidatesRenderList() {
+        render(true);
+        assertNotNull(NGGroupShim.getRenderList(root));
+        // g3 is flattened into the list of root once it is opaque
+        g3.setOpacity(1f);
+        assertNull(NGGroupShim.getRenderList(root));
+        assertEquals(render(false), render(true));
+        g3.add(-1, new LeafNode("G"));
+        assertNull(NGGroupShim.getRenderList(root));
+        final List<String> actual = render(true);
+        assertEquals(render(false), actual);
+        assertEquals(7, actual.size());
+    }
+
+    @Test
+    public void testInvalidRenderListIsReturnedToPool() {
+        render(true);
+        final GrowableDataBuffer list = NGGroupShim.getRenderList(root);
+        assertNotNull(list);
+        translate(g2, 5, 7);
+        assertNull(NGGroupShim.getRenderList(root));
+        final List<GrowableDataBuffer> buffers = new ArrayList<>();
+        try {
+            boolean pooled = false;
+            for (int i = 0; i < 100 && !pooled; i++) {
+                final GrowableDataBuffer buf = GrowableDataBuffer.getBuffer(1024);
+                buffers.add(buf);
+                pooled = buf == list;
+            }
+            assertTrue(pooled);
+        } finally {
+            buffers.forEach(GrowableDataBuffer::returnBuffer);
+        }
+    }
+
+    @Test
+    public void testReplayAppliesDepthTestOfFlattenedGroups() {
+        g1.setDepthTest(false);
+        logDepthTest = true;
+        final List<String> expected = render(false);
+        assertTrue(expected.contains("depthTest false"));
+        assertEquals(expected, render(true));
+        assertEquals(expected, render(true));
+    }
+
+    @Test
+    public void testRenderRootUsesRenderList() {
+        final NodePath renderRoot = new NodePath();
+        renderRoot.add(leafD);
+        renderRoot.add(g1);
+        renderRoot.add(root);
+        final List<String> expected = render(false, renderRoot);
+        assertEquals(3, expected.size());
+        assertEquals(expected, render(true, renderRoot));
+        assertNotNull(NGGroupShim.getRenderList(root));
+        assertNotNull(NGGroupShim.getRenderList(g1));
+        assertEquals(expected, render(true, renderRoot));
+        // the full rendering replays the same list
+        final GrowableDataBuffer list = NGGroupShim.getRenderList(root);
+        assertEquals(render(false), render(true));
+        assertSame(list, NGGroupShim.getRenderList(root));
+    }
+
+    private final class LeafNode extends NGNodeShim {
+        private final String name;
+
+        LeafNode(String name) {
+            this.name = name;
+            setTransformMatrix(BaseTransform.IDENTITY_TRANSFORM);
+        }
+
+        @Override
+        protected void renderContent(Graphics g) {
+            final BaseTransform tx = g.getTransformNoClone();
+            log.add(name + " " + tx.getMxx() + " " + tx.getMxy() + " " + tx.getMxt()
+                    + " " + tx.getMyx() + " " + tx.getMyy() + " " + tx.getMyt());
+        }
+
+        @Override
+        protected boolean hasOverlappingContents() {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,230 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package test.com.sun.prism.impl;
+
+import com.sun.javafx.font.FontStrike;
+import com.sun.javafx.font.Glyph;
+import com.sun.javafx.geom.BaseBounds;
+import com.sun.javafx.geom.RectBounds;
+import com.sun.javafx.geom.transform.BaseTransform;
+import com.sun.javafx.scene.text.GlyphList;
+import com.sun.prism.Texture;
+import com.sun.prism.impl.BaseContext;
+import com.sun.prism.impl.GlyphCache;
+import com.sun.prism.impl.PrismSettings;
+import com.sun.prism.null3d.DummyResourceFactoryShim;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Checks how the glyph cache allocates its atlas pages to strikes and which
+ * page it evicts once all of them are in use. The glyphs are large enough
+ * for a page to hold only 25 of them.
+ */
+public class GlyphCacheTest {
+
+    private static final int GLYPH_SIZE = 200;
+    private static final int GLYPHS_PER_LIST = 20;
+
+    private BaseContext context;
+
+    private static Object defaultValue(Class<?> type) {
+        if (type == boolean.class) return false;
+        if (type == int.class) return 0;
+        if (type == long.class) return 0L;
+        if (type == float.class) return 0f;
+        if (type == double.class) return 0d;
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, String name, Object... values) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type },
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "equals": return proxy == args[0];
+                        case "hashCode": return System.identityHashCode(proxy);
+                        case "toString": return name;
+                    }
+                    for (int i = 0; i < values.length; i += 2) {
+                        if (values[i].equals(method.getName())) {
+                            return values[i + 1];
+                        }
+                    }
+                    return defaultValue(method.getReturnType());
+                });
+    }
+
+    private static FontStrike createStrike(String name) {
+        Glyph glyph = proxy(Glyph.class, "glyph",
+                "getPixelData", new byte[GLYPH_SIZE * GLYPH_SIZE],
+                "getWidth", GLYPH_SIZE,
+                "getHeight", GLYPH_SIZE,
+                "getPixelXAdvance", (float) GLYPH_SIZE);
+        return proxy(FontStrike.class, name, "getGlyph", glyph);
+    }
+
+    /* A list of distinct glyphs, each placed right of the previous one */
+    private static GlyphList createGlyphList(int count) {
+        return (GlyphList) Proxy.newProxyInstance(GlyphList.class.getClassLoader(),
+                new Class<?>[] { GlyphList.class },
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getGlyphCount": return count;
+                        case "getGlyphCode": return (Integer) args[0] + 1;
+                        case "getPosX": return (float) ((Integer) args[0] * GLYPH_SIZE);
+                        case "getCharOffset": return args[0];
+                        default: return defaultValue(method.getReturnType());
+                    }
+                });
+    }
+
+    /* Draws the glyphs of the list with the given strike, as drawString does */
+    private GlyphCache draw(FontStrike strike, int count) {
+        GlyphList gl = createGlyphList(count);
+        GlyphCache cache = context.getGlyphCache(strike);
+        cache.cacheGlyphs(gl, 0, 0, BaseTransform.IDENTITY_TRANSFORM, null);
+        Texture tex = cache.getBackingStore();
+        cache.render(context, gl, 0, 0, 0, 0, null, null,
+                     BaseTransform.IDENTITY_TRANSFORM, null);
+        assertSame(tex, cache.getBackingStore());
+        return cache;
+    }
+
+    @Before
+    public void setUp() {
+        assumeTrue(PrismSettings.glyphCachePages == 4 &&
+                   PrismSettings.glyphCacheWidth == 1024 &&
+                   PrismSettings.glyphCacheHeight == 1024);
+        context = DummyResourceFactoryShim.createContext(new ArrayList<>());
+    }
+
+    @Test
+    public void testStrikesShareAPage() {
+        GlyphCache cache1 = draw(createStrike("s1"), 10);
+        GlyphCache cache2 = draw(createStrike("s2"), 10);
+        assertSame(cache1.getBackingStore(), cache2.getBackingStore());
+    }
+
+    @Test
+    public void testStrikeMovesToNewPageWhenFull() {
+        FontStrike strike1 = createStrike("s1");
+        GlyphCache cache1 = draw(strike1, GLYPHS_PER_LIST);
+        Texture page1 = cache1.getBackingStore();
+        GlyphCache cache2 = draw(createStrike("s2"), GLYPHS_PER_LIST);
+        assertNotSame(page1, cache2.getBackingStore());
+        // the first strike keeps its page and its glyphs
+        assertSame(cache1, context.getGlyphCache(strike1));
+        assertSame(page1, cache1.getBackingStore());
+    }
+
+    @Test
+    public void testCachedGlyphsRenderLikeUncachedGlyphs() {
+        List<float[]> vertices = new ArrayList<>();
+        context = DummyResourceFactoryShim.createContext(vertices);
+        GlyphList gl = createGlyphList(GLYPHS_PER_LIST);
+        GlyphCache cache = context.getGlyphCache(createStrike("s1"));
+        BaseBounds clip = new RectBounds(300, 0, 1500, 100);
+        BaseTransform xform = BaseTransform.getTranslateInstance(10, 20);
+
+        // render the glyphs resolved by cacheGlyphs
+        cache.cacheGlyphs(gl, 5, 5, xform, clip);
+        cache.render(context, gl, 5, 5, 0, 0, null, null, xform, clip);
+        context.flushVertexBuffer();
+        // render looks the glyphs up itself if cacheGlyphs was not called
+        cache.render(context, gl, 5, 5, 0, 0, null, null, xform, clip);
+        context.flushVertexBuffer();
+
+        assertEquals(2, vertices.size());
+        // the 7 glyphs from 205 to 1405 are not clipped out, each a quad
+        // of 4 vertices with 7 floats
+        assertEquals(7 * 4 * 7, vertices.get(0).length);
+        assertArrayEquals(vertices.get(1), vertices.get(0), 0f);
+    }
+
+    @Test
+    public void testListLargerThanAPage() {
+        GlyphCache cache = draw(createStrike("s1"), 30);
+        Texture page = cache.getBackingStore();
+        draw(createStrike("s1"), 30);
+        assertSame(page, cache.getBackingStore());
+    }
+
+    private FontStrike[] fillPages() {
+        FontStrike[] strikes = new FontStrike[PrismSettings.glyphCachePages];
+        Texture[] pages = new Texture[strikes.length];
+        for (int i = 0; i < strikes.length; i++) {
+            strikes[i] = createStrike("s" + i);
+            pages[i] = draw(strikes[i], GLYPHS_PER_LIST).getBackingStore();
+            for (int j = 0; j < i; j++) {
+                assertNotSame(pages[j], pages[i]);
+            }
+        }
+        return strikes;
+    }
+
+    @Test
+    public void testLeastRecentlyUsedPageIsEvicted() {
+        FontStrike[] strikes = fillPages();
+        GlyphCache[] caches = new GlyphCache[strikes.length];
+        for (int i = 0; i < strikes.length; i++) {
+            caches[i] = context.getGlyphCache(strikes[i]);
+        }
+        Texture page0 = caches[0].getBackingStore();
+
+        GlyphCache cache = draw(createStrike("new"), GLYPHS_PER_LIST);
+        // the first page is evicted, along with the glyphs of its strike
+        assertSame(page0, cache.getBackingStore());
+        assertNotSame(caches[0], context.getGlyphCache(strikes[0]));
+        for (int i = 1; i < strikes.length; i++) {
+            assertSame(caches[i], context.getGlyphCache(strikes[i]));
+        }
+    }
+
+    @Test
+    public void testPageOfDrawnStrikeIsNotEvicted() {
+        FontStrike[] strikes = fillPages();
+        GlyphCache[] caches = new GlyphCache[strikes.length];
+        for (int i = 0; i < strikes.length; i++) {
+            caches[i] = context.getGlyphCache(strikes[i]);
+        }
+        Texture page1 = caches[1].getBackingStore();
+
+        // drawing the first strike again keeps its page
+        assertSame(caches[0], draw(strikes[0], GLYPHS_PER_LIST));
+        GlyphCache cache = draw(createStrike("new"), GLYPHS_PER_LIST);
+        assertSame(page1, cache.getBackingStore());
+        assertSame(caches[0], context.getGlyphCache(strikes[0]));
+        assertNotSame(caches[1], context.getGlyphCache(strikes[1]));
+        assertSame(caches[2], context.getGlyphCache(strikes[2]));
+        assertSame(caches[3], context.getGlyphCache(strikes[3]));
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package test.com.sun.prism.impl;
+
+import com.sun.glass.ui.Pixels;
+import com.sun.javafx.geom.Rectangle;
+import com.sun.prism.impl.QueuedPixelSource;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Checks which pixels of a frame QueuedPixelSource.copyPixels() copies into
+ * a buffer which may still hold the previous frame.
+ */
+public class QueuedPixelSourceTest {
+
+    private static final int W = 8;
+    private static final int H = 6;
+
+    private final QueuedPixelSource source = new QueuedPixelSource(false);
+
+    private static class TestPixels extends Pixels {
+        TestPixels() {
+            super(W, H, IntBuffer.allocate(W * H));
+        }
+
+        @Override protected void _fillDirectByteBuffer(ByteBuffer bb) { }
+        @Override protected void _attachInt(long ptr, int w, int h, IntBuffer ints, int[] array, int offset) { }
+        @Override protected void _attachByte(long ptr, int w, int h, ByteBuffer bytes, byte[] array, int offset) { }
+    }
+
+    /* A frame whose pixels tell their frame and their location */
+    private static int[] frame(int n) {
+        int[] pixels = new int[W * H];
+        for (int i = 0; i < pixels.length; i++) {
+            pixels[i] = n * 1000 + i;
+        }
+        return pixels;
+    }
+
+    private static int[] contents(Pixels pixels) {
+        IntBuffer bits = (IntBuffer) pixels.getPixels();
+        int[] contents = new int[W * H];
+        bits.get(contents);
+        return contents;
+    }
+
+    /* The frame n inside the regions and the frame 1 outside */
+    private static int[] expected(int n, Rectangle... regions) {
+        int[] pixels = frame(1);
+        for (int y = 0; y < H; y++) {
+            for (int x = 0; x < W; x++) {
+                for (Rectangle r : regions) {
+                    if (r.contains(x, y)) {
+                        pixels[y * W + x] = frame(n)[y * W + x];
+                    }
+                }
+            }
+        }
+        return pixels;
+    }
+
+    /* Pixels holding frame 1, the latest frame enqueued */
+    private Pixels latestFrame() {
+        Pixels pixels = new TestPixels();
+        source.copyPixels(pixels, frame(1), null, 0);
+        assertArrayEquals(frame(1), contents(pixels));
+        source.enqueuePixels(pixels);
+        return pixels;
+    }
+
+    @Test
+    public void testReusedBufferCopiesDirtyRegions() {
+        Pixels pixels = latestFrame();
+        Rectangle[] regions = { new Rectangle(1, 1, 3, 2), new Rectangle(5, 3, 2, 3) };
+        source.copyPixels(pixels, frame(2), regions, 2);
+        assertArrayEquals(expected(2, regions), contents(pixels));
+    }
+
+    @Test
+    public void testOnlyCountedRegionsAreCopied() {
+        Pixels pixels = latestFrame();
+        Rectangle[] regions = { new Rectangle(1, 1, 3, 2), new Rectangle(5, 3, 2, 3) };
+        source.copyPixels(pixels, frame(2), regions, 1);
+        assertArrayEquals(expected(2, regions[0]), contents(pixels));
+    }
+
+    @Test
+    public void testNewBufferCopiesWholeFrame() {
+        latestFrame();
+        Pixels pixels = new TestPixels();
+        source.copyPixels(pixels, frame(2), new Rectangle[] { new Rectangle(1, 1, 3, 2) }, 1);
+        assertArrayEquals(frame(2), contents(pixels));
+    }
+
+    @Test
+    public void testNoRegionsCopiesWholeFrame() {
+        Pixels pixels = latestFrame();
+        source.copyPixels(pixels, frame(2), new Rectangle[] { new Rectangle(1, 1, 3, 2) }, 0);
+        assertArrayEquals(frame(2), contents(pixels));
+    }
+
+    @Test
+    public void testRegionsAreClippedToTheBuffer() {
+        Pixels pixels = latestFrame();
+        Rectangle[] regions = {
+            new Rectangle(-2, -1, 4, 3),
+            new Rectangle(6, 4, 10, 10),
+            new Rectangle(-5, 2, 3, 2),
+            new Rectangle(3, H, 2, 2),
+        };
+        source.copyPixels(pixels, frame(2), regions, regions.length);
+        assertArrayEquals(expected(2, new Rectangle(0, 0, 2, 2), new Rectangle(6, 4, 2, 2)),
+                          contents(pixels));
+    }
+}
@@ -0,0 +1,206 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package test.com.sun.prism.impl.packrect;
+
+import com.sun.javafx.geom.Rectangle;
+import com.sun.prism.impl.packrect.RectanglePacker;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Checks the placements of both packing strategies and compares their
+ * occupancy on size traces shaped like the requests of the glyph cache and
+ * the region image cache. Running main prints the occupancy of each trace.
+ */
+public class RectanglePackerTest {
+
+    // The default prism.glyphCacheWidth and prism.glyphCacheHeight
+    private static final int GLYPH_CACHE_SIZE = 1024;
+    // The size of each half of a RegionImageCache page
+    private static final int REGION_CACHE_SIZE = 1024;
+
+    /**
+     * Glyph images of a UI mixing several font sizes: for each glyph the
+     * height depends on whether it has ascenders or descenders and the
+     * width on the character, all padded by one pixel as the glyph cache
+     * does.
+     */
+    private static List<Rectangle> glyphTrace() {
+        final Random random = new Random(1);
+        final int[] fontSizes = { 9, 11, 12, 13, 15, 18, 24, 32, 48 };
+        final List<Rectangle> trace = new ArrayList<>();
+        for (int i = 0; i < 10000; i++) {
+            int fontSize = fontSizes[random.nextInt(fontSizes.length)];
+            double w = 0.2 + 0.7 * random.nextDouble();
+            double h;
+            switch (random.nextInt(4)) {
+                case 0:  h = 0.5; break;   // x-height
+                case 1:  h = 0.95; break;  // descender
+                default: h = 0.72; break;  // cap height or ascender
+            }
+            trace.add(new Rectangle((int) Math.ceil(w * fontSize) + 1,
+                                    (int) Math.ceil(h * fontSize) + 1));
+        }
+        return trace;
+    }
+
+    /**
+     * Region backgrounds as cached by NGRegion: mostly short bars such as
+     * buttons, text fields and headers, with a few panels, padded by one
+     * pixel on the right and bottom edges. RegionImageCache gives the
+     * regions taller than 64 pixels to its vertical packer and the others
+     * to its horizontal one, the trace only keeps those of one packer.
+     */
+    private static List<Rectangle> regionTrace(boolean vertical) {
+        final Random random = new Random(2);
+        final List<Rectangle> trace = new ArrayList<>();
+        for (int i = 0; i < 4000; i++) {
+            int w, h;
+            switch (random.nextInt(5)) {
+                case 0:  w = 40 + random.nextInt(100); h = 22 + random.nextInt(8); break;
+                case 1:  w = 100 + random.nextInt(200); h = 24 + random.nextInt(6); break;
+                case 2:  w = 16 + random.nextInt(8); h = 16 + random.nextInt(8); break;
+                case 3:  w = 60 + random.nextInt(240); h = 2 + random.nextInt(4); break;
+                default: w = 80 + random.nextInt(220); h = 40 + random.nextInt(200); break;
+            }
+            if (h + 1 > 64 == vertical) {
+                trace.add(new Rectangle(w + 1, h + 1));
+            }
+        }
+        return trace;
+    }
+
+    /**
+     * Offers every rectangle of the trace to the packer, checks that the
+     * placed rectangles are inside the area and do not overlap, and returns
+     * the fraction of the area they cover.
+     */
+    private static double fill(List<Rectangle> trace, int size, boolean vertical,
+                               boolean skyline)
+    {
+        final int x = 3, y = 5;
+        final RectanglePacker packer =
+                new RectanglePacker(null, x, y, size, size, vertical, skyline);
+        final boolean[] used = new boolean[size * size];
+        long area = 0;
+        for (Rectangle r : trace) {
+            Rectangle rect = new Rectangle(r.width, r.height);
+            if (!packer.add(rect)) {
+                continue;
+            }
+            assertEquals(r.width, rect.width);
+            assertEquals(r.height, rect.height);
+            assertTrue(rect.x >= x && rect.x + rect.width <= x + size);
+            assertTrue(rect.y >= y && rect.y + rect.height <= y + size);
+            for (int py = rect.y - y; py < rect.y - y + rect.height; py++) {
+                for (int px = rect.x - x; px < rect.x - x + rect.width; px++) {
+                    assertFalse(rect + " overlaps", used[py * size + px]);
+                    used[py * size + px] = true;
+                }
+            }
+            area += (long) rect.width * rect.height;
+        }
+        assertTrue(area > 0);
+        return (double) area / ((long) size * size);
+    }
+
+    @Test
+    public void testShelfPlacement() {
+        fill(glyphTrace(), GLYPH_CACHE_SIZE, false, false);
+        fill(regionTrace(false), REGION_CACHE_SIZE, false, false);
+        fill(regionTrace(true), REGION_CACHE_SIZE, true, false);
+    }
+
+    @Test
+    public void testSkylinePlacement() {
+        fill(glyphTrace(), GLYPH_CACHE_SIZE, false, true);
+        fill(regionTrace(false), REGION_CACHE_SIZE, false, true);
+        fill(regionTrace(true), REGION_CACHE_SIZE, true, true);
+    }
+
+    @Test
+    public void testSkylineOccupancyGlyphs() {
+        assertTrue(fill(glyphTrace(), GLYPH_CACHE_SIZE, false, true) >
+                   fill(glyphTrace(), GLYPH_CACHE_SIZE, false, false));
+    }
+
+    @Test
+    public void testSkylineOccupancyRegions() {
+        assertTrue(fill(regionTrace(false), REGION_CACHE_SIZE, false, true) >
+                   fill(regionTrace(false), REGION_CACHE_SIZE, false, false));
+    }
+
+    @Test
+    public void testSkylineOccupancyTallRegions() {
+        assertTrue(fill(regionTrace(true), REGION_CACHE_SIZE, true, true) >
+                   fill(regionTrace(true), REGION_CACHE_SIZE, true, false));
+    }
+
+    @Test
+    public void testSkylineClear() {
+        final RectanglePacker packer = new RectanglePacker(null, 0, 0, 64, 64, false, true);
+        Rectangle rect = new Rectangle(64, 64);
+        assertTrue(packer.add(rect));
+        assertFalse(packer.add(new Rectangle(1, 1)));
+        packer.clear();
+        rect = new Rectangle(64, 64);
+        assertTrue(packer.add(rect));
+        assertEquals(0, rect.x);
+        assertEquals(0, rect.y);
+    }
+
+    @Test
+    public void testSkylineFillsGapsBelowTallerRectangles() {
+        final RectanglePacker packer = new RectanglePacker(null, 0, 0, 64, 64, false, true);
+        Rectangle tall = new Rectangle(32, 64);
+        Rectangle low = new Rectangle(32, 16);
+        assertTrue(packer.add(tall));
+        assertTrue(packer.add(low));
+        // The remaining 32x48 area above the low rectangle must still be usable
+        Rectangle fill = new Rectangle(32, 48);
+        assertTrue(packer.add(fill));
+        assertEquals(low.x, fill.x);
+        assertEquals(16, fill.y);
+    }
+
+    public static void main(String[] args) {
+        System.out.printf("glyphs  (%dx%d): shelf %.1f%%, skyline %.1f%%%n",
+                          GLYPH_CACHE_SIZE, GLYPH_CACHE_SIZE,
+                          100 * fill(glyphTrace(), GLYPH_CACHE_SIZE, false, false),
+                          100 * fill(glyphTrace(), GLYPH_CACHE_SIZE, false, true));
+        System.out.printf("regions (%dx%d): shelf %.1f%%, skyline %.1f%%%n",
+                          REGION_CACHE_SIZE, REGION_CACHE_SIZE,
+                          100 * fill(regionTrace(false), REGION_CACHE_SIZE, false, false),
+                          100 * fill(regionTrace(false), REGION_CACHE_SIZE, false, true));
+        System.out.printf("tall regions (%dx%d): shelf %.1f%%, skyline %.1f%%%n",
+                          REGION_CACHE_SIZE, REGION_CACHE_SIZE,
+                          100 * fill(regionTrace(true), REGION_CACHE_SIZE, true, false),
+                          100 * fill(regionTrace(true), REGION_CACHE_SIZE, true, true));
+    }
+}
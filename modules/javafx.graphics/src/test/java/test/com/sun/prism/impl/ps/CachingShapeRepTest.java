@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package test.com.sun.prism.impl.ps;
+
+import com.sun.javafx.geom.RoundRectangle2D;
+import com.sun.prism.PixelFormat;
+import com.sun.prism.Texture;
+import com.sun.prism.impl.PrismSettings;
+import com.sun.prism.impl.ps.CachingShapeRepShim;
+import java.lang.reflect.Proxy;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Checks which page of the shape mask cache is evicted once all pages are
+ * full. Each mask is large enough for a page to hold only four of them.
+ */
+public class CachingShapeRepTest {
+
+    private static final int MASKS_PER_PAGE = 4;
+
+    private CachingShapeRepShim cache;
+    private Object[] masks;
+
+    private static Object defaultValue(Class<?> type) {
+        if (type == boolean.class) return false;
+        if (type == int.class) return 0;
+        if (type == long.class) return 0L;
+        if (type == float.class) return 0f;
+        if (type == double.class) return 0d;
+        return null;
+    }
+
+    private static Texture createTexture() {
+        return (Texture) Proxy.newProxyInstance(Texture.class.getClassLoader(),
+                new Class<?>[] { Texture.class },
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getPixelFormat": return PixelFormat.BYTE_ALPHA;
+                        case "equals": return proxy == args[0];
+                        case "hashCode": return System.identityHashCode(proxy);
+                        default: return defaultValue(method.getReturnType());
+                    }
+                });
+    }
+
+    @Before
+    public void setUp() {
+        assumeTrue(PrismSettings.shapeCachePages == 4);
+        cache = new CachingShapeRepShim(CachingShapeRepTest::createTexture);
+        // fill all pages, in order
+        masks = new Object[PrismSettings.shapeCachePages * MASKS_PER_PAGE];
+        for (int i = 0; i < masks.length; i++) {
+            masks[i] = add(i);
+        }
+        for (Object mask : masks) {
+            assertTrue(cache.isCached(mask));
+        }
+    }
+
+    private Object add(int i) {
+        return cache.get(new RoundRectangle2D(0, 0, 480 + i, 480 + i, 40, 40));
+    }
+
+    private void assertPage(int page, boolean cached) {
+        for (int i = page * MASKS_PER_PAGE; i < (page + 1) * MASKS_PER_PAGE; i++) {
+            assertEquals("mask " + i, cached, cache.isCached(masks[i]));
+        }
+    }
+
+    @Test
+    public void testLeastRecentlyFilledPageIsEvicted() {
+        Object mask = add(masks.length);
+        assertTrue(cache.isCached(mask));
+        assertPage(0, false);
+        assertPage(1, true);
+        assertPage(2, true);
+        assertPage(3, true);
+        assertFalse(cache.use(masks[0]));
+    }
+
+    @Test
+    public void testPageOfRenderedMaskIsNotEvicted() {
+        // the shapes on the first page are rendered again from their mask
+        for (int i = 0; i < MASKS_PER_PAGE; i++) {
+            assertTrue(cache.use(masks[i]));
+        }
+        Object mask = add(masks.length);
+        assertTrue(cache.isCached(mask));
+        assertPage(0, true);
+        assertPage(1, false);
+        assertPage(2, true);
+        assertPage(3, true);
+    }
+
+    @Test
+    public void testPagesOfSingleRenderedMasksAreNotEvicted() {
+        // a single mask is enough to keep its page
+        assertTrue(cache.use(masks[MASKS_PER_PAGE + 1]));
+        assertTrue(cache.use(masks[1]));
+        add(masks.length);
+        assertPage(0, true);
+        assertPage(1, true);
+        assertPage(2, false);
+        assertPage(3, true);
+    }
+}
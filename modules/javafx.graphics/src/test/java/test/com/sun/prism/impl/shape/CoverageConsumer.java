@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package test.com.sun.prism.impl.shape;
+
+import com.sun.javafx.geom.Rectangle;
+import com.sun.marlin.MarlinAlphaConsumer;
+
+/**
+ * Accumulates the coverage of the rows into an area the same way as the SW
+ * pipeline emits them, ignoring the pixels outside of the area.
+ */
+final class CoverageConsumer implements MarlinAlphaConsumer {
+    private final Rectangle area;
+    final int[][] coverage;
+    int x, y, w, h;
+
+    CoverageConsumer(Rectangle area) {
+        this.area = area;
+        this.coverage = new int[area.height][area.width];
+    }
+
+    void produce(int minX, int minY, int maxX, int maxY) {
+        x = minX;
+        y = minY;
+        w = maxX - minX;
+        h = maxY - minY;
+    }
+
+    @Override public int getOriginX() { return x; }
+    @Override public int getOriginY() { return y; }
+    @Override public int getWidth() { return w; }
+    @Override public int getHeight() { return h; }
+    @Override public void setMaxAlpha(int maxalpha) { }
+    @Override public boolean supportBlockFlags() { return false; }
+    @Override public void clearAlphas(int pix_y) { }
+
+    @Override
+    public void setAndClearRelativeAlphas(int[] alphaDeltas, int pix_y,
+                                          int pix_from, int pix_to)
+    {
+        final int to = pix_to - x;
+        final int len = ((to <= w) ? to : w) + 1;
+        final int r = pix_y - area.y;
+        final int[] row = (r >= 0 && r < area.height) ? coverage[r] : null;
+        int sum = 0;
+        for (int i = 0; i < len; i++) {
+            sum += alphaDeltas[i];
+            alphaDeltas[i] = 0;
+            final int col = x + i - area.x;
+            if (row != null && col >= 0 && col < row.length) {
+                row[col] = sum;
+            }
+        }
+    }
+
+    @Override
+    public void setAndClearRelativeAlphas(int[] blkFlags, int[] alphaDeltas, int pix_y,
+                                          int pix_from, int pix_to)
+    {
+        throw new UnsupportedOperationException();
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package test.com.sun.prism.impl.shape;
+
+import com.sun.javafx.geom.Path2D;
+import com.sun.javafx.geom.Rectangle;
+import com.sun.javafx.geom.transform.Affine2D;
+import com.sun.javafx.geom.transform.BaseTransform;
+import com.sun.marlin.DMarlinRenderer;
+import com.sun.marlin.DMarlinRenderingEngine;
+import com.sun.marlin.DRendererContext;
+import com.sun.marlin.MarlinRenderer;
+import com.sun.marlin.MarlinRenderingEngine;
+import com.sun.marlin.RendererContext;
+import com.sun.prism.BasicStroke;
+import com.sun.prism.impl.shape.DMarlinPrismUtils;
+import com.sun.prism.impl.shape.MarlinPrismUtils;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Checks that rendering an area as several horizontal bands sharing the same
+ * edge origin gives exactly the coverage of the whole area rendered at once,
+ * as required by the tiled rasterization of the SW pipeline.
+ */
+public class MarlinBandRasterizationTest {
+
+    private static final Rectangle AREA = new Rectangle(3, 5, 200, 180);
+    private static final int[] BAND_HEIGHTS = { 1, 7, 16, 61 };
+
+    private static Path2D createPath() {
+        Path2D path = new Path2D();
+        path.moveTo(10.3f, 170.7f);
+        path.lineTo(97.1f, 2.2f);
+        path.lineTo(190.6f, 160.9f);
+        path.quadTo(40.2f, 20.5f, 12.1f, 90.4f);
+        path.curveTo(150.8f, 50.1f, 60.3f, 250.6f, 180.2f, 120.3f);
+        path.closePath();
+        path.moveTo(50.5f, 50.5f);
+        path.lineTo(51.7f, 177.3f);
+        path.lineTo(49.1f, 80.9f);
+        path.closePath();
+        return path;
+    }
+
+    private static BaseTransform createTransform() {
+        Affine2D tx = new Affine2D();
+        tx.translate(7.3, -4.1);
+        tx.rotate(0.13, 100, 90);
+        tx.scale(1.05, 0.97);
+        return tx;
+    }
+
+    @Test
+    public void testFillBands() {
+        checkBands(null, true);
+    }
+
+    @Test
+    public void testFillBandsNoAA() {
+        checkBands(null, false);
+    }
+
+    @Test
+    public void testStrokeBands() {
+        checkBands(new BasicStroke(3.7f, BasicStroke.CAP_ROUND, BasicStroke.JOIN_MITER, 10f), true);
+    }
+
+    @Test
+    public void testDashedStrokeBands() {
+        checkBands(new BasicStroke(2.3f, BasicStroke.CAP_BUTT, BasicStroke.JOIN_ROUND, 10f,
+                                   new float[] { 9f, 4.5f }, 1.5f), true);
+    }
+
+    private static void checkBands(BasicStroke stroke, boolean antialiased) {
+        for (boolean dp : new boolean[] { false, true }) {
+            final int[][] expected = render(stroke, antialiased, dp, AREA.height);
+            for (int bandHeight : BAND_HEIGHTS) {
+                final int[][] banded = render(stroke, antialiased, dp, bandHeight);
+                for (int row = 0; row < AREA.height; row++) {
+                    assertArrayEquals("row " + row + ", band height " + bandHeight
+                                      + ", double precision " + dp,
+                                      expected[row], banded[row]);
+                }
+            }
+        }
+    }
+
+    private static int[][] render(BasicStroke stroke, boolean antialiased, boolean dp,
+                                  int bandHeight)
+    {
+        final Path2D path = createPath();
+        final BaseTransform tx = createTransform();
+        final CoverageConsumer consumer = new CoverageConsumer(AREA);
+        final Rectangle band = new Rectangle();
+        for (int y = AREA.y; y < AREA.y + AREA.height; y += bandHeight) {
+            band.setBounds(AREA.x, y, AREA.width,
+                           Math.min(bandHeight, AREA.y + AREA.height - y));
+            if (dp) {
+                final DRendererContext rdrCtx = DMarlinRenderingEngine.getRendererContext();
+                DMarlinRenderer renderer = null;
+                try {
+                    renderer = DMarlinPrismUtils.setupRenderer(rdrCtx, path, stroke, tx,
+                                                               band, AREA.y, antialiased);
+                    consumer.produce(renderer.getOutpixMinX(), renderer.getOutpixMinY(),
+                                     renderer.getOutpixMaxX(), renderer.getOutpixMaxY());
+                    if (consumer.w > 0 && consumer.h > 0) {
+                        renderer.produceAlphas(consumer);
+                    }
+                } finally {
+                    if (renderer != null) {
+                        renderer.dispose();
+                    }
+                    DMarlinRenderingEngine.returnRendererContext(rdrCtx);
+                }
+            } else {
+                final RendererContext rdrCtx = MarlinRenderingEngine.getRendererContext();
+                MarlinRenderer renderer = null;
+                try {
+                    renderer = MarlinPrismUtils.setupRenderer(rdrCtx, path, stroke, tx,
+                                                              band, AREA.y, antialiased);
+                    consumer.produce(renderer.getOutpixMinX(), renderer.getOutpixMinY(),
+                                     renderer.getOutpixMaxX(), renderer.getOutpixMaxY());
+                    if (consumer.w > 0 && consumer.h > 0) {
+                        renderer.produceAlphas(consumer);
+                    }
+                } finally {
+                    if (renderer != null) {
+                        renderer.dispose();
+                    }
+                    MarlinRenderingEngine.returnRendererContext(rdrCtx);
+                }
+            }
+        }
+        return consumer.coverage;
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package test.com.sun.prism.impl.shape;
+
+import com.sun.javafx.geom.Path2D;
+import com.sun.javafx.geom.Rectangle;
+import com.sun.javafx.geom.transform.Affine2D;
+import com.sun.javafx.geom.transform.BaseTransform;
+import com.sun.marlin.DMarlinRenderer;
+import com.sun.marlin.DMarlinRenderingEngine;
+import com.sun.marlin.DRendererContext;
+import com.sun.prism.BasicStroke;
+import com.sun.prism.impl.shape.DMarlinPrismUtils;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Checks that the geometry skipped outside of the clip by the double
+ * precision Marlin pipeline does not change the coverage inside the clip,
+ * by comparing it with the same area rendered inside a clip containing the
+ * whole shape.
+ */
+public class MarlinPathClipTest {
+
+    private static final Rectangle AREA = new Rectangle(100, 50, 120, 90);
+    private static final Rectangle WHOLE = new Rectangle(-1300, -900, 2800, 1900);
+
+    /** A long time series polyline mostly lying outside of AREA. */
+    private static Path2D createPolyline() {
+        Path2D path = new Path2D();
+        path.moveTo(-1100f, 0f);
+        for (double x = -1100; x < 1300; x += 0.37) {
+            path.lineTo((float) x, (float) (95 + 300 * Math.sin(x / 37) + 200 * Math.sin(x / 211)));
+        }
+        return path;
+    }
+
+    /** Large curves crossing the edges of AREA and a subpath outside it. */
+    private static Path2D createCurves() {
+        Path2D path = new Path2D();
+        path.moveTo(-900f, 100f);
+        path.curveTo(400f, -800f, 300f, 700f, 1200f, 80f);
+        path.quadTo(150f, 800f, -700f, -300f);
+        path.lineTo(160f, 90f);
+        path.curveTo(-600f, 600f, 900f, 600f, 180f, -500f);
+        path.closePath();
+        path.moveTo(-500f, -500f);
+        path.quadTo(-200f, -800f, -100f, -400f);
+        path.lineTo(-300f, -200f);
+        path.closePath();
+        path.moveTo(130f, 70f);
+        path.lineTo(200f, 75f);
+        path.lineTo(150f, 130f);
+        path.closePath();
+        return path;
+    }
+
+    private static BaseTransform[] createTransforms() {
+        Affine2D rotated = new Affine2D();
+        rotated.rotate(0.21, 160, 95);
+        rotated.scale(1.3, 1.3);
+        Affine2D sheared = new Affine2D();
+        sheared.scale(1.7, 0.6);
+        sheared.shear(0.3, 0);
+        return new BaseTransform[] { BaseTransform.IDENTITY_TRANSFORM, rotated, sheared };
+    }
+
+    private static final BasicStroke[] STROKES = {
+        null,
+        new BasicStroke(2.5f, BasicStroke.CAP_SQUARE, BasicStroke.JOIN_MITER, 10f),
+        new BasicStroke(7f, BasicStroke.CAP_ROUND, BasicStroke.JOIN_ROUND, 10f),
+        new BasicStroke(3f, BasicStroke.CAP_BUTT, BasicStroke.JOIN_BEVEL, 10f,
+                        new float[] { 17f, 6.5f }, 2.5f),
+    };
+
+    @Test
+    public void testPolyline() {
+        checkClip(createPolyline(), true);
+    }
+
+    @Test
+    public void testPolylineNoAA() {
+        checkClip(createPolyline(), false);
+    }
+
+    @Test
+    public void testCurves() {
+        checkClip(createCurves(), true);
+    }
+
+    @Test
+    public void testCurvesNoAA() {
+        checkClip(createCurves(), false);
+    }
+
+    private static void checkClip(Path2D path, boolean antialiased) {
+        for (BaseTransform tx : createTransforms()) {
+            for (BasicStroke stroke : STROKES) {
+                final int[][] expected = render(path, stroke, tx, WHOLE, antialiased);
+                final int[][] clipped = render(path, stroke, tx, AREA, antialiased);
+                for (int row = 0; row < AREA.height; row++) {
+                    assertArrayEquals("row " + row + ", transform " + tx + ", stroke " + stroke,
+                                      expected[row], clipped[row]);
+                }
+            }
+        }
+    }
+
+    private static int[][] render(Path2D path, BasicStroke stroke, BaseTransform tx,
+                                  Rectangle clip, boolean antialiased)
+    {
+        final CoverageConsumer consumer = new CoverageConsumer(AREA);
+        final DRendererContext rdrCtx = DMarlinRenderingEngine.getRendererContext();
+        DMarlinRenderer renderer = null;
+        try {
+            renderer = DMarlinPrismUtils.setupRenderer(rdrCtx, path, stroke, tx,
+                                                       new Rectangle(clip), antialiased);
+            consumer.produce(renderer.getOutpixMinX(), renderer.getOutpixMinY(),
+                             renderer.getOutpixMaxX(), renderer.getOutpixMaxY());
+            if (consumer.w > 0 && consumer.h > 0) {
+                renderer.produceAlphas(consumer);
+            }
+        } finally {
+            if (renderer != null) {
+                renderer.dispose();
+            }
+            DMarlinRenderingEngine.returnRendererContext(rdrCtx);
+        }
+        return consumer.coverage;
+    }
+}
@@ -0,0 +1,243 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package test.com.sun.prism.sw;
+
+import com.sun.javafx.geom.Ellipse2D;
+import com.sun.javafx.geom.Path2D;
+import com.sun.javafx.geom.Rectangle;
+import com.sun.javafx.geom.Shape;
+import com.sun.javafx.geom.transform.Affine2D;
+import com.sun.javafx.geom.transform.BaseTransform;
+import com.sun.marlin.MarlinConst;
+import com.sun.pisces.JavaSurface;
+import com.sun.pisces.PiscesRenderer;
+import com.sun.pisces.RendererBase;
+import com.sun.prism.BasicStroke;
+import com.sun.prism.sw.SWTiledShapeRendererShim;
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Renders tall shapes as several bands rasterized by worker threads and
+ * checks that the pixels are exactly those of the rendering in one pass.
+ */
+public class SWTiledShapeRendererTest {
+
+    private static final int WIDTH = 160;
+    private static final int HEIGHT = 600;
+    private static final int MAX_BANDS = 4;
+    private static final int TILE_HEIGHT = 16;
+
+    @BeforeClass
+    public static void loadLibrary() {
+        SWTiledShapeRendererShim.loadLibrary();
+    }
+
+    private static Path2D createPath() {
+        Path2D path = new Path2D();
+        path.moveTo(10.3f, 590.7f);
+        path.lineTo(80.1f, 2.2f);
+        path.lineTo(150.6f, 560.9f);
+        path.quadTo(40.2f, 120.5f, 12.1f, 390.4f);
+        path.curveTo(150.8f, 50.1f, 60.3f, 650.6f, 140.2f, 320.3f);
+        path.closePath();
+        path.moveTo(50.5f, 50.5f);
+        path.lineTo(51.7f, 577.3f);
+        path.lineTo(49.1f, 280.9f);
+        path.closePath();
+        return path;
+    }
+
+    /**
+     * Creates thin slivers whose long edges start above the clip and cross
+     * every band boundary. With the even-odd rule, each crossing shows in
+     * the coverage, including the drift of edges stepped from the top of
+     * their band instead of the top of the clip.
+     */
+    private static Path2D createSlivers() {
+        final Random rnd = new Random(4242);
+        Path2D path = new Path2D(Path2D.WIND_EVEN_ODD);
+        for (int i = 0; i < 1000; i++) {
+            float x0 = rnd.nextFloat() * 200f - 20f;
+            float x1 = rnd.nextFloat() * 200f - 20f;
+            float w = rnd.nextFloat() * 0.9f + 0.05f;
+            float y0 = -rnd.nextFloat() * 3000f;
+            float y1 = HEIGHT + rnd.nextFloat() * 3000f;
+            path.moveTo(x0, y0);
+            path.lineTo(x1, y1);
+            path.lineTo(x1 + w, y1);
+            path.lineTo(x0 + w, y0);
+            path.closePath();
+        }
+        return path;
+    }
+
+    private static BaseTransform createTransform() {
+        Affine2D tx = new Affine2D();
+        tx.translate(3.3, -2.1);
+        tx.rotate(0.05, 80, 300);
+        tx.scale(1.02, 0.99);
+        return tx;
+    }
+
+    private static int[] render(int maxBands, boolean doublePrecision, Shape shape,
+                                BasicStroke stroke, BaseTransform tx, Rectangle clip,
+                                boolean antialiased)
+    {
+        final int[] pixels = new int[WIDTH * HEIGHT];
+        final PiscesRenderer pr = new PiscesRenderer(
+                new JavaSurface(pixels, RendererBase.TYPE_INT_ARGB_PRE, WIDTH, HEIGHT));
+        pr.setClip(clip.x, clip.y, clip.width, clip.height);
+        pr.setColor(255, 255, 255, 255);
+        final SWTiledShapeRendererShim renderer =
+                new SWTiledShapeRendererShim(doublePrecision, maxBands, TILE_HEIGHT);
+        try {
+            renderer.renderShape(pr, shape, stroke, tx, clip, antialiased);
+        } finally {
+            renderer.dispose();
+        }
+        return pixels;
+    }
+
+    private static void checkBands(boolean doublePrecision, Shape shape, BasicStroke stroke,
+                                   BaseTransform tx, Rectangle clip, boolean antialiased)
+    {
+        final int[] expected = render(0, doublePrecision, shape, stroke, tx, clip, antialiased);
+        final int[] actual = render(MAX_BANDS, doublePrecision, shape, stroke, tx, clip,
+                                    antialiased);
+
+        // the shape reaches into the first and the last band
+        int top = HEIGHT, bottom = -1;
+        for (int y = 0; y < HEIGHT; y++) {
+            for (int x = 0; x < WIDTH; x++) {
+                if (expected[y * WIDTH + x] != 0) {
+                    top = Math.min(top, y);
+                    bottom = y;
+                }
+            }
+        }
+        assertTrue(top < clip.y + clip.height / MAX_BANDS);
+        assertTrue(bottom >= clip.y + clip.height - clip.height / MAX_BANDS);
+
+        for (int y = 0; y < HEIGHT; y++) {
+            for (int x = 0; x < WIDTH; x++) {
+                assertEquals("pixel (" + x + ", " + y + ")",
+                             expected[y * WIDTH + x], actual[y * WIDTH + x]);
+            }
+        }
+    }
+
+    private static final Rectangle CLIP = new Rectangle(0, 0, WIDTH, HEIGHT);
+
+    @Test
+    public void testFill() {
+        checkBands(false, createPath(), null, createTransform(), CLIP, true);
+    }
+
+    @Test
+    public void testFillNonAntialiased() {
+        checkBands(false, createPath(), null, createTransform(), CLIP, false);
+    }
+
+    @Test
+    public void testStroke() {
+        checkBands(false, createPath(),
+                   new BasicStroke(3.5f, BasicStroke.CAP_ROUND, BasicStroke.JOIN_MITER, 4f),
+                   createTransform(), CLIP, true);
+    }
+
+    @Test
+    public void testDashedStroke() {
+        checkBands(false, new Ellipse2D(10, 5, 140, 590),
+                   new BasicStroke(BasicStroke.TYPE_CENTERED, 2f, BasicStroke.CAP_BUTT,
+                                   BasicStroke.JOIN_BEVEL, 10f, new float[] { 7f, 3f }, 1.5f),
+                   createTransform(), CLIP, true);
+    }
+
+    @Test
+    public void testFillLongEdges() {
+        checkBands(false, createSlivers(), null, BaseTransform.IDENTITY_TRANSFORM, CLIP, true);
+    }
+
+    @Test
+    public void testFillClipped() {
+        checkBands(false, createPath(), null, createTransform(),
+                   new Rectangle(7, 33, 130, 511), true);
+    }
+
+    @Test
+    public void testDoublePrecisionFill() {
+        checkBands(true, createPath(), null, createTransform(), CLIP, true);
+    }
+
+    @Test
+    public void testDoublePrecisionFillLongEdges() {
+        checkBands(true, createSlivers(), null, BaseTransform.IDENTITY_TRANSFORM, CLIP, true);
+    }
+
+    @Test
+    public void testDoublePrecisionStroke() {
+        checkBands(true, createPath(),
+                   new BasicStroke(3.5f, BasicStroke.CAP_ROUND, BasicStroke.JOIN_MITER, 4f),
+                   createTransform(), CLIP, true);
+    }
+    private static int[] emitRow(boolean blockFlags, int[] blkFlags) {
+        final int[] pixels = new int[WIDTH];
+        final PiscesRenderer pr = new PiscesRenderer(
+                new JavaSurface(pixels, RendererBase.TYPE_INT_ARGB_PRE, WIDTH, 1));
+        pr.setColor(255, 255, 255, 255);
+        final int x = 5;
+        final int w = 120;
+        final int[] alphaDeltas = new int[w + 2];
+        alphaDeltas[3] = 100;
+        alphaDeltas[17] = 155;
+        alphaDeltas[60] = -155;
+        alphaDeltas[101] = -100;
+        SWTiledShapeRendererShim.recordAndEmitRow(pr, x, w, blockFlags ? blkFlags : null,
+                                                  alphaDeltas, 0, x + 3, x + 101);
+        for (int i = 0; i < alphaDeltas.length; i++) {
+            assertEquals("alpha delta " + i, 0, alphaDeltas[i]);
+        }
+        return pixels;
+    }
+
+    @Test
+    public void testRecordRowWithBlockFlags() {
+        // the flags Marlin may set for the row, up to the end block:
+        final int[] blkFlags = new int[(101 >> MarlinConst.BLOCK_SIZE_LG) + 2];
+        Arrays.fill(blkFlags, 1);
+        final int[] expected = emitRow(false, null);
+        final int[] actual = emitRow(true, blkFlags);
+        assertNotEquals(0, expected[30]);
+        assertArrayEquals(expected, actual);
+        for (int i = 0; i < blkFlags.length; i++) {
+            assertEquals("block flag " + i, 0, blkFlags[i]);
+        }
+    }
+}
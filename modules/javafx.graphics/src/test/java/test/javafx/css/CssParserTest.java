@@ -49,6 +49,7 @@ import javafx.scene.paint.Color;
 import javafx.scene.paint.LinearGradient;
 import javafx.scene.paint.Paint;
 import javafx.scene.paint.Stop;
+import javafx.scene.shape.Rectangle;
 import javafx.scene.text.Font;
 import javafx.util.Duration;
 import org.junit.Test;
@@ -315,4 +316,54 @@ public class CssParserTest {
         observed = value.convert(null);
         assertEquals(Duration.INDEFINITE, observed);
     }
+
+    @Test public void testParseInlineStyleMatchesParse() {
+
+        final String[] styles = {
+            "-fx-fill: red; -fx-stroke-width: 2px;",
+            "-fx-fill: rgb(10, 20, 30); -fx-stroke: derive(#336699, 20%);;",
+            "-fx-fill: linear-gradient(to right, red 0%, blue 100%)",
+            "-fx-fill: red !important; -fx-stroke: \"blue\"",
+            "-my-color: red; -fx-fill: -my-color",
+            "-fx-stroke-width: 1px 2px; -fx-opacity: 0.5"
+        };
+
+        final Rectangle node = new Rectangle();
+        for (String style : styles) {
+            node.setStyle(style);
+            final Stylesheet inline = new CssParser().parseInlineStyle(node);
+            final Stylesheet parsed = new CssParser().parse("*{" + style + "}");
+
+            final List<Declaration> expected = parsed.getRules().get(0).getDeclarations();
+            final List<Declaration> observed = inline.getRules().get(0).getDeclarations();
+            assertEquals(style, expected.size(), observed.size());
+            for (int n = 0; n < expected.size(); n++) {
+                final Declaration e = expected.get(n);
+                final Declaration o = observed.get(n);
+                assertEquals(style, e.getProperty(), o.getProperty());
+                assertEquals(style, e.isImportant(), o.isImportant());
+                assertEquals(style, e.getParsedValue().isContainsLookups(), o.getParsedValue().isContainsLookups());
+                if (!e.getParsedValue().isContainsLookups()) {
+                    assertTrue(style, Arrays.deepEquals(new Object[] { e.getParsedValue().convert(null) },
+                                                         new Object[] { o.getParsedValue().convert(null) }));
+                }
+            }
+        }
+    }
+
+    @Test public void testParseInlineStyleSharesValues() {
+
+        final Rectangle node = new Rectangle();
+        node.setStyle("-fx-fill: #123456; -fx-stroke-width: 3px");
+        final Rule first = new CssParser().parseInlineStyle(node).getRules().get(0);
+        node.setStyle("-fx-stroke-width:3px;-fx-fill:#123456;");
+        final Rule second = new CssParser().parseInlineStyle(node).getRules().get(0);
+
+        assertSame(first.getDeclarations().get(0).getParsedValue(),
+                   second.getDeclarations().get(1).getParsedValue());
+        assertSame(first.getDeclarations().get(1).getParsedValue(),
+                   second.getDeclarations().get(0).getParsedValue());
+        assertNotSame(first.getDeclarations().get(0), second.getDeclarations().get(1));
+        assertNotSame(first.getSelectors().get(0), second.getSelectors().get(0));
+    }
 }
@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2017, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 2 only, as
+ * published by the Free Software Foundation.  Oracle designates this
+ * particular file as subject to the "Classpath" exception as provided
+ * by Oracle in the LICENSE file that accompanied this code.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 2 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 2 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+
+package test.javafx.css;
+
+import com.sun.javafx.css.StyleManager;
+import java.io.IOException;
+import javafx.css.CssParser;
+import javafx.css.PseudoClass;
+import javafx.css.Stylesheet;
+import javafx.scene.CssStyleHelperShim;
+import javafx.scene.Group;
+import javafx.scene.Scene;
+import javafx.scene.effect.DropShadow;
+import javafx.scene.shape.Rectangle;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class Node_cssParallel_Test {
+
+    private static final int NUM_CLASSES = 12;
+    private static final PseudoClass SELECTED = PseudoClass.getPseudoClass("selected");
+
+    @Before
+    public void setUp() throws IOException {
+        StyleManager sm = StyleManager.getInstance();
+        sm.userAgentStylesheetContainers.clear();
+        sm.platformUserAgentStylesheetContainers.clear();
+        sm.stylesheetContainerMap.clear();
+        sm.cacheContainerMap.clear();
+        sm.hasDefaultUserAgentStylesheet = false;
+
+        // gradients and effects go through the caches shared by the converters
+        final StringBuilder css = new StringBuilder();
+        for (int n = 0; n < NUM_CLASSES; n++) {
+            css.append(".c").append(n).append(" {")
+               .append(" -fx-fill: linear-gradient(to bottom, #").append(String.format("%02x", n * 20)).append("0000, blue);")
+               .append(" -fx-stroke: rgb(0, ").append(n * 20).append(", 0);")
+               .append(" -fx-effect: dropshadow(gaussian, red, ").append(n + 1).append(", 0, 0, 0);")
+               .append(" }\n");
+        }
+        css.append(".root:selected { -fx-opacity: 0.5; }\n");
+        css.append(".root:selected .rect { -fx-stroke-width: 5; }\n");
+        final Stylesheet stylesheet = new CssParser().parse("Node_cssParallel_Test", css.toString());
+        sm.setDefaultUserAgentStylesheet(stylesheet);
+    }
+
+    private static Group createRoot() {
+        final Group root = new Group();
+        for (int n = 0; n < NUM_CLASSES; n++) {
+            final Rectangle rect = new Rectangle(10, 10);
+            rect.getStyleClass().addAll("rect", "c" + n);
+            // some in a nested Group, which is prefetched with its parent
+            if (n % 2 == 0) {
+                root.getChildren().add(rect);
+            } else {
+                root.getChildren().add(new Group(rect));
+            }
+        }
+        new Scene(root);
+        root.applyCss();
+        // the children now need cache entries for the new states
+        root.pseudoClassStateChanged(SELECTED, true);
+        return root;
+    }
+
+    private static Rectangle getRect(Group root, int n) {
+        final Object child = root.getChildren().get(n);
+        return (Rectangle)(child instanceof Group ? ((Group)child).getChildren().get(0) : child);
+    }
+
+    @Test
+    public void testPrefetchedStylesMatchSequentialStyles() {
+
+        final Group parallelRoot = createRoot();
+        assertTrue(CssStyleHelperShim.prefetch(parallelRoot) >= NUM_CLASSES);
+        parallelRoot.applyCss();
+
+        final Group sequentialRoot = createRoot();
+        sequentialRoot.applyCss();
+
+        for (int n = 0; n < NUM_CLASSES; n++) {
+            final Rectangle parallel = getRect(parallelRoot, n);
+            final Rectangle sequential = getRect(sequentialRoot, n);
+            assertEquals(sequential.getFill(), parallel.getFill());
+            assertEquals(sequential.getStroke(), parallel.getStroke());
+            assertEquals(5, parallel.getStrokeWidth(), 1e-6);
+            final DropShadow parallelShadow = (DropShadow)parallel.getEffect();
+            final DropShadow sequentialShadow = (DropShadow)sequential.getEffect();
+            assertEquals(n + 1, parallelShadow.getRadius(), 1e-6);
+            assertEquals(sequentialShadow.getColor(), parallelShadow.getColor());
+        }
+    }
+
+    @Test
+    public void testPrefetchSkipsCachedEntries() {
+
+        final Group root = createRoot();
+        assertTrue(CssStyleHelperShim.prefetch(root) > 0);
+        assertEquals(0, CssStyleHelperShim.prefetch(root));
+
+        root.applyCss();
+        root.pseudoClassStateChanged(SELECTED, false);
+        assertEquals(0, CssStyleHelperShim.prefetch(root));
+    }
+}
@@ -27,11 +27,18 @@ package test.javafx.css;
 
 
 import com.sun.javafx.css.StyleManager;
+import com.sun.javafx.tk.Toolkit;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 import javafx.css.CssMetaData;
 import javafx.css.CssParser;
 import javafx.css.PseudoClass;
+import javafx.css.Styleable;
 import javafx.css.StyleableProperty;
 import javafx.css.Stylesheet;
 import javafx.scene.Group;
@@ -39,6 +46,7 @@ import javafx.scene.Scene;
 import javafx.scene.paint.Color;
 import javafx.scene.paint.Paint;
 import javafx.scene.shape.Rectangle;
+import javafx.stage.Stage;
 import static org.junit.Assert.*;
 
 import org.junit.Before;
@@ -202,4 +210,163 @@ public class Node_cssStateTransition_Test {
 
     }
 
+    @Test
+    public void testOnlyDependentPropertiesChangeOnPseudoClassStateChangeInPulse() {
+
+        Stylesheet stylesheet = null;
+        try {
+            stylesheet = new CssParser().parse(
+                "testOnlyDependentPropertiesChangeOnPseudoClassStateChangeInPulse",
+                ".parent { -fx-base: red; }" +
+                ".parent:hover { -fx-base: blue; }" +
+                ".rect { -fx-fill: -fx-base; -fx-stroke: yellow; -fx-stroke-width: 3px; }" +
+                ".parent:focused .rect { -fx-stroke-width: 5px; }" +
+                ".rect:hover { -fx-stroke: green; }"
+            );
+        } catch(IOException ioe) {
+            fail();
+        }
+
+        StyledRectangle rect = new StyledRectangle(50,50);
+        rect.getStyleClass().add("rect");
+
+        Group parent = new Group(rect);
+        parent.getStyleClass().add("parent");
+
+        Group root = new Group(parent);
+        StyleManager.getInstance().setDefaultUserAgentStylesheet(stylesheet);
+
+        Scene scene = new Scene(root);
+        Stage stage = new Stage();
+        stage.setScene(scene);
+        stage.show();
+
+        Toolkit.getToolkit().firePulse();
+
+        assertEquals(Color.RED, rect.getFill());
+        assertEquals(Color.YELLOW, rect.getStroke());
+        assertEquals(3d, rect.getStrokeWidth(), 1e-6);
+
+        // looked-up value depends on the state of the parent
+        parent.pseudoClassStateChanged(PseudoClass.getPseudoClass("hover"), true);
+        Toolkit.getToolkit().firePulse();
+
+        assertEquals(Color.BLUE, rect.getFill());
+        assertEquals(Color.YELLOW, rect.getStroke());
+        assertEquals(3d, rect.getStrokeWidth(), 1e-6);
+
+        parent.pseudoClassStateChanged(PseudoClass.getPseudoClass("focused"), true);
+        rect.pseudoClassStateChanged(PseudoClass.getPseudoClass("hover"), true);
+        Toolkit.getToolkit().firePulse();
+
+        assertEquals(Color.BLUE, rect.getFill());
+        assertEquals(Color.GREEN, rect.getStroke());
+        assertEquals(5d, rect.getStrokeWidth(), 1e-6);
+
+        parent.pseudoClassStateChanged(PseudoClass.getPseudoClass("hover"), false);
+        Toolkit.getToolkit().firePulse();
+
+        assertEquals(Color.RED, rect.getFill());
+        assertEquals(Color.GREEN, rect.getStroke());
+        assertEquals(5d, rect.getStrokeWidth(), 1e-6);
+
+        parent.pseudoClassStateChanged(PseudoClass.getPseudoClass("focused"), false);
+        rect.pseudoClassStateChanged(PseudoClass.getPseudoClass("hover"), false);
+        Toolkit.getToolkit().firePulse();
+
+        assertEquals(Color.RED, rect.getFill());
+        assertEquals(Color.YELLOW, rect.getStroke());
+        assertEquals(3d, rect.getStrokeWidth(), 1e-6);
+
+        // The same states again, now the values are in the cache. The
+        // properties which don't depend on the pseudo-classes that changed
+        // are left alone.
+        rect.styledProperties.clear();
+        parent.pseudoClassStateChanged(PseudoClass.getPseudoClass("hover"), true);
+        Toolkit.getToolkit().firePulse();
+
+        assertEquals(Color.BLUE, rect.getFill());
+        assertEquals(Color.YELLOW, rect.getStroke());
+        assertEquals(3d, rect.getStrokeWidth(), 1e-6);
+        assertTrue(rect.styledProperties.contains("-fx-fill"));
+        assertFalse(rect.styledProperties.contains("-fx-stroke-width"));
+
+        rect.styledProperties.clear();
+        parent.pseudoClassStateChanged(PseudoClass.getPseudoClass("focused"), true);
+        rect.pseudoClassStateChanged(PseudoClass.getPseudoClass("hover"), true);
+        Toolkit.getToolkit().firePulse();
+
+        assertEquals(Color.BLUE, rect.getFill());
+        assertEquals(Color.GREEN, rect.getStroke());
+        assertEquals(5d, rect.getStrokeWidth(), 1e-6);
+        assertTrue(rect.styledProperties.contains("-fx-stroke"));
+        assertTrue(rect.styledProperties.contains("-fx-stroke-width"));
+
+        rect.styledProperties.clear();
+        parent.pseudoClassStateChanged(PseudoClass.getPseudoClass("hover"), false);
+        Toolkit.getToolkit().firePulse();
+
+        assertEquals(Color.RED, rect.getFill());
+        assertEquals(Color.GREEN, rect.getStroke());
+        assertEquals(5d, rect.getStrokeWidth(), 1e-6);
+        assertTrue(rect.styledProperties.contains("-fx-fill"));
+        // only the style with :focused sets the stroke width
+        assertFalse(rect.styledProperties.contains("-fx-stroke-width"));
+
+        stage.hide();
+    }
+
+    /*
+     * A Rectangle which records the properties that CSS looked at to style
+     * them, which is done through CssMetaData#getStyleableProperty.
+     */
+    private static final class StyledRectangle extends Rectangle {
+
+        final Set<String> styledProperties = new HashSet<>();
+
+        private final List<CssMetaData<? extends Styleable, ?>> cssMetaData;
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        StyledRectangle(double width, double height) {
+            super(width, height);
+            final List<CssMetaData<? extends Styleable, ?>> list = new ArrayList<>();
+            for (CssMetaData metaData : Rectangle.getClassCssMetaData()) {
+                list.add(new StyledCssMetaData(metaData));
+            }
+            cssMetaData = Collections.unmodifiableList(list);
+        }
+
+        @Override
+        public List<CssMetaData<? extends Styleable, ?>> getCssMetaData() {
+            return cssMetaData;
+        }
+
+        private final class StyledCssMetaData<V> extends CssMetaData<Rectangle, V> {
+
+            private final CssMetaData<Rectangle, V> metaData;
+
+            StyledCssMetaData(CssMetaData<Rectangle, V> metaData) {
+                super(metaData.getProperty(), metaData.getConverter(), null,
+                        metaData.isInherits(), metaData.getSubProperties());
+                this.metaData = metaData;
+            }
+
+            @Override
+            public boolean isSettable(Rectangle node) {
+                return metaData.isSettable(node);
+            }
+
+            @Override
+            public StyleableProperty<V> getStyleableProperty(Rectangle node) {
+                styledProperties.add(getProperty());
+                return metaData.getStyleableProperty(node);
+            }
+
+            @Override
+            public V getInitialValue(Rectangle node) {
+                return metaData.getInitialValue(node);
+            }
+        }
+    }
+
 }
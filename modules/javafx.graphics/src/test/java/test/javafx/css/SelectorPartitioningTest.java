@@ -208,6 +208,84 @@ public class SelectorPartitioningTest {
         }
     }
 
+    @Test
+    public void testMatchAfterPartition() {
+
+        SimpleSelector simple = (data instanceof SimpleData)
+                ? ((SimpleData)data).selector
+                : ((ComplexData)data).selector;
+        int expected = (data instanceof SimpleData) ? 1 : ((ComplexData)data).matches;
+
+        // the selectors matched before partitioning must not be reused
+        List<Selector> matched = instance.match(simple.getId(), simple.getName(), simple.getStyleClassSet());
+        assertTrue(matched.isEmpty());
+
+        Stylesheet stylesheet =
+                new CssParser().parse(data.stylesheetText);
+
+        for (Rule rule : stylesheet.getRules()) {
+            for (Selector selector : RuleShim.getUnobservedSelectorList(rule)) {
+                instance.partition(selector);
+            }
+        }
+
+        matched = instance.match(simple.getId(), simple.getName(), simple.getStyleClassSet());
+        assertEquals(expected, matched.size());
+        assertSame(matched, instance.match(simple.getId(), simple.getName(), simple.getStyleClassSet()));
+    }
+
+    @Test
+    public void testMatchWithUnusedIdsSharesResult() {
+
+        SimpleSelector simple = (data instanceof SimpleData)
+                ? ((SimpleData)data).selector
+                : ((ComplexData)data).selector;
+
+        Stylesheet stylesheet =
+                new CssParser().parse(data.stylesheetText);
+
+        for (Rule rule : stylesheet.getRules()) {
+            for (Selector selector : RuleShim.getUnobservedSelectorList(rule)) {
+                instance.partition(selector);
+            }
+        }
+
+        // no selector uses these ids, so they match like a node without id
+        List<Selector> matched = instance.match(null, simple.getName(), simple.getStyleClassSet());
+        assertSame(matched, instance.match("unused1", simple.getName(), simple.getStyleClassSet()));
+        assertSame(matched, instance.match("unused2", simple.getName(), simple.getStyleClassSet()));
+
+        String id = simple.getId();
+        if (id != null && !id.isEmpty()) {
+            List<Selector> matchedById = instance.match(id, simple.getName(), simple.getStyleClassSet());
+            assertNotSame(matched, matchedById);
+            assertTrue(matchedById.size() > matched.size());
+        }
+    }
+
+    @Test
+    public void testMatchesAreBounded() {
+
+        Stylesheet stylesheet =
+                new CssParser().parse(data.stylesheetText);
+
+        for (Rule rule : stylesheet.getRules()) {
+            for (Selector selector : RuleShim.getUnobservedSelectorList(rule)) {
+                instance.partition(selector);
+            }
+        }
+
+        List<Selector> matched = instance.match(null, "T0", null);
+        assertSame(matched, instance.match(null, "T0", null));
+        for (int n = 1; n <= 1000; n++) {
+            instance.match(null, "T" + n, null);
+        }
+        // the least recently used result has been dropped and is matched again
+        List<Selector> rematched = instance.match(null, "T0", null);
+        assertNotSame(matched, rematched);
+        assertEquals(matched, rematched);
+    }
+
     private void testWithSimpleData(SimpleData simpleData, Stylesheet stylesheet) {
 
         SimpleSelector simple = simpleData.selector;
@@ -25,6 +25,10 @@
 
 package test.javafx.css;
 
+import com.sun.javafx.css.SelectorIndex;
+import com.sun.javafx.css.SelectorPartitioning;
+import com.sun.javafx.css.StyleClassSet;
+import com.sun.javafx.css.StylesheetHelper;
 import javafx.css.StyleConverter.StringStore;
 import javafx.css.converter.EnumConverter;
 import javafx.css.converter.StringConverter;
@@ -38,9 +42,11 @@ import java.io.FileWriter;
 import java.io.IOException;
 import java.net.URISyntaxException;
 import java.net.URL;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Locale;
+import java.util.Set;
 import javafx.css.CssParser;
 import javafx.css.Declaration;
 import javafx.css.ParsedValue;
@@ -48,6 +54,7 @@ import javafx.css.Rule;
 import javafx.css.RuleShim;
 import javafx.css.Selector;
 import javafx.css.SimpleSelector;
+import javafx.css.StyleClass;
 import javafx.css.StyleConverter;
 import javafx.css.StyleOrigin;
 import javafx.css.StyleableProperty;
@@ -636,4 +643,110 @@ public class StylesheetTest {
         }
     }
 
+    private static Set<StyleClass> styleClasses(String... names) {
+        final StyleClassSet set = new StyleClassSet();
+        for (String name : names) {
+            set.add(StyleClassSet.getStyleClass(name));
+        }
+        return set;
+    }
+
+    private static List<String> describe(List<Selector> selectors) {
+        final List<String> result = new ArrayList<>();
+        for (Selector selector : selectors) {
+            result.add(selector.getOrdinal() + " " + selector + " "
+                    + selector.getRule().getDeclarations());
+        }
+        return result;
+    }
+
+    @Test
+    public void testLoadBinaryDecodesRulesWhenTheyMatch() {
+        try {
+            File source = File.createTempFile("lazy_", "css");
+            FileWriter writer = new FileWriter(source);
+            writer.write(".a { -fx-fill: red; }\n"
+                    + "B.c, #d { -fx-fill: blue; }\n"
+                    + "B .e:hover { -fx-stroke: red; }\n"
+                    + "B#f.e.g { -fx-opacity: 0.5; }\n"
+                    + "* { -fx-stroke-width: 2; }\n");
+            writer.flush();
+            writer.close();
+            File target = File.createTempFile("lazy_", "bss");
+            Stylesheet.convertToBinary(source, target);
+
+            final Stylesheet parsed = new CssParser().parse(source.toURI().toURL());
+            final SelectorPartitioning expected = new SelectorPartitioning();
+            for (Rule rule : parsed.getRules()) {
+                for (Selector selector : rule.getSelectors()) {
+                    expected.partition(selector);
+                }
+            }
+
+            final Stylesheet loaded = Stylesheet.loadBinary(target.toURI().toURL());
+            final SelectorIndex index = StylesheetHelper.getSelectorIndex(loaded);
+            assertNotNull(index);
+            assertEquals(6, index.size());
+            assertEquals(5, StylesheetShim.getUndecodedRuleCount(loaded));
+            final SelectorPartitioning actual = new SelectorPartitioning();
+            actual.partition(index);
+            assertEquals(5, StylesheetShim.getUndecodedRuleCount(loaded));
+
+            // B.c and * match
+            final List<Selector> matched = actual.match(null, "B", styleClasses("c"));
+            assertEquals(describe(expected.match(null, "B", styleClasses("c"))), describe(matched));
+            assertEquals(2, matched.size());
+            assertEquals(3, StylesheetShim.getUndecodedRuleCount(loaded));
+
+            assertEquals(describe(expected.match("f", "B", styleClasses("e", "g"))),
+                         describe(actual.match("f", "B", styleClasses("e", "g"))));
+            assertEquals(describe(expected.match("d", "C", styleClasses("a"))),
+                         describe(actual.match("d", "C", styleClasses("a"))));
+            assertEquals(0, StylesheetShim.getUndecodedRuleCount(loaded));
+
+            // the rules list has the decoded rules, and can no longer be
+            // partitioned from the index
+            final List<Rule> rules = loaded.getRules();
+            assertNull(StylesheetHelper.getSelectorIndex(loaded));
+            assertEquals(5, rules.size());
+            for (int n = 0; n < rules.size(); n++) {
+                assertEquals(describe(parsed.getRules().get(n).getSelectors()),
+                             describe(rules.get(n).getSelectors()));
+            }
+            assertSame(rules.get(1), matched.get(0).getRule());
+            assertSame(rules.get(4), matched.get(1).getRule());
+            for (Rule rule : rules) {
+                assertSame(loaded, rule.getStylesheet());
+            }
+        } catch (IOException e) {
+            fail(e.toString());
+        }
+    }
+
+    @Test
+    public void testGetRulesOfBinaryStylesheetDecodesAllRules() {
+        try {
+            File source = File.createTempFile("lazy_", "css");
+            FileWriter writer = new FileWriter(source);
+            writer.write(".a { -fx-fill: red; } .b, .c { -fx-fill: blue; }");
+            writer.flush();
+            writer.close();
+            File target = File.createTempFile("lazy_", "bss");
+            Stylesheet.convertToBinary(source, target);
+
+            final Stylesheet loaded = Stylesheet.loadBinary(target.toURI().toURL());
+            assertNotNull(StylesheetHelper.getSelectorIndex(loaded));
+            assertEquals(2, loaded.getRules().size());
+            assertEquals(0, StylesheetShim.getUndecodedRuleCount(loaded));
+            assertNull(StylesheetHelper.getSelectorIndex(loaded));
+            final List<Rule> expected = new CssParser().parse(source.toURI().toURL()).getRules();
+            for (int n = 0; n < expected.size(); n++) {
+                assertEquals(describe(expected.get(n).getSelectors()),
+                             describe(loaded.getRules().get(n).getSelectors()));
+            }
+        } catch (IOException e) {
+            fail(e.toString());
+        }
+    }
+
 }